@@ -0,0 +1,329 @@
+package tyvrel.mag.controller;
+
+import tyvrel.mag.core.concurrent.DaemonThreadFactory;
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.dimensioning.ContinuousCrossSectionsFactory;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsListener;
+import tyvrel.mag.core.factory.dimensioning.ParetoFront;
+import tyvrel.mag.core.factory.dimensioning.TracingCrossSectionsFactory;
+import tyvrel.mag.core.io.ColumnarResultWriter;
+import tyvrel.mag.core.io.CrossSectionExporter;
+import tyvrel.mag.core.io.DesignInputTextFormat;
+import tyvrel.mag.core.io.ProjectFile;
+import tyvrel.mag.core.model.DesignInput;
+import tyvrel.mag.core.monitor.CandidateTraceSink;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Designs cross sections without user interface. Reads design input text file (see {@link DesignInputTextFormat})
+ * or project file (see {@link ProjectFile}), calculates cross sections on all processors and writes each accepted
+ * cross section as soon as it is calculated (see {@link CrossSectionExporter}), optionally compressed with gzip, or
+ * into memory-mapped result store (see {@link tyvrel.mag.core.io.ColumnarResultStore}). If objectives are given,
+ * only cross sections of their Pareto front are kept in memory (see {@link ParetoFront}) and written after the
+ * search. In continuous mode only the cheapest cross section of every combination of concrete class and diameters
+ * is searched for (see {@link ContinuousCrossSectionsFactory}). If trace file is given, traces of all candidates of
+ * grid search are written into it (see {@link CandidateTraceSink}).
+ * <p>
+ * Grid search only reports cross sections to the listeners (see {@link CrossSectionsFactory#search()}), so they
+ * aren't collected and cache of results, which stores whole results, isn't used.
+ * <p>
+ * Usage: {@code input-file [-o output-file] [-f csv|ndjson|store] [-z] [-t threads] [-p price,h,steel,bars]
+ * [-m grid|continuous] [-trace trace-file]}
+ */
+public class BatchRun {
+	/**
+	 * Exit code of successful run
+	 */
+	public static final int SUCCESS = 0;
+	/**
+	 * Exit code of run, which didn't find any cross section meeting the requirements
+	 */
+	public static final int NO_FEASIBLE_SECTION = 1;
+	/**
+	 * Exit code of run with improper arguments or design input
+	 */
+	public static final int INPUT_ERROR = 2;
+	/**
+	 * Exit code of run, which failed during calculation or writing
+	 */
+	public static final int FAILURE = 3;
+
+	private static final int STORE = -1;
+	private static final int TRACE_CAPACITY = 65536;
+
+	private final PrintStream err;
+	private ParetoFront paretoFront;
+	private boolean continuous;
+	private CandidateTraceSink traceSink;
+
+	/**
+	 * Creates an instance of the run
+	 *
+	 * @param err stream, to which errors are reported
+	 */
+	public BatchRun(PrintStream err) {
+		this.err = err;
+	}
+
+	public static void main(String... strings) {
+		System.exit(new BatchRun(System.err).run(strings));
+	}
+
+	/**
+	 * Runs design of the arguments and returns exit code. Any throwable escaping the design, including errors like
+	 * {@link OutOfMemoryError}, is reported and returns {@link #FAILURE}, so a crash isn't mistaken for {@link
+	 * #NO_FEASIBLE_SECTION}.
+	 *
+	 * @param strings arguments
+	 * @return exit code
+	 */
+	public int run(String... strings) {
+		try {
+			return execute(strings);
+		} catch (Throwable e) {
+			err.println("Design failed: " + e);
+			return FAILURE;
+		}
+	}
+
+	/**
+	 * Runs design of the arguments and returns exit code
+	 *
+	 * @param strings arguments
+	 * @return exit code
+	 */
+	protected int execute(String... strings) {
+		String inputFile = null;
+		String outputFile = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int format = CrossSectionExporter.CSV;
+		boolean gzip = false;
+		int[] objectives = null;
+		String traceFile = null;
+		try {
+			for (int i = 0; i < strings.length; i++) {
+				switch (strings[i]) {
+					case "-o":
+						outputFile = strings[++i];
+						break;
+					case "-f":
+						format = parseFormat(strings[++i]);
+						break;
+					case "-z":
+						gzip = true;
+						break;
+					case "-t":
+						threads = Integer.parseInt(strings[++i]);
+						if (threads <= 0) throw new IllegalArgumentException("threads has to be positive");
+						break;
+					case "-p":
+						objectives = parseObjectives(strings[++i]);
+						break;
+					case "-m":
+						continuous = parseMode(strings[++i]);
+						break;
+					case "-trace":
+						traceFile = strings[++i];
+						break;
+					default:
+						if (inputFile != null) throw new IllegalArgumentException("Unknown argument " + strings[i]);
+						inputFile = strings[i];
+				}
+			}
+			if (inputFile == null) throw new IllegalArgumentException("Missing input file");
+			if (format == STORE && (outputFile == null || gzip))
+				throw new IllegalArgumentException("store format requires uncompressed output file");
+			if (continuous && traceFile != null) throw new IllegalArgumentException("trace requires grid mode");
+		} catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			err.println("Improper arguments: " + e.getMessage());
+			err.println("Usage: input-file [-o output-file] [-f csv|ndjson|store] [-z] [-t threads] " +
+					"[-p price,h,steel,bars] [-m grid|continuous] [-trace trace-file]");
+			return INPUT_ERROR;
+		}
+
+		DesignInput designInput;
+		try {
+			designInput = readDesignInput(new File(inputFile));
+		} catch (IOException | ImproperDataException e) {
+			err.println("Improper design input: " + e.getMessage());
+			return INPUT_ERROR;
+		}
+		if (objectives != null) paretoFront = new ParetoFront(designInput.getPriceList(), objectives);
+		if (traceFile != null) {
+			try {
+				traceSink = new CandidateTraceSink(new OutputStreamWriter(new FileOutputStream(traceFile),
+						StandardCharsets.UTF_8), TRACE_CAPACITY, 1, CandidateTraceSink.ANY_VERDICT);
+			} catch (IOException e) {
+				err.println("Improper trace file: " + e.getMessage());
+				return INPUT_ERROR;
+			}
+		}
+
+		int exitCode = write(designInput, outputFile, format, gzip, threads);
+		return traceSink == null ? exitCode : closeTraceSink(exitCode);
+	}
+
+	private int write(DesignInput designInput, String outputFile, int format, boolean gzip, int threads) {
+		if (format == STORE) {
+			try (ColumnarResultWriter writer = new ColumnarResultWriter(new File(outputFile),
+					designInput.getConcreteClasses(), designInput.getPriceList())) {
+				return store(designInput, writer, threads);
+			} catch (IOException | ImproperDataException | LSException | RuntimeException e) {
+				err.println("Design failed: " + e);
+				return FAILURE;
+			}
+		}
+		try (CrossSectionExporter exporter = CrossSectionExporter.open(outputFile == null
+				? new FileOutputStream(FileDescriptor.out)
+				: new FileOutputStream(outputFile), format, gzip, designInput)) {
+			return design(designInput, exporter, threads);
+		} catch (IOException | ImproperDataException | LSException | RuntimeException e) {
+			err.println("Design failed: " + e);
+			return FAILURE;
+		}
+	}
+
+	private int closeTraceSink(int exitCode) {
+		try {
+			traceSink.close();
+			if (traceSink.getDropped() > 0) err.println("Traces dropped: " + traceSink.getDropped());
+			return exitCode;
+		} catch (IOException e) {
+			err.println("Trace failed: " + e);
+			return FAILURE;
+		}
+	}
+
+	private static int parseFormat(String format) {
+		switch (format) {
+			case "csv":
+				return CrossSectionExporter.CSV;
+			case "ndjson":
+				return CrossSectionExporter.NDJSON;
+			case "store":
+				return STORE;
+			default:
+				throw new IllegalArgumentException("Unknown format " + format);
+		}
+	}
+
+	private static boolean parseMode(String mode) {
+		switch (mode) {
+			case "grid":
+				return false;
+			case "continuous":
+				return true;
+			default:
+				throw new IllegalArgumentException("Unknown mode " + mode);
+		}
+	}
+
+	private static int[] parseObjectives(String objectives) {
+		String[] names = objectives.split(",");
+		int[] parsedObjectives = new int[names.length];
+		for (int i = 0; i < names.length; i++) parsedObjectives[i] = ParetoFront.parseObjective(names[i].trim());
+		ParetoFront.validate(parsedObjectives);
+		return parsedObjectives;
+	}
+
+	/**
+	 * Reads design input from the file
+	 *
+	 * @param file file
+	 * @return design input
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if design input is improper
+	 */
+	protected DesignInput readDesignInput(File file) throws IOException, ImproperDataException {
+		return ProjectFile.read(file);
+	}
+
+	/**
+	 * Calculates cross sections, exports them and returns exit code. Without objectives each cross section is written
+	 * as soon as it is accepted and isn't kept afterwards.
+	 *
+	 * @param designInput design input
+	 * @param exporter    exporter, to which accepted cross sections are written
+	 * @param threads     number of calculating threads
+	 * @return exit code
+	 * @throws IOException           if writing failed
+	 * @throws ImproperDataException if calculation failed
+	 * @throws LSException           if calculation failed
+	 */
+	protected int design(DesignInput designInput, CrossSectionExporter exporter, int threads) throws IOException,
+			ImproperDataException, LSException {
+		if (paretoFront == null) {
+			calculate(designInput, exporter, threads);
+		} else {
+			calculate(designInput, paretoFront, threads);
+			for (ParetoFront.Member member : paretoFront.getMembers()) exporter.write(member.getCrossSection());
+		}
+		exporter.close();
+		return exporter.getWritten() == 0 ? NO_FEASIBLE_SECTION : SUCCESS;
+	}
+
+	/**
+	 * Calculates cross sections, stores them in columnar result store and returns exit code
+	 *
+	 * @param designInput design input
+	 * @param writer      writer of the store, to which accepted cross sections are written
+	 * @param threads     number of calculating threads
+	 * @return exit code
+	 * @throws IOException           if writing failed
+	 * @throws ImproperDataException if calculation failed
+	 * @throws LSException           if calculation failed
+	 */
+	protected int store(DesignInput designInput, ColumnarResultWriter writer, int threads) throws IOException,
+			ImproperDataException, LSException {
+		if (paretoFront == null) {
+			calculate(designInput, writer, threads);
+		} else {
+			calculate(designInput, paretoFront, threads);
+			for (ParetoFront.Member member : paretoFront.getMembers()) writer.write(member.getCrossSection());
+		}
+		writer.close();
+		return writer.size() == 0 ? NO_FEASIBLE_SECTION : SUCCESS;
+	}
+
+	/**
+	 * Calculates cross sections on the threads, notifying the listener. Cross sections of grid search aren't
+	 * collected, so they are kept only by the listener.
+	 *
+	 * @param designInput design input
+	 * @param listener    listener
+	 * @param threads     number of calculating threads
+	 * @throws ImproperDataException if calculation failed
+	 * @throws LSException           if calculation failed
+	 */
+	protected void calculate(DesignInput designInput, CrossSectionsListener listener, int threads) throws
+			ImproperDataException, LSException {
+		ExecutorService executorService = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("design-"));
+		try {
+			if (continuous) {
+				ContinuousCrossSectionsFactory continuousCrossSectionsFactory =
+						new ContinuousCrossSectionsFactory(designInput);
+				continuousCrossSectionsFactory.addListener(listener);
+				continuousCrossSectionsFactory.setExecutorService(executorService);
+				continuousCrossSectionsFactory.build();
+			} else {
+				CrossSectionsFactory crossSectionsFactory = traceSink == null
+						? new CrossSectionsFactory(designInput)
+						: new TracingCrossSectionsFactory(traceSink, designInput);
+				crossSectionsFactory.addListener(listener);
+				crossSectionsFactory.setExecutorService(executorService);
+				crossSectionsFactory.search();
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+}
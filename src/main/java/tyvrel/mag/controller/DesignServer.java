@@ -0,0 +1,449 @@
+package tyvrel.mag.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tyvrel.mag.core.concurrent.DaemonThreadFactory;
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.dimensioning.CandidateMemo;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsListener;
+import tyvrel.mag.core.io.CrossSectionExporter;
+import tyvrel.mag.core.io.Json;
+import tyvrel.mag.core.io.ProjectFile;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.DesignInput;
+import tyvrel.mag.core.monitor.CacheStatistics;
+import tyvrel.mag.core.monitor.EngineMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Embedded HTTP server designing cross sections on demand. Endpoints:
+ * <ul>
+ * <li>{@code POST /design} with JSON project (see {@link ProjectFile}) of at most {@value #MAX_BODY_SIZE} bytes
+ * responds with accepted cross sections as NDJSON (see {@link CrossSectionExporter}), compressed if client accepts
+ * gzip. Rows are written as soon as cross sections are accepted. Design input, which can't be parsed, is answered with
+ * 400, one, which fails the search before any row is written, with 422.</li>
+ * <li>{@code GET /health} responds with JSON of state of the server and {@link EngineMetrics}</li>
+ * </ul>
+ * Exchanges are handled by bounded pool, design request, which would take its last handler, is answered with 503.
+ * Searches are admitted to bounded pool, request exceeding its queue is answered with 503. Slices of all searches are
+ * calculated on single shared pool of workers. Concurrent requests with equal design input are coalesced into single
+ * search, which keeps cross sections accepted so far, so request joining it later receives them first.
+ * <p>
+ * Usage: {@code [-p port] [-t threads] [-s searches] [-q queue] [-h handlers]}, port 0 binds any free port
+ */
+@SuppressWarnings("WeakerAccess")
+public class DesignServer {
+	/**
+	 * Default port
+	 */
+	public static final int DEFAULT_PORT = 8080;
+	/**
+	 * Maximal size of body of design request in bytes
+	 */
+	public static final int MAX_BODY_SIZE = 1024 * 1024;
+
+	private final HttpServer httpServer;
+	private final ExecutorService workers;
+	private final ThreadPoolExecutor searches;
+	private final ExecutorService handlers;
+	private final Semaphore designHandlers;
+	private final ConcurrentMap<DesignInput, Search> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * Creates the server bound to the address. Server has to be started.
+	 *
+	 * @param address  address, port 0 binds any free port
+	 * @param threads  number of workers calculating slices of all searches
+	 * @param searches maximal number of concurrently running searches
+	 * @param queue    maximal number of searches waiting for start
+	 * @param handlers number of threads handling exchanges, at least 2
+	 * @throws IOException if binding failed
+	 */
+	public DesignServer(InetSocketAddress address, int threads, int searches, int queue, int handlers) throws
+			IOException {
+		if (threads <= 0 || searches <= 0 || queue < 0 || handlers < 2)
+			throw new IllegalArgumentException("Improper size of pools");
+		workers = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("design-worker-"));
+		this.searches = new ThreadPoolExecutor(searches, searches, 0, TimeUnit.MILLISECONDS,
+				queue == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queue),
+				new DaemonThreadFactory("design-search-"), new ThreadPoolExecutor.AbortPolicy());
+		this.handlers = new ThreadPoolExecutor(handlers, handlers, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), new DaemonThreadFactory("design-http-"));
+		designHandlers = new Semaphore(handlers - 1);
+		httpServer = HttpServer.create(address, 0);
+		httpServer.setExecutor(this.handlers);
+		httpServer.createContext("/design", this::handleDesign);
+		httpServer.createContext("/health", this::handleHealth);
+	}
+
+	public static void main(String... strings) {
+		int port = DEFAULT_PORT;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int searches = 2;
+		int queue = 16;
+		int handlers = 32;
+		try {
+			for (int i = 0; i < strings.length; i++) {
+				switch (strings[i]) {
+					case "-p":
+						port = Integer.parseInt(strings[++i]);
+						break;
+					case "-t":
+						threads = Integer.parseInt(strings[++i]);
+						break;
+					case "-s":
+						searches = Integer.parseInt(strings[++i]);
+						break;
+					case "-q":
+						queue = Integer.parseInt(strings[++i]);
+						break;
+					case "-h":
+						handlers = Integer.parseInt(strings[++i]);
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown argument " + strings[i]);
+				}
+			}
+			DesignServer designServer = new DesignServer(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+					port), threads, searches, queue, handlers);
+			designServer.start();
+			System.out.println("Listening on http://localhost:" + designServer.getPort());
+		} catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			System.err.println("Improper arguments: " + e.getMessage());
+			System.err.println("Usage: serve [-p port] [-t threads] [-s searches] [-q queue] [-h handlers]");
+			System.exit(BatchRun.INPUT_ERROR);
+		} catch (IOException e) {
+			System.err.println("Starting server failed: " + e);
+			System.exit(BatchRun.FAILURE);
+		}
+	}
+
+	/**
+	 * Starts the server
+	 */
+	public void start() {
+		httpServer.start();
+	}
+
+	/**
+	 * Stops the server, waiting for exchanges in progress at most given time, and cancels searches
+	 *
+	 * @param delay maximal time of waiting in seconds
+	 */
+	public void stop(int delay) {
+		httpServer.stop(delay);
+		searches.shutdownNow();
+		workers.shutdownNow();
+		handlers.shutdownNow();
+	}
+
+	/**
+	 * Returns port, on which the server listens
+	 *
+	 * @return port
+	 */
+	public int getPort() {
+		return httpServer.getAddress().getPort();
+	}
+
+	/**
+	 * Reports accepted cross sections of the design input to the listener, joining search in progress with equal
+	 * input or starting new one. Listener joining search in progress is first notified about cross sections accepted
+	 * so far. Listener is notified by the search threads, but never concurrently.
+	 *
+	 * @param designInput design input
+	 * @param listener    listener notified about accepted cross sections
+	 * @return future completed, when the search ends
+	 * @throws RejectedExecutionException if search can't be admitted
+	 */
+	protected CompletableFuture<Void> design(DesignInput designInput, CrossSectionsListener listener) {
+		boolean[] started = new boolean[1];
+		Search search = inFlight.computeIfAbsent(designInput, key -> {
+			started[0] = true;
+			Search newSearch = new Search();
+			searches.execute(() -> newSearch.run(key));
+			return newSearch;
+		});
+		search.join(listener);
+		if (started[0]) search.completion.whenComplete((result, throwable) -> inFlight.remove(designInput, search));
+		else coalesced.increment();
+		return search.completion;
+	}
+
+	/**
+	 * Searches cross sections of the design input on shared workers, reporting them to the listener
+	 *
+	 * @param designInput design input
+	 * @param listener    listener
+	 * @throws ImproperDataException if search failed or was interrupted
+	 * @throws LSException           if search failed
+	 */
+	protected void search(DesignInput designInput, CrossSectionsListener listener) throws ImproperDataException,
+			LSException {
+		CrossSectionsFactory crossSectionsFactory = new CrossSectionsFactory(designInput);
+		crossSectionsFactory.setExecutorService(workers);
+		crossSectionsFactory.setCandidateMemo(CandidateMemo.getDefault());
+		crossSectionsFactory.addListener(listener);
+		crossSectionsFactory.search();
+	}
+
+	private void handleDesign(HttpExchange exchange) throws IOException {
+		requests.increment();
+		if (!designHandlers.tryAcquire()) {
+			try {
+				rejected.increment();
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				sendError(exchange, 503, "Too many requests");
+			} finally {
+				exchange.close();
+			}
+			return;
+		}
+		try {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", "POST");
+				sendError(exchange, 405, "Method not allowed");
+				return;
+			}
+			byte[] body = readBody(exchange);
+			if (body == null) {
+				sendError(exchange, 413, "Request body exceeds " + MAX_BODY_SIZE + " bytes");
+				return;
+			}
+			DesignInput designInput;
+			try {
+				designInput = ProjectFile.readJson(new InputStreamReader(new ByteArrayInputStream(body),
+						StandardCharsets.UTF_8));
+			} catch (ImproperDataException e) {
+				sendError(exchange, 400, "Improper design input: " + e.getMessage());
+				return;
+			}
+			Response response = new Response(exchange, accepts(exchange, "gzip"), designInput);
+			try {
+				design(designInput, response).get();
+			} catch (RejectedExecutionException e) {
+				rejected.increment();
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				sendError(exchange, 503, "Too many searches");
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (!response.isStarted()) sendError(exchange, 503, "Server is stopping");
+				return;
+			} catch (ExecutionException e) {
+				if (response.isStarted()) return;
+				if (e.getCause() instanceof ImproperDataException)
+					sendError(exchange, 422, "Design input can't be designed: " + e.getCause().getMessage());
+				else sendError(exchange, 500, "Design failed: " + e.getCause());
+				return;
+			}
+			response.finish();
+		} finally {
+			designHandlers.release();
+			exchange.close();
+		}
+	}
+
+	private static byte[] readBody(HttpExchange exchange) throws IOException {
+		String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+		try {
+			if (contentLength != null && Long.parseLong(contentLength.trim()) > MAX_BODY_SIZE) return null;
+		} catch (NumberFormatException e) {
+			// length is checked while reading
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		InputStream in = exchange.getRequestBody();
+		for (int n; (n = in.read(buffer)) >= 0; ) {
+			if (out.size() + n > MAX_BODY_SIZE) return null;
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+	private void handleHealth(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", "GET");
+				sendError(exchange, 405, "Method not allowed");
+				return;
+			}
+			EngineMetrics metrics = EngineMetrics.getInstance();
+			StringBuilder sb = new StringBuilder("{\"status\":\"ok\"");
+			field(sb, "requests", requests.sum());
+			field(sb, "coalescedRequests", coalesced.sum());
+			field(sb, "rejectedRequests", rejected.sum());
+			field(sb, "searchesInFlight", inFlight.size());
+			field(sb, "searchesQueued", searches.getQueue().size());
+			field(sb, "searchesActive", searches.getActiveCount());
+			field(sb, "searchesRun", metrics.getSearchesRun());
+			field(sb, "searchesRunning", metrics.getSearchesRunning());
+			field(sb, "candidatesEvaluated", metrics.getCandidatesEvaluated());
+			field(sb, "candidatesAccepted", metrics.getCandidatesAccepted());
+			field(sb, "windowedCandidatesPerSecond", metrics.getWindowedCandidatesPerSecond());
+			field(sb, "windowedAcceptanceRatio", metrics.getWindowedAcceptanceRatio());
+			field(sb, "windowedAverageSearchLatencyMillis", metrics.getWindowedAverageSearchLatencyMillis());
+			sb.append(",\"caches\":{");
+			boolean first = true;
+			for (Map.Entry<String, CacheStatistics> entry : metrics.getCaches().entrySet()) {
+				if (!first) sb.append(',');
+				first = false;
+				Json.quote(sb, entry.getKey()).append(":{\"hits\":").append(entry.getValue().getHits())
+						.append(",\"misses\":").append(entry.getValue().getMisses())
+						.append(",\"evictions\":").append(entry.getValue().getEvictions()).append('}');
+			}
+			sb.append("}}");
+			send(exchange, 200, sb);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static void field(StringBuilder sb, String name, double value) {
+		Json.number(Json.quote(sb.append(','), name).append(':'), value);
+	}
+
+	private static void field(StringBuilder sb, String name, long value) {
+		Json.quote(sb.append(','), name).append(':').append(value);
+	}
+
+	private static boolean accepts(HttpExchange exchange, String encoding) {
+		String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+		if (acceptEncoding == null) return false;
+		for (String value : acceptEncoding.split(",")) {
+			if (value.trim().split(";")[0].trim().equalsIgnoreCase(encoding)) return true;
+		}
+		return false;
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		StringBuilder sb = new StringBuilder("{\"error\":");
+		send(exchange, status, Json.quote(sb, message).append('}'));
+	}
+
+	private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+		byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(bytes);
+		}
+	}
+
+	/**
+	 * Search shared by coalesced requests, which keeps cross sections accepted so far for requests joining later
+	 */
+	private class Search implements CrossSectionsListener {
+		private final CompletableFuture<Void> completion = new CompletableFuture<>();
+		private final List<CrossSection> crossSections = new ArrayList<>();
+		private final List<CrossSectionsListener> listeners = new ArrayList<>();
+
+		private void run(DesignInput designInput) {
+			try {
+				search(designInput, this);
+				completion.complete(null);
+			} catch (Exception | Error e) {
+				completion.completeExceptionally(e);
+			}
+		}
+
+		private synchronized void join(CrossSectionsListener listener) {
+			for (CrossSection crossSection : crossSections) {
+				listener.candidateEvaluated(crossSection, crossSection, null);
+			}
+			listeners.add(listener);
+		}
+
+		@Override
+		public synchronized void candidateEvaluated(CrossSection candidate, CrossSection crossSection,
+		                                            Exception rejection) {
+			if (crossSection == null) return;
+			crossSections.add(crossSection);
+			for (CrossSectionsListener listener : listeners) listener.candidateEvaluated(candidate, crossSection, null);
+		}
+	}
+
+	/**
+	 * NDJSON response of design request, whose headers are sent with the first accepted cross section, so failure of
+	 * the search before it can still be answered with error status
+	 */
+	private static class Response implements CrossSectionsListener {
+		private final HttpExchange exchange;
+		private final boolean gzip;
+		private final DesignInput designInput;
+		private CrossSectionExporter exporter;
+		private boolean failed;
+
+		private Response(HttpExchange exchange, boolean gzip, DesignInput designInput) {
+			this.exchange = exchange;
+			this.gzip = gzip;
+			this.designInput = designInput;
+		}
+
+		@Override
+		public synchronized void candidateEvaluated(CrossSection candidate, CrossSection crossSection,
+		                                            Exception rejection) {
+			if (crossSection == null || failed) return;
+			try {
+				start();
+				exporter.write(crossSection);
+			} catch (IOException e) {
+				// client, which stopped reading, doesn't get further rows
+				failed = true;
+			}
+		}
+
+		private synchronized boolean isStarted() {
+			return exporter != null || failed;
+		}
+
+		private synchronized void finish() throws IOException {
+			if (failed) return;
+			start();
+			exporter.close();
+		}
+
+		private void start() throws IOException {
+			if (exporter != null) return;
+			exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+			if (gzip) exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+			exchange.sendResponseHeaders(200, 0);
+			exporter = CrossSectionExporter.open(exchange.getResponseBody(), CrossSectionExporter.NDJSON, gzip,
+					designInput);
+		}
+	}
+}
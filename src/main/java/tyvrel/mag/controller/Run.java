@@ -3,12 +3,27 @@ package tyvrel.mag.controller;
 
 import tyvrel.mag.gui.component.ApplicationFrame;
 
+import java.util.Arrays;
+
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
  * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Opens user interface or, if arguments are given, runs {@link BatchRun} without loading any AWT classes. If first
+ * argument is {@code serve}, starts {@link DesignServer} with remaining arguments instead, if it is {@code
+ * coordinate} or {@code work}, runs {@link ShardCoordinator} or {@link ShardWorker} of sharded search.
  */
 public class Run {
 	public static void main(String... strings) {
+		if (strings.length > 0) {
+			System.setProperty("java.awt.headless", "true");
+			String[] rest = Arrays.copyOfRange(strings, 1, strings.length);
+			if ("serve".equals(strings[0])) DesignServer.main(rest);
+			else if ("coordinate".equals(strings[0])) ShardCoordinator.main(rest);
+			else if ("work".equals(strings[0])) ShardWorker.main(rest);
+			else BatchRun.main(strings);
+			return;
+		}
 		ApplicationFrame applicationFrame = new ApplicationFrame();
 		applicationFrame.run();
 	}
@@ -0,0 +1,248 @@
+package tyvrel.mag.controller;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.io.CrossSectionExporter;
+import tyvrel.mag.core.io.ProjectFile;
+import tyvrel.mag.core.io.ShardDirectory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.DesignInput;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Coordinator of sharded search. Splits slices of the search into shards of the work directory (see {@link
+ * ShardDirectory}), optionally calculates them with its own {@link ShardWorker}, waits until workers complete all of
+ * them, reclaiming shards of crashed workers, and writes merged cross sections sorted by price (see {@link
+ * CrossSectionExporter}). Work directory of the same design input and number of shards is resumed.
+ * <p>
+ * Usage: {@code work-dir input-file [-n shards] [-o output-file] [-f csv|ndjson] [-z] [-s stale-seconds]
+ * [-w threads]}
+ */
+@SuppressWarnings("WeakerAccess")
+public class ShardCoordinator {
+	/**
+	 * Default number of shards
+	 */
+	public static final int DEFAULT_SHARDS = 64;
+
+	private final ShardDirectory shardDirectory;
+	private final long staleMillis;
+	private final PrintStream err;
+
+	/**
+	 * Creates an instance of the coordinator
+	 *
+	 * @param shardDirectory work directory
+	 * @param staleMillis    time in ms, after which lock without heartbeat is considered abandoned
+	 * @param err            stream, to which progress and errors are reported
+	 */
+	public ShardCoordinator(ShardDirectory shardDirectory, long staleMillis, PrintStream err) {
+		if (staleMillis <= 0) throw new IllegalArgumentException("stale time has to be positive");
+		this.shardDirectory = shardDirectory;
+		this.staleMillis = staleMillis;
+		this.err = err;
+	}
+
+	public static void main(String... strings) {
+		System.exit(run(System.err, strings));
+	}
+
+	/**
+	 * Runs coordinator of the arguments and returns exit code
+	 *
+	 * @param err     stream, to which progress and errors are reported
+	 * @param strings arguments
+	 * @return exit code, see {@link BatchRun}
+	 */
+	public static int run(PrintStream err, String... strings) {
+		String workDirectory = null;
+		String inputFile = null;
+		String outputFile = null;
+		int shards = DEFAULT_SHARDS;
+		int format = CrossSectionExporter.CSV;
+		boolean gzip = false;
+		long staleMillis = ShardWorker.DEFAULT_STALE_MILLIS;
+		int threads = 0;
+		try {
+			for (int i = 0; i < strings.length; i++) {
+				switch (strings[i]) {
+					case "-n":
+						shards = Integer.parseInt(strings[++i]);
+						if (shards <= 0) throw new IllegalArgumentException("shards has to be positive");
+						break;
+					case "-o":
+						outputFile = strings[++i];
+						break;
+					case "-f":
+						format = parseFormat(strings[++i]);
+						break;
+					case "-z":
+						gzip = true;
+						break;
+					case "-s":
+						staleMillis = (long) (Double.parseDouble(strings[++i]) * 1000);
+						if (staleMillis <= 0) throw new IllegalArgumentException("stale time has to be positive");
+						break;
+					case "-w":
+						threads = Integer.parseInt(strings[++i]);
+						if (threads < 0) throw new IllegalArgumentException("threads can't be negative");
+						break;
+					default:
+						if (workDirectory == null) workDirectory = strings[i];
+						else if (inputFile == null) inputFile = strings[i];
+						else throw new IllegalArgumentException("Unknown argument " + strings[i]);
+				}
+			}
+			if (inputFile == null) throw new IllegalArgumentException("Missing work directory or input file");
+		} catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			err.println("Improper arguments: " + e.getMessage());
+			err.println("Usage: work-dir input-file [-n shards] [-o output-file] [-f csv|ndjson] [-z] " +
+					"[-s stale-seconds] [-w threads]");
+			return BatchRun.INPUT_ERROR;
+		}
+
+		DesignInput designInput;
+		try {
+			designInput = ProjectFile.read(new File(inputFile));
+		} catch (IOException | ImproperDataException e) {
+			err.println("Improper design input: " + e.getMessage());
+			return BatchRun.INPUT_ERROR;
+		}
+		ShardDirectory shardDirectory = new ShardDirectory(new File(workDirectory));
+		ShardCoordinator coordinator = new ShardCoordinator(shardDirectory, staleMillis, err);
+		CrossSection[] crossSections;
+		try (CrossSectionExporter exporter = CrossSectionExporter.open(outputFile == null
+				? new FileOutputStream(FileDescriptor.out)
+				: new FileOutputStream(outputFile), format, gzip, designInput)) {
+			shardDirectory.create(designInput, shards);
+			ShardWorker worker = threads == 0 ? null : new ShardWorker(shardDirectory, threads, staleMillis, err);
+			crossSections = coordinator.coordinate(designInput, worker);
+			for (CrossSection crossSection : crossSections) exporter.write(crossSection);
+		} catch (IOException | ImproperDataException | LSException | RuntimeException e) {
+			err.println("Coordination failed: " + e);
+			return BatchRun.FAILURE;
+		}
+		return crossSections.length == 0 ? BatchRun.NO_FEASIBLE_SECTION : BatchRun.SUCCESS;
+	}
+
+	private static int parseFormat(String format) {
+		switch (format) {
+			case "csv":
+				return CrossSectionExporter.CSV;
+			case "ndjson":
+				return CrossSectionExporter.NDJSON;
+			default:
+				throw new IllegalArgumentException("Unknown format " + format);
+		}
+	}
+
+	/**
+	 * Waits until all shards of the work directory are completed and returns merged cross sections
+	 *
+	 * @param designInput design input written to the work directory
+	 * @param worker      worker run by the coordinator or null
+	 * @return cross sections sorted by price
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if result is improper, calculation failed, worker of the coordinator failed before
+	 *                               all shards were completed or waiting was interrupted
+	 * @throws LSException           if calculation failed
+	 */
+	public CrossSection[] coordinate(DesignInput designInput, ShardWorker worker) throws IOException,
+			ImproperDataException, LSException {
+		Thread workerThread = null;
+		AtomicReference<Throwable> workerFailure = new AtomicReference<>();
+		if (worker != null) {
+			workerThread = new Thread(() -> {
+				try {
+					worker.work();
+				} catch (Exception | Error e) {
+					workerFailure.set(e);
+				}
+			}, "shard-coordinator-worker");
+			workerThread.setDaemon(true);
+			workerThread.start();
+		}
+		try {
+			await(workerThread, workerFailure);
+			if (workerThread != null) workerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ImproperDataException(e);
+		} finally {
+			if (worker != null) worker.stop();
+		}
+		if (workerFailure.get() != null) err.println("Worker of the coordinator failed: " + workerFailure.get());
+		return merge(designInput);
+	}
+
+	/**
+	 * Waits until all shards are completed, reclaiming shards of crashed workers and reporting progress. Worker of the
+	 * coordinator ends only after all shards are completed, so waiting is aborted if it ended earlier.
+	 *
+	 * @param workerThread  thread of worker run by the coordinator or null
+	 * @param workerFailure failure of worker run by the coordinator
+	 * @throws InterruptedException  if thread was interrupted
+	 * @throws ImproperDataException if worker of the coordinator ended before all shards were completed
+	 */
+	protected void await(Thread workerThread, AtomicReference<Throwable> workerFailure) throws InterruptedException,
+			ImproperDataException {
+		long pollMillis = Math.max(1, Math.min(1000, staleMillis / 4));
+		int shards = shardDirectory.getShardCount();
+		int reported = -1;
+		while (true) {
+			boolean workerEnded = workerThread != null && !workerThread.isAlive();
+			int reclaimed = shardDirectory.reclaimStale(staleMillis);
+			if (reclaimed > 0) err.println("Reclaimed " + reclaimed + " abandoned shards");
+			int completed = shardDirectory.getCompletedCount();
+			if (completed != reported) {
+				err.println(completed + "/" + shards + " shards completed");
+				reported = completed;
+			}
+			if (completed == shards) return;
+			if (workerEnded) {
+				throw new ImproperDataException("Worker of the coordinator failed with " + completed + "/" + shards +
+						" shards completed", workerFailure.get());
+			}
+			Thread.sleep(pollMillis);
+		}
+	}
+
+	/**
+	 * Reads results of all shards and returns them sorted by price. Cross sections of equal price keep order of the
+	 * search.
+	 *
+	 * @param designInput design input of the search
+	 * @return cross sections sorted by price
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if result is improper
+	 * @throws LSException           if pricing failed
+	 */
+	protected CrossSection[] merge(DesignInput designInput) throws IOException, ImproperDataException,
+			LSException {
+		List<CrossSection> crossSectionList = new ArrayList<>();
+		for (int shard = 0, shards = shardDirectory.getShardCount(); shard < shards; shard++) {
+			crossSectionList.addAll(Arrays.asList(shardDirectory.readResult(shard, designInput)));
+		}
+		CrossSection[] crossSections = crossSectionList.toArray(new CrossSection[0]);
+		double[] prices = new double[crossSections.length];
+		Integer[] order = new Integer[crossSections.length];
+		for (int i = 0; i < crossSections.length; i++) {
+			prices[i] = new PriceFactory(crossSections[i], designInput.getPriceList()).build();
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> prices[i]));
+		CrossSection[] sorted = new CrossSection[crossSections.length];
+		for (int i = 0; i < order.length; i++) sorted[i] = crossSections[order[i]];
+		return sorted;
+	}
+}
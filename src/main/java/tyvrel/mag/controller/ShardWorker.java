@@ -0,0 +1,219 @@
+package tyvrel.mag.controller;
+
+import tyvrel.mag.core.concurrent.DaemonThreadFactory;
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
+import tyvrel.mag.core.io.ShardDirectory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.DesignInput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Worker of sharded search. Each thread repeatedly claims shard of the work directory (see {@link ShardDirectory}),
+ * calculates its slices and writes its result, while claimed shards are kept alive by heartbeat. Worker waits while
+ * remaining shards are claimed by other workers, so it can take over shards of crashed ones, and ends when all
+ * shards are completed.
+ * <p>
+ * Usage: {@code work-dir [-t threads] [-s stale-seconds]}
+ */
+@SuppressWarnings("WeakerAccess")
+public class ShardWorker {
+	/**
+	 * Default time in ms, after which lock without heartbeat is considered abandoned
+	 */
+	public static final long DEFAULT_STALE_MILLIS = 60000;
+
+	private final ShardDirectory shardDirectory;
+	private final int threads;
+	private final long staleMillis;
+	private final PrintStream err;
+	private final Set<ShardDirectory.Shard> claimedShards = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger calculatedShards = new AtomicInteger();
+	private volatile boolean stopped;
+
+	/**
+	 * Creates an instance of the worker
+	 *
+	 * @param shardDirectory work directory
+	 * @param threads        number of shards calculated concurrently
+	 * @param staleMillis    time in ms, after which lock without heartbeat is considered abandoned
+	 * @param err            stream, to which progress and errors are reported
+	 */
+	public ShardWorker(ShardDirectory shardDirectory, int threads, long staleMillis, PrintStream err) {
+		if (threads <= 0) throw new IllegalArgumentException("threads has to be positive");
+		if (staleMillis <= 0) throw new IllegalArgumentException("stale time has to be positive");
+		this.shardDirectory = shardDirectory;
+		this.threads = threads;
+		this.staleMillis = staleMillis;
+		this.err = err;
+	}
+
+	public static void main(String... strings) {
+		System.exit(run(System.err, strings));
+	}
+
+	/**
+	 * Runs worker of the arguments and returns exit code
+	 *
+	 * @param err     stream, to which progress and errors are reported
+	 * @param strings arguments
+	 * @return exit code, see {@link BatchRun}
+	 */
+	public static int run(PrintStream err, String... strings) {
+		String workDirectory = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		long staleMillis = DEFAULT_STALE_MILLIS;
+		try {
+			for (int i = 0; i < strings.length; i++) {
+				switch (strings[i]) {
+					case "-t":
+						threads = Integer.parseInt(strings[++i]);
+						if (threads <= 0) throw new IllegalArgumentException("threads has to be positive");
+						break;
+					case "-s":
+						staleMillis = (long) (Double.parseDouble(strings[++i]) * 1000);
+						if (staleMillis <= 0) throw new IllegalArgumentException("stale time has to be positive");
+						break;
+					default:
+						if (workDirectory != null) throw new IllegalArgumentException("Unknown argument " + strings[i]);
+						workDirectory = strings[i];
+				}
+			}
+			if (workDirectory == null) throw new IllegalArgumentException("Missing work directory");
+		} catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			err.println("Improper arguments: " + e.getMessage());
+			err.println("Usage: work-dir [-t threads] [-s stale-seconds]");
+			return BatchRun.INPUT_ERROR;
+		}
+		try {
+			new ShardWorker(new ShardDirectory(new File(workDirectory)), threads, staleMillis, err).work();
+			return BatchRun.SUCCESS;
+		} catch (ImproperDataException e) {
+			err.println("Improper work directory: " + e.getMessage());
+			return BatchRun.INPUT_ERROR;
+		} catch (IOException | LSException | RuntimeException e) {
+			err.println("Work failed: " + e);
+			return BatchRun.FAILURE;
+		}
+	}
+
+	/**
+	 * Calculates shards until all shards of the work directory are completed or worker is stopped
+	 *
+	 * @return number of shards calculated by this worker
+	 * @throws IOException           if reading or writing failed
+	 * @throws ImproperDataException if design input is improper or calculation failed
+	 * @throws LSException           if calculation failed
+	 */
+	public int work() throws IOException, ImproperDataException, LSException {
+		DesignInput designInput = shardDirectory.readDesignInput();
+		ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+				new DaemonThreadFactory("shard-heartbeat-"));
+		ExecutorService executorService = Executors.newFixedThreadPool(threads,
+				new DaemonThreadFactory("shard-worker-"));
+		try {
+			long heartbeatMillis = Math.max(1, staleMillis / 4);
+			heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis,
+					TimeUnit.MILLISECONDS);
+			List<Future<Void>> futures = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) futures.add(executorService.submit(() -> {
+				workOn(designInput);
+				return null;
+			}));
+			for (Future<Void> future : futures) future.get();
+		} catch (InterruptedException e) {
+			stop();
+			Thread.currentThread().interrupt();
+			throw new ImproperDataException(e);
+		} catch (ExecutionException e) {
+			stop();
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			if (e.getCause() instanceof ImproperDataException) throw (ImproperDataException) e.getCause();
+			if (e.getCause() instanceof LSException) throw (LSException) e.getCause();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new ImproperDataException(e.getCause());
+		} finally {
+			executorService.shutdownNow();
+			heartbeats.shutdownNow();
+		}
+		return calculatedShards.get();
+	}
+
+	/**
+	 * Requests stop of the worker. Shards being calculated are released without result.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Claims and calculates shards in calling thread until all shards are completed or worker is stopped
+	 *
+	 * @param designInput design input of the search
+	 * @throws IOException           if reading or writing failed
+	 * @throws ImproperDataException if calculation failed
+	 * @throws LSException           if calculation failed
+	 * @throws InterruptedException  if thread was interrupted
+	 */
+	protected void workOn(DesignInput designInput) throws IOException, ImproperDataException, LSException,
+			InterruptedException {
+		long pollMillis = Math.max(1, Math.min(1000, staleMillis / 4));
+		while (!stopped) {
+			ShardDirectory.Shard shard = shardDirectory.claim(staleMillis);
+			if (shard == null) {
+				if (shardDirectory.getCompletedCount() == shardDirectory.getShardCount()) return;
+				Thread.sleep(pollMillis);
+				continue;
+			}
+			claimedShards.add(shard);
+			try {
+				CrossSection[] crossSections = calculate(designInput, shard);
+				if (stopped) return;
+				shard.complete(crossSections, designInput);
+				calculatedShards.incrementAndGet();
+				err.println("Shard " + shard.getIndex() + " completed with " + crossSections.length +
+						" cross sections");
+			} finally {
+				claimedShards.remove(shard);
+				shard.close();
+			}
+		}
+	}
+
+	/**
+	 * Calculates cross sections of the shard
+	 *
+	 * @param designInput design input of the search
+	 * @param shard       claimed shard
+	 * @return cross sections in order of the search
+	 * @throws ImproperDataException if calculation failed
+	 * @throws LSException           if calculation failed
+	 */
+	protected CrossSection[] calculate(DesignInput designInput, ShardDirectory.Shard shard) throws
+			ImproperDataException, LSException {
+		return new CrossSectionsFactory(designInput).buildSlices(shard.getFromSlice(), shard.getToSlice());
+	}
+
+	private void heartbeat() {
+		for (ShardDirectory.Shard shard : claimedShards) {
+			try {
+				shard.heartbeat();
+			} catch (IOException e) {
+				err.println("Heartbeat of shard " + shard.getIndex() + " failed: " + e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package tyvrel.mag.controller;
+
+import tyvrel.mag.gui.component.ApplicationFrame;
+import tyvrel.mag.gui.view.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Measures startup of user interface in fresh JVM: time until the menu is visible, warm up of classifications and
+ * construction of each card, which is deferred until its first use. With display classifications are warmed up by
+ * the background thread of {@link ApplicationFrame#run()}, so its time is reported and cards are measured after it
+ * ends. Without display only classifications, cards of single calculations and panels of inputs are measured.
+ * <p>
+ * Usage: {@code java -cp ... tyvrel.mag.controller.StartupBenchmark}
+ */
+public class StartupBenchmark {
+	private final PrintStream out;
+	private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+	/**
+	 * Creates an instance of the benchmark
+	 *
+	 * @param out stream, to which results are reported
+	 */
+	public StartupBenchmark(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String... strings) {
+		int exitCode = BatchRun.SUCCESS;
+		try {
+			new StartupBenchmark(System.out).run();
+		} catch (InterruptedException | InvocationTargetException e) {
+			System.err.println("Benchmark failed: " + e);
+			exitCode = BatchRun.FAILURE;
+		}
+		System.exit(exitCode);
+	}
+
+	/**
+	 * Runs the benchmark
+	 *
+	 * @throws InterruptedException      if the benchmark was interrupted
+	 * @throws InvocationTargetException if constructing user interface failed
+	 */
+	public void run() throws InterruptedException, InvocationTargetException {
+		out.printf("JVM start to main: %d ms%n", System.currentTimeMillis() - jvmStartMillis);
+		if (GraphicsEnvironment.isHeadless()) runHeadless();
+		else runWithFrame();
+	}
+
+	/**
+	 * Measures frame with menu only, background warm up of classifications and then the first opening of each card
+	 *
+	 * @throws InterruptedException      if the benchmark was interrupted
+	 * @throws InvocationTargetException if constructing user interface failed
+	 */
+	protected void runWithFrame() throws InterruptedException, InvocationTargetException {
+		ApplicationFrame[] applicationFrame = new ApplicationFrame[1];
+		long constructionNanos = measure(() -> applicationFrame[0] = new ApplicationFrame());
+		out.printf("Frame with menu: %.1f ms%n", constructionNanos / 1e6);
+		SwingUtilities.invokeAndWait(() -> applicationFrame[0].run());
+		SwingUtilities.invokeAndWait(() -> {
+		});
+		out.printf("JVM start to visible menu: %d ms%n", System.currentTimeMillis() - jvmStartMillis);
+
+		out.printf("Classifications (background): %.1f ms%n", applicationFrame[0].awaitWarmUp() / 1e6);
+		Map<String, Supplier<JComponent>> cardFactories = new LinkedHashMap<>();
+		applicationFrame[0].modifyCardFactories(cardFactories);
+		long deferredNanos = 0;
+		for (String name : cardFactories.keySet()) {
+			long nanos = measure(() -> applicationFrame[0].showCard(name));
+			deferredNanos += nanos;
+			out.printf("Card \"%s\": %.1f ms%n", name, nanos / 1e6);
+		}
+		out.printf("Deferred from startup: %.1f ms%n", deferredNanos / 1e6);
+		SwingUtilities.invokeAndWait(() -> applicationFrame[0].dispose());
+	}
+
+	/**
+	 * Measures classifications, cards of single calculations and panels of inputs without display
+	 *
+	 * @throws InterruptedException      if the benchmark was interrupted
+	 * @throws InvocationTargetException if constructing user interface failed
+	 */
+	protected void runHeadless() throws InterruptedException, InvocationTargetException {
+		out.println("No display, frame is not measured");
+		long deferredNanos = measure(ApplicationFrame::warmUpClassifications);
+		out.printf("Classifications: %.1f ms%n", deferredNanos / 1e6);
+		Map<String, Supplier<JComponent>> cardFactories = new LinkedHashMap<>();
+		cardFactories.put("Materiały", MaterialsPanel::new);
+		cardFactories.put("Inne", OthersPanel::new);
+		cardFactories.put("Obciążenie", LoadsPanel::new);
+		cardFactories.put("Cennik", PricePanel::new);
+		cardFactories.put("Przekrój", CrossSectionsPanel::new);
+		ApplicationFrame.modifyCalculationCardFactories(cardFactories);
+		for (Map.Entry<String, Supplier<JComponent>> entry : cardFactories.entrySet()) {
+			long nanos = measure(() -> entry.getValue().get());
+			deferredNanos += nanos;
+			out.printf("Card \"%s\": %.1f ms%n", entry.getKey(), nanos / 1e6);
+		}
+		out.printf("Deferred from startup: %.1f ms%n", deferredNanos / 1e6);
+	}
+
+	private static long measure(Runnable runnable) throws InterruptedException, InvocationTargetException {
+		long[] nanos = new long[1];
+		SwingUtilities.invokeAndWait(() -> {
+			long start = System.nanoTime();
+			runnable.run();
+			nanos[0] = System.nanoTime() - start;
+		});
+		return nanos[0];
+	}
+}
@@ -0,0 +1,32 @@
+package tyvrel.mag.core.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory of daemon threads, so pools created with it never keep the application alive. Threads are named with the
+ * prefix followed by consecutive numbers starting from 1.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+	private final String prefix;
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param prefix prefix of names of threads
+	 */
+	public DaemonThreadFactory(String prefix) {
+		this.prefix = prefix;
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,144 @@
+package tyvrel.mag.core.exception;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes types of reasons, for which candidate cross section is rejected
+ */
+public abstract class RejectionType {
+	/**
+	 * Data is improper
+	 */
+	public static final int IMPROPER_DATA = 0;
+	/**
+	 * Concrete class is too small, see {@link ConcreteClassTooSmallException}
+	 */
+	public static final int CONCRETE_CLASS = 1;
+	/**
+	 * Height is too small, see {@link HeightTooSmallException}
+	 */
+	public static final int HEIGHT = 2;
+	/**
+	 * Width is too small, see {@link WidthTooSmallException}
+	 */
+	public static final int WIDTH = 3;
+	/**
+	 * Compression is too high, see {@link CompressionTooHighException}
+	 */
+	public static final int COMPRESSION = 4;
+	/**
+	 * Top reinforcement is exceeded, see {@link ForceInReinforcementATooHighException}
+	 */
+	public static final int REINFORCEMENT_A = 5;
+	/**
+	 * Bottom reinforcement is exceeded, see {@link ForceInReinforcementBTooHighException}
+	 */
+	public static final int REINFORCEMENT_B = 6;
+	/**
+	 * Shear reinforcement is exceeded, see {@link ForceInReinforcementSWTooHighException}
+	 */
+	public static final int REINFORCEMENT_SW = 7;
+	/**
+	 * Diameter of shear reinforcement is too high, see {@link ShearReinforcementDiameterTooHighException}
+	 */
+	public static final int SHEAR_REINFORCEMENT_DIAMETER = 8;
+	/**
+	 * Serviceability limit state is exceeded, see {@link SLSException}
+	 */
+	public static final int SLS = 9;
+	/**
+	 * Other ultimate limit state is exceeded, see {@link LSException}
+	 */
+	public static final int ULS = 10;
+	/**
+	 * Number of the types
+	 */
+	public static final int COUNT = 11;
+
+	private static final String[] NAMES = {"improper data", "concrete class", "height", "width", "compression",
+			"reinforcement A", "reinforcement B", "reinforcement SW", "shear reinforcement diameter", "SLS", "ULS"};
+
+	/**
+	 * Returns type of the rejection. As {@link Precondition} wraps limit state exceptions, the most specific
+	 * exception found in the chain of causes is taken into account.
+	 *
+	 * @param throwable reason of the rejection, cannot be null
+	 * @return one of the types
+	 */
+	public static int of(Throwable throwable) {
+		for (Throwable t = throwable; t != null; t = t.getCause()) {
+			int type = ofClass(t);
+			if (type != ULS && type != IMPROPER_DATA) return type;
+		}
+		return ofClass(throwable);
+	}
+
+	/**
+	 * Returns name of the type
+	 *
+	 * @param type type
+	 * @return name of the type
+	 * @throws IllegalArgumentException if type is unknown
+	 */
+	public static String getName(int type) {
+		if (type < 0 || type >= COUNT) throw new IllegalArgumentException("Type " + type + " is unknown");
+		return NAMES[type];
+	}
+
+	/**
+	 * Returns type of the class of the throwable itself without its causes, which decides how the search continues
+	 *
+	 * @param t throwable, cannot be null
+	 * @return one of the types
+	 */
+	public static int ofClass(Throwable t) {
+		if (t instanceof ConcreteClassTooSmallException) return CONCRETE_CLASS;
+		if (t instanceof HeightTooSmallException) return HEIGHT;
+		if (t instanceof WidthTooSmallException) return WIDTH;
+		if (t instanceof CompressionTooHighException) return COMPRESSION;
+		if (t instanceof ForceInReinforcementATooHighException) return REINFORCEMENT_A;
+		if (t instanceof ForceInReinforcementBTooHighException) return REINFORCEMENT_B;
+		if (t instanceof ForceInReinforcementSWTooHighException) return REINFORCEMENT_SW;
+		if (t instanceof ShearReinforcementDiameterTooHighException) return SHEAR_REINFORCEMENT_DIAMETER;
+		if (t instanceof SLSException) return SLS;
+		if (t instanceof LSException) return ULS;
+		return IMPROPER_DATA;
+	}
+
+	/**
+	 * Creates exception without message of the most general class of the type
+	 *
+	 * @param type type
+	 * @return exception, {@link ImproperDataException} or {@link LSException}
+	 * @throws IllegalArgumentException if type is unknown
+	 */
+	public static Exception newException(int type) {
+		switch (type) {
+			case IMPROPER_DATA:
+				return new ImproperDataException();
+			case CONCRETE_CLASS:
+				return new ConcreteClassTooSmallException();
+			case HEIGHT:
+				return new HeightTooSmallException();
+			case WIDTH:
+				return new WidthTooSmallException();
+			case COMPRESSION:
+				return new CompressionTooHighException();
+			case REINFORCEMENT_A:
+				return new ForceInReinforcementATooHighException();
+			case REINFORCEMENT_B:
+				return new ForceInReinforcementBTooHighException();
+			case REINFORCEMENT_SW:
+				return new ForceInReinforcementSWTooHighException();
+			case SHEAR_REINFORCEMENT_DIAMETER:
+				return new ShearReinforcementDiameterTooHighException();
+			case SLS:
+				return new SLSException();
+			case ULS:
+				return new LSException();
+			default:
+				throw new IllegalArgumentException("Type " + type + " is unknown");
+		}
+	}
+}
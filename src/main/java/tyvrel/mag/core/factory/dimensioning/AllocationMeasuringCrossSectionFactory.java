@@ -0,0 +1,112 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.Factors;
+import tyvrel.mag.core.model.Load;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.monitor.AllocationMonitor;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which calculates cross section and records bytes allocated by each of {@link CalculationStage}
+ */
+@SuppressWarnings("WeakerAccess")
+public class AllocationMeasuringCrossSectionFactory extends CrossSectionFactory {
+	private final AllocationMonitor allocationMonitor;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param allocationMonitor monitor, which records allocated bytes
+	 * @param exposureClasses   exposure classes
+	 * @param loads             loads
+	 * @param factors           partial factors
+	 * @param crossSection      cross section
+	 * @param is100yWorkingLife if element is designed for 100 years working life
+	 * @param isQualityEnsured  if special concrete quality control is ensure
+	 * @param isHighAir         if air containment is higher than 4%
+	 * @param dg                maximal diameter of aggregate in m
+	 */
+	public AllocationMeasuringCrossSectionFactory(AllocationMonitor allocationMonitor,
+	                                              ExposureClassification[] exposureClasses, Load[] loads,
+	                                              Factors factors, CrossSection crossSection,
+	                                              boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                              boolean isHighAir, double dg) {
+		super(exposureClasses, loads, factors, crossSection, is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+		this.allocationMonitor = allocationMonitor;
+	}
+
+	@Override
+	protected CrossSection calculateCover(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			return super.calculateCover(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.COVER, start);
+		}
+	}
+
+	@Override
+	protected void validateConcreteClass(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			super.validateConcreteClass(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.CONCRETE_CLASS, start);
+		}
+	}
+
+	@Override
+	protected void validateMaximumPhisw(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			super.validateMaximumPhisw(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.SHEAR_REINFORCEMENT_DIAMETER, start);
+		}
+	}
+
+	@Override
+	protected CrossSection calculateAs(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			return super.calculateAs(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.LONGITUDINAL_REINFORCEMENT, start);
+		}
+	}
+
+	@Override
+	protected CrossSection calculateAsw(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			return super.calculateAsw(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.SHEAR_REINFORCEMENT, start);
+		}
+	}
+
+	@Override
+	protected void validateStressLimitation(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			super.validateStressLimitation(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.STRESS_LIMITATION, start);
+		}
+	}
+
+	@Override
+	protected void validateCrackWidth(CrossSection crossSection) throws ImproperDataException, LSException {
+		long start = allocationMonitor.start();
+		try {
+			super.validateCrackWidth(crossSection);
+		} finally {
+			allocationMonitor.recordStage(CalculationStage.CRACK_WIDTH, start);
+		}
+	}
+}
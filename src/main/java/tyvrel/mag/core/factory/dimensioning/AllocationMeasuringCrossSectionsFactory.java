@@ -0,0 +1,89 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.Factors;
+import tyvrel.mag.core.model.Load;
+import tyvrel.mag.core.model.Range;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.model.classification.Steel;
+import tyvrel.mag.core.monitor.AllocationMonitor;
+import tyvrel.mag.core.monitor.AllocationReport;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which calculates cross sections and records bytes allocated per candidate and per
+ * {@link CalculationStage}. Allocations are read from the per-thread counter of com.sun.management.ThreadMXBean,
+ * so the report is exact only for candidates evaluated on threads supporting it.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AllocationMeasuringCrossSectionsFactory extends CrossSectionsFactory {
+	private final AllocationMonitor allocationMonitor;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param allocationMonitor              monitor, which records allocated bytes
+	 * @param fias                           diameters of top longitudinal reinforcement in m
+	 * @param fibs                           diameters of bottom longitudinal reinforcement in m
+	 * @param fisws                          diameters of shear reinforcement in m
+	 * @param widthRange                     range of width
+	 * @param heightRange                    range of height
+	 * @param concreteClasses                concrete classes
+	 * @param exposureClasses                exposure classes
+	 * @param loads                          loads
+	 * @param longitudinalReinforcementSteel longitudinal reinforcement steel
+	 * @param shearReinforcementSteel        shear reinforcement steel
+	 * @param factors                        partial factors
+	 * @param is100yWorkingLife              if element is designed for 100 years working life
+	 * @param isQualityEnsured               if special concrete quality control is ensure
+	 * @param isHighAir                      if air containment is higher than 4%
+	 * @param dg                             maximal diameter of aggregate in m
+	 */
+	public AllocationMeasuringCrossSectionsFactory(AllocationMonitor allocationMonitor, double[] fias, double[] fibs,
+	                                               double[] fisws, Range widthRange, Range heightRange,
+	                                               ConcreteClassification[] concreteClasses,
+	                                               ExposureClassification[] exposureClasses, Load[] loads,
+	                                               Steel longitudinalReinforcementSteel,
+	                                               Steel shearReinforcementSteel, Factors factors,
+	                                               boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                               boolean isHighAir, double dg) {
+		super(fias, fibs, fisws, widthRange, heightRange, concreteClasses, exposureClasses, loads,
+				longitudinalReinforcementSteel, shearReinforcementSteel, factors, is100yWorkingLife,
+				isQualityEnsured, isHighAir, dg);
+		this.allocationMonitor = allocationMonitor;
+	}
+
+	/**
+	 * Returns report of bytes allocated so far
+	 *
+	 * @return report of bytes allocated so far
+	 */
+	public AllocationReport getAllocationReport() {
+		return allocationMonitor.getReport();
+	}
+
+	@Override
+	protected CrossSection calculateCrossSection(CrossSection crossSection) throws ImproperDataException,
+			LSException {
+		long start = allocationMonitor.start();
+		try {
+			return super.calculateCrossSection(crossSection);
+		} finally {
+			allocationMonitor.recordCandidate(start);
+		}
+	}
+
+	@Override
+	protected CrossSectionFactory createCrossSectionFactory(ExposureClassification[] exposureClasses, Load[] loads,
+	                                                        Factors factors, CrossSection crossSection,
+	                                                        boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                                        boolean isHighAir, double dg) {
+		return new AllocationMeasuringCrossSectionFactory(allocationMonitor, exposureClasses, loads, factors,
+				crossSection, is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+	}
+}
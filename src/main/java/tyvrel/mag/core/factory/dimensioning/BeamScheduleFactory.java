@@ -0,0 +1,242 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.concurrent.DaemonThreadFactory;
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.Factory;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which designs all beams of the schedule. Beams share diameters, concrete classes, exposure classes,
+ * steels, partial factors and price list of the design input, but have their own loads and ranges of dimensions.
+ * <p>
+ * Searches of all beams share single {@link DetailingCache}, so cover, linear creep coefficient and minimal
+ * reinforcement of cross section appearing in many beams are calculated once, and single pool of workers, on which
+ * their slices are calculated. Beams are started from the largest one, so short searches fill the pool at the end.
+ * The cheapest cross section of each beam is returned together with bill of quantities of all of them.
+ */
+@SuppressWarnings("WeakerAccess")
+public class BeamScheduleFactory implements Factory<BeamSchedule> {
+	private static final double STEEL_DENSITY = 7850;
+
+	private final DesignInput designInput;
+	private final Beam[] beams;
+	private final Set<CrossSectionsFactory> runningCrossSectionsFactories = ConcurrentHashMap.newKeySet();
+	private DetailingCache detailingCache = new DetailingCache(DetailingCache.DEFAULT_MAX_SIZE);
+	private ExecutorService executorService;
+	private int beamsInParallel = Runtime.getRuntime().availableProcessors();
+	private volatile boolean cancelled;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param designInput design input shared by the beams, its loads and ranges are ignored
+	 * @param beams       beams
+	 */
+	public BeamScheduleFactory(DesignInput designInput, Beam[] beams) {
+		this.designInput = designInput;
+		this.beams = beams.clone();
+	}
+
+	/**
+	 * Sets pool, on which slices of all beams are calculated. If it isn't set, pool of all processors is created
+	 * for single call of {@link #build()}.
+	 *
+	 * @param executorService pool or null
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Sets cache of load independent stages shared by the beams
+	 *
+	 * @param detailingCache cache
+	 */
+	public void setDetailingCache(DetailingCache detailingCache) {
+		this.detailingCache = Objects.requireNonNull(detailingCache);
+	}
+
+	/**
+	 * Sets maximal number of beams, whose slices are submitted to the pool at the same time
+	 *
+	 * @param beamsInParallel maximal number of beams designed at the same time
+	 */
+	public void setBeamsInParallel(int beamsInParallel) {
+		if (beamsInParallel <= 0) throw new IllegalArgumentException("Number of beams has to be positive");
+		this.beamsInParallel = beamsInParallel;
+	}
+
+	/**
+	 * Requests cancellation. {@link #build()} then returns beams designed so far, others without cross section. The
+	 * request stays until {@link #resetCancellation()}.
+	 */
+	public void cancel() {
+		cancelled = true;
+		for (CrossSectionsFactory crossSectionsFactory : runningCrossSectionsFactories) crossSectionsFactory.cancel();
+	}
+
+	/**
+	 * Withdraws request of cancellation, so the factory designs again. Cancellation requested before start of the
+	 * design isn't withdrawn by the design itself.
+	 */
+	public void resetCancellation() {
+		cancelled = false;
+	}
+
+	/**
+	 * Designs all beams and returns the schedule
+	 *
+	 * @return schedule
+	 * @throws ImproperDataException if data is improper or calculation was interrupted
+	 * @throws LSException           if pricing failed
+	 */
+	@Override
+	public BeamSchedule build() throws ImproperDataException, LSException {
+		ExecutorService workers = executorService == null
+				? Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+				new DaemonThreadFactory("beam-worker-"))
+				: executorService;
+		ExecutorService coordinators = Executors.newFixedThreadPool(Math.max(1, Math.min(beamsInParallel,
+				beams.length)), new DaemonThreadFactory("beam-"));
+		CrossSection[] crossSections = new CrossSection[beams.length];
+		try {
+			Future<?>[] futures = new Future<?>[beams.length];
+			for (int index : largestFirst()) {
+				futures[index] = coordinators.submit(() -> {
+					crossSections[index] = designBeam(beams[index], workers);
+					return null;
+				});
+			}
+			for (Future<?> future : futures) future.get();
+		} catch (InterruptedException e) {
+			cancel();
+			Thread.currentThread().interrupt();
+			throw new ImproperDataException(e);
+		} catch (ExecutionException e) {
+			cancel();
+			if (e.getCause() instanceof ImproperDataException) throw (ImproperDataException) e.getCause();
+			if (e.getCause() instanceof LSException) throw (LSException) e.getCause();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new ImproperDataException(e.getCause());
+		} finally {
+			coordinators.shutdownNow();
+			if (workers != executorService) workers.shutdownNow();
+		}
+		return createSchedule(crossSections);
+	}
+
+	/**
+	 * Returns indexes of beams ordered from the largest search to the smallest one
+	 *
+	 * @return indexes of beams
+	 */
+	protected int[] largestFirst() {
+		long[] sizes = new long[beams.length];
+		Integer[] order = new Integer[beams.length];
+		for (int i = 0; i < beams.length; i++) {
+			sizes[i] = (long) beams[i].getWidthRange().getCount() * beams[i].getHeightRange().getCount() *
+					Math.max(1, beams[i].getLoads().length);
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> -sizes[i]));
+		int[] indexes = new int[order.length];
+		for (int i = 0; i < order.length; i++) indexes[i] = order[i];
+		return indexes;
+	}
+
+	/**
+	 * Designs the beam and returns its cheapest cross section. Cross sections of equal price are chosen in order of
+	 * the search.
+	 *
+	 * @param beam    beam
+	 * @param workers pool, on which slices are calculated
+	 * @return the cheapest cross section or null, if there is none
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if pricing failed
+	 */
+	protected CrossSection designBeam(Beam beam, ExecutorService workers) throws ImproperDataException, LSException {
+		if (cancelled) return null;
+		CrossSectionsFactory crossSectionsFactory = detailingCache.createCrossSectionsFactory(
+				createDesignInput(beam));
+		crossSectionsFactory.setExecutorService(workers);
+		runningCrossSectionsFactories.add(crossSectionsFactory);
+		CrossSection[] crossSections;
+		try {
+			if (cancelled) crossSectionsFactory.cancel();
+			crossSections = crossSectionsFactory.build();
+		} finally {
+			runningCrossSectionsFactories.remove(crossSectionsFactory);
+		}
+		CrossSection cheapest = null;
+		double cheapestPrice = Double.POSITIVE_INFINITY;
+		for (CrossSection crossSection : crossSections) {
+			double price = new PriceFactory(crossSection, designInput.getPriceList()).build();
+			if (price < cheapestPrice) {
+				cheapest = crossSection;
+				cheapestPrice = price;
+			}
+		}
+		return cheapest;
+	}
+
+	/**
+	 * Returns design input of the beam
+	 *
+	 * @param beam beam
+	 * @return design input with loads and ranges of the beam
+	 */
+	protected DesignInput createDesignInput(Beam beam) {
+		return new DesignInput(designInput.getFias(), designInput.getFibs(), designInput.getFisws(),
+				beam.getWidthRange(), beam.getHeightRange(), designInput.getConcreteClasses(),
+				designInput.getExposureClasses(), beam.getLoads(), designInput.getLongitudinalReinforcementSteelType(),
+				designInput.getLongitudinalReinforcementSteel(), designInput.getShearReinforcementSteelType(),
+				designInput.getShearReinforcementSteel(), designInput.getFactors(), designInput.getPriceList(),
+				designInput.is100yWorkingLife(), designInput.isQualityEnsured(), designInput.isHighAir(),
+				designInput.getDg());
+	}
+
+	/**
+	 * Creates schedule of designed beams with bill of quantities
+	 *
+	 * @param crossSections the cheapest cross section of each beam or null
+	 * @return schedule
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if pricing failed
+	 */
+	protected BeamSchedule createSchedule(CrossSection[] crossSections) throws ImproperDataException, LSException {
+		double[] prices = new double[beams.length];
+		Map<String, Double> concreteVolumes = new TreeMap<>();
+		double formworkArea = 0;
+		double longitudinalReinforcementMass = 0;
+		double shearReinforcementMass = 0;
+		double totalPrice = 0;
+		for (int i = 0; i < beams.length; i++) {
+			CrossSection crossSection = crossSections[i];
+			if (crossSection == null) {
+				prices[i] = Double.NaN;
+				continue;
+			}
+			double length = beams[i].getLength();
+			Shape shape = crossSection.getShape();
+			prices[i] = new PriceFactory(crossSection, designInput.getPriceList()).build() * length;
+			concreteVolumes.merge(crossSection.getConcreteClassification().getSymbol(), shape.getA() * length,
+					Double::sum);
+			formworkArea += (shape.getB() + 2 * shape.getH()) * length;
+			longitudinalReinforcementMass += (crossSection.getAs().getAsa().getA() +
+					crossSection.getAs().getAsb().getA()) * STEEL_DENSITY * length;
+			shearReinforcementMass += crossSection.getAsw().getA() * STEEL_DENSITY * length;
+			totalPrice += prices[i];
+		}
+		return new BeamSchedule(beams, crossSections, prices, new BillOfQuantities(concreteVolumes, formworkArea,
+				longitudinalReinforcementMass, shearReinforcementMass, totalPrice));
+	}
+}
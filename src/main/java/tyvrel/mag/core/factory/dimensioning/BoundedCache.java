@@ -0,0 +1,117 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.monitor.CacheStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Bounded in-memory cache safe to use from many threads. Entries are kept in segments with separate locks, each
+ * evicting least recently used entry when full. Hits, misses and evictions are reported to the statistics.
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ */
+class BoundedCache<K, V> {
+	private static final int SEGMENTS = 16;
+
+	private final Segment<K, V>[] segments;
+	private final CacheStatistics statistics;
+
+	/**
+	 * Creates an instance of the cache
+	 *
+	 * @param maxSize    maximal number of entries
+	 * @param statistics statistics of the cache
+	 */
+	BoundedCache(int maxSize, CacheStatistics statistics) {
+		if (maxSize < SEGMENTS) throw new IllegalArgumentException("Size has to be at least " + SEGMENTS);
+		this.statistics = statistics;
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment<>(maxSize / SEGMENTS, statistics);
+		this.segments = segments;
+	}
+
+	/**
+	 * Returns cached value or null
+	 *
+	 * @param key key
+	 * @return value or null
+	 */
+	V get(K key) {
+		Segment<K, V> segment = segment(key);
+		V value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value == null) statistics.miss();
+		else statistics.hit();
+		return value;
+	}
+
+	/**
+	 * Caches the value
+	 *
+	 * @param key   key
+	 * @param value value
+	 */
+	void put(K key, V value) {
+		Segment<K, V> segment = segment(key);
+		synchronized (segment) {
+			segment.put(key, value);
+		}
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	void clear() {
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns number of entries
+	 *
+	 * @return number of entries
+	 */
+	int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	private Segment<K, V> segment(K key) {
+		int hash = key.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+	}
+
+	private static class Segment<K, V> extends LinkedHashMap<K, V> {
+		private final int maxSize;
+		private final CacheStatistics statistics;
+
+		private Segment(int maxSize, CacheStatistics statistics) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+			this.statistics = statistics;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			if (size() <= maxSize) return false;
+			statistics.evict();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes stages of the calculation performed by {@link CrossSectionFactory}
+ */
+public abstract class CalculationStage {
+	/**
+	 * Calculation of the concrete cover
+	 */
+	public static final int COVER = 0;
+	/**
+	 * Validation of the concrete class
+	 */
+	public static final int CONCRETE_CLASS = 1;
+	/**
+	 * Validation of the diameter of shear reinforcement
+	 */
+	public static final int SHEAR_REINFORCEMENT_DIAMETER = 2;
+	/**
+	 * Calculation of the longitudinal reinforcement
+	 */
+	public static final int LONGITUDINAL_REINFORCEMENT = 3;
+	/**
+	 * Calculation of the shear reinforcement
+	 */
+	public static final int SHEAR_REINFORCEMENT = 4;
+	/**
+	 * Validation of the stress limitation
+	 */
+	public static final int STRESS_LIMITATION = 5;
+	/**
+	 * Validation of the crack width
+	 */
+	public static final int CRACK_WIDTH = 6;
+	/**
+	 * Number of the stages
+	 */
+	public static final int COUNT = 7;
+
+	private static final String[] NAMES = {"cover", "concrete class", "shear reinforcement diameter",
+			"longitudinal reinforcement", "shear reinforcement", "stress limitation", "crack width"};
+
+	/**
+	 * Returns name of the stage
+	 *
+	 * @param stage stage
+	 * @return name of the stage
+	 * @throws IllegalArgumentException if stage is unknown
+	 */
+	public static String getName(int stage) {
+		if (stage < 0 || stage >= COUNT) throw new IllegalArgumentException("Stage " + stage + " is unknown");
+		return NAMES[stage];
+	}
+}
@@ -0,0 +1,227 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.RejectionType;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.monitor.EngineMetrics;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Bounded in-memory memo of outcomes of single candidates, accepted cross section or rejection, so search of
+ * extended ranges calculates only new candidates. Outcome is keyed by concrete class, width, height, diameters and
+ * hash of remaining inputs of the search (see {@link CrossSectionsFactory#writeCandidateContext(java.io.DataOutput)})
+ * <p>
+ * Rejection is kept only as its {@link RejectionType}, so the memo doesn't keep exceptions with their stack traces.
+ * Entry of accepted cross section measured about 380 bytes of heap and entry of rejection about 115 bytes, so the
+ * default memo is sized by {@link #ENTRY_BYTES} to {@link #DEFAULT_MAX_BYTES}.
+ * <p>
+ * Least recently used entries are evicted when the memo is full. Hits, misses and evictions are reported to {@link
+ * EngineMetrics} as {@link #STATISTICS_NAME}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CandidateMemo {
+	/**
+	 * Name of statistics of the memo
+	 */
+	public static final String STATISTICS_NAME = "candidate memo";
+	/**
+	 * Upper bound of measured heap size of single entry in bytes
+	 */
+	public static final int ENTRY_BYTES = 400;
+	/**
+	 * Default maximal heap size of the memo in bytes
+	 */
+	public static final int DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+	/**
+	 * Default maximal number of entries
+	 */
+	public static final int DEFAULT_MAX_SIZE = DEFAULT_MAX_BYTES / ENTRY_BYTES;
+
+	private static final CandidateMemo DEFAULT = new CandidateMemo(DEFAULT_MAX_SIZE);
+
+	private final BoundedCache<Key, Outcome> cache;
+
+	/**
+	 * Creates an instance of the memo
+	 *
+	 * @param maxSize maximal number of entries
+	 */
+	public CandidateMemo(int maxSize) {
+		cache = new BoundedCache<>(maxSize, EngineMetrics.getInstance().getCacheStatistics(STATISTICS_NAME));
+	}
+
+	/**
+	 * Returns memo shared by the process
+	 *
+	 * @return memo shared by the process
+	 */
+	public static CandidateMemo getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns memorized outcome or null
+	 *
+	 * @param key key of the candidate
+	 * @return outcome or null
+	 */
+	public Outcome get(Key key) {
+		return cache.get(key);
+	}
+
+	/**
+	 * Memorizes outcome of the candidate
+	 *
+	 * @param key     key of the candidate
+	 * @param outcome outcome
+	 */
+	public void put(Key key, Outcome outcome) {
+		cache.put(key, outcome);
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * Returns number of entries
+	 *
+	 * @return number of entries
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Key of the candidate
+	 */
+	public static class Key {
+		private final String context;
+		private final String concreteClass;
+		private final double b;
+		private final double h;
+		private final double fib;
+		private final double fia;
+		private final double fisw;
+		private final int hash;
+
+		/**
+		 * Creates an instance of the key
+		 *
+		 * @param context       hash of remaining inputs of the search
+		 * @param concreteClass symbol of concrete class
+		 * @param b             width in m
+		 * @param h             height in m
+		 * @param fib           diameter of bottom reinforcement in m
+		 * @param fia           diameter of top reinforcement in m
+		 * @param fisw          diameter of shear reinforcement in m
+		 */
+		public Key(String context, String concreteClass, double b, double h, double fib, double fia, double fisw) {
+			this.context = context;
+			this.concreteClass = concreteClass;
+			this.b = b;
+			this.h = h;
+			this.fib = fib;
+			this.fia = fia;
+			this.fisw = fisw;
+			int result = context.hashCode();
+			result = 31 * result + concreteClass.hashCode();
+			result = 31 * result + Double.hashCode(b);
+			result = 31 * result + Double.hashCode(h);
+			result = 31 * result + Double.hashCode(fib);
+			result = 31 * result + Double.hashCode(fia);
+			result = 31 * result + Double.hashCode(fisw);
+			hash = result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Key key = (Key) o;
+
+			if (hash != key.hash) return false;
+			if (Double.compare(key.b, b) != 0) return false;
+			if (Double.compare(key.h, h) != 0) return false;
+			if (Double.compare(key.fib, fib) != 0) return false;
+			if (Double.compare(key.fia, fia) != 0) return false;
+			if (Double.compare(key.fisw, fisw) != 0) return false;
+			if (!concreteClass.equals(key.concreteClass)) return false;
+			return context.equals(key.context);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Outcome of the candidate, either accepted cross section or rejection. Rejection is kept as type of the class of
+	 * the thrown exception, which decides how the search continues, and type reported to listeners, which may be
+	 * type of its cause (see {@link RejectionType#of(Throwable)}), so outcomes of rejections are shared.
+	 */
+	public static class Outcome {
+		private static final Outcome[] REJECTIONS = new Outcome[RejectionType.COUNT * RejectionType.COUNT];
+
+		static {
+			for (int i = 0; i < REJECTIONS.length; i++) {
+				REJECTIONS[i] = new Outcome(null, i / RejectionType.COUNT, i % RejectionType.COUNT);
+			}
+		}
+
+		private final CrossSection crossSection;
+		private final int thrownType;
+		private final int rejectionType;
+
+		private Outcome(CrossSection crossSection, int thrownType, int rejectionType) {
+			this.crossSection = crossSection;
+			this.thrownType = thrownType;
+			this.rejectionType = rejectionType;
+		}
+
+		/**
+		 * Returns outcome of accepted cross section
+		 *
+		 * @param crossSection accepted cross section
+		 * @return outcome
+		 */
+		public static Outcome accepted(CrossSection crossSection) {
+			if (crossSection == null) throw new IllegalArgumentException("Cross section is required");
+			return new Outcome(crossSection, -1, -1);
+		}
+
+		/**
+		 * Returns outcome of rejection
+		 *
+		 * @param rejection rejection, {@link ImproperDataException} or {@link LSException}
+		 * @return outcome
+		 */
+		public static Outcome rejected(Exception rejection) {
+			return REJECTIONS[RejectionType.ofClass(rejection) * RejectionType.COUNT + RejectionType.of(rejection)];
+		}
+
+		/**
+		 * Returns accepted cross section or throws new exception of the rejection. The exception has no message, but
+		 * its class and {@link RejectionType} are the same as of the memorized rejection.
+		 *
+		 * @return accepted cross section
+		 * @throws ImproperDataException if candidate was rejected as improper
+		 * @throws LSException           if candidate was rejected for exceeded limit state
+		 */
+		public CrossSection get() throws ImproperDataException, LSException {
+			if (crossSection != null) return crossSection;
+			Exception rejection = RejectionType.newException(thrownType);
+			if (rejectionType != thrownType) rejection.initCause(RejectionType.newException(rejectionType));
+			if (rejection instanceof LSException) throw (LSException) rejection;
+			throw (ImproperDataException) rejection;
+		}
+	}
+}
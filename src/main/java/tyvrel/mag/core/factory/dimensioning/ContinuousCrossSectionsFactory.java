@@ -0,0 +1,375 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ConcreteClassTooSmallException;
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.Factory;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.*;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.model.reinforcement.LongitudinalReinforcement;
+import tyvrel.mag.core.model.reinforcement.Reinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which calculates the cheapest cross section of every combination of concrete class and diameters of
+ * reinforcement treating width and height as continuous. Price is minimized by golden-section search over height
+ * nested in golden-section search over width, both ending when the bracket is narrower than increment of the range.
+ * Rejected cross sections are priced by penalty higher than any price, which decreases with width and height, so the
+ * search moves towards larger cross sections until they are accepted.
+ * <p>
+ * The cheapest accepted point is then snapped to the nearest widths and heights of the ranges, which are verified
+ * by {@link CrossSectionFactory}, and the cheapest accepted of them is returned. If none of them is accepted, higher
+ * heights of the ranges are tried. Price isn't unimodal in general, because numbers of bars change by steps, so the
+ * result is a local minimum, which may be more expensive than the cheapest cross section of {@link
+ * CrossSectionsFactory}. In return number of calculations of single cross section grows only with logarithm of
+ * number of values of the ranges.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ContinuousCrossSectionsFactory implements Factory<CrossSection[]> {
+	/**
+	 * Price of rejected cross section without its decrease with width and height in m, higher than any price
+	 */
+	protected static final double PENALTY = 1e9;
+
+	private static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+	private final DesignInput designInput;
+	private final List<CrossSectionsListener> listeners = new CopyOnWriteArrayList<>();
+	private final AtomicLong evaluationCount = new AtomicLong();
+	private volatile boolean cancelled;
+	private ExecutorService executorService;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param designInput design input
+	 */
+	public ContinuousCrossSectionsFactory(DesignInput designInput) {
+		this.designInput = designInput;
+	}
+
+	/**
+	 * Sets executor, on which combinations of concrete class and diameters are optimized in parallel. Order of
+	 * calculated cross sections is the same as without the executor, so listeners have to be thread-safe.
+	 *
+	 * @param executorService executor or null, if cross sections should be calculated in calling thread
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Adds listener notified about the search. Only returned cross sections are reported as evaluated candidates.
+	 *
+	 * @param listener listener
+	 */
+	public void addListener(CrossSectionsListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes listener notified about the search
+	 *
+	 * @param listener listener
+	 */
+	public void removeListener(CrossSectionsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Requests cancellation of the calculation. {@link #build()} then returns cross sections calculated so far. The
+	 * request stays until {@link #resetCancellation()}.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Withdraws request of cancellation, so the factory calculates again. Cancellation requested before start of the
+	 * calculation isn't withdrawn by the calculation itself.
+	 */
+	public void resetCancellation() {
+		cancelled = false;
+	}
+
+	/**
+	 * Returns number of calculations of single cross section since creation of the factory, including verification
+	 *
+	 * @return number of calculations
+	 */
+	public long getEvaluationCount() {
+		return evaluationCount.get();
+	}
+
+	/**
+	 * Calculates and returns the cheapest cross section of every combination of concrete class and diameters, which
+	 * has any accepted cross section, in order of concrete classes and diameters of bottom, top and shear
+	 * reinforcement
+	 *
+	 * @return cross sections
+	 * @throws ImproperDataException if calculation was interrupted or failed
+	 * @throws LSException           never
+	 */
+	@Override
+	public CrossSection[] build() throws ImproperDataException, LSException {
+		List<Callable<CrossSection>> combinations = new ArrayList<>();
+		for (ConcreteClassification concreteClass : designInput.getConcreteClasses()) {
+			for (double fib : designInput.getFibs()) {
+				for (double fia : designInput.getFias()) {
+					for (double fisw : designInput.getFisws()) {
+						combinations.add(() -> cancelled ? null : optimize(concreteClass, fib, fia, fisw));
+					}
+				}
+			}
+		}
+		fireSearchStarted(combinations.size(), combinations.size());
+
+		List<CrossSection> crossSectionList = new ArrayList<>();
+		if (executorService == null) {
+			for (Callable<CrossSection> combination : combinations) {
+				try {
+					CrossSection crossSection = combination.call();
+					if (crossSection != null) crossSectionList.add(crossSection);
+				} catch (Exception e) {
+					throw new ImproperDataException(e);
+				}
+			}
+		} else {
+			List<Future<CrossSection>> futures = new ArrayList<>(combinations.size());
+			for (Callable<CrossSection> combination : combinations) futures.add(executorService.submit(combination));
+			try {
+				for (Future<CrossSection> future : futures) {
+					CrossSection crossSection = future.get();
+					if (crossSection != null) crossSectionList.add(crossSection);
+				}
+			} catch (InterruptedException e) {
+				cancel();
+				Thread.currentThread().interrupt();
+				throw new ImproperDataException(e);
+			} catch (ExecutionException e) {
+				cancel();
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				if (e.getCause() instanceof Error) throw (Error) e.getCause();
+				throw new ImproperDataException(e.getCause());
+			}
+		}
+		fireSearchFinished();
+		return crossSectionList.toArray(new CrossSection[0]);
+	}
+
+	/**
+	 * Calculates and returns the cheapest cross section of the combination snapped to the ranges and notifies
+	 * listeners about it
+	 *
+	 * @param concreteClass concrete class
+	 * @param fib           diameter of bottom longitudinal reinforcement in m
+	 * @param fia           diameter of top longitudinal reinforcement in m
+	 * @param fisw          diameter of shear reinforcement in m
+	 * @return cross section or null, if no cross section of the combination was accepted
+	 */
+	protected CrossSection optimize(ConcreteClassification concreteClass, double fib, double fia, double fisw) {
+		Range widthRange = designInput.getWidthRange();
+		Range heightRange = designInput.getHeightRange();
+		Objective objective = new Objective(concreteClass, fib, fia, fisw);
+		minimize(widthRange, b -> minimize(heightRange, h -> objective.getPrice(b, h))[1]);
+		if (objective.bestCrossSection == null) return null;
+
+		CrossSection bestCandidate = null;
+		CrossSection bestCrossSection = null;
+		double bestPrice = Double.POSITIVE_INFINITY;
+		double[] widths = snap(objective.bestB, widthRange);
+		double[] heights = snap(objective.bestH, heightRange);
+		for (double b : widths) {
+			for (double h : heights) {
+				CrossSection candidate = objective.createCandidate(b, h);
+				CrossSection crossSection = objective.calculate(candidate);
+				double price = objective.calculatePrice(crossSection);
+				if (price < bestPrice) {
+					bestCandidate = candidate;
+					bestCrossSection = crossSection;
+					bestPrice = price;
+				}
+			}
+		}
+		double b = widths[widths.length - 1];
+		int last = (int) Math.round((heights[heights.length - 1] - heightRange.getFrom()) / heightRange.getIncrement());
+		for (int i = last + 1; bestCrossSection == null && i < heightRange.getCount(); i++) {
+			bestCandidate = objective.createCandidate(b, heightRange.getValue(i));
+			bestCrossSection = objective.calculate(bestCandidate);
+		}
+		if (bestCrossSection != null) fireCandidateEvaluated(bestCandidate, bestCrossSection, null);
+		return bestCrossSection;
+	}
+
+	/**
+	 * Minimizes function over the range by golden-section search until the bracket is narrower than increment of
+	 * the range
+	 *
+	 * @param range    range
+	 * @param function function
+	 * @return argument and value of the minimum
+	 */
+	protected double[] minimize(Range range, DoubleUnaryOperator function) {
+		double from = range.getFrom();
+		double to = range.getTo();
+		if (to - from <= range.getIncrement()) return new double[]{from, function.applyAsDouble(from)};
+		double x1 = to - GOLDEN_RATIO * (to - from);
+		double x2 = from + GOLDEN_RATIO * (to - from);
+		double f1 = function.applyAsDouble(x1);
+		double f2 = function.applyAsDouble(x2);
+		while (to - from > range.getIncrement()) {
+			if (f1 <= f2) {
+				to = x2;
+				x2 = x1;
+				f2 = f1;
+				x1 = to - GOLDEN_RATIO * (to - from);
+				f1 = function.applyAsDouble(x1);
+			} else {
+				from = x1;
+				x1 = x2;
+				f1 = f2;
+				x2 = from + GOLDEN_RATIO * (to - from);
+				f2 = function.applyAsDouble(x2);
+			}
+		}
+		return f1 <= f2 ? new double[]{x1, f1} : new double[]{x2, f2};
+	}
+
+	/**
+	 * Returns values of the range nearest to the value from below and from above
+	 *
+	 * @param value value
+	 * @param range range
+	 * @return one or two values of the range in ascending order
+	 */
+	protected static double[] snap(double value, Range range) {
+		int size = range.size();
+		int lower = (int) Math.floor((value - range.getFrom()) / range.getIncrement());
+		lower = Math.max(0, Math.min(size, lower));
+		int upper = Math.min(size, lower + 1);
+		double lowerValue = range.getFrom() + lower * range.getIncrement();
+		if (lower == upper || lowerValue >= value) return new double[]{lowerValue};
+		return new double[]{lowerValue, range.getFrom() + upper * range.getIncrement()};
+	}
+
+	/**
+	 * Creates factory, which calculates single cross section
+	 *
+	 * @param exposureClasses   exposure classes
+	 * @param loads             loads
+	 * @param factors           partial factors
+	 * @param crossSection      candidate cross section
+	 * @param is100yWorkingLife if element is designed for 100 years working life
+	 * @param isQualityEnsured  if special concrete quality control is ensure
+	 * @param isHighAir         if air containment is higher than 4%
+	 * @param dg                maximal diameter of aggregate in m
+	 * @return factory of the cross section
+	 */
+	protected CrossSectionFactory createCrossSectionFactory(ExposureClassification[] exposureClasses, Load[] loads,
+	                                                        Factors factors, CrossSection crossSection,
+	                                                        boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                                        boolean isHighAir, double dg) {
+		return new CrossSectionFactory(exposureClasses, loads, factors, crossSection, is100yWorkingLife,
+				isQualityEnsured, isHighAir, dg);
+	}
+
+	protected void fireSearchStarted(int slices, long candidates) {
+		for (CrossSectionsListener listener : listeners) listener.searchStarted(slices, candidates);
+	}
+
+	protected void fireCandidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+		for (CrossSectionsListener listener : listeners)
+			listener.candidateEvaluated(candidate, crossSection, rejection);
+	}
+
+	protected void fireSearchFinished() {
+		for (CrossSectionsListener listener : listeners) listener.searchFinished();
+	}
+
+	/**
+	 * Price of cross sections of single combination with the cheapest accepted one found so far
+	 */
+	private class Objective {
+		private final ConcreteClassification concreteClass;
+		private final double fib;
+		private final double fia;
+		private final double fisw;
+		private boolean concreteClassTooSmall;
+		private CrossSection bestCrossSection;
+		private double bestPrice = Double.POSITIVE_INFINITY;
+		private double bestB;
+		private double bestH;
+
+		private Objective(ConcreteClassification concreteClass, double fib, double fia, double fisw) {
+			this.concreteClass = concreteClass;
+			this.fib = fib;
+			this.fia = fia;
+			this.fisw = fisw;
+		}
+
+		/**
+		 * Returns price of the cross section or penalty, if it's rejected
+		 */
+		double getPrice(double b, double h) {
+			double penalty = PENALTY + designInput.getWidthRange().getTo() - b + designInput.getHeightRange()
+					.getTo() - h;
+			if (concreteClassTooSmall || cancelled) return penalty;
+			CrossSection crossSection = calculate(createCandidate(b, h));
+			double price = calculatePrice(crossSection);
+			if (price < bestPrice) {
+				bestCrossSection = crossSection;
+				bestPrice = price;
+				bestB = b;
+				bestH = h;
+			}
+			return price == Double.POSITIVE_INFINITY ? penalty : price;
+		}
+
+		CrossSection createCandidate(double b, double h) {
+			return new CrossSection(new Shape(b, h), designInput.getLongitudinalReinforcementSteel(),
+					designInput.getShearReinforcementSteel(), concreteClass, CrossSectionType.BEAM,
+					new LongitudinalReinforcement(new Reinforcement(2, fib, 0, 0), new Reinforcement(2, fia, 0, 0)),
+					new ShearReinforcement(0, fisw, 0, 2), 0);
+		}
+
+		/**
+		 * Returns calculated cross section or null, if it's rejected
+		 */
+		CrossSection calculate(CrossSection candidate) {
+			evaluationCount.incrementAndGet();
+			try {
+				return createCrossSectionFactory(designInput.getExposureClasses(), designInput.getLoads(),
+						designInput.getFactors(), candidate, designInput.is100yWorkingLife(),
+						designInput.isQualityEnsured(), designInput.isHighAir(), designInput.getDg()).build();
+			} catch (ConcreteClassTooSmallException e) {
+				concreteClassTooSmall = true;
+				return null;
+			} catch (ImproperDataException | LSException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Returns price of the cross section or positive infinity, if it's rejected or can't be priced
+		 */
+		double calculatePrice(CrossSection crossSection) {
+			if (crossSection == null) return Double.POSITIVE_INFINITY;
+			try {
+				return new PriceFactory(crossSection, designInput.getPriceList()).build();
+			} catch (ImproperDataException | LSException e) {
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+	}
+}
@@ -108,12 +108,26 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 
 	protected void validateCrackWidth(CrossSection crossSection) throws ImproperDataException, LSException {
 		for (Load load : notNull(loads)) {
-			boolean meetsCrackWidth = new CrackWidthVerificationFactory(exposureClasses, load, crossSection,
-					calculatePhi(crossSection), 28, CementClassification.CEMENT_N).build();
+			boolean meetsCrackWidth = createCrackWidthVerificationFactory(load, crossSection).build();
 			if (!meetsCrackWidth) throw new SLSException();
 		}
 	}
 
+	/**
+	 * Creates factory, which verifies crack width under the load
+	 *
+	 * @param load         load
+	 * @param crossSection cross section
+	 * @return factory, which verifies crack width
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CrackWidthVerificationFactory createCrackWidthVerificationFactory(Load load, CrossSection crossSection)
+			throws ImproperDataException, LSException {
+		return new CrackWidthVerificationFactory(exposureClasses, load, crossSection, calculatePhi(crossSection), 28,
+				CementClassification.CEMENT_N);
+	}
+
 	/**
 	 * Validates if stress limit isn't exceeded
 	 *
@@ -122,10 +136,24 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 	 */
 	protected void validateStressLimitation(CrossSection crossSection) throws ImproperDataException, LSException {
 		Stress stress = notNull(() -> calculateCharStress(crossSection));
-		boolean meetsStressLimitation = new StressLimitationFactory(stress, crossSection, exposureClasses).build();
+		boolean meetsStressLimitation = createStressLimitationFactory(stress, crossSection).build();
 		if (!meetsStressLimitation) throw new SLSException();
 	}
 
+	/**
+	 * Creates factory, which verifies stress limitation
+	 *
+	 * @param stress       stress under characteristic combinations of load
+	 * @param crossSection cross section
+	 * @return factory, which verifies stress limitation
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected StressLimitationFactory createStressLimitationFactory(Stress stress, CrossSection crossSection)
+			throws ImproperDataException, LSException {
+		return new StressLimitationFactory(stress, crossSection, exposureClasses);
+	}
+
 	/**
 	 * Calculates and returns stress in cross section under characteristic combinations of load
 	 *
@@ -194,13 +222,29 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 				maquasiperm = Math.max(maquasiperm, notNull(load::getMquasiperma));
 				mbquasiperm = Math.max(mbquasiperm, notNull(load::getMquasipermb));
 			}
-			phi = new CreepCoefficientFactory(philn, crossSection, maquasiperm, mbquasiperm, 28, CementClassification
-					.CEMENT_N)
-					.build();
+			phi = createCreepCoefficientFactory(philn, crossSection, maquasiperm, mbquasiperm).build();
 		}
 		return phi;
 	}
 
+	/**
+	 * Creates factory, which calculates creep coefficient
+	 *
+	 * @param philn        linear creep coefficient
+	 * @param crossSection cross section
+	 * @param maquasiperm  quasi-permanent bending moment that tensions top of the cross section in kNm
+	 * @param mbquasiperm  quasi-permanent bending moment that tensions bottom of the cross section in kNm
+	 * @return factory, which calculates creep coefficient
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CreepCoefficientFactory createCreepCoefficientFactory(double philn, CrossSection crossSection,
+	                                                                double maquasiperm, double mbquasiperm)
+			throws ImproperDataException, LSException {
+		return new CreepCoefficientFactory(philn, crossSection, maquasiperm, mbquasiperm, 28,
+				CementClassification.CEMENT_N);
+	}
+
 	/**
 	 * Calculates and returns linear creep coefficient
 	 *
@@ -255,8 +299,8 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 	protected CrossSection calculateProvidedAsw(CrossSection crossSection) throws ImproperDataException, LSException {
 		List<ShearReinforcement> aswList = new ArrayList<>();
 		for (Load load : loads) {
-			aswList.add(new ShearReinforcementFactory(pos(() -> calculateAswLbd(crossSection)),
-					crossSection, load, factors).build());
+			aswList.add(createShearReinforcementFactory(pos(() -> calculateAswLbd(crossSection)), crossSection,
+					load).build());
 		}
 
 		ShearReinforcement asw = notNull(crossSection::getAsw);
@@ -269,6 +313,22 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 				crossSection.getCrossSectionType(), crossSection.getAs(), asw, crossSection.getCnom());
 	}
 
+	/**
+	 * Creates factory, which calculates shear reinforcement under the load
+	 *
+	 * @param lbd          anchorage length of shear reinforcement in m
+	 * @param crossSection cross section
+	 * @param load         load
+	 * @return factory, which calculates shear reinforcement
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected ShearReinforcementFactory createShearReinforcementFactory(double lbd, CrossSection crossSection,
+	                                                                    Load load)
+			throws ImproperDataException, LSException {
+		return new ShearReinforcementFactory(lbd, crossSection, load, factors);
+	}
+
 	/**
 	 * Returns cross section modified by calculated anchorage length of shear shearreinforcement
 	 *
@@ -346,7 +406,7 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 
 		List<LongitudinalReinforcement> asList = new ArrayList<>();
 		for (Load load : notNull(loads)) {
-			asList.add(new LongitudinalReinforcementFactory(crossSection, load, factors).build());
+			asList.add(createLongitudinalReinforcementFactory(crossSection, load).build());
 		}
 
 		LongitudinalReinforcement as = notNull(crossSection::getAs);
@@ -360,6 +420,21 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 				crossSection.getCnom());
 	}
 
+	/**
+	 * Creates factory, which calculates longitudinal reinforcement under the load
+	 *
+	 * @param crossSection cross section
+	 * @param load         load
+	 * @return factory, which calculates longitudinal reinforcement
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected LongitudinalReinforcementFactory createLongitudinalReinforcementFactory(CrossSection crossSection,
+	                                                                                  Load load)
+			throws ImproperDataException, LSException {
+		return new LongitudinalReinforcementFactory(crossSection, load, factors);
+	}
+
 	/**
 	 * Returns cross section modified by calculated minimal crack longitudinal shearreinforcement
 	 *
@@ -545,18 +620,32 @@ public class CrossSectionFactory implements Factory<CrossSection> {
 						Math.max(pos(() -> crossSection.getAs().getAsb().getPhi()),
 								pos(() -> crossSection.getAs().getAsb().getPhi())));
 
-		ConcreteCoverFactory ccfas = new ConcreteCoverFactory(notNull(this::getStructuralClassificationFactory),
+		ConcreteCoverFactory ccfas = createConcreteCoverFactory(crossSection, phi);
+
+		return new CrossSection(crossSection.getShape(), crossSection.getLongitudinalReinforcementSteel(),
+				crossSection.getShearReinforcementSteel(), crossSection.getConcreteClassification(),
+				crossSection.getCrossSectionType(), crossSection.getAs(), crossSection.getAsw(),
+				ccfas.build());
+	}
+
+	/**
+	 * Creates factory, which calculates concrete cover
+	 *
+	 * @param crossSection cross section
+	 * @param phi          maximal diameter of reinforcement in m
+	 * @return factory, which calculates concrete cover
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected ConcreteCoverFactory createConcreteCoverFactory(CrossSection crossSection, double phi)
+			throws ImproperDataException, LSException {
+		return new ConcreteCoverFactory(notNull(this::getStructuralClassificationFactory),
 				notNull(this::getExposureClassificationFactory), notNull(this::getConcreteClassificationFactory),
 				phi, notNull(exposureClasses), notNull(crossSection::getConcreteClassification),
 				(int) real(() -> (double) crossSection.getCrossSectionType()),
 				is100yWorkingLife, false, isQualityEnsured, isHighAir, false, false,
 				notNull(() -> getAbrasionClassificationFactory().get("XM0")),
 				-1, dg);
-
-		return new CrossSection(crossSection.getShape(), crossSection.getLongitudinalReinforcementSteel(),
-				crossSection.getShearReinforcementSteel(), crossSection.getConcreteClassification(),
-				crossSection.getCrossSectionType(), crossSection.getAs(), crossSection.getAsw(),
-				ccfas.build());
 	}
 
 	/**
@@ -0,0 +1,398 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.RejectionType;
+import tyvrel.mag.core.factory.longitudinalreinforcement.LongitudinalReinforcementFactory;
+import tyvrel.mag.core.factory.others.ConcreteCoverFactory;
+import tyvrel.mag.core.factory.others.CrackWidthFactory;
+import tyvrel.mag.core.factory.others.CrackWidthVerificationFactory;
+import tyvrel.mag.core.factory.shearreinforcement.ShearReinforcementFactory;
+import tyvrel.mag.core.factory.stress.CreepCoefficientFactory;
+import tyvrel.mag.core.factory.stress.StressLimitationFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.CrossSectionReport;
+import tyvrel.mag.core.model.Factors;
+import tyvrel.mag.core.model.Load;
+import tyvrel.mag.core.model.Stress;
+import tyvrel.mag.core.model.classification.CementClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.model.reinforcement.LongitudinalReinforcement;
+import tyvrel.mag.core.model.reinforcement.Reinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static tyvrel.mag.core.exception.Precondition.notNull;
+import static tyvrel.mag.core.exception.Precondition.real;
+import static tyvrel.mag.core.model.CrossSectionReport.*;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which calculates cross section once and reports its intermediate quantities: cover, longitudinal and shear
+ * reinforcement, creep coefficient, stress, crack width and anchorage. Every quantity is calculated exactly as by
+ * {@link CrossSectionFactory}, the report only records it. Quantity calculated more than once, for example for every
+ * number of bars tried, is reported once with its last value, which belongs to the calculated cross section.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionReportFactory extends CrossSectionFactory {
+	private final Map<String, Integer> entryIndexes = new HashMap<>();
+	private final List<Entry> entries = new ArrayList<>();
+	private final ExposureClassification[] exposureClasses;
+	private final Load[] loads;
+	private final Factors factors;
+	private final boolean is100yWorkingLife;
+	private final boolean isQualityEnsured;
+	private final boolean isHighAir;
+	private final double dg;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param exposureClasses   exposure classes
+	 * @param loads             loads
+	 * @param factors           partial factors
+	 * @param crossSection      cross section, which is recalculated from its shape, materials and diameters
+	 * @param is100yWorkingLife if element is designed for 100 years working life
+	 * @param isQualityEnsured  if special concrete quality control is ensure
+	 * @param isHighAir         if air containment is higher than 4%
+	 * @param dg                maximal diameter of aggregate in m
+	 */
+	public CrossSectionReportFactory(ExposureClassification[] exposureClasses, Load[] loads, Factors factors,
+	                                 CrossSection crossSection, boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                 boolean isHighAir, double dg) {
+		super(exposureClasses, loads, factors, createCandidate(crossSection), is100yWorkingLife, isQualityEnsured,
+				isHighAir, dg);
+		this.exposureClasses = exposureClasses;
+		this.loads = loads;
+		this.factors = factors;
+		this.is100yWorkingLife = is100yWorkingLife;
+		this.isQualityEnsured = isQualityEnsured;
+		this.isHighAir = isHighAir;
+		this.dg = dg;
+	}
+
+	/**
+	 * Calculates cross section and returns report of the calculation. Rejection of the cross section is described by
+	 * verdict of the report.
+	 *
+	 * @return report of the calculation
+	 */
+	public CrossSectionReport buildReport() {
+		try {
+			CrossSection crossSection = build();
+			recordProvidedReinforcement(crossSection);
+			return new CrossSectionReport(crossSection, entries, ACCEPTED);
+		} catch (ImproperDataException | LSException e) {
+			return new CrossSectionReport(null, entries, RejectionType.of(e));
+		}
+	}
+
+	/**
+	 * Returns candidate, from which the search calculates the cross section: with minimal numbers of bars, without
+	 * stirrups and cover
+	 *
+	 * @param crossSection cross section
+	 * @return candidate
+	 */
+	public static CrossSection createCandidate(CrossSection crossSection) {
+		return new CrossSection(crossSection.getShape(), crossSection.getLongitudinalReinforcementSteel(),
+				crossSection.getShearReinforcementSteel(), crossSection.getConcreteClassification(),
+				crossSection.getCrossSectionType(), new LongitudinalReinforcement(
+				new Reinforcement(2, crossSection.getAs().getAsb().getPhi(), 0, 0),
+				new Reinforcement(2, crossSection.getAs().getAsa().getPhi(), 0, 0)),
+				new ShearReinforcement(0, crossSection.getAsw().getPhi(), 0, 2), 0);
+	}
+
+	/**
+	 * Calculates, records and returns value of the quantity. Value recorded before under the same symbol and index is
+	 * replaced.
+	 *
+	 * @param group       one of the groups of {@link CrossSectionReport}
+	 * @param symbol      symbol of the quantity
+	 * @param index       number of load or iteration starting from 1 or 0, if the quantity has only one value
+	 * @param unit        one of the units of {@link CrossSectionReport}
+	 * @param calculation calculation of the quantity
+	 * @return value of the quantity
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected double record(int group, String symbol, int index, int unit, Calculation calculation)
+			throws ImproperDataException, LSException {
+		double value = calculation.calculate();
+		Entry entry = new Entry(group, symbol, index, unit, value);
+		Integer entryIndex = entryIndexes.putIfAbsent(symbol + "#" + index, entries.size());
+		if (entryIndex == null) entries.add(entry);
+		else entries.set(entryIndex, entry);
+		return value;
+	}
+
+	/**
+	 * Records provided reinforcement, anchorage and lap lengths of calculated cross section
+	 *
+	 * @param crossSection calculated cross section
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected void recordProvidedReinforcement(CrossSection crossSection) throws ImproperDataException, LSException {
+		LongitudinalReinforcement as = notNull(crossSection::getAs);
+		ShearReinforcement asw = notNull(crossSection::getAsw);
+		record(BENDING, "As,prov,b", 0, AREA, () -> as.getAsb().getA());
+		record(BENDING, "As,prov,a", 0, AREA, () -> as.getAsa().getA());
+		record(SHEAR, "Asw/s,prov", 0, AREA_PER_LENGTH, () -> asw.getA() * asw.getNleg());
+		record(ANCHORAGE, "lbd,b", 0, LENGTH, () -> as.getAsb().getLbd());
+		record(ANCHORAGE, "lbd,a", 0, LENGTH, () -> as.getAsa().getLbd());
+		record(ANCHORAGE, "l0,b", 0, LENGTH, () -> as.getAsb().getL0());
+		record(ANCHORAGE, "l0,a", 0, LENGTH, () -> as.getAsa().getL0());
+	}
+
+	@Override
+	protected ConcreteCoverFactory createConcreteCoverFactory(CrossSection crossSection, double phi)
+			throws ImproperDataException, LSException {
+		return new ConcreteCoverFactory(notNull(this::getStructuralClassificationFactory),
+				notNull(this::getExposureClassificationFactory), notNull(this::getConcreteClassificationFactory),
+				phi, notNull(exposureClasses), notNull(crossSection::getConcreteClassification),
+				(int) real(() -> (double) crossSection.getCrossSectionType()),
+				is100yWorkingLife, false, isQualityEnsured, isHighAir, false, false,
+				notNull(() -> getAbrasionClassificationFactory().get("XM0")),
+				-1, dg) {
+			@Override
+			protected double calculateCnom() throws ImproperDataException, LSException {
+				return record(COVER, "cnom", 0, LENGTH, super::calculateCnom);
+			}
+
+			@Override
+			protected double calculateDeltacdev() throws ImproperDataException, LSException {
+				return record(COVER, "Δcdev", 0, LENGTH, super::calculateDeltacdev);
+			}
+
+			@Override
+			protected double calculateCmin() throws ImproperDataException, LSException {
+				return record(COVER, "cmin", 0, LENGTH, super::calculateCmin);
+			}
+
+			@Override
+			protected double calculateCminb() throws ImproperDataException, LSException {
+				return record(COVER, "cmin,b", 0, LENGTH, super::calculateCminb);
+			}
+
+			@Override
+			protected double calculateCmindur() throws ImproperDataException, LSException {
+				return record(COVER, "cmin,dur", 0, LENGTH, super::calculateCmindur);
+			}
+
+			@Override
+			protected double calculateDeltacdurgamma() throws ImproperDataException, LSException {
+				return record(COVER, "Δcdur,γ", 0, LENGTH, super::calculateDeltacdurgamma);
+			}
+
+			@Override
+			protected double calculateDeltacdurst() throws ImproperDataException, LSException {
+				return record(COVER, "Δcdur,st", 0, LENGTH, super::calculateDeltacdurst);
+			}
+
+			@Override
+			protected double calculateDeltacduradd() throws ImproperDataException, LSException {
+				return record(COVER, "Δcdur,add", 0, LENGTH, super::calculateDeltacduradd);
+			}
+		};
+	}
+
+	@Override
+	protected LongitudinalReinforcementFactory createLongitudinalReinforcementFactory(CrossSection crossSection,
+	                                                                                  Load load)
+			throws ImproperDataException, LSException {
+		int index = indexOf(load);
+		return new LongitudinalReinforcementFactory(crossSection, load, factors) {
+			private DoublePair asb;
+			private DoublePair asa;
+
+			@Override
+			protected LongitudinalReinforcement createLongitudinalReinforcement() throws ImproperDataException,
+					LSException {
+				LongitudinalReinforcement as = super.createLongitudinalReinforcement();
+				record(BENDING, "As,req,b", index, AREA, () -> Math.max(asb.getB(), asa.getB()));
+				record(BENDING, "As,req,a", index, AREA, () -> Math.max(asb.getA(), asa.getA()));
+				return as;
+			}
+
+			@Override
+			protected DoublePair calculateAsb() throws ImproperDataException, LSException {
+				return asb = super.calculateAsb();
+			}
+
+			@Override
+			protected DoublePair calculateAsa() throws ImproperDataException, LSException {
+				return asa = super.calculateAsa();
+			}
+
+			@Override
+			protected double calculateXiefflim() throws ImproperDataException, LSException {
+				return record(BENDING, "ξeff,lim", 0, DIMENSIONLESS, super::calculateXiefflim);
+			}
+
+			@Override
+			protected double calculateXieffb() throws ImproperDataException, LSException {
+				return record(BENDING, "ξeff,b", index, DIMENSIONLESS, super::calculateXieffb);
+			}
+
+			@Override
+			protected double calculateXieffa() throws ImproperDataException, LSException {
+				return record(BENDING, "ξeff,a", index, DIMENSIONLESS, super::calculateXieffa);
+			}
+		};
+	}
+
+	@Override
+	protected ShearReinforcementFactory createShearReinforcementFactory(double lbd, CrossSection crossSection,
+	                                                                    Load load)
+			throws ImproperDataException, LSException {
+		int index = indexOf(load);
+		record(SHEAR, "VEd", index, FORCE, load::getVed);
+		return new ShearReinforcementFactory(lbd, crossSection, load, factors) {
+			@Override
+			protected ShearReinforcement createShearReinforcement() throws ImproperDataException, LSException {
+				ShearReinforcement asw = super.createShearReinforcement();
+				calculateVrdmax();
+				return asw;
+			}
+
+			@Override
+			protected double calculateAsw() throws ImproperDataException, LSException {
+				return record(SHEAR, "Asw/s,req", index, AREA_PER_LENGTH, super::calculateAsw);
+			}
+
+			@Override
+			protected double calculateVrdc() throws ImproperDataException, LSException {
+				return record(SHEAR, "VRd,c", index, FORCE, super::calculateVrdc);
+			}
+
+			@Override
+			protected double calculateVrdmax() throws ImproperDataException, LSException {
+				return record(SHEAR, "VRd,max", index, FORCE, super::calculateVrdmax);
+			}
+		};
+	}
+
+	@Override
+	protected double calculatePhiln(CrossSection crossSection) throws ImproperDataException, LSException {
+		return record(CREEP, "φln", 0, DIMENSIONLESS, () -> super.calculatePhiln(crossSection));
+	}
+
+	@Override
+	protected double calculatePhi(CrossSection crossSection) throws ImproperDataException, LSException {
+		return record(CREEP, "φ", 0, DIMENSIONLESS, () -> super.calculatePhi(crossSection));
+	}
+
+	@Override
+	protected CreepCoefficientFactory createCreepCoefficientFactory(double philn, CrossSection crossSection,
+	                                                                double maquasiperm, double mbquasiperm)
+			throws ImproperDataException, LSException {
+		return new CreepCoefficientFactory(philn, crossSection, maquasiperm, mbquasiperm, 28,
+				CementClassification.CEMENT_N) {
+			private int iteration = 0;
+
+			@Override
+			protected Stress calculateStress(double phi) throws ImproperDataException, LSException {
+				iteration++;
+				record(CREEP, "φ", iteration, DIMENSIONLESS, () -> phi);
+				Stress stress = super.calculateStress(phi);
+				record(CREEP, "σc", iteration, STRESS_UNIT, stress::getSigmac);
+				return stress;
+			}
+		};
+	}
+
+	@Override
+	protected Stress calculateCharStress(CrossSection crossSection) throws ImproperDataException, LSException {
+		Stress stress = super.calculateCharStress(crossSection);
+		record(STRESS, "σc", 0, STRESS_UNIT, stress::getSigmac);
+		record(STRESS, "σs", 0, STRESS_UNIT, stress::getSigmas);
+		return stress;
+	}
+
+	@Override
+	protected StressLimitationFactory createStressLimitationFactory(Stress stress, CrossSection crossSection)
+			throws ImproperDataException, LSException {
+		return new StressLimitationFactory(stress, crossSection, exposureClasses) {
+			@Override
+			protected double calculateMinimumSigmac() throws ImproperDataException, LSException {
+				if (!isExposedToAggressiveEnvironment()) return super.calculateMinimumSigmac();
+				return record(STRESS, "σc,lim", 0, STRESS_UNIT, super::calculateMinimumSigmac);
+			}
+
+			@Override
+			protected double calculateMinimumSigmas() throws ImproperDataException, LSException {
+				return record(STRESS, "σs,lim", 0, STRESS_UNIT, super::calculateMinimumSigmas);
+			}
+		};
+	}
+
+	@Override
+	protected CrackWidthVerificationFactory createCrackWidthVerificationFactory(Load load, CrossSection crossSection)
+			throws ImproperDataException, LSException {
+		int index = indexOf(load);
+		return new CrackWidthVerificationFactory(exposureClasses, load, crossSection, calculatePhi(crossSection), 28,
+				CementClassification.CEMENT_N) {
+			@Override
+			protected double calculateWmax() throws ImproperDataException, LSException {
+				return record(CRACKING, "wmax", 0, LENGTH, super::calculateWmax);
+			}
+
+			@Override
+			protected CrackWidthFactory createCrackWidthFactory() throws ImproperDataException, LSException {
+				return new CrackWidthFactory(crossSection, calculatePhi(crossSection), load.getMquasiperma(),
+						load.getMquasipermb(), 28, CementClassification.CEMENT_N) {
+					@Override
+					protected double calculateCrackWidth() throws ImproperDataException, LSException {
+						return record(CRACKING, "wk", index, LENGTH, super::calculateCrackWidth);
+					}
+
+					@Override
+					protected double calculateSrmaxa() throws ImproperDataException, LSException {
+						return record(CRACKING, "sr,max,a", index, LENGTH, super::calculateSrmaxa);
+					}
+
+					@Override
+					protected double calculateSrmaxb() throws ImproperDataException, LSException {
+						return record(CRACKING, "sr,max,b", index, LENGTH, super::calculateSrmaxb);
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	protected double calculateAswLbd(CrossSection crossSection) throws ImproperDataException, LSException {
+		return record(ANCHORAGE, "lbd,sw", 0, LENGTH, () -> super.calculateAswLbd(crossSection));
+	}
+
+	@Override
+	protected double calculateLbdrqda(CrossSection crossSection) throws ImproperDataException, LSException {
+		return record(ANCHORAGE, "lb,rqd,a", 0, LENGTH, () -> super.calculateLbdrqda(crossSection));
+	}
+
+	@Override
+	protected double calculateLbdrqdb(CrossSection crossSection) throws ImproperDataException, LSException {
+		return record(ANCHORAGE, "lb,rqd,b", 0, LENGTH, () -> super.calculateLbdrqdb(crossSection));
+	}
+
+	private int indexOf(Load load) {
+		for (int i = 0; i < loads.length; i++) {
+			if (loads[i] == load) return i + 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Calculation of single quantity
+	 */
+	protected interface Calculation {
+		double calculate() throws ImproperDataException, LSException;
+	}
+}
@@ -2,6 +2,8 @@ package tyvrel.mag.core.factory.dimensioning;
 
 import tyvrel.mag.core.exception.*;
 import tyvrel.mag.core.factory.Factory;
+import tyvrel.mag.core.io.CanonicalDigest;
+import tyvrel.mag.core.io.ResultDiskCache;
 import tyvrel.mag.core.model.*;
 import tyvrel.mag.core.model.classification.ConcreteClassification;
 import tyvrel.mag.core.model.classification.ExposureClassification;
@@ -9,9 +11,19 @@ import tyvrel.mag.core.model.classification.Steel;
 import tyvrel.mag.core.model.reinforcement.LongitudinalReinforcement;
 import tyvrel.mag.core.model.reinforcement.Reinforcement;
 import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+import tyvrel.mag.core.monitor.EngineMetrics;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -21,6 +33,12 @@ import java.util.List;
  */
 @SuppressWarnings("WeakerAccess")
 public class CrossSectionsFactory implements Factory {
+	/**
+	 * Version of the calculation, which has to be increased whenever change of the code changes calculated cross
+	 * sections, so results cached by {@link ResultDiskCache} are invalidated
+	 */
+	public static final int ENGINE_VERSION = 2;
+
 	private final double[] fias;
 	private final double[] fibs;
 	private final double[] fisws;
@@ -36,6 +54,12 @@ public class CrossSectionsFactory implements Factory {
 	private final boolean isQualityEnsured;
 	private final boolean isHighAir;
 	private final double dg;
+	private final List<CrossSectionsListener> listeners = new CopyOnWriteArrayList<>();
+	private volatile boolean cancelled;
+	private ExecutorService executorService;
+	private ResultDiskCache resultCache;
+	private CandidateMemo candidateMemo;
+	private volatile String candidateContext;
 
 	/**
 	 * Creates an instance of the factory
@@ -76,6 +100,170 @@ public class CrossSectionsFactory implements Factory {
 		this.isQualityEnsured = isQualityEnsured;
 		this.isHighAir = isHighAir;
 		this.dg = dg;
+		listeners.add(EngineMetrics.getInstance().createListener());
+	}
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param designInput design input
+	 */
+	public CrossSectionsFactory(DesignInput designInput) {
+		this(designInput.getFias(), designInput.getFibs(), designInput.getFisws(), designInput.getWidthRange(),
+				designInput.getHeightRange(), designInput.getConcreteClasses(), designInput.getExposureClasses(),
+				designInput.getLoads(), designInput.getLongitudinalReinforcementSteel(),
+				designInput.getShearReinforcementSteel(), designInput.getFactors(), designInput.is100yWorkingLife(),
+				designInput.isQualityEnsured(), designInput.isHighAir(), designInput.getDg());
+	}
+
+	/**
+	 * Sets executor, on which slices of single concrete class and single height are calculated in parallel. Order
+	 * of calculated cross sections is the same as without the executor, so listeners have to be thread-safe.
+	 *
+	 * @param executorService executor or null, if cross sections should be calculated in calling thread
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Sets cache of results. If cross sections of equal inputs are cached, they are returned and reported to
+	 * listeners as accepted candidates without calculation.
+	 *
+	 * @param resultCache cache or null
+	 */
+	public void setResultCache(ResultDiskCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * Sets memo of outcomes of single candidates. Candidates with memorized outcome aren't calculated again, but are
+	 * still reported to listeners.
+	 *
+	 * @param candidateMemo memo or null
+	 */
+	public void setCandidateMemo(CandidateMemo candidateMemo) {
+		this.candidateMemo = candidateMemo;
+	}
+
+	/**
+	 * Writes all inputs affecting calculated cross sections in canonical form
+	 *
+	 * @param out output
+	 * @throws IOException if writing failed
+	 */
+	public void writeCanonicalInput(DataOutput out) throws IOException {
+		writeDoubles(out, fias);
+		writeDoubles(out, fibs);
+		writeDoubles(out, fisws);
+		writeRange(out, widthRange);
+		writeRange(out, heightRange);
+		out.writeInt(concreteClasses.length);
+		for (ConcreteClassification concreteClass : concreteClasses) out.writeUTF(concreteClass.getSymbol());
+		writeCandidateContext(out);
+	}
+
+	/**
+	 * Writes inputs affecting calculation of every single candidate in canonical form, that is all inputs except
+	 * ranges, diameters and concrete classes. Exposure classes and loads don't affect order of cross sections, so
+	 * they are written sorted and inputs differing only in their order have equal form.
+	 *
+	 * @param out output
+	 * @throws IOException if writing failed
+	 */
+	public void writeCandidateContext(DataOutput out) throws IOException {
+		String[] exposureSymbols = new String[exposureClasses.length];
+		for (int i = 0; i < exposureClasses.length; i++) exposureSymbols[i] = exposureClasses[i].getSymbol();
+		Arrays.sort(exposureSymbols);
+		out.writeInt(exposureSymbols.length);
+		for (String exposureSymbol : exposureSymbols) out.writeUTF(exposureSymbol);
+		double[][] loadValues = new double[loads.length][];
+		for (int i = 0; i < loads.length; i++) {
+			Load load = loads[i];
+			loadValues[i] = new double[]{load.getMedb(), load.getMeda(), load.getMcharb(), load.getMchara(),
+					load.getMquasipermb(), load.getMquasiperma(), load.getVed()};
+		}
+		Arrays.sort(loadValues, CrossSectionsFactory::compareLoads);
+		out.writeInt(loadValues.length);
+		for (double[] values : loadValues) {
+			for (double value : values) out.writeDouble(value);
+		}
+		writeSteel(out, longitudinalReinforcementSteel);
+		writeSteel(out, shearReinforcementSteel);
+		out.writeDouble(factors.getGammas());
+		out.writeDouble(factors.getGammac());
+		out.writeBoolean(is100yWorkingLife);
+		out.writeBoolean(isQualityEnsured);
+		out.writeBoolean(isHighAir);
+		out.writeDouble(dg);
+	}
+
+	private static int compareLoads(double[] load1, double[] load2) {
+		for (int i = 0; i < load1.length; i++) {
+			int comparison = Double.compare(load1[i], load2[i]);
+			if (comparison != 0) return comparison;
+		}
+		return 0;
+	}
+
+	private static void writeDoubles(DataOutput out, double[] values) throws IOException {
+		out.writeInt(values.length);
+		for (double value : values) out.writeDouble(value);
+	}
+
+	private static void writeRange(DataOutput out, Range range) throws IOException {
+		out.writeDouble(range.getFrom());
+		out.writeDouble(range.getTo());
+		out.writeDouble(range.getIncrement());
+	}
+
+	private static void writeSteel(DataOutput out, Steel steel) throws IOException {
+		out.writeDouble(steel.getEs());
+		out.writeDouble(steel.getFy());
+		out.writeUTF(String.valueOf(steel.getClassification()));
+	}
+
+	/**
+	 * Adds listener notified about progress of the calculation
+	 *
+	 * @param listener listener
+	 */
+	public void addListener(CrossSectionsListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes listener notified about progress of the calculation
+	 *
+	 * @param listener listener
+	 */
+	public void removeListener(CrossSectionsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Requests cancellation of the calculation. {@link #build()} then returns cross sections calculated so far. The
+	 * request stays until {@link #resetCancellation()}.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Withdraws request of cancellation, so the factory calculates again. Cancellation requested before start of the
+	 * calculation isn't withdrawn by the calculation itself.
+	 */
+	public void resetCancellation() {
+		cancelled = false;
+	}
+
+	/**
+	 * Returns if cancellation of the calculation was requested
+	 *
+	 * @return if cancellation of the calculation was requested
+	 */
+	public boolean isCancelled() {
+		return cancelled;
 	}
 
 	/**
@@ -86,7 +274,32 @@ public class CrossSectionsFactory implements Factory {
 	 * @throws LSException           never
 	 */
 	public CrossSection[] build() throws ImproperDataException, LSException {
-		return calculateCrossSections();
+		ResultDiskCache resultCache = this.resultCache;
+		if (resultCache == null) return calculateCrossSections();
+		String key = resultCache.key(this);
+		CrossSection[] crossSections = resultCache.get(key, concreteClasses, longitudinalReinforcementSteel,
+				shearReinforcementSteel);
+		if (crossSections != null) {
+			fireSearchStarted(0, crossSections.length);
+			for (CrossSection crossSection : crossSections) fireCandidateEvaluated(crossSection, crossSection, null);
+			fireSearchFinished();
+			return crossSections;
+		}
+		crossSections = calculateCrossSections();
+		if (!cancelled) resultCache.put(key, crossSections, concreteClasses);
+		return crossSections;
+	}
+
+	/**
+	 * Calculates cross sections and reports them only to listeners. Neither cache of results is used nor cross
+	 * sections are collected, so memory used by the search doesn't grow with number of accepted cross sections.
+	 *
+	 * @return number of accepted cross sections
+	 * @throws ImproperDataException if calculation on the executor was interrupted or failed
+	 * @throws LSException           never
+	 */
+	public long search() throws ImproperDataException, LSException {
+		return calculate(null);
 	}
 
 	/**
@@ -98,62 +311,335 @@ public class CrossSectionsFactory implements Factory {
 	 */
 	protected CrossSection[] calculateCrossSections() throws ImproperDataException, LSException {
 		List<CrossSection> crossSectionList = new ArrayList<>();
+		calculate(crossSectionList);
+		return crossSectionList.toArray(new CrossSection[0]);
+	}
 
+	private long calculate(List<CrossSection> crossSectionList) throws ImproperDataException {
+		int heightCount = heightRange.getCount();
+		candidateContext = candidateMemo == null ? null : CanonicalDigest.sha256(this::writeCandidateContext);
+		fireSearchStarted(concreteClasses.length * heightCount,
+				(long) concreteClasses.length * heightCount * widthRange.getCount() * fibs.length * fias.length *
+						fisws.length);
+
+		long accepted = executorService == null
+				? calculateSequentially(crossSectionList)
+				: calculateInParallel(crossSectionList);
+		fireSearchFinished();
+		return accepted;
+	}
+
+	/**
+	 * Returns number of slices of the search, that is number of concrete classes multiplied by number of heights
+	 *
+	 * @return number of slices
+	 */
+	public int getSliceCount() {
+		return concreteClasses.length * heightRange.getCount();
+	}
+
+	/**
+	 * Calculates and returns cross sections of the slices in calling thread. Slices are numbered by concrete class
+	 * first and height second, so cross sections of consecutive ranges of slices joined in order are the same as
+	 * cross sections of whole search.
+	 *
+	 * @param fromSlice first slice, inclusive
+	 * @param toSlice   last slice, exclusive
+	 * @return cross sections
+	 * @throws ImproperDataException never
+	 * @throws LSException           never
+	 */
+	public CrossSection[] buildSlices(int fromSlice, int toSlice) throws ImproperDataException, LSException {
+		int heightCount = heightRange.getCount();
+		if (fromSlice < 0 || toSlice > concreteClasses.length * heightCount || fromSlice > toSlice)
+			throw new IndexOutOfBoundsException("Slices " + fromSlice + "-" + toSlice);
+		candidateContext = candidateMemo == null ? null : CanonicalDigest.sha256(this::writeCandidateContext);
+		fireSearchStarted(toSlice - fromSlice, (long) (toSlice - fromSlice) * widthRange.getCount() * fibs.length *
+				fias.length * fisws.length);
+
+		List<CrossSection> crossSectionList = new ArrayList<>();
+		int tooSmallConcreteIndex = -1;
+		for (int slice = fromSlice; slice < toSlice && !cancelled; slice++) {
+			int concreteIndex = slice / heightCount;
+			ConcreteClassification concreteClass = concreteClasses[concreteIndex];
+			double h = heightRange.getValue(slice % heightCount);
+			if (concreteIndex == tooSmallConcreteIndex) {
+				fireSliceFinished(concreteClass, h);
+				continue;
+			}
+			try {
+				calculateSlice(concreteClass, h, crossSectionList::add);
+			} catch (ConcreteClassTooSmallException e) {
+				tooSmallConcreteIndex = concreteIndex;
+			}
+		}
+		fireSearchFinished();
+		return crossSectionList.toArray(new CrossSection[0]);
+	}
+
+	/**
+	 * Calculates cross sections in calling thread
+	 *
+	 * @param crossSectionList list, to which calculated cross sections are added, or null, if they are only counted
+	 * @return number of calculated cross sections
+	 */
+	protected long calculateSequentially(List<CrossSection> crossSectionList) {
+		int heightCount = heightRange.getCount();
+		long[] accepted = new long[1];
+		Consumer<CrossSection> consumer = crossSectionList == null
+				? crossSection -> accepted[0]++
+				: crossSectionList::add;
 		concrete:
 		for (ConcreteClassification concreteClass : concreteClasses) {
-			height:
-			for (double h = heightRange.getFrom(); h <= heightRange.getTo(); h += heightRange.getIncrement()) {
-				width:
-				for (double b = widthRange.getFrom(); b <= widthRange.getTo(); b += widthRange.getIncrement()) {
-					reinforcementB:
-					for (double fib : fibs) {
-						reinforcementA:
-						for (double fia : fias) {
-							reinforcementSw:
-							for (double fisw : fisws) {
-								try {
-									CrossSection crossSection = new CrossSection(new Shape(b, h),
-											longitudinalReinforcementSteel,
-											shearReinforcementSteel, concreteClass, CrossSectionType.BEAM,
-											new LongitudinalReinforcement(
-													new Reinforcement(2, fib, 0, 0),
-													new Reinforcement(2, fia, 0, 0)
-											),
-											new ShearReinforcement(0, fisw, 0, 2),
-											0
-									);
-
-									crossSectionList.add(new CrossSectionFactory(exposureClasses,
-											loads, factors, crossSection, is100yWorkingLife, isQualityEnsured,
-											isHighAir, dg)
-											.build());
-								} catch (HeightTooSmallException e) {
-									continue height;
-								} catch (ConcreteClassTooSmallException e) {
-									continue concrete;
-								} catch (CompressionTooHighException | WidthTooSmallException e) {
-									continue width;
-								} catch (ImproperDataException e) {
-								} catch (ForceInReinforcementATooHighException e) {
-									continue reinforcementA;
-								} catch (ForceInReinforcementBTooHighException e) {
-									continue reinforcementB;
-								} catch (ForceInReinforcementSWTooHighException e) {
-									continue reinforcementSw;
-								} catch (ShearReinforcementDiameterTooHighException e) {
-									continue reinforcementSw;
-								} catch (SLSException e) {
-									continue;
-								} catch (LSException e) {
-									continue;
-								}
+			for (int i = 0; i < heightCount; i++) {
+				if (cancelled) break concrete;
+				try {
+					calculateSlice(concreteClass, heightRange.getValue(i), consumer);
+				} catch (ConcreteClassTooSmallException e) {
+					for (int j = i + 1; j < heightCount; j++) fireSliceFinished(concreteClass, heightRange.getValue(j));
+					continue concrete;
+				}
+			}
+		}
+		return crossSectionList == null ? accepted[0] : crossSectionList.size();
+	}
+
+	/**
+	 * Calculates cross sections on the executor. Slices following the one, in which concrete class turned out to be
+	 * too small, are skipped or discarded, so the result is the same as of sequential calculation. Cross sections are
+	 * kept per slice only if they are collected.
+	 *
+	 * @param crossSectionList list, to which calculated cross sections are added, or null, if they are only counted
+	 * @return number of calculated cross sections
+	 * @throws ImproperDataException if calculation was interrupted or failed
+	 */
+	protected long calculateInParallel(List<CrossSection> crossSectionList) throws ImproperDataException {
+		int heightCount = heightRange.getCount();
+		AtomicIntegerArray lastSlices = new AtomicIntegerArray(concreteClasses.length);
+		List<List<CrossSection>> slices = crossSectionList == null
+				? null
+				: new ArrayList<>(concreteClasses.length * heightCount);
+		long[] accepted = new long[concreteClasses.length * heightCount];
+		List<Future<?>> futures = new ArrayList<>(concreteClasses.length * heightCount);
+		for (int c = 0; c < concreteClasses.length; c++) {
+			lastSlices.set(c, heightCount - 1);
+			for (int i = 0; i < heightCount; i++) {
+				int sliceIndex = c * heightCount + i;
+				Consumer<CrossSection> consumer;
+				if (slices == null) {
+					consumer = crossSection -> accepted[sliceIndex]++;
+				} else {
+					List<CrossSection> slice = new ArrayList<>();
+					slices.add(slice);
+					consumer = slice::add;
+				}
+				int concreteIndex = c;
+				int heightIndex = i;
+				futures.add(executorService.submit(() -> {
+					ConcreteClassification concreteClass = concreteClasses[concreteIndex];
+					if (cancelled) return;
+					if (heightIndex > lastSlices.get(concreteIndex)) {
+						fireSliceFinished(concreteClass, heightRange.getValue(heightIndex));
+						return;
+					}
+					try {
+						calculateSlice(concreteClass, heightRange.getValue(heightIndex), consumer);
+					} catch (ConcreteClassTooSmallException e) {
+						lastSlices.accumulateAndGet(concreteIndex, heightIndex, Math::min);
+					}
+				}));
+			}
+		}
+		try {
+			for (Future<?> future : futures) future.get();
+		} catch (InterruptedException e) {
+			cancel();
+			Thread.currentThread().interrupt();
+			throw new ImproperDataException(e);
+		} catch (ExecutionException e) {
+			cancel();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new ImproperDataException(e.getCause());
+		}
+
+		long acceptedCount = 0;
+		for (int c = 0; c < concreteClasses.length; c++) {
+			for (int i = 0; i <= lastSlices.get(c); i++) {
+				if (slices == null) acceptedCount += accepted[c * heightCount + i];
+				else crossSectionList.addAll(slices.get(c * heightCount + i));
+			}
+		}
+		return slices == null ? acceptedCount : crossSectionList.size();
+	}
+
+	/**
+	 * Calculates cross sections of single concrete class and single height
+	 *
+	 * @param concreteClass concrete class
+	 * @param h             height in m
+	 * @param consumer      consumer of calculated cross sections
+	 * @throws ConcreteClassTooSmallException if concrete class is too small, so all of its slices can be skipped
+	 */
+	protected void calculateSlice(ConcreteClassification concreteClass, double h, Consumer<CrossSection> consumer)
+			throws ConcreteClassTooSmallException {
+		int widthCount = widthRange.getCount();
+		fireSliceStarted(concreteClass, h);
+		try {
+			width:
+			for (int w = 0; w < widthCount; w++) {
+				if (cancelled) return;
+				double b = widthRange.getValue(w);
+				reinforcementB:
+				for (double fib : fibs) {
+					reinforcementA:
+					for (double fia : fias) {
+						reinforcementSw:
+						for (double fisw : fisws) {
+							try {
+								CrossSection crossSection = new CrossSection(new Shape(b, h),
+										longitudinalReinforcementSteel,
+										shearReinforcementSteel, concreteClass, CrossSectionType.BEAM,
+										new LongitudinalReinforcement(
+												new Reinforcement(2, fib, 0, 0),
+												new Reinforcement(2, fia, 0, 0)
+										),
+										new ShearReinforcement(0, fisw, 0, 2),
+										0
+								);
+
+								consumer.accept(evaluateCrossSection(crossSection));
+							} catch (HeightTooSmallException e) {
+								return;
+							} catch (ConcreteClassTooSmallException e) {
+								throw e;
+							} catch (CompressionTooHighException | WidthTooSmallException e) {
+								continue width;
+							} catch (ImproperDataException e) {
+							} catch (ForceInReinforcementATooHighException e) {
+								continue reinforcementA;
+							} catch (ForceInReinforcementBTooHighException e) {
+								continue reinforcementB;
+							} catch (ForceInReinforcementSWTooHighException e) {
+								continue reinforcementSw;
+							} catch (ShearReinforcementDiameterTooHighException e) {
+								continue reinforcementSw;
+							} catch (SLSException e) {
+								continue;
+							} catch (LSException e) {
+								continue;
 							}
 						}
 					}
 				}
 			}
+		} finally {
+			fireSliceFinished(concreteClass, h);
+		}
+	}
+
+	/**
+	 * Calculates and returns single cross section built from the candidate and notifies listeners about the outcome
+	 *
+	 * @param crossSection candidate cross section
+	 * @return cross section
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CrossSection evaluateCrossSection(CrossSection crossSection) throws ImproperDataException,
+			LSException {
+		try {
+			CrossSection calculatedCrossSection = calculateCrossSection(crossSection);
+			fireCandidateEvaluated(crossSection, calculatedCrossSection, null);
+			return calculatedCrossSection;
+		} catch (ImproperDataException | LSException e) {
+			fireCandidateEvaluated(crossSection, null, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Calculates and returns single cross section built from the candidate
+	 *
+	 * @param crossSection candidate cross section
+	 * @return cross section
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CrossSection calculateCrossSection(CrossSection crossSection) throws ImproperDataException,
+			LSException {
+		CandidateMemo candidateMemo = this.candidateMemo;
+		String candidateContext = this.candidateContext;
+		if (candidateMemo == null || candidateContext == null) return calculateUnmemorizedCrossSection(crossSection);
+		CandidateMemo.Key key = new CandidateMemo.Key(candidateContext,
+				crossSection.getConcreteClassification().getSymbol(), crossSection.getShape().getB(),
+				crossSection.getShape().getH(), crossSection.getAs().getAsb().getPhi(),
+				crossSection.getAs().getAsa().getPhi(), crossSection.getAsw().getPhi());
+		CandidateMemo.Outcome outcome = candidateMemo.get(key);
+		if (outcome != null) return outcome.get();
+		try {
+			CrossSection calculatedCrossSection = calculateUnmemorizedCrossSection(crossSection);
+			candidateMemo.put(key, CandidateMemo.Outcome.accepted(calculatedCrossSection));
+			return calculatedCrossSection;
+		} catch (ImproperDataException | LSException e) {
+			candidateMemo.put(key, CandidateMemo.Outcome.rejected(e));
+			throw e;
 		}
-		return crossSectionList.toArray(new CrossSection[0]);
 	}
 
+	/**
+	 * Calculates and returns single cross section built from the candidate without use of the memo
+	 *
+	 * @param crossSection candidate cross section
+	 * @return cross section
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CrossSection calculateUnmemorizedCrossSection(CrossSection crossSection) throws
+			ImproperDataException, LSException {
+		return createCrossSectionFactory(exposureClasses, loads, factors, crossSection, is100yWorkingLife,
+				isQualityEnsured, isHighAir, dg).build();
+	}
+
+	/**
+	 * Creates factory, which calculates single cross section
+	 *
+	 * @param exposureClasses   exposure classes
+	 * @param loads             loads
+	 * @param factors           partial factors
+	 * @param crossSection      candidate cross section
+	 * @param is100yWorkingLife if element is designed for 100 years working life
+	 * @param isQualityEnsured  if special concrete quality control is ensure
+	 * @param isHighAir         if air containment is higher than 4%
+	 * @param dg                maximal diameter of aggregate in m
+	 * @return factory of the cross section
+	 */
+	protected CrossSectionFactory createCrossSectionFactory(ExposureClassification[] exposureClasses, Load[] loads,
+	                                                        Factors factors, CrossSection crossSection,
+	                                                        boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                                        boolean isHighAir, double dg) {
+		return new CrossSectionFactory(exposureClasses, loads, factors, crossSection, is100yWorkingLife,
+				isQualityEnsured, isHighAir, dg);
+	}
+
+	protected void fireSearchStarted(int slices, long candidates) {
+		for (CrossSectionsListener listener : listeners) listener.searchStarted(slices, candidates);
+	}
+
+	protected void fireSliceStarted(ConcreteClassification concreteClass, double h) {
+		for (CrossSectionsListener listener : listeners) listener.sliceStarted(concreteClass, h);
+	}
+
+	protected void fireCandidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+		for (CrossSectionsListener listener : listeners)
+			listener.candidateEvaluated(candidate, crossSection, rejection);
+	}
+
+	protected void fireSliceFinished(ConcreteClassification concreteClass, double h) {
+		for (CrossSectionsListener listener : listeners) listener.sliceFinished(concreteClass, h);
+	}
+
+	protected void fireSearchFinished() {
+		for (CrossSectionsListener listener : listeners) listener.searchFinished();
+	}
 }
@@ -0,0 +1,57 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Listener notified about progress of {@link CrossSectionsFactory}. The design space is split into slices of single
+ * concrete class and single height. Methods may be called from many threads at once, so implementations have to be
+ * thread-safe and should return quickly.
+ */
+public interface CrossSectionsListener {
+	/**
+	 * Called once before the search starts
+	 *
+	 * @param slices     number of slices of the design space
+	 * @param candidates number of candidates in the design space
+	 */
+	default void searchStarted(int slices, long candidates) {
+	}
+
+	/**
+	 * Called before candidates of the slice are evaluated
+	 *
+	 * @param concreteClass concrete class of the slice
+	 * @param h             height of the slice in m
+	 */
+	default void sliceStarted(ConcreteClassification concreteClass, double h) {
+	}
+
+	/**
+	 * Called after the candidate is evaluated
+	 *
+	 * @param candidate    candidate cross section
+	 * @param crossSection calculated cross section or null if the candidate was rejected
+	 * @param rejection    reason of the rejection or null if the candidate was accepted
+	 */
+	default void candidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+	}
+
+	/**
+	 * Called once for every slice of the design space, after it is evaluated or skipped
+	 *
+	 * @param concreteClass concrete class of the slice
+	 * @param h             height of the slice in m
+	 */
+	default void sliceFinished(ConcreteClassification concreteClass, double h) {
+	}
+
+	/**
+	 * Called once after the search finishes or is cancelled
+	 */
+	default void searchFinished() {
+	}
+}
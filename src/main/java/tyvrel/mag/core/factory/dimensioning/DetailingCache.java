@@ -0,0 +1,193 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.io.CanonicalDigest;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.DesignInput;
+import tyvrel.mag.core.model.Factors;
+import tyvrel.mag.core.model.Load;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.model.classification.Steel;
+import tyvrel.mag.core.model.reinforcement.LongitudinalReinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+import tyvrel.mag.core.monitor.EngineMetrics;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Bounded caches of load independent stages of single candidate: cover, linear creep coefficient and minimal
+ * reinforcement. Results are keyed by concrete class, dimensions, diameters and hash of inputs affecting these
+ * stages (see {@link #writeDetailingContext(DataOutput, DesignInput)}), so they are shared by searches differing only
+ * in loads, partial factors, ranges or price list. Safe to use from many threads.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DetailingCache {
+	/**
+	 * Default maximal number of entries of each cache
+	 */
+	public static final int DEFAULT_MAX_SIZE = 100000;
+
+	private final BoundedCache<CandidateMemo.Key, Double> covers;
+	private final BoundedCache<CandidateMemo.Key, Double> linearCreepCoefficients;
+	private final BoundedCache<CandidateMemo.Key, LongitudinalReinforcement> minimalAs;
+	private final BoundedCache<CandidateMemo.Key, ShearReinforcement> minimalAsw;
+
+	/**
+	 * Creates an instance of the cache
+	 *
+	 * @param maxSize maximal number of entries of each cache
+	 */
+	public DetailingCache(int maxSize) {
+		EngineMetrics metrics = EngineMetrics.getInstance();
+		covers = new BoundedCache<>(maxSize, metrics.getCacheStatistics("cover"));
+		linearCreepCoefficients = new BoundedCache<>(maxSize, metrics.getCacheStatistics("linear creep coefficient"));
+		minimalAs = new BoundedCache<>(maxSize, metrics.getCacheStatistics("minimal reinforcement"));
+		minimalAsw = new BoundedCache<>(maxSize, metrics.getCacheStatistics("minimal shear reinforcement"));
+	}
+
+	/**
+	 * Creates factory of the search of the design input, whose candidates take load independent stages from the
+	 * cache
+	 *
+	 * @param designInput design input
+	 * @return factory of the search
+	 */
+	public CrossSectionsFactory createCrossSectionsFactory(DesignInput designInput) {
+		String context = CanonicalDigest.sha256(out -> writeDetailingContext(out, designInput));
+		return new CrossSectionsFactory(designInput) {
+			@Override
+			protected CrossSectionFactory createCrossSectionFactory(ExposureClassification[] exposureClasses,
+			                                                        Load[] loads, Factors factors,
+			                                                        CrossSection crossSection,
+			                                                        boolean is100yWorkingLife,
+			                                                        boolean isQualityEnsured, boolean isHighAir,
+			                                                        double dg) {
+				return new CachingCrossSectionFactory(context, exposureClasses, loads, factors, crossSection,
+						is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+			}
+		};
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public void clear() {
+		covers.clear();
+		linearCreepCoefficients.clear();
+		minimalAs.clear();
+		minimalAsw.clear();
+	}
+
+	/**
+	 * Writes inputs affecting load independent stages of every single candidate in canonical form
+	 *
+	 * @param out         output
+	 * @param designInput design input
+	 * @throws IOException if writing failed
+	 */
+	protected void writeDetailingContext(DataOutput out, DesignInput designInput) throws IOException {
+		out.writeInt(designInput.getExposureClasses().length);
+		for (ExposureClassification exposureClass : designInput.getExposureClasses()) {
+			out.writeUTF(exposureClass.getSymbol());
+		}
+		for (Steel steel : new Steel[]{designInput.getLongitudinalReinforcementSteel(),
+				designInput.getShearReinforcementSteel()}) {
+			out.writeDouble(steel.getEs());
+			out.writeDouble(steel.getFy());
+			out.writeUTF(String.valueOf(steel.getClassification()));
+		}
+		out.writeBoolean(designInput.is100yWorkingLife());
+		out.writeBoolean(designInput.isQualityEnsured());
+		out.writeBoolean(designInput.isHighAir());
+		out.writeDouble(designInput.getDg());
+	}
+
+	/**
+	 * Factory of single cross section, which takes results of load independent stages from the cache
+	 */
+	protected class CachingCrossSectionFactory extends CrossSectionFactory {
+		private final String context;
+
+		/**
+		 * Creates an instance of the factory
+		 *
+		 * @param context           hash of inputs affecting load independent stages
+		 * @param exposureClasses   exposure classes
+		 * @param loads             loads
+		 * @param factors           partial factors
+		 * @param crossSection      cross section
+		 * @param is100yWorkingLife if element is designed for 100 years working life
+		 * @param isQualityEnsured  if special concrete quality control is ensure
+		 * @param isHighAir         if air containment is higher than 4%
+		 * @param dg                maximal diameter of aggregate in m
+		 */
+		public CachingCrossSectionFactory(String context, ExposureClassification[] exposureClasses, Load[] loads,
+		                                  Factors factors, CrossSection crossSection, boolean is100yWorkingLife,
+		                                  boolean isQualityEnsured, boolean isHighAir, double dg) {
+			super(exposureClasses, loads, factors, crossSection, is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+			this.context = context;
+		}
+
+		@Override
+		protected CrossSection calculateCover(CrossSection crossSection) throws ImproperDataException, LSException {
+			CandidateMemo.Key key = key(crossSection, true);
+			Double cnom = covers.get(key);
+			if (cnom != null) return withDetailing(crossSection, crossSection.getAs(), crossSection.getAsw(), cnom);
+			CrossSection coveredCrossSection = super.calculateCover(crossSection);
+			covers.put(key, coveredCrossSection.getCnom());
+			return coveredCrossSection;
+		}
+
+		@Override
+		protected double calculatePhiln(CrossSection crossSection) throws ImproperDataException, LSException {
+			CandidateMemo.Key key = key(crossSection, false);
+			Double philn = linearCreepCoefficients.get(key);
+			if (philn != null) return philn;
+			double calculatedPhiln = super.calculatePhiln(crossSection);
+			linearCreepCoefficients.put(key, calculatedPhiln);
+			return calculatedPhiln;
+		}
+
+		@Override
+		protected CrossSection calculateMinimalAs(CrossSection crossSection) throws ImproperDataException,
+				LSException {
+			CandidateMemo.Key key = key(crossSection, true);
+			LongitudinalReinforcement as = minimalAs.get(key);
+			if (as != null) return withDetailing(crossSection, as, crossSection.getAsw(), crossSection.getCnom());
+			CrossSection detailedCrossSection = super.calculateMinimalAs(crossSection);
+			minimalAs.put(key, detailedCrossSection.getAs());
+			return detailedCrossSection;
+		}
+
+		@Override
+		protected CrossSection calculateMinimalAsw(CrossSection crossSection) throws ImproperDataException,
+				LSException {
+			CandidateMemo.Key key = key(crossSection, true);
+			ShearReinforcement asw = minimalAsw.get(key);
+			if (asw != null) return withDetailing(crossSection, crossSection.getAs(), asw, crossSection.getCnom());
+			CrossSection detailedCrossSection = super.calculateMinimalAsw(crossSection);
+			minimalAsw.put(key, detailedCrossSection.getAsw());
+			return detailedCrossSection;
+		}
+
+		private CandidateMemo.Key key(CrossSection crossSection, boolean withDiameters) {
+			return new CandidateMemo.Key(context, crossSection.getConcreteClassification().getSymbol(),
+					crossSection.getShape().getB(), crossSection.getShape().getH(),
+					withDiameters ? crossSection.getAs().getAsb().getPhi() : 0,
+					withDiameters ? crossSection.getAs().getAsa().getPhi() : 0,
+					withDiameters ? crossSection.getAsw().getPhi() : 0);
+		}
+
+		private CrossSection withDetailing(CrossSection crossSection, LongitudinalReinforcement as,
+		                                   ShearReinforcement asw, double cnom) {
+			return new CrossSection(crossSection.getShape(), crossSection.getLongitudinalReinforcementSteel(),
+					crossSection.getShearReinforcementSteel(), crossSection.getConcreteClassification(),
+					crossSection.getCrossSectionType(), as, asw, cnom);
+		}
+	}
+}
@@ -0,0 +1,286 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.io.ResultDiskCache;
+import tyvrel.mag.core.model.*;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Designs cross sections of successive versions of the design input recalculating only what depends on changed
+ * inputs. Inputs are grouped in nodes of dependency graph:
+ * <ul>
+ * <li>{@link #PRICES} don't affect cross sections, so existing cross sections are returned again</li>
+ * <li>{@link #CONCRETE_CLASSES} affect only slices of the concrete class, so only slices of added concrete classes
+ * are calculated and cross sections of removed ones are dropped</li>
+ * <li>{@link #LOADS} and {@link #FACTORS} affect only load dependent checks, so the search is run again reusing
+ * cover, linear creep coefficient and minimal reinforcement of candidates calculated before (see {@link
+ * DetailingCache})</li>
+ * <li>{@link #GEOMETRY} and {@link #MATERIALS} affect every stage, so the search is run again</li>
+ * </ul>
+ * Returned cross sections aren't priced, so they are grouped by concrete class in order of the design input and
+ * pricing is left to the caller.
+ */
+@SuppressWarnings("WeakerAccess")
+public class IncrementalDesigner {
+	/**
+	 * Price list
+	 */
+	public static final int PRICES = 1;
+	/**
+	 * Concrete classes
+	 */
+	public static final int CONCRETE_CLASSES = 2;
+	/**
+	 * Loads
+	 */
+	public static final int LOADS = 4;
+	/**
+	 * Partial factors
+	 */
+	public static final int FACTORS = 8;
+	/**
+	 * Ranges of dimensions and diameters of reinforcement
+	 */
+	public static final int GEOMETRY = 16;
+	/**
+	 * Exposure classes, steels, working life, quality control, air containment and aggregate
+	 */
+	public static final int MATERIALS = 32;
+
+	private static final int ALL = PRICES | CONCRETE_CLASSES | LOADS | FACTORS | GEOMETRY | MATERIALS;
+
+	private final DetailingCache detailingCache;
+	private final List<CrossSectionsListener> listeners = new CopyOnWriteArrayList<>();
+	private final Map<String, CrossSection[]> crossSectionsByConcreteClass = new HashMap<>();
+	private DesignInput designInput;
+	private CrossSection[] crossSections = new CrossSection[0];
+	private int changes;
+	private ExecutorService executorService;
+	private ResultDiskCache resultCache;
+	private CandidateMemo candidateMemo;
+	private volatile CrossSectionsFactory runningCrossSectionsFactory;
+	private volatile boolean cancelled;
+
+	/**
+	 * Creates an instance of the designer with its own cache of load independent stages
+	 */
+	public IncrementalDesigner() {
+		this(new DetailingCache(DetailingCache.DEFAULT_MAX_SIZE));
+	}
+
+	/**
+	 * Creates an instance of the designer
+	 *
+	 * @param detailingCache cache of load independent stages
+	 */
+	public IncrementalDesigner(DetailingCache detailingCache) {
+		this.detailingCache = detailingCache;
+	}
+
+	/**
+	 * Sets executor, on which slices are calculated in parallel
+	 *
+	 * @param executorService executor or null, if cross sections should be calculated in calling thread
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Sets cache of results of searches
+	 *
+	 * @param resultCache cache or null
+	 */
+	public void setResultCache(ResultDiskCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * Sets memo of outcomes of single candidates
+	 *
+	 * @param candidateMemo memo or null
+	 */
+	public void setCandidateMemo(CandidateMemo candidateMemo) {
+		this.candidateMemo = candidateMemo;
+	}
+
+	/**
+	 * Adds listener notified about progress of searches. Listener isn't notified, when no search is needed.
+	 *
+	 * @param listener listener
+	 */
+	public void addListener(CrossSectionsListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes listener notified about progress of searches
+	 *
+	 * @param listener listener
+	 */
+	public void removeListener(CrossSectionsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Requests cancellation of the search. {@link #design(DesignInput)} then returns cross sections calculated so
+	 * far and the next call after {@link #resetCancellation()} calculates everything again. The request stays until
+	 * {@link #resetCancellation()}, so cancellation requested before the search starts isn't lost.
+	 */
+	public void cancel() {
+		cancelled = true;
+		CrossSectionsFactory crossSectionsFactory = runningCrossSectionsFactory;
+		if (crossSectionsFactory != null) crossSectionsFactory.cancel();
+	}
+
+	/**
+	 * Withdraws request of cancellation, so the designer searches again
+	 */
+	public void resetCancellation() {
+		cancelled = false;
+	}
+
+	/**
+	 * Forgets previous design input, so the next call calculates everything again
+	 */
+	public synchronized void reset() {
+		designInput = null;
+		crossSectionsByConcreteClass.clear();
+	}
+
+	/**
+	 * Designs cross sections of the design input, recalculating only what depends on inputs changed since previous
+	 * call
+	 *
+	 * @param designInput design input
+	 * @return cross sections
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	public synchronized CrossSection[] design(DesignInput designInput) throws ImproperDataException, LSException {
+		changes = this.designInput == null ? ALL : diff(this.designInput, designInput);
+		if (changes == 0) return crossSections.clone();
+		if ((changes & ~(PRICES | CONCRETE_CLASSES)) != 0) crossSectionsByConcreteClass.clear();
+
+		List<ConcreteClassification> missing = new ArrayList<>();
+		for (ConcreteClassification concreteClass : designInput.getConcreteClasses()) {
+			if (!crossSectionsByConcreteClass.containsKey(concreteClass.getSymbol())) missing.add(concreteClass);
+		}
+		if (!missing.isEmpty()) {
+			ConcreteClassification[] concreteClasses = missing.toArray(new ConcreteClassification[0]);
+			CrossSection[] calculated = search(withConcreteClasses(designInput, concreteClasses));
+			Map<String, List<CrossSection>> grouped = new HashMap<>();
+			for (ConcreteClassification concreteClass : concreteClasses) {
+				grouped.put(concreteClass.getSymbol(), new ArrayList<>());
+			}
+			for (CrossSection crossSection : calculated) {
+				grouped.get(crossSection.getConcreteClassification().getSymbol()).add(crossSection);
+			}
+			if (!cancelled) {
+				for (Map.Entry<String, List<CrossSection>> entry : grouped.entrySet()) {
+					crossSectionsByConcreteClass.put(entry.getKey(), entry.getValue().toArray(new CrossSection[0]));
+				}
+			} else {
+				this.designInput = null;
+				crossSectionsByConcreteClass.clear();
+				return calculated;
+			}
+		}
+
+		Set<String> symbols = new HashSet<>();
+		List<CrossSection> crossSectionList = new ArrayList<>();
+		for (ConcreteClassification concreteClass : designInput.getConcreteClasses()) {
+			symbols.add(concreteClass.getSymbol());
+			crossSectionList.addAll(Arrays.asList(crossSectionsByConcreteClass.get(concreteClass.getSymbol())));
+		}
+		crossSectionsByConcreteClass.keySet().retainAll(symbols);
+		this.designInput = designInput;
+		crossSections = crossSectionList.toArray(new CrossSection[0]);
+		return crossSections.clone();
+	}
+
+	/**
+	 * Returns inputs changed in last call of {@link #design(DesignInput)} as combination of {@link #PRICES}, {@link
+	 * #CONCRETE_CLASSES}, {@link #LOADS}, {@link #FACTORS}, {@link #GEOMETRY} and {@link #MATERIALS}
+	 *
+	 * @return changed inputs
+	 */
+	public synchronized int getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Returns inputs, which differ between design inputs
+	 *
+	 * @param previous previous design input
+	 * @param current  current design input
+	 * @return combination of changed inputs
+	 */
+	protected int diff(DesignInput previous, DesignInput current) {
+		int changes = 0;
+		if (!Objects.equals(previous.getPriceList(), current.getPriceList())) changes |= PRICES;
+		if (!Arrays.equals(previous.getConcreteClasses(), current.getConcreteClasses())) changes |= CONCRETE_CLASSES;
+		if (!Arrays.equals(previous.getLoads(), current.getLoads())) changes |= LOADS;
+		if (!Objects.equals(previous.getFactors(), current.getFactors())) changes |= FACTORS;
+		if (!Arrays.equals(previous.getFias(), current.getFias()) || !Arrays.equals(previous.getFibs(),
+				current.getFibs()) || !Arrays.equals(previous.getFisws(), current.getFisws()) ||
+				!Objects.equals(previous.getWidthRange(), current.getWidthRange()) ||
+				!Objects.equals(previous.getHeightRange(), current.getHeightRange())) changes |= GEOMETRY;
+		if (!Arrays.equals(previous.getExposureClasses(), current.getExposureClasses()) ||
+				!Objects.equals(previous.getLongitudinalReinforcementSteel(),
+						current.getLongitudinalReinforcementSteel()) ||
+				!Objects.equals(previous.getShearReinforcementSteel(), current.getShearReinforcementSteel()) ||
+				!Objects.equals(previous.getLongitudinalReinforcementSteelType(),
+						current.getLongitudinalReinforcementSteelType()) ||
+				!Objects.equals(previous.getShearReinforcementSteelType(),
+						current.getShearReinforcementSteelType()) ||
+				previous.is100yWorkingLife() != current.is100yWorkingLife() ||
+				previous.isQualityEnsured() != current.isQualityEnsured() ||
+				previous.isHighAir() != current.isHighAir() ||
+				Double.compare(previous.getDg(), current.getDg()) != 0) changes |= MATERIALS;
+		return changes;
+	}
+
+	/**
+	 * Runs the search of the design input
+	 *
+	 * @param designInput design input
+	 * @return cross sections in order of the search
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CrossSection[] search(DesignInput designInput) throws ImproperDataException, LSException {
+		CrossSectionsFactory crossSectionsFactory = detailingCache.createCrossSectionsFactory(designInput);
+		for (CrossSectionsListener listener : listeners) crossSectionsFactory.addListener(listener);
+		crossSectionsFactory.setExecutorService(executorService);
+		crossSectionsFactory.setResultCache(resultCache);
+		crossSectionsFactory.setCandidateMemo(candidateMemo);
+		runningCrossSectionsFactory = crossSectionsFactory;
+		try {
+			if (cancelled) crossSectionsFactory.cancel();
+			return crossSectionsFactory.build();
+		} finally {
+			runningCrossSectionsFactory = null;
+			if (crossSectionsFactory.isCancelled()) cancelled = true;
+		}
+	}
+
+	private static DesignInput withConcreteClasses(DesignInput designInput, ConcreteClassification[]
+			concreteClasses) {
+		return new DesignInput(designInput.getFias(), designInput.getFibs(), designInput.getFisws(),
+				designInput.getWidthRange(), designInput.getHeightRange(), concreteClasses,
+				designInput.getExposureClasses(), designInput.getLoads(),
+				designInput.getLongitudinalReinforcementSteelType(), designInput.getLongitudinalReinforcementSteel(),
+				designInput.getShearReinforcementSteelType(), designInput.getShearReinforcementSteel(),
+				designInput.getFactors(), designInput.getPriceList(), designInput.is100yWorkingLife(),
+				designInput.isQualityEnsured(), designInput.isHighAir(), designInput.getDg());
+	}
+}
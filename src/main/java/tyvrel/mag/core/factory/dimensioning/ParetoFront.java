@@ -0,0 +1,419 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.PriceList;
+
+import java.util.*;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Listener, which keeps only cross sections, which aren't dominated by another accepted cross section in any of the
+ * minimized objectives, for example price and height. Cross section, which is equal in all objectives to already
+ * kept one, isn't kept. Only the front is retained in memory if the search doesn't collect cross sections itself,
+ * see {@link CrossSectionsFactory#search()}.
+ * <p>
+ * Front of two objectives is kept as staircase sorted by the first objective, so insertion takes O(log n) and removal
+ * of each dominated cross section O(log n). Front of three objectives is kept as staircases of the other two
+ * objectives, one for every value of the most discrete objective (height, then number of bars), so insertion takes
+ * O(k log n), where k is number of its values. Other numbers of objectives are kept in a list.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ParetoFront implements CrossSectionsListener {
+	/**
+	 * Price in zł/m calculated by {@link PriceFactory}
+	 */
+	public static final int PRICE = 0;
+	/**
+	 * Height in m
+	 */
+	public static final int HEIGHT = 1;
+	/**
+	 * Area of longitudinal and shear reinforcement in m², which is priced by {@link PriceFactory}
+	 */
+	public static final int STEEL_AREA = 2;
+	/**
+	 * Number of bars of top and bottom reinforcement
+	 */
+	public static final int BAR_COUNT = 3;
+	/**
+	 * Number of the objectives
+	 */
+	public static final int OBJECTIVE_COUNT = 4;
+
+	private static final String[] NAMES = {"price", "h", "steel", "bars"};
+	private static final int[] DISCRETENESS_ORDER = {HEIGHT, BAR_COUNT, STEEL_AREA, PRICE};
+
+	private final PriceList priceList;
+	private final int[] objectives;
+	private final Front front;
+
+	/**
+	 * Creates an instance of the front
+	 *
+	 * @param priceList  price list or null, if price isn't an objective
+	 * @param objectives minimized objectives, for example {@link #PRICE} and {@link #HEIGHT}
+	 * @throws IllegalArgumentException if objectives are empty, repeated or unknown or price list is missing
+	 */
+	public ParetoFront(PriceList priceList, int... objectives) {
+		boolean[] used = validate(objectives);
+		if (used[PRICE] && priceList == null) throw new IllegalArgumentException("Price list is missing");
+		this.priceList = priceList;
+		this.objectives = objectives.clone();
+		if (objectives.length == 2) {
+			front = new Staircase(0, 1);
+		} else if (objectives.length == 3) {
+			int layer = 0;
+			for (int objective : DISCRETENESS_ORDER) {
+				if (used[objective]) {
+					for (int i = 0; i < objectives.length; i++) if (objectives[i] == objective) layer = i;
+					break;
+				}
+			}
+			front = new LayeredStaircases(layer, layer == 0 ? 1 : 0, layer == 2 ? 1 : 2);
+		} else {
+			front = new ListFront();
+		}
+	}
+
+	/**
+	 * Validates objectives and returns, which of them are used
+	 *
+	 * @param objectives objectives
+	 * @return array indexed by objectives, true for used ones
+	 * @throws IllegalArgumentException if objectives are empty, repeated or unknown
+	 */
+	public static boolean[] validate(int... objectives) {
+		if (objectives.length == 0) throw new IllegalArgumentException("Objectives are empty");
+		boolean[] used = new boolean[OBJECTIVE_COUNT];
+		for (int objective : objectives) {
+			getName(objective);
+			if (used[objective]) throw new IllegalArgumentException("Objective " + getName(objective) + " is repeated");
+			used[objective] = true;
+		}
+		return used;
+	}
+
+	/**
+	 * Returns name of the objective
+	 *
+	 * @param objective objective
+	 * @return name of the objective
+	 * @throws IllegalArgumentException if objective is unknown
+	 */
+	public static String getName(int objective) {
+		if (objective < 0 || objective >= OBJECTIVE_COUNT)
+			throw new IllegalArgumentException("Objective " + objective + " is unknown");
+		return NAMES[objective];
+	}
+
+	/**
+	 * Returns objective of the name
+	 *
+	 * @param name name of the objective, for example "price"
+	 * @return objective
+	 * @throws IllegalArgumentException if name is unknown
+	 */
+	public static int parseObjective(String name) {
+		for (int objective = 0; objective < OBJECTIVE_COUNT; objective++) {
+			if (NAMES[objective].equals(name)) return objective;
+		}
+		throw new IllegalArgumentException("Unknown objective " + name);
+	}
+
+	@Override
+	public void candidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+		if (crossSection != null) add(crossSection);
+	}
+
+	/**
+	 * Adds cross section to the front, if it isn't dominated, and removes cross sections dominated by it
+	 *
+	 * @param crossSection accepted cross section
+	 * @return true, if cross section was added
+	 */
+	public boolean add(CrossSection crossSection) {
+		double[] values = new double[objectives.length];
+		try {
+			for (int i = 0; i < objectives.length; i++) {
+				values[i] = calculateValue(objectives[i], crossSection);
+				if (Double.isNaN(values[i])) return false;
+			}
+		} catch (ImproperDataException | LSException e) {
+			return false;
+		}
+		synchronized (this) {
+			return front.add(new Member(crossSection, values));
+		}
+	}
+
+	/**
+	 * Calculates and returns value of the objective
+	 *
+	 * @param objective    objective
+	 * @param crossSection cross section
+	 * @return value of the objective
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected double calculateValue(int objective, CrossSection crossSection) throws ImproperDataException,
+			LSException {
+		switch (objective) {
+			case PRICE:
+				return new PriceFactory(crossSection, priceList).build();
+			case HEIGHT:
+				return crossSection.getShape().getH();
+			case STEEL_AREA:
+				return crossSection.getAs().getAsa().getA() + crossSection.getAs().getAsb().getA()
+						+ crossSection.getAsw().getA();
+			case BAR_COUNT:
+				return crossSection.getAs().getAsa().getN() + crossSection.getAs().getAsb().getN();
+			default:
+				throw new IllegalArgumentException("Objective " + objective + " is unknown");
+		}
+	}
+
+	/**
+	 * Returns cross sections of the front sorted by the objectives in order of the constructor
+	 *
+	 * @return cross sections of the front
+	 */
+	public synchronized Member[] getMembers() {
+		List<Member> members = new ArrayList<>(front.size());
+		front.collect(members);
+		members.sort((member1, member2) -> {
+			for (int i = 0; i < objectives.length; i++) {
+				int compare = Double.compare(member1.values[i], member2.values[i]);
+				if (compare != 0) return compare;
+			}
+			return 0;
+		});
+		return members.toArray(new Member[0]);
+	}
+
+	/**
+	 * Returns number of cross sections of the front
+	 *
+	 * @return number of cross sections of the front
+	 */
+	public synchronized int size() {
+		return front.size();
+	}
+
+	/**
+	 * Removes all cross sections from the front
+	 */
+	public synchronized void clear() {
+		front.clear();
+	}
+
+	/**
+	 * Returns minimized objectives
+	 *
+	 * @return objectives
+	 */
+	public int[] getObjectives() {
+		return objectives.clone();
+	}
+
+	/**
+	 * Cross section of the front and values of its objectives
+	 */
+	public static class Member {
+		private final CrossSection crossSection;
+		private final double[] values;
+
+		private Member(CrossSection crossSection, double[] values) {
+			this.crossSection = crossSection;
+			this.values = values;
+		}
+
+		@Override
+		public String toString() {
+			return "Member{" +
+					"crossSection=" + crossSection +
+					", values=" + Arrays.toString(values) +
+					'}';
+		}
+
+		/**
+		 * Returns cross section
+		 *
+		 * @return cross section
+		 */
+		public CrossSection getCrossSection() {
+			return crossSection;
+		}
+
+		/**
+		 * Returns value of the objective
+		 *
+		 * @param index index of the objective in order of the constructor of the front
+		 * @return value of the objective
+		 */
+		public double getValue(int index) {
+			return values[index];
+		}
+	}
+
+	private static abstract class Front {
+		abstract boolean add(Member member);
+
+		abstract void collect(List<Member> members);
+
+		abstract int size();
+
+		abstract void clear();
+	}
+
+	/**
+	 * Members of two objectives sorted by x with strictly decreasing y
+	 */
+	private static class Staircase extends Front {
+		private final TreeMap<Double, Member> steps = new TreeMap<>();
+		private final int x;
+		private final int y;
+
+		private Staircase(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		boolean add(Member member) {
+			if (dominates(member)) return false;
+			removeDominated(member);
+			steps.put(member.values[x], member);
+			return true;
+		}
+
+		/**
+		 * Returns if any step is lower or equal to the member in both objectives
+		 */
+		boolean dominates(Member member) {
+			Map.Entry<Double, Member> floor = steps.floorEntry(member.values[x]);
+			return floor != null && floor.getValue().values[y] <= member.values[y];
+		}
+
+		/**
+		 * Removes steps higher or equal to the member in both objectives
+		 */
+		void removeDominated(Member member) {
+			Map.Entry<Double, Member> ceiling = steps.ceilingEntry(member.values[x]);
+			while (ceiling != null && ceiling.getValue().values[y] >= member.values[y]) {
+				steps.remove(ceiling.getKey());
+				ceiling = steps.higherEntry(ceiling.getKey());
+			}
+		}
+
+		@Override
+		void collect(List<Member> members) {
+			members.addAll(steps.values());
+		}
+
+		@Override
+		int size() {
+			return steps.size();
+		}
+
+		@Override
+		void clear() {
+			steps.clear();
+		}
+	}
+
+	/**
+	 * Staircases of two objectives, one for every value of the third objective
+	 */
+	private static class LayeredStaircases extends Front {
+		private final TreeMap<Double, Staircase> layers = new TreeMap<>();
+		private final int layer;
+		private final int x;
+		private final int y;
+		private int size;
+
+		private LayeredStaircases(int layer, int x, int y) {
+			this.layer = layer;
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		boolean add(Member member) {
+			double value = member.values[layer];
+			for (Staircase staircase : layers.headMap(value, true).values()) {
+				if (staircase.dominates(member)) return false;
+			}
+			Iterator<Staircase> iterator = layers.tailMap(value, true).values().iterator();
+			while (iterator.hasNext()) {
+				Staircase staircase = iterator.next();
+				size -= staircase.size();
+				staircase.removeDominated(member);
+				size += staircase.size();
+				if (staircase.size() == 0) iterator.remove();
+			}
+			layers.computeIfAbsent(value, key -> new Staircase(x, y)).add(member);
+			size++;
+			return true;
+		}
+
+		@Override
+		void collect(List<Member> members) {
+			for (Staircase staircase : layers.values()) staircase.collect(members);
+		}
+
+		@Override
+		int size() {
+			return size;
+		}
+
+		@Override
+		void clear() {
+			layers.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * Members of any number of objectives compared with each other
+	 */
+	private static class ListFront extends Front {
+		private final List<Member> members = new ArrayList<>();
+
+		@Override
+		boolean add(Member member) {
+			for (Member kept : members) {
+				if (isLowerOrEqual(kept, member)) return false;
+			}
+			members.removeIf(kept -> isLowerOrEqual(member, kept));
+			members.add(member);
+			return true;
+		}
+
+		private static boolean isLowerOrEqual(Member member1, Member member2) {
+			for (int i = 0; i < member1.values.length; i++) {
+				if (member1.values[i] > member2.values[i]) return false;
+			}
+			return true;
+		}
+
+		@Override
+		void collect(List<Member> members) {
+			members.addAll(this.members);
+		}
+
+		@Override
+		int size() {
+			return members.size();
+		}
+
+		@Override
+		void clear() {
+			members.clear();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.RejectionType;
+import tyvrel.mag.core.factory.others.CrackWidthVerificationFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.Factors;
+import tyvrel.mag.core.model.Load;
+import tyvrel.mag.core.model.Stress;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.monitor.CandidateTrace;
+import tyvrel.mag.core.monitor.CandidateTraceSink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which calculates cross section and offers trace of the calculation to {@link CandidateTraceSink}
+ */
+@SuppressWarnings("WeakerAccess")
+public class TracingCrossSectionFactory extends CrossSectionFactory {
+	private final CandidateTraceSink sink;
+	private final CrossSection candidate;
+	private final List<CrackWidthVerificationFactory> crackWidthVerificationFactories = new ArrayList<>();
+	private CrossSection coveredCrossSection;
+	private CrossSection reinforcedCrossSection;
+	private CrossSection shearReinforcedCrossSection;
+	private double phi = Double.NaN;
+	private double sigmac = Double.NaN;
+	private double sigmas = Double.NaN;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param sink              sink, to which the trace is offered
+	 * @param exposureClasses   exposure classes
+	 * @param loads             loads
+	 * @param factors           partial factors
+	 * @param crossSection      cross section
+	 * @param is100yWorkingLife if element is designed for 100 years working life
+	 * @param isQualityEnsured  if special concrete quality control is ensure
+	 * @param isHighAir         if air containment is higher than 4%
+	 * @param dg                maximal diameter of aggregate in m
+	 */
+	public TracingCrossSectionFactory(CandidateTraceSink sink, ExposureClassification[] exposureClasses, Load[] loads,
+	                                  Factors factors, CrossSection crossSection, boolean is100yWorkingLife,
+	                                  boolean isQualityEnsured, boolean isHighAir, double dg) {
+		super(exposureClasses, loads, factors, crossSection, is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+		this.sink = sink;
+		this.candidate = crossSection;
+	}
+
+	@Override
+	public CrossSection build() throws ImproperDataException, LSException {
+		try {
+			CrossSection crossSection = super.build();
+			trace(CandidateTrace.ACCEPTED);
+			return crossSection;
+		} catch (ImproperDataException | LSException e) {
+			trace(RejectionType.of(e));
+			throw e;
+		}
+	}
+
+	/**
+	 * Offers trace with the verdict to the sink, if it is sampled
+	 *
+	 * @param verdict {@link CandidateTrace#ACCEPTED} or {@link RejectionType}
+	 */
+	protected void trace(int verdict) {
+		if (!sink.isSampled(verdict)) return;
+		sink.offer(new CandidateTrace(candidate.getConcreteClassification().getSymbol(),
+				candidate.getShape().getB(), candidate.getShape().getH(), candidate.getAs().getAsb().getPhi(),
+				candidate.getAs().getAsa().getPhi(), candidate.getAsw().getPhi(),
+				coveredCrossSection != null ? coveredCrossSection.getCnom() : Double.NaN,
+				reinforcedCrossSection != null ? reinforcedCrossSection.getAs().getAsb().getN() : Double.NaN,
+				reinforcedCrossSection != null ? reinforcedCrossSection.getAs().getAsa().getN() : Double.NaN,
+				shearReinforcedCrossSection != null ? shearReinforcedCrossSection.getAsw().getN() : Double.NaN,
+				phi, sigmac, sigmas, getW(), verdict));
+	}
+
+	/**
+	 * Returns the highest crack width of verified loads
+	 *
+	 * @return crack width in m or NaN, if it wasn't calculated
+	 */
+	protected double getW() {
+		double w = Double.NaN;
+		for (CrackWidthVerificationFactory factory : crackWidthVerificationFactories) {
+			double calculatedW = factory.getW();
+			if (!Double.isNaN(calculatedW)) w = Double.isNaN(w) ? calculatedW : Math.max(w, calculatedW);
+		}
+		return w;
+	}
+
+	@Override
+	protected CrossSection calculateCover(CrossSection crossSection) throws ImproperDataException, LSException {
+		return coveredCrossSection = super.calculateCover(crossSection);
+	}
+
+	@Override
+	protected CrossSection calculateAs(CrossSection crossSection) throws ImproperDataException, LSException {
+		return reinforcedCrossSection = super.calculateAs(crossSection);
+	}
+
+	@Override
+	protected CrossSection calculateAsw(CrossSection crossSection) throws ImproperDataException, LSException {
+		return shearReinforcedCrossSection = super.calculateAsw(crossSection);
+	}
+
+	@Override
+	protected double calculatePhi(CrossSection crossSection) throws ImproperDataException, LSException {
+		return phi = super.calculatePhi(crossSection);
+	}
+
+	@Override
+	protected Stress calculateCharStress(CrossSection crossSection) throws ImproperDataException, LSException {
+		Stress stress = super.calculateCharStress(crossSection);
+		sigmac = stress.getSigmac();
+		sigmas = stress.getSigmas();
+		return stress;
+	}
+
+	@Override
+	protected CrackWidthVerificationFactory createCrackWidthVerificationFactory(Load load, CrossSection crossSection)
+			throws ImproperDataException, LSException {
+		CrackWidthVerificationFactory factory = super.createCrackWidthVerificationFactory(load, crossSection);
+		crackWidthVerificationFactories.add(factory);
+		return factory;
+	}
+}
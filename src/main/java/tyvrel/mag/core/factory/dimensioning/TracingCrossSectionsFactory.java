@@ -0,0 +1,95 @@
+package tyvrel.mag.core.factory.dimensioning;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.model.*;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.model.classification.Steel;
+import tyvrel.mag.core.monitor.CandidateTraceSink;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Factory, which calculates cross sections and offers traces of evaluated candidates to {@link CandidateTraceSink}.
+ * Sampling is decided by the sink, so candidates, which aren't sampled, don't create traces. Cache of results and
+ * memo of candidates are bypassed, so every candidate is calculated and traced.
+ */
+@SuppressWarnings("WeakerAccess")
+public class TracingCrossSectionsFactory extends CrossSectionsFactory {
+	private final CandidateTraceSink sink;
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param sink                           sink, to which traces of candidates are offered
+	 * @param fias                           diameters of top longitudinal reinforcement in m
+	 * @param fibs                           diameters of bottom longitudinal reinforcement in m
+	 * @param fisws                          diameters of shear reinforcement in m
+	 * @param widthRange                     range of width
+	 * @param heightRange                    range of height
+	 * @param concreteClasses                concrete classes
+	 * @param exposureClasses                exposure classes
+	 * @param loads                          loads
+	 * @param longitudinalReinforcementSteel longitudinal reinforcement steel
+	 * @param shearReinforcementSteel        shear reinforcement steel
+	 * @param factors                        partial factors
+	 * @param is100yWorkingLife              if element is designed for 100 years working life
+	 * @param isQualityEnsured               if special concrete quality control is ensure
+	 * @param isHighAir                      if air containment is higher than 4%
+	 * @param dg                             maximal diameter of aggregate in m
+	 */
+	public TracingCrossSectionsFactory(CandidateTraceSink sink, double[] fias, double[] fibs, double[] fisws,
+	                                   Range widthRange, Range heightRange, ConcreteClassification[] concreteClasses,
+	                                   ExposureClassification[] exposureClasses, Load[] loads,
+	                                   Steel longitudinalReinforcementSteel, Steel shearReinforcementSteel,
+	                                   Factors factors, boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                   boolean isHighAir, double dg) {
+		super(fias, fibs, fisws, widthRange, heightRange, concreteClasses, exposureClasses, loads,
+				longitudinalReinforcementSteel, shearReinforcementSteel, factors, is100yWorkingLife,
+				isQualityEnsured, isHighAir, dg);
+		this.sink = sink;
+	}
+
+	/**
+	 * Creates an instance of the factory
+	 *
+	 * @param sink        sink, to which traces of candidates are offered
+	 * @param designInput design input
+	 */
+	public TracingCrossSectionsFactory(CandidateTraceSink sink, DesignInput designInput) {
+		this(sink, designInput.getFias(), designInput.getFibs(), designInput.getFisws(), designInput.getWidthRange(),
+				designInput.getHeightRange(), designInput.getConcreteClasses(), designInput.getExposureClasses(),
+				designInput.getLoads(), designInput.getLongitudinalReinforcementSteel(),
+				designInput.getShearReinforcementSteel(), designInput.getFactors(), designInput.is100yWorkingLife(),
+				designInput.isQualityEnsured(), designInput.isHighAir(), designInput.getDg());
+	}
+
+	/**
+	 * Calculates and returns cross sections without use of the cache of results
+	 *
+	 * @return cross sections
+	 * @throws ImproperDataException never
+	 * @throws LSException           never
+	 */
+	@Override
+	public CrossSection[] build() throws ImproperDataException, LSException {
+		return calculateCrossSections();
+	}
+
+	@Override
+	protected CrossSection calculateCrossSection(CrossSection crossSection) throws ImproperDataException,
+			LSException {
+		return calculateUnmemorizedCrossSection(crossSection);
+	}
+
+	@Override
+	protected CrossSectionFactory createCrossSectionFactory(ExposureClassification[] exposureClasses, Load[] loads,
+	                                                        Factors factors, CrossSection crossSection,
+	                                                        boolean is100yWorkingLife, boolean isQualityEnsured,
+	                                                        boolean isHighAir, double dg) {
+		return new TracingCrossSectionFactory(sink, exposureClasses, loads, factors, crossSection, is100yWorkingLife,
+				isQualityEnsured, isHighAir, dg);
+	}
+}
@@ -340,5 +340,23 @@ public class LongitudinalReinforcementFactory implements Factory<LongitudinalRei
 			this.a = a;
 			this.b = b;
 		}
+
+		/**
+		 * Returns value connected with the top of the cross section
+		 *
+		 * @return value connected with the top of the cross section
+		 */
+		public double getA() {
+			return a;
+		}
+
+		/**
+		 * Returns value connected with the bottom of the cross section
+		 *
+		 * @return value connected with the bottom of the cross section
+		 */
+		public double getB() {
+			return b;
+		}
 	}
 }
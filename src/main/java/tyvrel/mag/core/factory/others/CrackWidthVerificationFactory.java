@@ -30,6 +30,7 @@ public class CrackWidthVerificationFactory implements Factory<Boolean> {
 	private final double phi;
 	private final double t;
 	private final int cementClassification;
+	private double w = Double.NaN;
 
 	/**
 	 * Creates an instance of the factory
@@ -72,10 +73,19 @@ public class CrackWidthVerificationFactory implements Factory<Boolean> {
 	 */
 	protected boolean isCrackWidthLimited() throws ImproperDataException, LSException {
 		double wmax = pos(this::calculateWmax);
-		double w = nonNeg(this::calculateW);
+		w = nonNeg(this::calculateW);
 		return w <= wmax;
 	}
 
+	/**
+	 * Returns crack width in m calculated by the last verification
+	 *
+	 * @return crack width in m or NaN, if it wasn't calculated
+	 */
+	public double getW() {
+		return w;
+	}
+
 	/**
 	 * Calculates and returns maximum crack width in m
 	 *
@@ -102,7 +112,18 @@ public class CrackWidthVerificationFactory implements Factory<Boolean> {
 	 * @throws LSException           if limit state is exceeded
 	 */
 	protected double calculateW() throws ImproperDataException, LSException {
-		return nonNeg(() -> new CrackWidthFactory(crossSection, phi, load.getMquasiperma(), load.getMquasipermb(), t,
-				cementClassification).build());
+		return nonNeg(() -> createCrackWidthFactory().build());
+	}
+
+	/**
+	 * Creates factory, which calculates crack width under quasi-permanent combination of the load
+	 *
+	 * @return factory, which calculates crack width
+	 * @throws ImproperDataException if data is improper
+	 * @throws LSException           if limit state is exceeded
+	 */
+	protected CrackWidthFactory createCrackWidthFactory() throws ImproperDataException, LSException {
+		return new CrackWidthFactory(crossSection, phi, load.getMquasiperma(), load.getMquasipermb(), t,
+				cementClassification);
 	}
 }
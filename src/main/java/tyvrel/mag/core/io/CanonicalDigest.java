@@ -0,0 +1,64 @@
+package tyvrel.mag.core.io;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Calculates SHA-256 of data written in canonical binary form
+ */
+public abstract class CanonicalDigest {
+	/**
+	 * Writes data in canonical binary form
+	 */
+	@FunctionalInterface
+	public interface Content {
+		/**
+		 * Writes the data
+		 *
+		 * @param out output
+		 * @throws IOException if writing failed
+		 */
+		void write(DataOutput out) throws IOException;
+	}
+
+	/**
+	 * Returns SHA-256 of the content
+	 *
+	 * @param content content
+	 * @return hash as hexadecimal string
+	 */
+	public static String sha256(Content content) {
+		MessageDigest messageDigest;
+		try {
+			messageDigest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		}, messageDigest))) {
+			content.write(out);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		StringBuilder sb = new StringBuilder(64);
+		for (byte b : messageDigest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,372 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Memory-mapped store of accepted cross sections written by {@link ColumnarResultWriter}. The file consists of
+ * header of {@link #HEADER_SIZE} bytes, holding {@link #MAGIC}, version, number of rows in block, number of rows and
+ * symbols of concrete classes, followed by blocks of {@link #BLOCK_ROWS} rows. Within block each column is stored
+ * contiguously with fixed width, so reading single column doesn't touch the others. Values are in m, concrete class
+ * is stored as ordinal of the symbol.
+ * <p>
+ * Pages of the file are loaded by the operating system on access, only the key column is copied into the heap by
+ * sorting queries.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ColumnarResultStore implements Closeable {
+	/**
+	 * Magic number of the store file
+	 */
+	public static final int MAGIC = 0x4D414752;
+	/**
+	 * Current version of the store file
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Size of the header in bytes
+	 */
+	public static final int HEADER_SIZE = 4096;
+	/**
+	 * Number of rows in block
+	 */
+	public static final int BLOCK_ROWS = 16384;
+
+	/**
+	 * Ordinal of concrete class, int column
+	 */
+	public static final int CONCRETE = 0;
+	/**
+	 * Number of bottom bars, int column
+	 */
+	public static final int NB = 1;
+	/**
+	 * Number of top bars, int column
+	 */
+	public static final int NA = 2;
+	/**
+	 * Number of stirrup legs, int column
+	 */
+	public static final int NLEG = 3;
+	/**
+	 * Width in m
+	 */
+	public static final int B = 4;
+	/**
+	 * Height in m
+	 */
+	public static final int H = 5;
+	/**
+	 * Diameter of bottom bars in m
+	 */
+	public static final int FIB = 6;
+	/**
+	 * Diameter of top bars in m
+	 */
+	public static final int FIA = 7;
+	/**
+	 * Diameter of stirrups in m
+	 */
+	public static final int FISW = 8;
+	/**
+	 * Spacing of stirrups in m
+	 */
+	public static final int SW = 9;
+	/**
+	 * Concrete cover in m
+	 */
+	public static final int CNOM = 10;
+	/**
+	 * Price
+	 */
+	public static final int PRICE = 11;
+	/**
+	 * Number of columns
+	 */
+	public static final int COLUMN_COUNT = 12;
+	/**
+	 * Sorting key of area of the cross section, which is calculated from {@link #B} and {@link #H}
+	 */
+	public static final int AREA = -1;
+
+	static final int INT_COLUMNS = 4;
+	static final int ROW_SIZE = INT_COLUMNS * 4 + (COLUMN_COUNT - INT_COLUMNS) * 8;
+	static final long BLOCK_SIZE = (long) BLOCK_ROWS * ROW_SIZE;
+
+	private final RandomAccessFile file;
+	private final String[] concreteSymbols;
+	private final int size;
+	private final MappedByteBuffer[] blocks;
+
+	/**
+	 * Opens the store file for reading
+	 *
+	 * @param file store file
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file isn't complete store file
+	 */
+	public ColumnarResultStore(File file) throws IOException, ImproperDataException {
+		this.file = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = this.file.getChannel();
+			if (channel.size() < HEADER_SIZE) throw new ImproperDataException("Not a result store");
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt() != MAGIC) throw new ImproperDataException("Not a result store");
+			int version = header.getInt();
+			if (version != VERSION) throw new ImproperDataException("Unsupported version " + version + " of store");
+			if (header.getInt() != BLOCK_ROWS) throw new ImproperDataException("Unsupported block size");
+			long rows = header.getLong();
+			if (rows < 0) throw new ImproperDataException("Result store is incomplete");
+			if (rows > Integer.MAX_VALUE) throw new ImproperDataException("Result store is too large");
+			size = (int) rows;
+			concreteSymbols = new String[header.getInt()];
+			DataInputStream in = new DataInputStream(new ByteBufferInputStream(header));
+			for (int i = 0; i < concreteSymbols.length; i++) concreteSymbols[i] = in.readUTF();
+			blocks = new MappedByteBuffer[(size + BLOCK_ROWS - 1) / BLOCK_ROWS];
+			if (channel.size() < HEADER_SIZE + blocks.length * BLOCK_SIZE)
+				throw new ImproperDataException("Result store is truncated");
+			for (int i = 0; i < blocks.length; i++) {
+				blocks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + i * BLOCK_SIZE, BLOCK_SIZE);
+			}
+		} catch (IOException | ImproperDataException | RuntimeException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns offset of the value in block
+	 *
+	 * @param column column
+	 * @param row    row in block
+	 * @return offset in bytes
+	 */
+	static int offset(int column, int row) {
+		if (column < INT_COLUMNS) return BLOCK_ROWS * 4 * column + row * 4;
+		return BLOCK_ROWS * (4 * INT_COLUMNS + 8 * (column - INT_COLUMNS)) + row * 8;
+	}
+
+	/**
+	 * Returns number of rows
+	 *
+	 * @return number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns symbols of concrete classes indexed by ordinals in {@link #CONCRETE} column
+	 *
+	 * @return symbols of concrete classes
+	 */
+	public String[] getConcreteSymbols() {
+		return concreteSymbols.clone();
+	}
+
+	/**
+	 * Returns value of int column
+	 *
+	 * @param column column, one of {@link #CONCRETE}, {@link #NB}, {@link #NA}, {@link #NLEG}
+	 * @param row    row
+	 * @return value
+	 */
+	public int getInt(int column, int row) {
+		if (column < 0 || column >= INT_COLUMNS) throw new IllegalArgumentException("Not int column " + column);
+		checkRow(row);
+		return blocks[row / BLOCK_ROWS].getInt(offset(column, row % BLOCK_ROWS));
+	}
+
+	/**
+	 * Returns value of double column
+	 *
+	 * @param column column, one of {@link #B} ... {@link #PRICE}
+	 * @param row    row
+	 * @return value
+	 */
+	public double getDouble(int column, int row) {
+		if (column < INT_COLUMNS || column >= COLUMN_COUNT)
+			throw new IllegalArgumentException("Not double column " + column);
+		checkRow(row);
+		return blocks[row / BLOCK_ROWS].getDouble(offset(column, row % BLOCK_ROWS));
+	}
+
+	/**
+	 * Returns symbol of concrete class of the row
+	 *
+	 * @param row row
+	 * @return symbol of concrete class
+	 */
+	public String getConcreteSymbol(int row) {
+		return concreteSymbols[getInt(CONCRETE, row)];
+	}
+
+	/**
+	 * Returns area of the cross section in m2
+	 *
+	 * @param row row
+	 * @return area in m2
+	 */
+	public double getArea(int row) {
+		return getDouble(B, row) * getDouble(H, row);
+	}
+
+	/**
+	 * Returns value of sorting key
+	 *
+	 * @param key {@link #AREA} or double column
+	 * @param row row
+	 * @return value of the key
+	 */
+	public double getKey(int key, int row) {
+		return key == AREA ? getArea(row) : getDouble(key, row);
+	}
+
+	/**
+	 * Returns rows sorted ascending by the key, ties are ordered by row. Only values of the key are copied into the
+	 * heap.
+	 *
+	 * @param key {@link #AREA} or double column
+	 * @return sorted rows
+	 */
+	public int[] sortedIndex(int key) {
+		double[] keys = new double[size];
+		int[] rows = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = getKey(key, i);
+			rows[i] = i;
+		}
+		sort(keys, rows, 0, size - 1);
+		return rows;
+	}
+
+	/**
+	 * Returns up to n rows with the lowest values of the key, sorted ascending. Memory used is proportional to n.
+	 *
+	 * @param key {@link #AREA} or double column
+	 * @param n   maximal number of rows
+	 * @return sorted rows
+	 */
+	public int[] topN(int key, int n) {
+		if (n < 0) throw new IllegalArgumentException("n has to be non-negative");
+		int capacity = Math.min(n, size);
+		double[] heapKeys = new double[capacity];
+		int[] heapRows = new int[capacity];
+		int count = 0;
+		for (int row = 0; row < size && capacity > 0; row++) {
+			double value = getKey(key, row);
+			if (count < capacity) {
+				heapKeys[count] = value;
+				heapRows[count] = row;
+				siftUp(heapKeys, heapRows, count++);
+			} else if (compare(value, row, heapKeys[0], heapRows[0]) < 0) {
+				heapKeys[0] = value;
+				heapRows[0] = row;
+				siftDown(heapKeys, heapRows, 0, count);
+			}
+		}
+		sort(heapKeys, heapRows, 0, count - 1);
+		return heapRows;
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+	}
+
+	private static int compare(double key1, int row1, double key2, int row2) {
+		int result = Double.compare(key1, key2);
+		return result != 0 ? result : Integer.compare(row1, row2);
+	}
+
+	private static void siftUp(double[] keys, int[] rows, int i) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (compare(keys[i], rows[i], keys[parent], rows[parent]) <= 0) return;
+			swap(keys, rows, i, parent);
+			i = parent;
+		}
+	}
+
+	private static void siftDown(double[] keys, int[] rows, int i, int count) {
+		while (true) {
+			int largest = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+			if (left < count && compare(keys[left], rows[left], keys[largest], rows[largest]) > 0) largest = left;
+			if (right < count && compare(keys[right], rows[right], keys[largest], rows[largest]) > 0)
+				largest = right;
+			if (largest == i) return;
+			swap(keys, rows, i, largest);
+			i = largest;
+		}
+	}
+
+	private static void sort(double[] keys, int[] rows, int from, int to) {
+		while (from < to) {
+			if (to - from < 16) {
+				for (int i = from + 1; i <= to; i++) {
+					for (int j = i; j > from && compare(keys[j], rows[j], keys[j - 1], rows[j - 1]) < 0; j--) {
+						swap(keys, rows, j, j - 1);
+					}
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			double pivotKey = keys[middle];
+			int pivotRow = rows[middle];
+			int i = from;
+			int j = to;
+			while (i <= j) {
+				while (compare(keys[i], rows[i], pivotKey, pivotRow) < 0) i++;
+				while (compare(keys[j], rows[j], pivotKey, pivotRow) > 0) j--;
+				if (i <= j) swap(keys, rows, i++, j--);
+			}
+			if (j - from < to - i) {
+				sort(keys, rows, from, j);
+				from = i;
+			} else {
+				sort(keys, rows, i, to);
+				to = j;
+			}
+		}
+	}
+
+	private static void swap(double[] keys, int[] rows, int i, int j) {
+		double key = keys[i];
+		keys[i] = keys[j];
+		keys[j] = key;
+		int row = rows[i];
+		rows[i] = rows[j];
+		rows[j] = row;
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+	}
+}
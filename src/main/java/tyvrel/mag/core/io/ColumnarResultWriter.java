@@ -0,0 +1,195 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsListener;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.PriceList;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.reinforcement.Reinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static tyvrel.mag.core.io.ColumnarResultStore.*;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Writes accepted cross sections into memory-mapped file readable by {@link ColumnarResultStore}. Blocks are mapped
+ * one after another as they fill up, so heap usage doesn't depend on the number of cross sections. Number of rows
+ * is written to the header by {@link #close()}, store which wasn't closed is rejected as incomplete.
+ * <p>
+ * The writer is safe to be registered with {@link tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory}
+ * calculating in parallel. Failure of writing stops writing and is rethrown by {@link #close()}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ColumnarResultWriter implements CrossSectionsListener, Closeable {
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final ConcreteClassification[] concreteClasses;
+	private final PriceList priceList;
+	private MappedByteBuffer block;
+	private int blockCount;
+	private long size;
+	private IOException failure;
+	private boolean closed;
+
+	/**
+	 * Creates the store file, replacing existing one
+	 *
+	 * @param file            store file
+	 * @param concreteClasses concrete classes of the cross sections, their order defines stored ordinals
+	 * @param priceList       price list
+	 * @throws IOException           if creating failed
+	 * @throws ImproperDataException if data is improper
+	 */
+	public ColumnarResultWriter(File file, ConcreteClassification[] concreteClasses, PriceList priceList) throws
+			IOException, ImproperDataException {
+		if (concreteClasses == null || priceList == null) throw new ImproperDataException();
+		this.concreteClasses = concreteClasses.clone();
+		this.priceList = priceList;
+		this.file = new RandomAccessFile(file, "rw");
+		this.channel = this.file.getChannel();
+		try {
+			channel.truncate(0);
+			writeHeader(-1);
+		} catch (IOException | RuntimeException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void candidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+		if (crossSection == null) return;
+		double price = price(crossSection);
+		synchronized (this) {
+			if (closed || failure != null) return;
+			try {
+				write(crossSection, price);
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+	}
+
+	/**
+	 * Writes the cross section
+	 *
+	 * @param crossSection cross section
+	 * @throws IOException if writing failed
+	 */
+	public synchronized void write(CrossSection crossSection) throws IOException {
+		write(crossSection, price(crossSection));
+	}
+
+	/**
+	 * Returns number of written cross sections
+	 *
+	 * @return number of written cross sections
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * Writes number of rows to the header and closes the file
+	 *
+	 * @throws IOException if writing failed now or during any previous write
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		try {
+			if (failure == null) {
+				if (block != null) block.force();
+				writeHeader(size);
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			failure = e;
+		} finally {
+			block = null;
+			try {
+				file.close();
+			} catch (IOException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	/**
+	 * Returns price of the cross section or NaN if it can't be calculated
+	 *
+	 * @param crossSection cross section
+	 * @return price
+	 */
+	protected double price(CrossSection crossSection) {
+		try {
+			return new PriceFactory(crossSection, priceList).build();
+		} catch (ImproperDataException | LSException e) {
+			return Double.NaN;
+		}
+	}
+
+	private void write(CrossSection crossSection, double price) throws IOException {
+		if (closed) throw new IOException("Writer is closed");
+		if (size == Integer.MAX_VALUE) throw new IOException("Result store is full");
+		int concrete = ordinal(crossSection.getConcreteClassification());
+		int row = (int) (size % BLOCK_ROWS);
+		if (row == 0) {
+			block = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + blockCount * BLOCK_SIZE, BLOCK_SIZE);
+			blockCount++;
+		}
+		Reinforcement asb = crossSection.getAs().getAsb();
+		Reinforcement asa = crossSection.getAs().getAsa();
+		ShearReinforcement asw = crossSection.getAsw();
+		block.putInt(offset(CONCRETE, row), concrete);
+		block.putInt(offset(NB, row), (int) asb.getN());
+		block.putInt(offset(NA, row), (int) asa.getN());
+		block.putInt(offset(NLEG, row), (int) asw.getNleg());
+		block.putDouble(offset(B, row), crossSection.getShape().getB());
+		block.putDouble(offset(H, row), crossSection.getShape().getH());
+		block.putDouble(offset(FIB, row), asb.getPhi());
+		block.putDouble(offset(FIA, row), asa.getPhi());
+		block.putDouble(offset(FISW, row), asw.getPhi());
+		block.putDouble(offset(SW, row), 1 / asw.getN());
+		block.putDouble(offset(CNOM, row), crossSection.getCnom());
+		block.putDouble(offset(PRICE, row), price);
+		size++;
+	}
+
+	private int ordinal(ConcreteClassification concreteClassification) throws IOException {
+		for (int i = 0; i < concreteClasses.length; i++) {
+			if (concreteClasses[i].equals(concreteClassification)) return i;
+		}
+		throw new IOException("Unknown concrete class " + concreteClassification.getSymbol());
+	}
+
+	private void writeHeader(long rows) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putInt(BLOCK_ROWS).putLong(rows).putInt(concreteClasses.length);
+		DataOutputStream out = new DataOutputStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+				header.put((byte) b);
+			}
+		});
+		for (ConcreteClassification concreteClass : concreteClasses) out.writeUTF(concreteClass.getSymbol());
+		header.clear();
+		while (header.hasRemaining()) channel.write(header, header.position());
+	}
+}
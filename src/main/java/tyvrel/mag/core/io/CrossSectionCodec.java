@@ -0,0 +1,103 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.Shape;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.Steel;
+import tyvrel.mag.core.model.reinforcement.LongitudinalReinforcement;
+import tyvrel.mag.core.model.reinforcement.Reinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Binary form of the cross section. Concrete class is written as its index in array of concrete classes of the
+ * search and steels aren't written at all, so both have to be supplied for reading.
+ */
+public abstract class CrossSectionCodec {
+	/**
+	 * Number of bytes of single cross section
+	 */
+	public static final int SIZE = 2 + 15 * 8;
+
+	/**
+	 * Writes the cross section
+	 *
+	 * @param out             output
+	 * @param crossSection    cross section
+	 * @param concreteClasses concrete classes of the search
+	 * @throws IOException if writing failed or concrete class isn't one of concrete classes
+	 */
+	public static void write(DataOutput out, CrossSection crossSection, ConcreteClassification[] concreteClasses)
+			throws IOException {
+		int concrete = indexOf(concreteClasses, crossSection.getConcreteClassification());
+		if (concrete < 0 || concrete > 255) throw new IOException("Unknown concrete class");
+		if (crossSection.getCrossSectionType() < 0 || crossSection.getCrossSectionType() > 255)
+			throw new IOException("Unknown type of cross section");
+		Reinforcement asb = crossSection.getAs().getAsb();
+		Reinforcement asa = crossSection.getAs().getAsa();
+		ShearReinforcement asw = crossSection.getAsw();
+		out.writeByte(concrete);
+		out.writeByte(crossSection.getCrossSectionType());
+		out.writeDouble(crossSection.getShape().getB());
+		out.writeDouble(crossSection.getShape().getH());
+		out.writeDouble(crossSection.getCnom());
+		writeReinforcement(out, asb);
+		writeReinforcement(out, asa);
+		out.writeDouble(asw.getN());
+		out.writeDouble(asw.getPhi());
+		out.writeDouble(asw.getLbd());
+		out.writeDouble(asw.getNleg());
+	}
+
+	/**
+	 * Reads the cross section
+	 *
+	 * @param in                             input
+	 * @param concreteClasses                concrete classes of the search
+	 * @param longitudinalReinforcementSteel longitudinal reinforcement steel of the search
+	 * @param shearReinforcementSteel        shear reinforcement steel of the search
+	 * @return cross section
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if concrete class is unknown
+	 */
+	public static CrossSection read(DataInput in, ConcreteClassification[] concreteClasses,
+	                                Steel longitudinalReinforcementSteel, Steel shearReinforcementSteel)
+			throws IOException, ImproperDataException {
+		int concrete = in.readUnsignedByte();
+		if (concrete >= concreteClasses.length) throw new ImproperDataException("Unknown concrete class");
+		int crossSectionType = in.readUnsignedByte();
+		Shape shape = new Shape(in.readDouble(), in.readDouble());
+		double cnom = in.readDouble();
+		Reinforcement asb = readReinforcement(in);
+		Reinforcement asa = readReinforcement(in);
+		ShearReinforcement asw = new ShearReinforcement(in.readDouble(), in.readDouble(), in.readDouble(),
+				in.readDouble());
+		return new CrossSection(shape, longitudinalReinforcementSteel, shearReinforcementSteel,
+				concreteClasses[concrete], crossSectionType, new LongitudinalReinforcement(asb, asa), asw, cnom);
+	}
+
+	private static void writeReinforcement(DataOutput out, Reinforcement reinforcement) throws IOException {
+		out.writeDouble(reinforcement.getN());
+		out.writeDouble(reinforcement.getPhi());
+		out.writeDouble(reinforcement.getLbd());
+		out.writeDouble(reinforcement.getL0());
+	}
+
+	private static Reinforcement readReinforcement(DataInput in) throws IOException {
+		return new Reinforcement(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+	}
+
+	private static int indexOf(ConcreteClassification[] concreteClasses, ConcreteClassification concreteClass) {
+		for (int i = 0; i < concreteClasses.length; i++) {
+			if (concreteClasses[i].equals(concreteClass)) return i;
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,313 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsListener;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.DesignInput;
+import tyvrel.mag.core.model.reinforcement.Reinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Writes each accepted cross section as soon as it is calculated, as CSV line or NDJSON object. Rows are encoded
+ * into a fixed size buffer, which is written to the channel when full, so memory used by the exporter doesn't depend
+ * on the number of cross sections. Memory of the whole export is bounded only if the search doesn't collect cross
+ * sections too, see {@link tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory#search()}. Lengths are written
+ * in mm, areas of reinforcement in cm2 and area of concrete in m2. Values, which can't be calculated, are written
+ * empty in CSV and as null in NDJSON.
+ * <p>
+ * The exporter is safe to be registered with {@link tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory}
+ * calculating in parallel. Failure of writing stops the export and is rethrown by {@link #close()}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionExporter implements CrossSectionsListener, Closeable {
+	/**
+	 * Comma separated values with header line
+	 */
+	public static final int CSV = 0;
+	/**
+	 * One JSON object per line
+	 */
+	public static final int NDJSON = 1;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String[] COLUMNS = {"price", "b", "h", "Ac", "concrete", "steelLongitudinal", "steelShear",
+			"cnom", "nb", "fib", "Asb", "sb", "lbdb", "l0b", "na", "fia", "Asa", "sa", "lbda", "l0a", "nleg", "fisw",
+			"Asw", "sw", "lbdw"};
+
+	private final WritableByteChannel channel;
+	private final int format;
+	private final DesignInput designInput;
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final StringBuilder row = new StringBuilder(512);
+	private final double[] values = new double[COLUMNS.length];
+	private long written;
+	private IOException failure;
+	private boolean closed;
+
+	/**
+	 * Creates an instance of the exporter. Channel is closed together with the exporter.
+	 *
+	 * @param channel     channel, to which cross sections are written
+	 * @param format      {@link #CSV} or {@link #NDJSON}
+	 * @param designInput design input of the cross sections, provides prices and steel symbols
+	 * @throws IOException if writing of the header failed
+	 */
+	public CrossSectionExporter(WritableByteChannel channel, int format, DesignInput designInput) throws
+			IOException {
+		if (channel == null || designInput == null) throw new IllegalArgumentException("Missing channel or input");
+		if (format != CSV && format != NDJSON) throw new IllegalArgumentException("Unknown format " + format);
+		this.channel = channel;
+		this.format = format;
+		this.designInput = designInput;
+		if (format == CSV) {
+			for (int i = 0; i < COLUMNS.length; i++) {
+				if (i > 0) row.append(',');
+				row.append(COLUMNS[i]);
+			}
+			row.append('\n');
+			encode(row);
+			row.setLength(0);
+		}
+	}
+
+	/**
+	 * Opens exporter writing to the file
+	 *
+	 * @param file        file
+	 * @param format      {@link #CSV} or {@link #NDJSON}
+	 * @param gzip        true if output should be compressed with gzip
+	 * @param designInput design input of the cross sections
+	 * @return exporter
+	 * @throws IOException if opening failed
+	 */
+	public static CrossSectionExporter open(File file, int format, boolean gzip, DesignInput designInput) throws
+			IOException {
+		return open(new FileOutputStream(file), format, gzip, designInput);
+	}
+
+	/**
+	 * Opens exporter writing to the stream
+	 *
+	 * @param outputStream stream, closed together with the exporter
+	 * @param format       {@link #CSV} or {@link #NDJSON}
+	 * @param gzip         true if output should be compressed with gzip
+	 * @param designInput  design input of the cross sections
+	 * @return exporter
+	 * @throws IOException if opening failed
+	 */
+	public static CrossSectionExporter open(OutputStream outputStream, int format, boolean gzip,
+	                                        DesignInput designInput) throws IOException {
+		try {
+			OutputStream stream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+			WritableByteChannel channel = outputStream instanceof FileOutputStream && !gzip
+					? ((FileOutputStream) outputStream).getChannel()
+					: Channels.newChannel(stream);
+			return new CrossSectionExporter(channel, format, designInput);
+		} catch (IOException | RuntimeException e) {
+			outputStream.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void candidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+		if (crossSection == null) return;
+		double price = price(crossSection);
+		synchronized (this) {
+			if (closed || failure != null) return;
+			try {
+				write(crossSection, price);
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+	}
+
+	/**
+	 * Returns number of written cross sections
+	 *
+	 * @return number of written cross sections
+	 */
+	public synchronized long getWritten() {
+		return written;
+	}
+
+	/**
+	 * Writes the cross section
+	 *
+	 * @param crossSection cross section
+	 * @throws IOException if writing failed
+	 */
+	public synchronized void write(CrossSection crossSection) throws IOException {
+		write(crossSection, price(crossSection));
+	}
+
+	/**
+	 * Writes remaining buffered rows and closes the channel
+	 *
+	 * @throws IOException if writing failed now or during any previous export
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		try {
+			if (failure == null) flush();
+		} catch (IOException e) {
+			failure = e;
+		} finally {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	/**
+	 * Returns price of the cross section or NaN if it can't be calculated
+	 *
+	 * @param crossSection cross section
+	 * @return price
+	 */
+	protected double price(CrossSection crossSection) {
+		try {
+			return new PriceFactory(crossSection, designInput.getPriceList()).build();
+		} catch (ImproperDataException | LSException e) {
+			return Double.NaN;
+		}
+	}
+
+	private void write(CrossSection crossSection, double price) throws IOException {
+		if (closed) throw new IOException("Exporter is closed");
+		Reinforcement asb = crossSection.getAs().getAsb();
+		Reinforcement asa = crossSection.getAs().getAsa();
+		ShearReinforcement asw = crossSection.getAsw();
+		double b = crossSection.getShape().getB();
+		double h = crossSection.getShape().getH();
+		values[0] = round(price, 100);
+		values[1] = round(b * 1000, 10);
+		values[2] = round(h * 1000, 10);
+		values[3] = round(b * h, 1e6);
+		values[7] = round(crossSection.getCnom() * 1000, 10);
+		values[8] = asb.getN();
+		values[9] = round(asb.getPhi() * 1000, 10);
+		values[10] = round(asb.getA() * 10000, 100);
+		values[11] = round(asbSpacing(crossSection) * 1000, 10);
+		values[12] = round(asb.getLbd() * 1000, 1);
+		values[13] = round(asb.getL0() * 1000, 1);
+		values[14] = asa.getN();
+		values[15] = round(asa.getPhi() * 1000, 10);
+		values[16] = round(asa.getA() * 10000, 100);
+		values[17] = round(asaSpacing(crossSection) * 1000, 10);
+		values[18] = round(asa.getLbd() * 1000, 1);
+		values[19] = round(asa.getL0() * 1000, 1);
+		values[20] = asw.getNleg();
+		values[21] = round(asw.getPhi() * 1000, 10);
+		values[22] = round(asw.getA() * 10000, 100);
+		values[23] = round(1 / asw.getN() * 1000, 10);
+		values[24] = round(asw.getLbd() * 1000, 1);
+		String concrete = crossSection.getConcreteClassification().getSymbol();
+
+		row.setLength(0);
+		if (format == CSV) {
+			for (int i = 0; i < COLUMNS.length; i++) {
+				if (i > 0) row.append(',');
+				if (i == 4) row.append(concrete);
+				else if (i == 5) row.append(designInput.getLongitudinalReinforcementSteelType());
+				else if (i == 6) row.append(designInput.getShearReinforcementSteelType());
+				else appendCsv(values[i]);
+			}
+			row.append('\n');
+		} else {
+			row.append('{');
+			for (int i = 0; i < COLUMNS.length; i++) {
+				if (i > 0) row.append(',');
+				Json.quote(row, COLUMNS[i]).append(':');
+				if (i == 4) Json.quote(row, concrete);
+				else if (i == 5) Json.quote(row, designInput.getLongitudinalReinforcementSteelType());
+				else if (i == 6) Json.quote(row, designInput.getShearReinforcementSteelType());
+				else appendJson(values[i]);
+			}
+			row.append("}\n");
+		}
+		encode(row);
+		written++;
+	}
+
+	private void appendCsv(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) return;
+		appendNumber(value);
+	}
+
+	private void appendJson(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) row.append("null");
+		else appendNumber(value);
+	}
+
+	private void appendNumber(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) row.append((long) value);
+		else row.append(value);
+	}
+
+	private void encode(CharSequence chars) throws IOException {
+		CharBuffer in = CharBuffer.wrap(chars);
+		while (true) {
+			CoderResult result = encoder.encode(in, buffer, true);
+			if (result.isUnderflow()) break;
+			if (result.isOverflow()) flush();
+			else result.throwException();
+		}
+		encoder.reset();
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+	}
+
+	private static double asbSpacing(CrossSection crossSection) {
+		if (crossSection.getAs().getAsb().getN() < 2) return Double.NaN;
+		try {
+			return crossSection.getAsbSpacing();
+		} catch (ImproperDataException | LSException e) {
+			return Double.NaN;
+		}
+	}
+
+	private static double asaSpacing(CrossSection crossSection) {
+		if (crossSection.getAs().getAsa().getN() < 2) return Double.NaN;
+		try {
+			return crossSection.getAsaSpacing();
+		} catch (ImproperDataException | LSException e) {
+			return Double.NaN;
+		}
+	}
+
+	private static double round(double value, double scale) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) return value;
+		return Math.round(value * scale) / scale;
+	}
+}
@@ -0,0 +1,306 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
+import tyvrel.mag.core.factory.classification.ExposureClassificationFactory;
+import tyvrel.mag.core.factory.classification.SteelFactory;
+import tyvrel.mag.core.model.*;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Reads and writes {@link DesignInput} as text file of lines {@code key = value}. Values are separated by
+ * whitespaces and given in units of the user interface: ranges and widths in m, diameters in mm, moments in kNm and
+ * forces in kN. Text after {@code #} is a comment. Key {@code load} may be repeated, one line per load:
+ * <pre>
+ * width = 0.25 0.5 0.05
+ * height = 0.3 0.8 0.05
+ * fia = 12 16
+ * fib = 16 20
+ * fisw = 8
+ * concrete = C25/30 C30/37
+ * exposure = XC1
+ * steel.longitudinal = B500SP
+ * steel.shear = B500SP
+ * # MEdB MEdA MEkB MEkA MEqpB MEqpA VEd
+ * load = 100 50 70 30 50 20 150
+ * </pre>
+ * Partial factors, cover flags, aggregate and prices are optional and default to values of the user interface.
+ */
+@SuppressWarnings("WeakerAccess")
+public abstract class DesignInputTextFormat {
+	private static final String[] PRICE_KEYS = {"price.concreteLabour", "price.c1215", "price.c1620", "price.c2025",
+			"price.c2530", "price.c3037", "price.c3545", "price.c4050", "price.c4555", "price.c5060", "price.c5567",
+			"price.c6075", "price.c7085", "price.c8095", "price.c90105", "price.formwork", "price.reinforcement"};
+
+	/**
+	 * Reads design input
+	 *
+	 * @param reader reader, which is not closed
+	 * @return design input
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if the file is improper
+	 */
+	public static DesignInput read(Reader reader) throws IOException, ImproperDataException {
+		Map<String, String[]> values = new HashMap<>();
+		List<Load> loads = new ArrayList<>();
+		BufferedReader bufferedReader = new BufferedReader(reader);
+		String line;
+		int lineNumber = 0;
+		while ((line = bufferedReader.readLine()) != null) {
+			lineNumber++;
+			int comment = line.indexOf('#');
+			if (comment >= 0) line = line.substring(0, comment);
+			line = line.trim();
+			if (line.isEmpty()) continue;
+			int separator = line.indexOf('=');
+			if (separator < 0) throw new ImproperDataException("Missing '=' in line " + lineNumber);
+			String key = line.substring(0, separator).trim();
+			String[] tokens = line.substring(separator + 1).trim().split("\\s+");
+			if (tokens.length == 1 && tokens[0].isEmpty())
+				throw new ImproperDataException("Missing value in line " + lineNumber);
+			if (key.equals("load")) {
+				loads.add(parseLoad(tokens, lineNumber));
+			} else if (!isKnown(key)) {
+				throw new ImproperDataException("Unknown key " + key + " in line " + lineNumber);
+			} else if (values.put(key, tokens) != null) {
+				throw new ImproperDataException("Repeated key " + key + " in line " + lineNumber);
+			}
+		}
+		if (loads.isEmpty()) loads.add(new Load(0, 0, 0, 0, 0, 0, 0));
+
+		SteelFactory steelFactory = new SteelFactory();
+		String longitudinalReinforcementSteelType = getSymbol(values, "steel.longitudinal");
+		String shearReinforcementSteelType = getSymbol(values, "steel.shear");
+		try {
+			return new DesignInput(
+					getDiameters(values, "fia"),
+					getDiameters(values, "fib"),
+					getDiameters(values, "fisw"),
+					getRange(values, "width"),
+					getRange(values, "height"),
+					getConcreteClasses(values),
+					getExposureClasses(values),
+					loads.toArray(new Load[0]),
+					longitudinalReinforcementSteelType,
+					steelFactory.get(longitudinalReinforcementSteelType),
+					shearReinforcementSteelType,
+					steelFactory.get(shearReinforcementSteelType),
+					new Factors(getDouble(values, "gammaS", 1.15), getDouble(values, "gammaC", 1.4)),
+					getPriceList(values),
+					getBoolean(values, "workingLife100y"),
+					getBoolean(values, "qualityEnsured"),
+					getBoolean(values, "highAir"),
+					getDouble(values, "dg", 32) / 1000
+			);
+		} catch (IllegalArgumentException e) {
+			throw new ImproperDataException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Writes design input
+	 *
+	 * @param designInput design input
+	 * @param writer      writer, which is flushed but not closed
+	 */
+	public static void write(DesignInput designInput, Writer writer) {
+		PrintWriter printWriter = new PrintWriter(writer);
+		printWriter.println("width = " + formatRange(designInput.getWidthRange()));
+		printWriter.println("height = " + formatRange(designInput.getHeightRange()));
+		printWriter.println("fia = " + formatDiameters(designInput.getFias()));
+		printWriter.println("fib = " + formatDiameters(designInput.getFibs()));
+		printWriter.println("fisw = " + formatDiameters(designInput.getFisws()));
+		StringBuilder sb = new StringBuilder("concrete =");
+		for (ConcreteClassification concreteClass : designInput.getConcreteClasses())
+			sb.append(' ').append(concreteClass.getSymbol());
+		printWriter.println(sb);
+		sb = new StringBuilder("exposure =");
+		for (ExposureClassification exposureClass : designInput.getExposureClasses())
+			sb.append(' ').append(exposureClass.getSymbol());
+		printWriter.println(sb);
+		printWriter.println("steel.longitudinal = " + designInput.getLongitudinalReinforcementSteelType());
+		printWriter.println("steel.shear = " + designInput.getShearReinforcementSteelType());
+		printWriter.println("gammaS = " + designInput.getFactors().getGammas());
+		printWriter.println("gammaC = " + designInput.getFactors().getGammac());
+		printWriter.println("workingLife100y = " + designInput.is100yWorkingLife());
+		printWriter.println("qualityEnsured = " + designInput.isQualityEnsured());
+		printWriter.println("highAir = " + designInput.isHighAir());
+		printWriter.println("dg = " + designInput.getDg() * 1000);
+		double[] prices = toArray(designInput.getPriceList());
+		for (int i = 0; i < PRICE_KEYS.length; i++) printWriter.println(PRICE_KEYS[i] + " = " + prices[i]);
+		printWriter.println("# MEdB MEdA MEkB MEkA MEqpB MEqpA VEd");
+		for (Load load : designInput.getLoads()) {
+			printWriter.println("load = " + load.getMedb() / 1000 + " " + load.getMeda() / 1000 + " " +
+					load.getMcharb() / 1000 + " " + load.getMchara() / 1000 + " " + load.getMquasipermb() / 1000 +
+					" " + load.getMquasiperma() / 1000 + " " + load.getVed() / 1000);
+		}
+		printWriter.flush();
+	}
+
+	/**
+	 * Returns prices of the price list in order of arguments of its constructor
+	 *
+	 * @param priceList price list
+	 * @return prices
+	 */
+	public static double[] toArray(PriceList priceList) {
+		return new double[]{priceList.getConcreteLabourPrice(), priceList.getC1215Price(),
+				priceList.getC1620Price(), priceList.getC2025Price(), priceList.getC2530Price(),
+				priceList.getC3037Price(), priceList.getC3545Price(), priceList.getC4050Price(),
+				priceList.getC4555Price(), priceList.getC5060Price(), priceList.getC5567Price(),
+				priceList.getC6075Price(), priceList.getC7085Price(), priceList.getC8095Price(),
+				priceList.getC90105Price(), priceList.getFormworkPrice(), priceList.getReinforcementPrice()};
+	}
+
+	/**
+	 * Creates price list of prices in order of arguments of its constructor
+	 *
+	 * @param prices prices
+	 * @return price list
+	 */
+	public static PriceList toPriceList(double[] prices) {
+		return new PriceList(prices[0], prices[1], prices[2], prices[3], prices[4], prices[5], prices[6],
+				prices[7], prices[8], prices[9], prices[10], prices[11], prices[12], prices[13], prices[14],
+				prices[15], prices[16]);
+	}
+
+	private static boolean isKnown(String key) {
+		switch (key) {
+			case "width":
+			case "height":
+			case "fia":
+			case "fib":
+			case "fisw":
+			case "concrete":
+			case "exposure":
+			case "steel.longitudinal":
+			case "steel.shear":
+			case "gammaS":
+			case "gammaC":
+			case "workingLife100y":
+			case "qualityEnsured":
+			case "highAir":
+			case "dg":
+				return true;
+			default:
+				for (String priceKey : PRICE_KEYS) if (priceKey.equals(key)) return true;
+				return false;
+		}
+	}
+
+	private static Load parseLoad(String[] tokens, int lineNumber) throws ImproperDataException {
+		if (tokens.length != 7) throw new ImproperDataException("Load has to have 7 values in line " + lineNumber);
+		double[] values = new double[7];
+		for (int i = 0; i < values.length; i++) values[i] = parseDouble(tokens[i], "load") * 1000;
+		return new Load(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+	}
+
+	private static String[] getRequired(Map<String, String[]> values, String key) throws ImproperDataException {
+		String[] tokens = values.get(key);
+		if (tokens == null) throw new ImproperDataException("Missing key " + key);
+		return tokens;
+	}
+
+	private static String getSymbol(Map<String, String[]> values, String key) throws ImproperDataException {
+		String[] tokens = getRequired(values, key);
+		if (tokens.length != 1) throw new ImproperDataException("Key " + key + " has to have single value");
+		return tokens[0];
+	}
+
+	private static double[] getDiameters(Map<String, String[]> values, String key) throws ImproperDataException {
+		String[] tokens = getRequired(values, key);
+		double[] diameters = new double[tokens.length];
+		for (int i = 0; i < tokens.length; i++) diameters[i] = parseDouble(tokens[i], key) / 1000;
+		return diameters;
+	}
+
+	private static Range getRange(Map<String, String[]> values, String key) throws ImproperDataException {
+		String[] tokens = getRequired(values, key);
+		if (tokens.length != 1 && tokens.length != 3)
+			throw new ImproperDataException("Key " + key + " has to have single value or from, to and increment");
+		double from = parseDouble(tokens[0], key);
+		try {
+			if (tokens.length == 1) return new Range(from);
+			return new Range(from, parseDouble(tokens[1], key), parseDouble(tokens[2], key));
+		} catch (ImproperDataException e) {
+			throw new ImproperDataException("Improper range " + String.join(" ", tokens) + " of key " + key + ": " +
+					e.getMessage(), e);
+		}
+	}
+
+	private static ConcreteClassification[] getConcreteClasses(Map<String, String[]> values)
+			throws ImproperDataException {
+		String[] tokens = getRequired(values, "concrete");
+		ConcreteClassificationFactory factory = new ConcreteClassificationFactory();
+		ConcreteClassification[] concreteClasses = new ConcreteClassification[tokens.length];
+		for (int i = 0; i < tokens.length; i++) concreteClasses[i] = factory.get(tokens[i]);
+		return concreteClasses;
+	}
+
+	private static ExposureClassification[] getExposureClasses(Map<String, String[]> values)
+			throws ImproperDataException {
+		String[] tokens = getRequired(values, "exposure");
+		ExposureClassificationFactory factory = new ExposureClassificationFactory();
+		ExposureClassification[] exposureClasses = new ExposureClassification[tokens.length];
+		for (int i = 0; i < tokens.length; i++) exposureClasses[i] = factory.get(tokens[i]);
+		return exposureClasses;
+	}
+
+	private static PriceList getPriceList(Map<String, String[]> values) throws ImproperDataException {
+		double[] prices = toArray(new PriceList());
+		for (int i = 0; i < PRICE_KEYS.length; i++) prices[i] = getDouble(values, PRICE_KEYS[i], prices[i]);
+		return toPriceList(prices);
+	}
+
+	private static double getDouble(Map<String, String[]> values, String key, double defaultValue)
+			throws ImproperDataException {
+		String[] tokens = values.get(key);
+		if (tokens == null) return defaultValue;
+		if (tokens.length != 1) throw new ImproperDataException("Key " + key + " has to have single value");
+		return parseDouble(tokens[0], key);
+	}
+
+	private static boolean getBoolean(Map<String, String[]> values, String key) throws ImproperDataException {
+		String[] tokens = values.get(key);
+		if (tokens == null) return false;
+		if (tokens.length == 1 && (tokens[0].equals("true") || tokens[0].equals("false")))
+			return Boolean.parseBoolean(tokens[0]);
+		throw new ImproperDataException("Key " + key + " has to be true or false");
+	}
+
+	private static double parseDouble(String token, String key) throws ImproperDataException {
+		try {
+			return Double.parseDouble(token);
+		} catch (NumberFormatException e) {
+			throw new ImproperDataException("Improper number " + token + " of key " + key, e);
+		}
+	}
+
+	private static String formatRange(Range range) {
+		if (range.getFrom() == range.getTo()) return String.valueOf(range.getFrom());
+		return range.getFrom() + " " + range.getTo() + " " + range.getIncrement();
+	}
+
+	private static String formatDiameters(double[] diameters) {
+		StringBuilder sb = new StringBuilder();
+		for (double diameter : diameters) {
+			if (sb.length() > 0) sb.append(' ');
+			sb.append(diameter * 1000);
+		}
+		return sb.toString();
+	}
+}
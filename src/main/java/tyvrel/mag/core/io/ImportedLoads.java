@@ -0,0 +1,85 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.model.Load;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Load combinations read by {@link LoadCsvImporter}. Values are stored in single primitive array, row after row,
+ * in order of {@link Load} constructor, moments in Nm and shear forces in N.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ImportedLoads {
+	private final double[] values;
+	private final int size;
+	private final int duplicates;
+
+	/**
+	 * Creates an instance of imported loads
+	 *
+	 * @param values     values, {@link LoadCsvImporter#COLUMN_COUNT} per row
+	 * @param size       number of rows
+	 * @param duplicates number of skipped duplicated rows
+	 */
+	ImportedLoads(double[] values, int size, int duplicates) {
+		this.values = values;
+		this.size = size;
+		this.duplicates = duplicates;
+	}
+
+	/**
+	 * Returns number of distinct load combinations
+	 *
+	 * @return number of distinct load combinations
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns number of skipped duplicated load combinations
+	 *
+	 * @return number of skipped duplicated load combinations
+	 */
+	public int getDuplicates() {
+		return duplicates;
+	}
+
+	/**
+	 * Returns value of the load combination
+	 *
+	 * @param row    row
+	 * @param column column, in order of {@link Load} constructor
+	 * @return value in Nm or N
+	 */
+	public double getValue(int row, int column) {
+		if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+		if (column < 0 || column >= LoadCsvImporter.COLUMN_COUNT)
+			throw new IndexOutOfBoundsException("Column " + column);
+		return values[row * LoadCsvImporter.COLUMN_COUNT + column];
+	}
+
+	/**
+	 * Returns copy of values, {@link LoadCsvImporter#COLUMN_COUNT} per row, row after row
+	 *
+	 * @return values in Nm or N
+	 */
+	public double[] getValues() {
+		return values.clone();
+	}
+
+	/**
+	 * Returns load combinations
+	 *
+	 * @return load combinations
+	 */
+	public Load[] getLoads() {
+		Load[] loads = new Load[size];
+		for (int i = 0, j = 0; i < size; i++, j += LoadCsvImporter.COLUMN_COUNT) {
+			loads[i] = new Load(values[j], values[j + 1], values[j + 2], values[j + 3], values[j + 4], values[j + 5],
+					values[j + 6]);
+		}
+		return loads;
+	}
+}
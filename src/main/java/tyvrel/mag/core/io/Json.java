@@ -0,0 +1,228 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Minimal JSON support. Objects are parsed to {@link Map}, arrays to {@link List}, numbers to {@link Double},
+ * strings to {@link String}, literals to {@link Boolean} or null. Objects and arrays can be nested at most {@value
+ * #MAX_DEPTH} levels deep.
+ */
+public abstract class Json {
+	/**
+	 * Maximal depth of nested objects and arrays
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	/**
+	 * Parses JSON text
+	 *
+	 * @param text JSON text
+	 * @return parsed value
+	 * @throws ImproperDataException if text isn't proper JSON or is nested too deep
+	 */
+	public static Object parse(CharSequence text) throws ImproperDataException {
+		Parser parser = new Parser(text);
+		Object value = parser.parseValue();
+		parser.skipWhitespace();
+		if (parser.position != text.length()) throw parser.error("Unexpected character");
+		return value;
+	}
+
+	/**
+	 * Appends string as JSON string literal
+	 *
+	 * @param sb builder
+	 * @param s  string
+	 * @return the builder
+	 */
+	public static StringBuilder quote(StringBuilder sb, String s) {
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+					else sb.append(c);
+			}
+		}
+		return sb.append('"');
+	}
+
+	/**
+	 * Appends number as JSON number; NaN and infinities are appended as null
+	 *
+	 * @param sb    builder
+	 * @param value number
+	 * @return the builder
+	 */
+	public static StringBuilder number(StringBuilder sb, double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) return sb.append("null");
+		return sb.append(value);
+	}
+
+	private static class Parser {
+		private final CharSequence text;
+		private int position;
+		private int depth;
+
+		private Parser(CharSequence text) {
+			this.text = text;
+		}
+
+		private Object parseValue() throws ImproperDataException {
+			skipWhitespace();
+			if (position >= text.length()) throw error("Unexpected end");
+			char c = text.charAt(position);
+			switch (c) {
+				case '{':
+				case '[':
+					if (++depth > MAX_DEPTH) throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+					Object value = c == '{' ? parseObject() : parseArray();
+					depth--;
+					return value;
+				case '"':
+					return parseString();
+				case 't':
+					return parseLiteral("true", Boolean.TRUE);
+				case 'f':
+					return parseLiteral("false", Boolean.FALSE);
+				case 'n':
+					return parseLiteral("null", null);
+				default:
+					return parseNumber();
+			}
+		}
+
+		private Map<String, Object> parseObject() throws ImproperDataException {
+			Map<String, Object> map = new LinkedHashMap<>();
+			position++;
+			skipWhitespace();
+			if (consume('}')) return map;
+			do {
+				skipWhitespace();
+				if (position >= text.length() || text.charAt(position) != '"') throw error("Expected name");
+				String name = parseString();
+				skipWhitespace();
+				if (!consume(':')) throw error("Expected ':'");
+				map.put(name, parseValue());
+				skipWhitespace();
+			} while (consume(','));
+			if (!consume('}')) throw error("Expected '}'");
+			return map;
+		}
+
+		private List<Object> parseArray() throws ImproperDataException {
+			List<Object> list = new ArrayList<>();
+			position++;
+			skipWhitespace();
+			if (consume(']')) return list;
+			do {
+				list.add(parseValue());
+				skipWhitespace();
+			} while (consume(','));
+			if (!consume(']')) throw error("Expected ']'");
+			return list;
+		}
+
+		private String parseString() throws ImproperDataException {
+			StringBuilder sb = new StringBuilder();
+			position++;
+			while (position < text.length()) {
+				char c = text.charAt(position++);
+				if (c == '"') return sb.toString();
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				if (position >= text.length()) break;
+				char escaped = text.charAt(position++);
+				switch (escaped) {
+					case 'b':
+						sb.append('\b');
+						break;
+					case 'f':
+						sb.append('\f');
+						break;
+					case 'n':
+						sb.append('\n');
+						break;
+					case 'r':
+						sb.append('\r');
+						break;
+					case 't':
+						sb.append('\t');
+						break;
+					case 'u':
+						if (position + 4 > text.length()) throw error("Improper escape");
+						try {
+							sb.append((char) Integer.parseInt(text.subSequence(position, position + 4).toString(), 16));
+						} catch (NumberFormatException e) {
+							throw error("Improper escape");
+						}
+						position += 4;
+						break;
+					default:
+						sb.append(escaped);
+				}
+			}
+			throw error("Unterminated string");
+		}
+
+		private Object parseLiteral(String literal, Object value) throws ImproperDataException {
+			if (position + literal.length() > text.length() ||
+					!text.subSequence(position, position + literal.length()).toString().equals(literal))
+				throw error("Unexpected character");
+			position += literal.length();
+			return value;
+		}
+
+		private Double parseNumber() throws ImproperDataException {
+			int start = position;
+			while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) position++;
+			try {
+				return Double.valueOf(text.subSequence(start, position).toString());
+			} catch (NumberFormatException e) {
+				throw error("Improper number");
+			}
+		}
+
+		private boolean consume(char c) {
+			if (position < text.length() && text.charAt(position) == c) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void skipWhitespace() {
+			while (position < text.length() && Character.isWhitespace(text.charAt(position))) position++;
+		}
+
+		private ImproperDataException error(String message) {
+			return new ImproperDataException(message + " at position " + position);
+		}
+	}
+}
@@ -0,0 +1,423 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.model.Load;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Reads load combinations from CSV file line by line, parsing values straight into primitive array. Separator is
+ * detected from the first line: semicolon, tab or comma. If separator isn't comma, comma is accepted as decimal
+ * separator. Values may be quoted, so quoted value of comma separated file may use comma as decimal separator too,
+ * e.g. {@code "1,5"}. Empty values are read as zero, empty lines and lines starting with {@code #} are skipped.
+ * <p>
+ * First line may be header naming columns, e.g. {@code MEdB [kNm];MEdA [kNm];MEkB;MEkA;MEqpB;MEqpA;VEd [kN]}. Columns
+ * are then matched by name, unknown columns are ignored and unit in brackets, parentheses or after last underscore
+ * is validated against the kind of the value. Without header there have to be seven values in order of {@link Load}
+ * constructor in default units. Identical combinations are imported once.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LoadCsvImporter {
+	/**
+	 * Number of values of single load combination
+	 */
+	public static final int COLUMN_COUNT = 7;
+
+	private static final int SHEAR_COLUMN = 6;
+	private static final String[][] COLUMN_NAMES = {
+			{"medb", "mb"},
+			{"meda", "ma"},
+			{"mekb", "mcharb", "mkb"},
+			{"meka", "mchara", "mka"},
+			{"meqpb", "mquasipermb", "mqpb"},
+			{"meqpa", "mquasiperma", "mqpa"},
+			{"ved", "v"}
+	};
+	private static final Map<String, Double> MOMENT_UNITS = new HashMap<>();
+	private static final Map<String, Double> FORCE_UNITS = new HashMap<>();
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		MOMENT_UNITS.put("nm", 1.0);
+		MOMENT_UNITS.put("knm", 1e3);
+		MOMENT_UNITS.put("mnm", 1e6);
+		FORCE_UNITS.put("n", 1.0);
+		FORCE_UNITS.put("kn", 1e3);
+		FORCE_UNITS.put("mn", 1e6);
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+	}
+
+	private double momentScale = 1e3;
+	private double forceScale = 1e3;
+
+	private Reader reader;
+	private final char[] buffer = new char[8192];
+	private int bufferPosition;
+	private int bufferLimit;
+	private char[] line = new char[256];
+	private int lineLength;
+	private int lineNumber;
+	private int[] fieldStarts = new int[16];
+	private int[] fieldEnds = new int[16];
+	private boolean[] fieldQuoted = new boolean[16];
+	private int fieldCount;
+
+	/**
+	 * Sets unit of moments in files without header, kNm by default
+	 *
+	 * @param unit Nm, kNm or MNm
+	 * @throws ImproperDataException if unit is unknown
+	 */
+	public void setDefaultMomentUnit(String unit) throws ImproperDataException {
+		momentScale = scale(unit, MOMENT_UNITS, "moment");
+	}
+
+	/**
+	 * Sets unit of shear forces in files without header, kN by default
+	 *
+	 * @param unit N, kN or MN
+	 * @throws ImproperDataException if unit is unknown
+	 */
+	public void setDefaultForceUnit(String unit) throws ImproperDataException {
+		forceScale = scale(unit, FORCE_UNITS, "force");
+	}
+
+	/**
+	 * Reads load combinations from UTF-8 file
+	 *
+	 * @param file file
+	 * @return load combinations
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file is improper
+	 */
+	public ImportedLoads read(File file) throws IOException, ImproperDataException {
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			return read(reader);
+		}
+	}
+
+	/**
+	 * Reads load combinations. The importer isn't thread safe, but may be reused.
+	 *
+	 * @param reader reader
+	 * @return load combinations
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if content is improper
+	 */
+	public ImportedLoads read(Reader reader) throws IOException, ImproperDataException {
+		this.reader = reader;
+		bufferPosition = bufferLimit = 0;
+		lineNumber = 0;
+		try {
+			return readLoads();
+		} finally {
+			this.reader = null;
+		}
+	}
+
+	private ImportedLoads readLoads() throws IOException, ImproperDataException {
+		if (!nextLine()) return new ImportedLoads(new double[0], 0, 0);
+		char separator = detectSeparator();
+		char decimalSeparator = separator == ',' ? '.' : ',';
+		int[] columns = new int[COLUMN_COUNT];
+		double[] scales = new double[COLUMN_COUNT];
+		split(separator);
+		boolean header = readHeader(columns, scales);
+		if (!header) {
+			for (int i = 0; i < COLUMN_COUNT; i++) {
+				columns[i] = i;
+				scales[i] = i == SHEAR_COLUMN ? forceScale : momentScale;
+			}
+		}
+
+		double[] values = new double[COLUMN_COUNT * 64];
+		int size = 0;
+		int duplicates = 0;
+		int[] table = new int[128];
+		boolean pending = !header;
+		while (pending || nextLine()) {
+			pending = false;
+			split(separator);
+			int offset = size * COLUMN_COUNT;
+			if (offset + COLUMN_COUNT > values.length) values = Arrays.copyOf(values, values.length * 2);
+			for (int i = 0; i < COLUMN_COUNT; i++) {
+				int field = columns[i];
+				if (field >= fieldCount) throw error("Expected value of column " + COLUMN_NAMES[i][0]);
+				values[offset + i] = parse(fieldStarts[field], fieldEnds[field],
+						fieldQuoted[field] ? ',' : decimalSeparator) * scales[i] + 0.0;
+			}
+			if (insert(table, values, size)) {
+				size++;
+				if (size * 2 > table.length) table = rehash(table, values, size);
+			} else {
+				duplicates++;
+			}
+		}
+		return new ImportedLoads(Arrays.copyOf(values, size * COLUMN_COUNT), size, duplicates);
+	}
+
+	private boolean readHeader(int[] columns, double[] scales) throws ImproperDataException {
+		for (int i = 0; i < fieldCount; i++) {
+			if (!isNumber(fieldStarts[i], fieldEnds[i])) break;
+			if (i == fieldCount - 1) return false;
+		}
+		Arrays.fill(columns, -1);
+		for (int field = 0; field < fieldCount; field++) {
+			String text = getText(field);
+			String unit = null;
+			int open = Math.max(text.lastIndexOf('['), text.lastIndexOf('('));
+			if (open >= 0) {
+				int close = Math.max(text.lastIndexOf(']'), text.lastIndexOf(')'));
+				unit = text.substring(open + 1, close > open ? close : text.length());
+				text = text.substring(0, open);
+			} else {
+				int index = Math.max(text.lastIndexOf('_'), text.lastIndexOf(' '));
+				if (index > 0 && isUnit(text.substring(index + 1))) {
+					unit = text.substring(index + 1);
+					text = text.substring(0, index);
+				}
+			}
+			int column = column(text);
+			if (column < 0) continue;
+			if (columns[column] >= 0) throw error("Duplicated column " + COLUMN_NAMES[column][0]);
+			columns[column] = field;
+			try {
+				if (column == SHEAR_COLUMN) {
+					scales[column] = unit == null ? forceScale : scale(unit, FORCE_UNITS, "force");
+				} else {
+					scales[column] = unit == null ? momentScale : scale(unit, MOMENT_UNITS, "moment");
+				}
+			} catch (ImproperDataException e) {
+				throw error(e.getMessage());
+			}
+		}
+		boolean any = false;
+		for (int column : columns) any |= column >= 0;
+		if (!any) throw error("Expected header or " + COLUMN_COUNT + " numbers");
+		for (int i = 0; i < COLUMN_COUNT; i++) {
+			if (columns[i] < 0) throw error("Missing column " + COLUMN_NAMES[i][0]);
+		}
+		return true;
+	}
+
+	private static int column(String name) {
+		StringBuilder sb = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isLetterOrDigit(c)) sb.append(Character.toLowerCase(c));
+		}
+		String normalized = sb.toString();
+		for (int i = 0; i < COLUMN_NAMES.length; i++) {
+			for (String alias : COLUMN_NAMES[i]) {
+				if (alias.equals(normalized)) return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isUnit(String unit) {
+		String normalized = normalizeUnit(unit);
+		return MOMENT_UNITS.containsKey(normalized) || FORCE_UNITS.containsKey(normalized);
+	}
+
+	private static double scale(String unit, Map<String, Double> units, String kind) throws ImproperDataException {
+		if (unit == null) throw new ImproperDataException("Missing unit");
+		Double scale = units.get(normalizeUnit(unit));
+		if (scale == null) throw new ImproperDataException("Unit " + unit.trim() + " isn't unit of " + kind);
+		return scale;
+	}
+
+	private static String normalizeUnit(String unit) {
+		StringBuilder sb = new StringBuilder(unit.length());
+		for (int i = 0; i < unit.length(); i++) {
+			char c = unit.charAt(i);
+			if (Character.isLetter(c)) sb.append(c);
+		}
+		return sb.toString().toLowerCase(Locale.ROOT);
+	}
+
+	private boolean insert(int[] table, double[] values, int row) {
+		int mask = table.length - 1;
+		int index = hash(values, row) & mask;
+		while (table[index] != 0) {
+			if (equal(values, table[index] - 1, row)) return false;
+			index = (index + 1) & mask;
+		}
+		table[index] = row + 1;
+		return true;
+	}
+
+	private static int[] rehash(int[] table, double[] values, int size) {
+		int[] rehashed = new int[table.length * 2];
+		int mask = rehashed.length - 1;
+		for (int row = 0; row < size; row++) {
+			int index = hash(values, row) & mask;
+			while (rehashed[index] != 0) index = (index + 1) & mask;
+			rehashed[index] = row + 1;
+		}
+		return rehashed;
+	}
+
+	private static int hash(double[] values, int row) {
+		long hash = 1;
+		for (int i = row * COLUMN_COUNT, end = i + COLUMN_COUNT; i < end; i++) {
+			hash = 31 * hash + Double.doubleToLongBits(values[i]);
+		}
+		int h = (int) (hash ^ (hash >>> 32));
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean equal(double[] values, int row1, int row2) {
+		for (int i = 0; i < COLUMN_COUNT; i++) {
+			if (Double.compare(values[row1 * COLUMN_COUNT + i], values[row2 * COLUMN_COUNT + i]) != 0) return false;
+		}
+		return true;
+	}
+
+	private char detectSeparator() {
+		char separator = ',';
+		boolean quoted = false;
+		for (int i = 0; i < lineLength; i++) {
+			char c = line[i];
+			if (c == '"') quoted = !quoted;
+			else if (!quoted && c == ';') return ';';
+			else if (!quoted && c == '\t') separator = '\t';
+		}
+		return separator;
+	}
+
+	private boolean nextLine() throws IOException {
+		while (true) {
+			lineLength = 0;
+			boolean read = false;
+			while (true) {
+				if (bufferPosition == bufferLimit) {
+					bufferLimit = reader.read(buffer, 0, buffer.length);
+					bufferPosition = 0;
+					if (bufferLimit <= 0) {
+						bufferLimit = 0;
+						break;
+					}
+				}
+				read = true;
+				char c = buffer[bufferPosition++];
+				if (c == '\n') break;
+				if (c == '\r') continue;
+				if (lineLength == line.length) line = Arrays.copyOf(line, line.length * 2);
+				line[lineLength++] = c;
+			}
+			if (!read) return false;
+			lineNumber++;
+			if (lineNumber == 1 && lineLength > 0 && line[0] == '\uFEFF') {
+				System.arraycopy(line, 1, line, 0, --lineLength);
+			}
+			int start = skipWhitespace(0, lineLength);
+			if (start < lineLength && line[start] != '#') return true;
+		}
+	}
+
+	private void split(char separator) {
+		fieldCount = 0;
+		int start = 0;
+		boolean quoted = false;
+		for (int i = 0; i <= lineLength; i++) {
+			if (i < lineLength && line[i] == '"') quoted = !quoted;
+			if (i == lineLength || (!quoted && line[i] == separator)) {
+				if (fieldCount == fieldStarts.length) {
+					fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+					fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+					fieldQuoted = Arrays.copyOf(fieldQuoted, fieldCount * 2);
+				}
+				int end = skipTrailingWhitespace(start, i);
+				int from = skipWhitespace(start, end);
+				boolean quotedField = end - from >= 2 && line[from] == '"' && line[end - 1] == '"';
+				if (quotedField) {
+					end = skipTrailingWhitespace(from + 1, end - 1);
+					from = skipWhitespace(from + 1, end);
+				}
+				fieldQuoted[fieldCount] = quotedField;
+				fieldStarts[fieldCount] = from;
+				fieldEnds[fieldCount++] = end;
+				start = i + 1;
+			}
+		}
+	}
+
+	private int skipWhitespace(int from, int to) {
+		while (from < to && Character.isWhitespace(line[from])) from++;
+		return from;
+	}
+
+	private int skipTrailingWhitespace(int from, int to) {
+		while (to > from && Character.isWhitespace(line[to - 1])) to--;
+		return to;
+	}
+
+	private String getText(int field) {
+		String text = new String(line, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+		return fieldQuoted[field] ? text.replace("\"\"", "\"") : text;
+	}
+
+	private boolean isNumber(int start, int end) {
+		if (start == end) return true;
+		for (int i = start; i < end; i++) {
+			char c = line[i];
+			if (!(c >= '0' && c <= '9' || c == '.' || c == ',' || c == '-' || c == '+' || c == 'e' || c == 'E'))
+				return false;
+		}
+		return true;
+	}
+
+	private double parse(int start, int end, char decimalSeparator) throws ImproperDataException {
+		if (start == end) return 0;
+		int i = start;
+		boolean negative = line[i] == '-';
+		if (negative || line[i] == '+') i++;
+		long mantissa = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean point = false;
+		for (; i < end; i++) {
+			char c = line[i];
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (point) scale++;
+			} else if ((c == '.' || c == decimalSeparator) && !point) {
+				point = true;
+			} else {
+				break;
+			}
+		}
+		if (i == end && digits > 0 && digits <= 15 && scale < POWERS_OF_TEN.length) {
+			double value = mantissa / POWERS_OF_TEN[scale];
+			return negative ? -value : value;
+		}
+		String text = new String(line, start, end - start);
+		double value;
+		try {
+			value = Double.parseDouble(decimalSeparator == ',' ? text.replace(',', '.') : text);
+		} catch (NumberFormatException e) {
+			throw error("Improper number " + text);
+		}
+		if (Double.isNaN(value) || Double.isInfinite(value)) throw error("Improper number " + text);
+		return value;
+	}
+
+	private ImproperDataException error(String message) {
+		return new ImproperDataException("Line " + lineNumber + ": " + message);
+	}
+}
@@ -0,0 +1,412 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
+import tyvrel.mag.core.factory.classification.ExposureClassificationFactory;
+import tyvrel.mag.core.factory.classification.SteelFactory;
+import tyvrel.mag.core.model.*;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Reads and writes project file, which stores complete {@link DesignInput} in SI units. The file is either compact
+ * binary, starting with {@link #MAGIC} and version, or JSON object with {@code "format": "mag-project"} and
+ * {@code "version"}. Files of newer versions are rejected.
+ */
+@SuppressWarnings("WeakerAccess")
+public abstract class ProjectFile {
+	/**
+	 * First four bytes of binary project file
+	 */
+	public static final int MAGIC = 0x4D414750;
+	/**
+	 * Current version of the format
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Extension of binary project file
+	 */
+	public static final String BINARY_EXTENSION = "magp";
+	/**
+	 * Extension of JSON project file
+	 */
+	public static final String JSON_EXTENSION = "json";
+
+	private static final String FORMAT = "mag-project";
+	private static final int LOAD_SIZE = 7;
+
+	/**
+	 * Reads design input from binary or JSON project file or from design input text file (see
+	 * {@link DesignInputTextFormat})
+	 *
+	 * @param file file
+	 * @return design input
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file is improper
+	 */
+	public static DesignInput read(File file) throws IOException, ImproperDataException {
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+			inputStream.mark(4);
+			DataInputStream dataInputStream = new DataInputStream(inputStream);
+			int magic;
+			try {
+				magic = dataInputStream.readInt();
+			} catch (EOFException e) {
+				magic = 0;
+			}
+			inputStream.reset();
+			if (magic == MAGIC) return readBinary(inputStream);
+			Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+			StringBuilder sb = new StringBuilder();
+			char[] buffer = new char[8192];
+			for (int n; (n = reader.read(buffer)) >= 0; ) sb.append(buffer, 0, n);
+			int start = 0;
+			while (start < sb.length() && Character.isWhitespace(sb.charAt(start))) start++;
+			if (start < sb.length() && sb.charAt(start) == '{') return readJson(sb);
+			return DesignInputTextFormat.read(new StringReader(sb.toString()));
+		}
+	}
+
+	/**
+	 * Writes design input as JSON project file, if name of the file ends with {@value #JSON_EXTENSION}, or as
+	 * binary project file otherwise
+	 *
+	 * @param designInput design input
+	 * @param file        file
+	 * @throws IOException if writing failed
+	 */
+	public static void write(DesignInput designInput, File file) throws IOException {
+		if (file.getName().toLowerCase().endsWith("." + JSON_EXTENSION)) {
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+				writeJson(designInput, writer);
+			}
+		} else {
+			try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+				writeBinary(designInput, outputStream);
+			}
+		}
+	}
+
+	/**
+	 * Writes design input as binary project file
+	 *
+	 * @param designInput  design input
+	 * @param outputStream stream, which is flushed but not closed
+	 * @throws IOException if writing failed
+	 */
+	public static void writeBinary(DesignInput designInput, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		writeRange(out, designInput.getWidthRange());
+		writeRange(out, designInput.getHeightRange());
+		writeDoubles(out, designInput.getFias());
+		writeDoubles(out, designInput.getFibs());
+		writeDoubles(out, designInput.getFisws());
+		ConcreteClassification[] concreteClasses = designInput.getConcreteClasses();
+		out.writeInt(concreteClasses.length);
+		for (ConcreteClassification concreteClass : concreteClasses) out.writeUTF(concreteClass.getSymbol());
+		ExposureClassification[] exposureClasses = designInput.getExposureClasses();
+		out.writeInt(exposureClasses.length);
+		for (ExposureClassification exposureClass : exposureClasses) out.writeUTF(exposureClass.getSymbol());
+		out.writeUTF(designInput.getLongitudinalReinforcementSteelType());
+		out.writeUTF(designInput.getShearReinforcementSteelType());
+		out.writeDouble(designInput.getFactors().getGammas());
+		out.writeDouble(designInput.getFactors().getGammac());
+		writeDoubles(out, DesignInputTextFormat.toArray(designInput.getPriceList()));
+		out.writeBoolean(designInput.is100yWorkingLife());
+		out.writeBoolean(designInput.isQualityEnsured());
+		out.writeBoolean(designInput.isHighAir());
+		out.writeDouble(designInput.getDg());
+		Load[] loads = designInput.getLoads();
+		out.writeInt(loads.length);
+		for (Load load : loads) {
+			out.writeDouble(load.getMedb());
+			out.writeDouble(load.getMeda());
+			out.writeDouble(load.getMcharb());
+			out.writeDouble(load.getMchara());
+			out.writeDouble(load.getMquasipermb());
+			out.writeDouble(load.getMquasiperma());
+			out.writeDouble(load.getVed());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads design input from binary project file
+	 *
+	 * @param inputStream stream, which isn't closed
+	 * @return design input
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file is improper
+	 */
+	public static DesignInput readBinary(InputStream inputStream) throws IOException, ImproperDataException {
+		DataInputStream in = new DataInputStream(inputStream);
+		try {
+			if (in.readInt() != MAGIC) throw new ImproperDataException("Not a project file");
+			checkVersion(in.readUnsignedShort());
+			Range widthRange = readRange(in, "width");
+			Range heightRange = readRange(in, "height");
+			double[] fias = readDoubles(in);
+			double[] fibs = readDoubles(in);
+			double[] fisws = readDoubles(in);
+			String[] concreteClasses = new String[readLength(in)];
+			for (int i = 0; i < concreteClasses.length; i++) concreteClasses[i] = in.readUTF();
+			String[] exposureClasses = new String[readLength(in)];
+			for (int i = 0; i < exposureClasses.length; i++) exposureClasses[i] = in.readUTF();
+			String longitudinalReinforcementSteelType = in.readUTF();
+			String shearReinforcementSteelType = in.readUTF();
+			Factors factors = new Factors(in.readDouble(), in.readDouble());
+			double[] prices = readDoubles(in);
+			boolean is100yWorkingLife = in.readBoolean();
+			boolean isQualityEnsured = in.readBoolean();
+			boolean isHighAir = in.readBoolean();
+			double dg = in.readDouble();
+			Load[] loads = new Load[readLength(in)];
+			for (int i = 0; i < loads.length; i++) {
+				loads[i] = new Load(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+						in.readDouble(), in.readDouble(), in.readDouble());
+			}
+			return create(fias, fibs, fisws, widthRange, heightRange, concreteClasses, exposureClasses, loads,
+					longitudinalReinforcementSteelType, shearReinforcementSteelType, factors, prices,
+					is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+		} catch (EOFException e) {
+			throw new ImproperDataException("Project file is truncated", e);
+		}
+	}
+
+	/**
+	 * Writes design input as JSON project file
+	 *
+	 * @param designInput design input
+	 * @param writer      writer, which is flushed but not closed
+	 * @throws IOException if writing failed
+	 */
+	public static void writeJson(DesignInput designInput, Writer writer) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"format\": ");
+		Json.quote(sb, FORMAT);
+		sb.append(",\n  \"version\": ").append(VERSION);
+		sb.append(",\n  \"width\": ");
+		appendRange(sb, designInput.getWidthRange());
+		sb.append(",\n  \"height\": ");
+		appendRange(sb, designInput.getHeightRange());
+		sb.append(",\n  \"fia\": ");
+		appendDoubles(sb, designInput.getFias());
+		sb.append(",\n  \"fib\": ");
+		appendDoubles(sb, designInput.getFibs());
+		sb.append(",\n  \"fisw\": ");
+		appendDoubles(sb, designInput.getFisws());
+		sb.append(",\n  \"concrete\": ");
+		ConcreteClassification[] concreteClasses = designInput.getConcreteClasses();
+		String[] concreteSymbols = new String[concreteClasses.length];
+		for (int i = 0; i < concreteClasses.length; i++) concreteSymbols[i] = concreteClasses[i].getSymbol();
+		appendStrings(sb, concreteSymbols);
+		sb.append(",\n  \"exposure\": ");
+		ExposureClassification[] exposureClasses = designInput.getExposureClasses();
+		String[] exposureSymbols = new String[exposureClasses.length];
+		for (int i = 0; i < exposureClasses.length; i++) exposureSymbols[i] = exposureClasses[i].getSymbol();
+		appendStrings(sb, exposureSymbols);
+		sb.append(",\n  \"steelLongitudinal\": ");
+		Json.quote(sb, designInput.getLongitudinalReinforcementSteelType());
+		sb.append(",\n  \"steelShear\": ");
+		Json.quote(sb, designInput.getShearReinforcementSteelType());
+		sb.append(",\n  \"gammaS\": ");
+		Json.number(sb, designInput.getFactors().getGammas());
+		sb.append(",\n  \"gammaC\": ");
+		Json.number(sb, designInput.getFactors().getGammac());
+		sb.append(",\n  \"prices\": ");
+		appendDoubles(sb, DesignInputTextFormat.toArray(designInput.getPriceList()));
+		sb.append(",\n  \"workingLife100y\": ").append(designInput.is100yWorkingLife());
+		sb.append(",\n  \"qualityEnsured\": ").append(designInput.isQualityEnsured());
+		sb.append(",\n  \"highAir\": ").append(designInput.isHighAir());
+		sb.append(",\n  \"dg\": ");
+		Json.number(sb, designInput.getDg());
+		sb.append(",\n  \"loads\": [");
+		Load[] loads = designInput.getLoads();
+		for (int i = 0; i < loads.length; i++) {
+			Load load = loads[i];
+			sb.append(i > 0 ? ",\n    " : "\n    ");
+			appendDoubles(sb, new double[]{load.getMedb(), load.getMeda(), load.getMcharb(), load.getMchara(),
+					load.getMquasipermb(), load.getMquasiperma(), load.getVed()});
+		}
+		sb.append("\n  ]\n}\n");
+		writer.append(sb);
+		writer.flush();
+	}
+
+	/**
+	 * Reads design input from JSON project file
+	 *
+	 * @param reader reader, which isn't closed
+	 * @return design input
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file is improper
+	 */
+	public static DesignInput readJson(Reader reader) throws IOException, ImproperDataException {
+		StringBuilder sb = new StringBuilder();
+		char[] buffer = new char[8192];
+		for (int n; (n = reader.read(buffer)) >= 0; ) sb.append(buffer, 0, n);
+		return readJson(sb);
+	}
+
+	private static DesignInput readJson(CharSequence text) throws ImproperDataException {
+		Object parsed = Json.parse(text);
+		if (!(parsed instanceof Map)) throw new ImproperDataException("Project file has to be JSON object");
+		Map<?, ?> json = (Map<?, ?>) parsed;
+		if (!FORMAT.equals(json.get("format"))) throw new ImproperDataException("Not a project file");
+		checkVersion((int) getDouble(json, "version"));
+		List<?> jsonLoads = get(json, "loads", List.class);
+		Load[] loads = new Load[jsonLoads.size()];
+		for (int i = 0; i < loads.length; i++) {
+			double[] values = toDoubles(jsonLoads.get(i), "loads");
+			if (values.length != LOAD_SIZE) throw new ImproperDataException("Load has to have 7 values");
+			loads[i] = new Load(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+		}
+		return create(toDoubles(json.get("fia"), "fia"), toDoubles(json.get("fib"), "fib"),
+				toDoubles(json.get("fisw"), "fisw"), toRange(json.get("width"), "width"),
+				toRange(json.get("height"), "height"), toStrings(json.get("concrete"), "concrete"),
+				toStrings(json.get("exposure"), "exposure"), loads, get(json, "steelLongitudinal", String.class),
+				get(json, "steelShear", String.class), new Factors(getDouble(json, "gammaS"),
+						getDouble(json, "gammaC")), toDoubles(json.get("prices"), "prices"),
+				get(json, "workingLife100y", Boolean.class), get(json, "qualityEnsured", Boolean.class),
+				get(json, "highAir", Boolean.class), getDouble(json, "dg"));
+	}
+
+	private static DesignInput create(double[] fias, double[] fibs, double[] fisws, Range widthRange,
+	                                  Range heightRange, String[] concreteSymbols, String[] exposureSymbols,
+	                                  Load[] loads, String longitudinalReinforcementSteelType,
+	                                  String shearReinforcementSteelType, Factors factors, double[] prices,
+	                                  boolean is100yWorkingLife, boolean isQualityEnsured, boolean isHighAir,
+	                                  double dg) throws ImproperDataException {
+		if (prices.length != DesignInputTextFormat.toArray(new PriceList()).length)
+			throw new ImproperDataException("Improper number of prices");
+		try {
+			ConcreteClassificationFactory concreteClassificationFactory = new ConcreteClassificationFactory();
+			ConcreteClassification[] concreteClasses = new ConcreteClassification[concreteSymbols.length];
+			for (int i = 0; i < concreteSymbols.length; i++)
+				concreteClasses[i] = concreteClassificationFactory.get(concreteSymbols[i]);
+			ExposureClassificationFactory exposureClassificationFactory = new ExposureClassificationFactory();
+			ExposureClassification[] exposureClasses = new ExposureClassification[exposureSymbols.length];
+			for (int i = 0; i < exposureSymbols.length; i++)
+				exposureClasses[i] = exposureClassificationFactory.get(exposureSymbols[i]);
+			SteelFactory steelFactory = new SteelFactory();
+			return new DesignInput(fias, fibs, fisws, widthRange, heightRange, concreteClasses, exposureClasses,
+					loads, longitudinalReinforcementSteelType, steelFactory.get(longitudinalReinforcementSteelType),
+					shearReinforcementSteelType, steelFactory.get(shearReinforcementSteelType), factors,
+					DesignInputTextFormat.toPriceList(prices), is100yWorkingLife, isQualityEnsured, isHighAir, dg);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new ImproperDataException(e.getMessage(), e);
+		}
+	}
+
+	private static void checkVersion(int version) throws ImproperDataException {
+		if (version < 1 || version > VERSION)
+			throw new ImproperDataException("Unsupported version " + version + " of project file");
+	}
+
+	private static void writeRange(DataOutputStream out, Range range) throws IOException {
+		out.writeDouble(range.getFrom());
+		out.writeDouble(range.getTo());
+		out.writeDouble(range.getIncrement());
+	}
+
+	private static Range readRange(DataInputStream in, String name) throws IOException, ImproperDataException {
+		return toRange(in.readDouble(), in.readDouble(), in.readDouble(), name);
+	}
+
+	private static Range toRange(double from, double to, double increment, String name)
+			throws ImproperDataException {
+		try {
+			return from == to ? new Range(from) : new Range(from, to, increment);
+		} catch (ImproperDataException e) {
+			throw new ImproperDataException("Improper range " + name + " from " + from + " to " + to + " by " +
+					increment + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+		out.writeInt(values.length);
+		for (double value : values) out.writeDouble(value);
+	}
+
+	private static double[] readDoubles(DataInputStream in) throws IOException, ImproperDataException {
+		double[] values = new double[readLength(in)];
+		for (int i = 0; i < values.length; i++) values[i] = in.readDouble();
+		return values;
+	}
+
+	private static int readLength(DataInputStream in) throws IOException, ImproperDataException {
+		int length = in.readInt();
+		if (length < 0) throw new ImproperDataException("Improper length " + length);
+		return length;
+	}
+
+	private static void appendRange(StringBuilder sb, Range range) {
+		sb.append("{\"from\": ");
+		Json.number(sb, range.getFrom());
+		sb.append(", \"to\": ");
+		Json.number(sb, range.getTo());
+		sb.append(", \"increment\": ");
+		Json.number(sb, range.getIncrement());
+		sb.append('}');
+	}
+
+	private static void appendDoubles(StringBuilder sb, double[] values) {
+		sb.append('[');
+		for (int i = 0; i < values.length; i++) Json.number(i > 0 ? sb.append(", ") : sb, values[i]);
+		sb.append(']');
+	}
+
+	private static void appendStrings(StringBuilder sb, String[] values) {
+		sb.append('[');
+		for (int i = 0; i < values.length; i++) Json.quote(i > 0 ? sb.append(", ") : sb, values[i]);
+		sb.append(']');
+	}
+
+	private static <T> T get(Map<?, ?> json, String name, Class<T> type) throws ImproperDataException {
+		Object value = json.get(name);
+		if (!type.isInstance(value)) throw new ImproperDataException("Missing or improper " + name);
+		return type.cast(value);
+	}
+
+	private static double getDouble(Map<?, ?> json, String name) throws ImproperDataException {
+		return get(json, name, Double.class);
+	}
+
+	private static double[] toDoubles(Object value, String name) throws ImproperDataException {
+		if (!(value instanceof List)) throw new ImproperDataException("Missing or improper " + name);
+		List<?> list = (List<?>) value;
+		double[] values = new double[list.size()];
+		for (int i = 0; i < values.length; i++) {
+			if (!(list.get(i) instanceof Double)) throw new ImproperDataException("Improper number in " + name);
+			values[i] = (Double) list.get(i);
+		}
+		return values;
+	}
+
+	private static String[] toStrings(Object value, String name) throws ImproperDataException {
+		if (!(value instanceof List)) throw new ImproperDataException("Missing or improper " + name);
+		List<?> list = (List<?>) value;
+		String[] values = new String[list.size()];
+		for (int i = 0; i < values.length; i++) {
+			if (!(list.get(i) instanceof String)) throw new ImproperDataException("Improper symbol in " + name);
+			values[i] = (String) list.get(i);
+		}
+		return values;
+	}
+
+	private static Range toRange(Object value, String name) throws ImproperDataException {
+		if (!(value instanceof Map)) throw new ImproperDataException("Missing or improper " + name);
+		Map<?, ?> range = (Map<?, ?>) value;
+		return toRange(getDouble(range, "from"), getDouble(range, "to"), getDouble(range, "increment"), name);
+	}
+}
@@ -0,0 +1,253 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.Steel;
+import tyvrel.mag.core.monitor.CacheStatistics;
+import tyvrel.mag.core.monitor.EngineMetrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Content-addressed cache of accepted cross sections on disk. Key is SHA-256 of {@link
+ * CrossSectionsFactory#ENGINE_VERSION}, implementation version of the engine and canonical form of all inputs of the
+ * search (see {@link CrossSectionsFactory#writeCanonicalInput(java.io.DataOutput)}). Entries are stored in
+ * subdirectory of the engine version named {@code v<engine version>-<file version>}, directories of older versions
+ * are deleted on creation of the cache, so newer version sharing the root directory keeps its entries. Other files
+ * and directories in the root directory are never touched.
+ * <p>
+ * Total size of entries is bounded, least recently used entries are evicted first. Damaged entries, including entries
+ * that can't be decoded, are deleted and reported as misses, failure of the cache never fails the search. Hits and
+ * misses are reported to {@link EngineMetrics} as {@link #STATISTICS_NAME}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ResultDiskCache {
+	/**
+	 * Magic number of the entry file
+	 */
+	public static final int MAGIC = 0x4D414743;
+	/**
+	 * Current version of the entry file
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Default maximal size of the cache in bytes
+	 */
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+	/**
+	 * Name of statistics of the cache
+	 */
+	public static final String STATISTICS_NAME = "disk results";
+
+	private static final String EXTENSION = ".bin";
+	private static final Pattern VERSION_DIRECTORY = Pattern.compile("v(\\d{1,9})-(\\d{1,9})");
+	private static final CacheStatistics STATISTICS = EngineMetrics.getInstance().getCacheStatistics(STATISTICS_NAME);
+	private static volatile ResultDiskCache defaultCache;
+
+	private final File directory;
+	private final long maxSize;
+
+	/**
+	 * Creates the cache in the directory
+	 *
+	 * @param root    root directory of the cache, created if needed
+	 * @param maxSize maximal total size of entries in bytes
+	 * @throws IOException if directory can't be created
+	 */
+	public ResultDiskCache(File root, long maxSize) throws IOException {
+		if (maxSize <= 0) throw new IllegalArgumentException("Size has to be positive");
+		String versionName = "v" + CrossSectionsFactory.ENGINE_VERSION + "-" + VERSION;
+		this.directory = new File(root, versionName);
+		this.maxSize = maxSize;
+		if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Can't create " + directory);
+		File[] versions = root.listFiles(file -> file.isDirectory() && isOlderVersion(file.getName()));
+		if (versions != null) for (File version : versions) delete(version);
+	}
+
+	private static boolean isOlderVersion(String name) {
+		Matcher matcher = VERSION_DIRECTORY.matcher(name);
+		if (!matcher.matches()) return false;
+		int engineVersion = Integer.parseInt(matcher.group(1));
+		return engineVersion < CrossSectionsFactory.ENGINE_VERSION || engineVersion == CrossSectionsFactory
+				.ENGINE_VERSION && Integer.parseInt(matcher.group(2)) < VERSION;
+	}
+
+	/**
+	 * Returns cache in {@code .mag/cache} in home directory of the user or null if it can't be created
+	 *
+	 * @return default cache or null
+	 */
+	public static ResultDiskCache getDefault() {
+		if (defaultCache == null) {
+			synchronized (ResultDiskCache.class) {
+				if (defaultCache == null) {
+					try {
+						defaultCache = new ResultDiskCache(new File(System.getProperty("user.home"), ".mag" +
+								File.separator + "cache"), DEFAULT_MAX_SIZE);
+					} catch (IOException | SecurityException e) {
+						return null;
+					}
+				}
+			}
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * Returns key of the search
+	 *
+	 * @param crossSectionsFactory factory of the search
+	 * @return key as hexadecimal string
+	 */
+	public String key(CrossSectionsFactory crossSectionsFactory) {
+		return CanonicalDigest.sha256(out -> {
+			out.writeInt(CrossSectionsFactory.ENGINE_VERSION);
+			String implementationVersion = CrossSectionsFactory.class.getPackage().getImplementationVersion();
+			out.writeUTF(implementationVersion == null ? "" : implementationVersion);
+			crossSectionsFactory.writeCanonicalInput(out);
+		});
+	}
+
+	/**
+	 * Returns cached cross sections of the key or null
+	 *
+	 * @param key                            key
+	 * @param concreteClasses                concrete classes of the search
+	 * @param longitudinalReinforcementSteel longitudinal reinforcement steel of the search
+	 * @param shearReinforcementSteel        shear reinforcement steel of the search
+	 * @return cross sections or null
+	 */
+	public CrossSection[] get(String key, ConcreteClassification[] concreteClasses,
+	                          Steel longitudinalReinforcementSteel, Steel shearReinforcementSteel) {
+		File file = new File(directory, key + EXTENSION);
+		if (!file.isFile()) {
+			STATISTICS.miss();
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new ImproperDataException("Not an entry");
+			int count = in.readInt();
+			if (count < 0 || (long) count * CrossSectionCodec.SIZE > file.length())
+				throw new ImproperDataException("Improper entry");
+			CrossSection[] crossSections = new CrossSection[count];
+			for (int i = 0; i < count; i++) {
+				crossSections[i] = CrossSectionCodec.read(in, concreteClasses, longitudinalReinforcementSteel,
+						shearReinforcementSteel);
+			}
+			if (in.read() != -1) throw new ImproperDataException("Improper entry");
+			file.setLastModified(System.currentTimeMillis());
+			STATISTICS.hit();
+			return crossSections;
+		} catch (EOFException | ImproperDataException | RuntimeException e) {
+			file.delete();
+			STATISTICS.miss();
+			return null;
+		} catch (IOException e) {
+			STATISTICS.miss();
+			return null;
+		}
+	}
+
+	/**
+	 * Stores cross sections of the key, evicting least recently used entries if needed
+	 *
+	 * @param key             key
+	 * @param crossSections   cross sections
+	 * @param concreteClasses concrete classes of the search
+	 */
+	public void put(String key, CrossSection[] crossSections, ConcreteClassification[] concreteClasses) {
+		if (12 + (long) crossSections.length * CrossSectionCodec.SIZE > maxSize) return;
+		File file = new File(directory, key + EXTENSION);
+		File temporaryFile = null;
+		try {
+			temporaryFile = File.createTempFile(key, ".tmp", directory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+					temporaryFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(crossSections.length);
+				for (CrossSection crossSection : crossSections) {
+					CrossSectionCodec.write(out, crossSection, concreteClasses);
+				}
+			}
+			try {
+				Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			evict();
+		} catch (IOException | RuntimeException e) {
+			if (temporaryFile != null) temporaryFile.delete();
+		}
+	}
+
+	/**
+	 * Deletes all entries
+	 */
+	public void clear() {
+		File[] files = directory.listFiles();
+		if (files != null) for (File file : files) file.delete();
+	}
+
+	/**
+	 * Returns total size of entries in bytes
+	 *
+	 * @return total size of entries in bytes
+	 */
+	public long size() {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+		long size = 0;
+		if (files != null) for (File file : files) size += file.length();
+		return size;
+	}
+
+	private synchronized void evict() {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+		if (files == null) return;
+		long size = 0;
+		for (File file : files) size += file.length();
+		if (size <= maxSize) return;
+		long[] lastModified = new long[files.length];
+		Integer[] order = new Integer[files.length];
+		for (int i = 0; i < files.length; i++) {
+			lastModified[i] = files[i].lastModified();
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> lastModified[i]));
+		for (int i = 0; i < order.length && size > maxSize; i++) {
+			File file = files[order[i]];
+			long length = file.length();
+			if (file.delete()) {
+				size -= length;
+				STATISTICS.evict();
+			}
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) for (File child : files) delete(child);
+		file.delete();
+	}
+}
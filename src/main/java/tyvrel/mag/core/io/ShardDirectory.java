@@ -0,0 +1,369 @@
+package tyvrel.mag.core.io;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.DesignInput;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Work directory shared by coordinator and workers of sharded search, possibly running on different machines with
+ * common file system. Directory contains:
+ * <ul>
+ * <li>{@code input.magp} - design input as binary project file (see {@link ProjectFile})</li>
+ * <li>{@code tasks/NNNNN.task} - range of slices of the shard (see {@link CrossSectionsFactory#buildSlices(int,
+ * int)})</li>
+ * <li>{@code tasks/NNNNN.lock} - lock of claimed shard, its modification time is heartbeat of the worker</li>
+ * <li>{@code results/NNNNN.bin} - cross sections of completed shard (see {@link CrossSectionCodec})</li>
+ * </ul>
+ * Shard is claimed by exclusive lock of its lock file, which is released by the system, when worker process dies.
+ * Lock, which wasn't refreshed for longer than stale time (e.g. of worker on crashed machine), is deleted, so the
+ * shard can be claimed again. Results are written to temporary file and moved atomically, so calculating shard twice
+ * is harmless. Clocks of machines are assumed to be synchronized.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ShardDirectory {
+	/**
+	 * Magic number of task and result files
+	 */
+	public static final int MAGIC = 0x4D414753;
+	/**
+	 * Current version of task and result files
+	 */
+	public static final int VERSION = 1;
+
+	private static final String INPUT_NAME = "input.magp";
+	private static final String TASK_EXTENSION = ".task";
+	private static final String LOCK_EXTENSION = ".lock";
+	private static final String RESULT_EXTENSION = ".bin";
+
+	private final File directory;
+	private final File taskDirectory;
+	private final File resultDirectory;
+
+	/**
+	 * Creates an instance of the work directory
+	 *
+	 * @param directory work directory
+	 */
+	public ShardDirectory(File directory) {
+		this.directory = directory;
+		this.taskDirectory = new File(directory, "tasks");
+		this.resultDirectory = new File(directory, "results");
+	}
+
+	/**
+	 * Writes design input and tasks of the shards, splitting slices of the search evenly. If directory already
+	 * contains the same design input split into the same number of shards, completed shards are kept.
+	 *
+	 * @param designInput design input
+	 * @param shards      number of shards, reduced to number of slices if greater
+	 * @throws IOException if writing failed
+	 */
+	public void create(DesignInput designInput, int shards) throws IOException {
+		if (shards <= 0) throw new IllegalArgumentException("Number of shards has to be positive");
+		int slices = new CrossSectionsFactory(designInput).getSliceCount();
+		shards = Math.max(1, Math.min(shards, slices));
+		File inputFile = new File(directory, INPUT_NAME);
+		if (inputFile.isFile() && getShardCount() == shards) {
+			try {
+				if (designInput.equals(readDesignInput())) return;
+			} catch (IOException | ImproperDataException e) {
+			}
+		}
+		clear(taskDirectory);
+		clear(resultDirectory);
+		writeAtomically(inputFile, out -> ProjectFile.writeBinary(designInput, out));
+		for (int shard = 0; shard < shards; shard++) {
+			int fromSlice = (int) ((long) slices * shard / shards);
+			int toSlice = (int) ((long) slices * (shard + 1) / shards);
+			writeAtomically(taskFile(shard), out -> {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(fromSlice);
+				out.writeInt(toSlice);
+			});
+		}
+	}
+
+	/**
+	 * Returns design input of the search
+	 *
+	 * @return design input
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file is improper
+	 */
+	public DesignInput readDesignInput() throws IOException, ImproperDataException {
+		return ProjectFile.read(new File(directory, INPUT_NAME));
+	}
+
+	/**
+	 * Returns number of shards
+	 *
+	 * @return number of shards
+	 */
+	public int getShardCount() {
+		String[] names = taskDirectory.list((dir, name) -> name.endsWith(TASK_EXTENSION));
+		return names == null ? 0 : names.length;
+	}
+
+	/**
+	 * Returns if the shard is completed
+	 *
+	 * @param shard index of the shard
+	 * @return if the shard is completed
+	 */
+	public boolean isCompleted(int shard) {
+		return resultFile(shard).isFile();
+	}
+
+	/**
+	 * Returns number of completed shards
+	 *
+	 * @return number of completed shards
+	 */
+	public int getCompletedCount() {
+		int completed = 0;
+		for (int shard = 0, shards = getShardCount(); shard < shards; shard++) if (isCompleted(shard)) completed++;
+		return completed;
+	}
+
+	/**
+	 * Claims first shard, which is neither completed nor claimed by living worker
+	 *
+	 * @param staleMillis time in ms, after which lock without heartbeat is considered abandoned
+	 * @return claimed shard or null, if there is none
+	 * @throws IOException if reading of the task failed
+	 */
+	public Shard claim(long staleMillis) throws IOException {
+		for (int shard = 0, shards = getShardCount(); shard < shards; shard++) {
+			if (isCompleted(shard)) continue;
+			File lockFile = lockFile(shard);
+			reclaimIfStale(lockFile, staleMillis);
+			FileChannel channel;
+			try {
+				channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			} catch (IOException e) {
+				continue;
+			}
+			FileLock lock;
+			try {
+				lock = channel.tryLock();
+			} catch (OverlappingFileLockException | IOException e) {
+				lock = null;
+			}
+			if (lock == null || isCompleted(shard)) {
+				channel.close();
+				continue;
+			}
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(
+					taskFile(shard))))) {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Improper task " + shard);
+				Shard claimed = new Shard(shard, in.readInt(), in.readInt(), channel);
+				claimed.heartbeat();
+				return claimed;
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Deletes locks of shards, which weren't refreshed for longer than stale time, so they can be claimed again
+	 *
+	 * @param staleMillis time in ms, after which lock without heartbeat is considered abandoned
+	 * @return number of deleted locks
+	 */
+	public int reclaimStale(long staleMillis) {
+		int reclaimed = 0;
+		for (int shard = 0, shards = getShardCount(); shard < shards; shard++) {
+			if (!isCompleted(shard) && reclaimIfStale(lockFile(shard), staleMillis)) reclaimed++;
+		}
+		return reclaimed;
+	}
+
+	/**
+	 * Reads cross sections of the completed shard
+	 *
+	 * @param shard       index of the shard
+	 * @param designInput design input of the search
+	 * @return cross sections in order of the search
+	 * @throws IOException           if reading failed
+	 * @throws ImproperDataException if file is improper
+	 */
+	public CrossSection[] readResult(int shard, DesignInput designInput) throws IOException,
+			ImproperDataException {
+		File file = resultFile(shard);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new ImproperDataException("Not a result");
+			int count = in.readInt();
+			if (count < 0 || (long) count * CrossSectionCodec.SIZE > file.length())
+				throw new ImproperDataException("Improper result of shard " + shard);
+			CrossSection[] crossSections = new CrossSection[count];
+			for (int i = 0; i < count; i++) {
+				crossSections[i] = CrossSectionCodec.read(in, designInput.getConcreteClasses(),
+						designInput.getLongitudinalReinforcementSteel(), designInput.getShearReinforcementSteel());
+			}
+			return crossSections;
+		} catch (EOFException e) {
+			throw new ImproperDataException("Truncated result of shard " + shard);
+		}
+	}
+
+	private boolean reclaimIfStale(File lockFile, long staleMillis) {
+		long lastModified = lockFile.lastModified();
+		if (lastModified == 0 || System.currentTimeMillis() - lastModified <= staleMillis) return false;
+		return lockFile.delete();
+	}
+
+	private File taskFile(int shard) {
+		return new File(taskDirectory, name(shard) + TASK_EXTENSION);
+	}
+
+	private File lockFile(int shard) {
+		return new File(taskDirectory, name(shard) + LOCK_EXTENSION);
+	}
+
+	private File resultFile(int shard) {
+		return new File(resultDirectory, name(shard) + RESULT_EXTENSION);
+	}
+
+	private static String name(int shard) {
+		return String.format("%05d", shard);
+	}
+
+	private static void clear(File directory) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Can't create " + directory);
+		File[] files = directory.listFiles();
+		if (files != null) for (File file : files) file.delete();
+	}
+
+	private static void writeAtomically(File file, Content content) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()) throw new IOException("Can't create " + parent);
+		File temporaryFile = File.createTempFile(file.getName(), ".tmp", parent);
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+					temporaryFile)))) {
+				content.write(out);
+			}
+			try {
+				Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			temporaryFile.delete();
+		}
+	}
+
+	private interface Content {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	/**
+	 * Shard claimed by this process. Lock is held until the shard is completed or closed.
+	 */
+	public class Shard implements Closeable {
+		private final int index;
+		private final int fromSlice;
+		private final int toSlice;
+		private final FileChannel channel;
+		private final ByteBuffer heartbeat = ByteBuffer.allocate(8);
+
+		private Shard(int index, int fromSlice, int toSlice, FileChannel channel) {
+			this.index = index;
+			this.fromSlice = fromSlice;
+			this.toSlice = toSlice;
+			this.channel = channel;
+		}
+
+		/**
+		 * Returns index of the shard
+		 *
+		 * @return index of the shard
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns first slice of the shard, inclusive
+		 *
+		 * @return first slice of the shard
+		 */
+		public int getFromSlice() {
+			return fromSlice;
+		}
+
+		/**
+		 * Returns last slice of the shard, exclusive
+		 *
+		 * @return last slice of the shard
+		 */
+		public int getToSlice() {
+			return toSlice;
+		}
+
+		/**
+		 * Refreshes the lock, so it isn't considered abandoned
+		 *
+		 * @throws IOException if writing failed
+		 */
+		public synchronized void heartbeat() throws IOException {
+			if (!channel.isOpen()) return;
+			heartbeat.clear();
+			heartbeat.putLong(0, System.currentTimeMillis());
+			channel.write(heartbeat, 0);
+		}
+
+		/**
+		 * Writes cross sections of the shard and releases the lock
+		 *
+		 * @param crossSections cross sections of the shard
+		 * @param designInput   design input of the search
+		 * @throws IOException if writing failed
+		 */
+		public void complete(CrossSection[] crossSections, DesignInput designInput) throws IOException {
+			try {
+				writeAtomically(resultFile(index), out -> {
+					out.writeInt(MAGIC);
+					out.writeInt(VERSION);
+					out.writeInt(crossSections.length);
+					for (CrossSection crossSection : crossSections) {
+						CrossSectionCodec.write(out, crossSection, designInput.getConcreteClasses());
+					}
+				});
+			} finally {
+				close();
+			}
+		}
+
+		/**
+		 * Releases the lock without completing the shard
+		 *
+		 * @throws IOException if closing failed
+		 */
+		@Override
+		public synchronized void close() throws IOException {
+			if (!channel.isOpen()) return;
+			lockFile(index).delete();
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package tyvrel.mag.core.model;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes beam of the schedule, which shares materials, exposure and price list with other beams, but has its own
+ * loads and ranges of dimensions
+ */
+public class Beam {
+	private final String name;
+	private final double length;
+	private final Load[] loads;
+	private final Range widthRange;
+	private final Range heightRange;
+
+	/**
+	 * Creates an instance of the beam
+	 *
+	 * @param name        name of the beam
+	 * @param length      length of the beam in m
+	 * @param loads       loads
+	 * @param widthRange  range of width in m
+	 * @param heightRange range of height in m
+	 */
+	public Beam(String name, double length, Load[] loads, Range widthRange, Range heightRange) {
+		if (!(length > 0)) throw new IllegalArgumentException("Length of " + name + " has to be positive");
+		this.name = name;
+		this.length = length;
+		this.loads = loads.clone();
+		this.widthRange = widthRange;
+		this.heightRange = heightRange;
+	}
+
+	@Override
+	public String toString() {
+		return "Beam{" +
+				"name='" + name + '\'' +
+				", length=" + length +
+				", loads=" + loads.length +
+				", widthRange=" + widthRange +
+				", heightRange=" + heightRange +
+				'}';
+	}
+
+	/**
+	 * Returns name of the beam
+	 *
+	 * @return name of the beam
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns length of the beam in m
+	 *
+	 * @return length of the beam in m
+	 */
+	public double getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns loads
+	 *
+	 * @return loads
+	 */
+	public Load[] getLoads() {
+		return loads.clone();
+	}
+
+	/**
+	 * Returns range of width in m
+	 *
+	 * @return range of width in m
+	 */
+	public Range getWidthRange() {
+		return widthRange;
+	}
+
+	/**
+	 * Returns range of height in m
+	 *
+	 * @return range of height in m
+	 */
+	public Range getHeightRange() {
+		return heightRange;
+	}
+}
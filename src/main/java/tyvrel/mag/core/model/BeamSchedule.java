@@ -0,0 +1,80 @@
+package tyvrel.mag.core.model;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes designed beams of the schedule: the cheapest cross section of each beam and bill of quantities of all of
+ * them
+ */
+public class BeamSchedule {
+	private final Beam[] beams;
+	private final CrossSection[] crossSections;
+	private final double[] prices;
+	private final BillOfQuantities billOfQuantities;
+
+	/**
+	 * Creates an instance of the schedule
+	 *
+	 * @param beams            beams
+	 * @param crossSections    the cheapest cross section of each beam or null, if beam has no feasible cross section
+	 * @param prices           price of each beam along its whole length or NaN, if beam has no feasible cross section
+	 * @param billOfQuantities bill of quantities of all beams with feasible cross section
+	 */
+	public BeamSchedule(Beam[] beams, CrossSection[] crossSections, double[] prices,
+	                    BillOfQuantities billOfQuantities) {
+		if (beams.length != crossSections.length || beams.length != prices.length)
+			throw new IllegalArgumentException("Each beam needs cross section and price");
+		this.beams = beams.clone();
+		this.crossSections = crossSections.clone();
+		this.prices = prices.clone();
+		this.billOfQuantities = billOfQuantities;
+	}
+
+	/**
+	 * Returns beams
+	 *
+	 * @return beams
+	 */
+	public Beam[] getBeams() {
+		return beams.clone();
+	}
+
+	/**
+	 * Returns the cheapest cross section of each beam or null, if beam has no feasible cross section
+	 *
+	 * @return cross sections in order of beams
+	 */
+	public CrossSection[] getCrossSections() {
+		return crossSections.clone();
+	}
+
+	/**
+	 * Returns price of each beam along its whole length or NaN, if beam has no feasible cross section
+	 *
+	 * @return prices in order of beams
+	 */
+	public double[] getPrices() {
+		return prices.clone();
+	}
+
+	/**
+	 * Returns bill of quantities of all beams with feasible cross section
+	 *
+	 * @return bill of quantities
+	 */
+	public BillOfQuantities getBillOfQuantities() {
+		return billOfQuantities;
+	}
+
+	/**
+	 * Returns number of beams without feasible cross section
+	 *
+	 * @return number of beams without feasible cross section
+	 */
+	public int getUnfeasibleCount() {
+		int count = 0;
+		for (CrossSection crossSection : crossSections) if (crossSection == null) count++;
+		return count;
+	}
+}
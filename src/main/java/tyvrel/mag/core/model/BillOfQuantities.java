@@ -0,0 +1,105 @@
+package tyvrel.mag.core.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes quantities of materials of designed beams, measured the same way as by {@link
+ * tyvrel.mag.core.factory.others.PriceFactory}
+ */
+public class BillOfQuantities {
+	private final Map<String, Double> concreteVolumes;
+	private final double formworkArea;
+	private final double longitudinalReinforcementMass;
+	private final double shearReinforcementMass;
+	private final double price;
+
+	/**
+	 * Creates an instance of the bill of quantities
+	 *
+	 * @param concreteVolumes               volumes of concrete in m3 by symbol of concrete class
+	 * @param formworkArea                  area of formwork in m2
+	 * @param longitudinalReinforcementMass mass of longitudinal reinforcement in kg
+	 * @param shearReinforcementMass        mass of shear reinforcement in kg
+	 * @param price                         total price
+	 */
+	public BillOfQuantities(Map<String, Double> concreteVolumes, double formworkArea,
+	                        double longitudinalReinforcementMass, double shearReinforcementMass, double price) {
+		this.concreteVolumes = Collections.unmodifiableMap(new LinkedHashMap<>(concreteVolumes));
+		this.formworkArea = formworkArea;
+		this.longitudinalReinforcementMass = longitudinalReinforcementMass;
+		this.shearReinforcementMass = shearReinforcementMass;
+		this.price = price;
+	}
+
+	@Override
+	public String toString() {
+		return "BillOfQuantities{" +
+				"concreteVolumes=" + concreteVolumes +
+				", formworkArea=" + formworkArea +
+				", longitudinalReinforcementMass=" + longitudinalReinforcementMass +
+				", shearReinforcementMass=" + shearReinforcementMass +
+				", price=" + price +
+				'}';
+	}
+
+	/**
+	 * Returns volumes of concrete in m3 by symbol of concrete class
+	 *
+	 * @return volumes of concrete in m3 by symbol of concrete class
+	 */
+	public Map<String, Double> getConcreteVolumes() {
+		return concreteVolumes;
+	}
+
+	/**
+	 * Returns total volume of concrete in m3
+	 *
+	 * @return total volume of concrete in m3
+	 */
+	public double getConcreteVolume() {
+		double volume = 0;
+		for (double concreteVolume : concreteVolumes.values()) volume += concreteVolume;
+		return volume;
+	}
+
+	/**
+	 * Returns area of formwork in m2
+	 *
+	 * @return area of formwork in m2
+	 */
+	public double getFormworkArea() {
+		return formworkArea;
+	}
+
+	/**
+	 * Returns mass of longitudinal reinforcement in kg
+	 *
+	 * @return mass of longitudinal reinforcement in kg
+	 */
+	public double getLongitudinalReinforcementMass() {
+		return longitudinalReinforcementMass;
+	}
+
+	/**
+	 * Returns mass of shear reinforcement in kg
+	 *
+	 * @return mass of shear reinforcement in kg
+	 */
+	public double getShearReinforcementMass() {
+		return shearReinforcementMass;
+	}
+
+	/**
+	 * Returns total price
+	 *
+	 * @return total price
+	 */
+	public double getPrice() {
+		return price;
+	}
+}
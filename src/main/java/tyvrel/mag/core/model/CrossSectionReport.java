@@ -0,0 +1,239 @@
+package tyvrel.mag.core.model;
+
+import tyvrel.mag.core.exception.RejectionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes intermediate quantities of calculation of the cross section according to EN 1992-1-1 in order, in which
+ * they were calculated. Quantities, which weren't calculated before the cross section was rejected, are missing.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionReport {
+	/**
+	 * Verdict of accepted cross section. Rejected cross sections have verdict of {@link RejectionType}.
+	 */
+	public static final int ACCEPTED = -1;
+
+	/**
+	 * Concrete cover according to 4.4.1
+	 */
+	public static final int COVER = 0;
+	/**
+	 * Longitudinal reinforcement according to 6.1 and 9.2.1
+	 */
+	public static final int BENDING = 1;
+	/**
+	 * Shear reinforcement according to 6.2
+	 */
+	public static final int SHEAR = 2;
+	/**
+	 * Creep coefficient according to 3.1.4
+	 */
+	public static final int CREEP = 3;
+	/**
+	 * Stress limitation according to 7.2
+	 */
+	public static final int STRESS = 4;
+	/**
+	 * Crack width according to 7.3
+	 */
+	public static final int CRACKING = 5;
+	/**
+	 * Anchorage and lap lengths according to 8.4 and 8.7
+	 */
+	public static final int ANCHORAGE = 6;
+	/**
+	 * Number of the groups
+	 */
+	public static final int GROUP_COUNT = 7;
+
+	/**
+	 * Dimensionless quantity
+	 */
+	public static final int DIMENSIONLESS = 0;
+	/**
+	 * Length in m
+	 */
+	public static final int LENGTH = 1;
+	/**
+	 * Area in m²
+	 */
+	public static final int AREA = 2;
+	/**
+	 * Area per length in m²/m
+	 */
+	public static final int AREA_PER_LENGTH = 3;
+	/**
+	 * Force in N
+	 */
+	public static final int FORCE = 4;
+	/**
+	 * Stress in Pa
+	 */
+	public static final int STRESS_UNIT = 5;
+
+	private final CrossSection crossSection;
+	private final List<Entry> entries;
+	private final int verdict;
+
+	/**
+	 * Creates an instance of the report
+	 *
+	 * @param crossSection calculated cross section or null, if it was rejected
+	 * @param entries      intermediate quantities in order of calculation
+	 * @param verdict      {@link #ACCEPTED} or {@link RejectionType}
+	 */
+	public CrossSectionReport(CrossSection crossSection, List<Entry> entries, int verdict) {
+		this.crossSection = crossSection;
+		this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+		this.verdict = verdict;
+	}
+
+	@Override
+	public String toString() {
+		return "CrossSectionReport{" +
+				"crossSection=" + crossSection +
+				", entries=" + entries +
+				", verdict=" + verdict +
+				'}';
+	}
+
+	/**
+	 * Returns intermediate quantities of the group in order of calculation
+	 *
+	 * @param group one of the groups, for example {@link #COVER}
+	 * @return intermediate quantities of the group
+	 */
+	public List<Entry> getEntries(int group) {
+		List<Entry> groupEntries = new ArrayList<>();
+		for (Entry entry : entries) {
+			if (entry.getGroup() == group) groupEntries.add(entry);
+		}
+		return groupEntries;
+	}
+
+	/**
+	 * Returns value of the quantity or NaN, if it wasn't calculated
+	 *
+	 * @param symbol symbol of the quantity
+	 * @param index  number of load or iteration starting from 1 or 0, if the quantity has only one value
+	 * @return value of the quantity or NaN
+	 */
+	public double get(String symbol, int index) {
+		for (Entry entry : entries) {
+			if (entry.getIndex() == index && entry.getSymbol().equals(symbol)) return entry.getValue();
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * Returns calculated cross section or null, if it was rejected
+	 *
+	 * @return cross section or null
+	 */
+	public CrossSection getCrossSection() {
+		return crossSection;
+	}
+
+	/**
+	 * Returns intermediate quantities in order of calculation
+	 *
+	 * @return intermediate quantities
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Returns verdict of the calculation
+	 *
+	 * @return {@link #ACCEPTED} or {@link RejectionType}
+	 */
+	public int getVerdict() {
+		return verdict;
+	}
+
+	/**
+	 * Describes single intermediate quantity
+	 */
+	public static class Entry {
+		private final int group;
+		private final String symbol;
+		private final int index;
+		private final int unit;
+		private final double value;
+
+		/**
+		 * Creates an instance of the entry
+		 *
+		 * @param group  one of the groups, for example {@link #COVER}
+		 * @param symbol symbol of the quantity
+		 * @param index  number of load or iteration starting from 1 or 0, if the quantity has only one value
+		 * @param unit   one of the units, for example {@link #LENGTH}
+		 * @param value  value in the unit
+		 */
+		public Entry(int group, String symbol, int index, int unit, double value) {
+			this.group = group;
+			this.symbol = symbol;
+			this.index = index;
+			this.unit = unit;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() {
+			return symbol + (index > 0 ? "[" + index + "]" : "") + "=" + value;
+		}
+
+		/**
+		 * Returns group of the quantity
+		 *
+		 * @return one of the groups, for example {@link #COVER}
+		 */
+		public int getGroup() {
+			return group;
+		}
+
+		/**
+		 * Returns symbol of the quantity
+		 *
+		 * @return symbol of the quantity
+		 */
+		public String getSymbol() {
+			return symbol;
+		}
+
+		/**
+		 * Returns number of load or iteration
+		 *
+		 * @return number of load or iteration starting from 1 or 0, if the quantity has only one value
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns unit of the value
+		 *
+		 * @return one of the units, for example {@link #LENGTH}
+		 */
+		public int getUnit() {
+			return unit;
+		}
+
+		/**
+		 * Returns value in the unit
+		 *
+		 * @return value in the unit
+		 */
+		public double getValue() {
+			return value;
+		}
+	}
+}
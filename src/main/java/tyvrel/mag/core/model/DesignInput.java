@@ -0,0 +1,322 @@
+package tyvrel.mag.core.model;
+
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+import tyvrel.mag.core.model.classification.Steel;
+
+import java.util.Arrays;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes complete input of the design of cross sections. Arrays are copied, so the input is immutable.
+ */
+public class DesignInput {
+	private final double[] fias;
+	private final double[] fibs;
+	private final double[] fisws;
+	private final Range widthRange;
+	private final Range heightRange;
+	private final ConcreteClassification[] concreteClasses;
+	private final ExposureClassification[] exposureClasses;
+	private final Load[] loads;
+	private final String longitudinalReinforcementSteelType;
+	private final Steel longitudinalReinforcementSteel;
+	private final String shearReinforcementSteelType;
+	private final Steel shearReinforcementSteel;
+	private final Factors factors;
+	private final PriceList priceList;
+	private final boolean is100yWorkingLife;
+	private final boolean isQualityEnsured;
+	private final boolean isHighAir;
+	private final double dg;
+	private int hash;
+
+	/**
+	 * Creates an instance of the design input
+	 *
+	 * @param fias                               diameters of top longitudinal reinforcement in m
+	 * @param fibs                               diameters of bottom longitudinal reinforcement in m
+	 * @param fisws                              diameters of shear reinforcement in m
+	 * @param widthRange                         range of width in m
+	 * @param heightRange                        range of height in m
+	 * @param concreteClasses                    concrete classes
+	 * @param exposureClasses                    exposure classes
+	 * @param loads                              loads
+	 * @param longitudinalReinforcementSteelType symbol of longitudinal reinforcement steel
+	 * @param longitudinalReinforcementSteel     longitudinal reinforcement steel
+	 * @param shearReinforcementSteelType        symbol of shear reinforcement steel
+	 * @param shearReinforcementSteel            shear reinforcement steel
+	 * @param factors                            partial factors
+	 * @param priceList                          price list
+	 * @param is100yWorkingLife                  if element is designed for 100 years working life
+	 * @param isQualityEnsured                   if special concrete quality control is ensure
+	 * @param isHighAir                          if air containment is higher than 4%
+	 * @param dg                                 maximal diameter of aggregate in m
+	 */
+	public DesignInput(double[] fias, double[] fibs, double[] fisws, Range widthRange, Range heightRange,
+	                   ConcreteClassification[] concreteClasses, ExposureClassification[] exposureClasses,
+	                   Load[] loads, String longitudinalReinforcementSteelType, Steel longitudinalReinforcementSteel,
+	                   String shearReinforcementSteelType, Steel shearReinforcementSteel, Factors factors,
+	                   PriceList priceList, boolean is100yWorkingLife, boolean isQualityEnsured, boolean isHighAir,
+	                   double dg) {
+		this.fias = fias.clone();
+		this.fibs = fibs.clone();
+		this.fisws = fisws.clone();
+		this.widthRange = widthRange;
+		this.heightRange = heightRange;
+		this.concreteClasses = concreteClasses.clone();
+		this.exposureClasses = exposureClasses.clone();
+		this.loads = loads.clone();
+		this.longitudinalReinforcementSteelType = longitudinalReinforcementSteelType;
+		this.longitudinalReinforcementSteel = longitudinalReinforcementSteel;
+		this.shearReinforcementSteelType = shearReinforcementSteelType;
+		this.shearReinforcementSteel = shearReinforcementSteel;
+		this.factors = factors;
+		this.priceList = priceList;
+		this.is100yWorkingLife = is100yWorkingLife;
+		this.isQualityEnsured = isQualityEnsured;
+		this.isHighAir = isHighAir;
+		this.dg = dg;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		DesignInput that = (DesignInput) o;
+
+		if (is100yWorkingLife != that.is100yWorkingLife) return false;
+		if (isQualityEnsured != that.isQualityEnsured) return false;
+		if (isHighAir != that.isHighAir) return false;
+		if (Double.compare(that.dg, dg) != 0) return false;
+		if (!Arrays.equals(fias, that.fias)) return false;
+		if (!Arrays.equals(fibs, that.fibs)) return false;
+		if (!Arrays.equals(fisws, that.fisws)) return false;
+		if (widthRange != null ? !widthRange.equals(that.widthRange) : that.widthRange != null) return false;
+		if (heightRange != null ? !heightRange.equals(that.heightRange) : that.heightRange != null) return false;
+		if (!Arrays.equals(concreteClasses, that.concreteClasses)) return false;
+		if (!Arrays.equals(exposureClasses, that.exposureClasses)) return false;
+		if (!Arrays.equals(loads, that.loads)) return false;
+		if (longitudinalReinforcementSteelType != null ? !longitudinalReinforcementSteelType.equals(that
+				.longitudinalReinforcementSteelType) : that.longitudinalReinforcementSteelType != null)
+			return false;
+		if (longitudinalReinforcementSteel != null ? !longitudinalReinforcementSteel.equals(that
+				.longitudinalReinforcementSteel) : that.longitudinalReinforcementSteel != null)
+			return false;
+		if (shearReinforcementSteelType != null ? !shearReinforcementSteelType.equals(that
+				.shearReinforcementSteelType) : that.shearReinforcementSteelType != null)
+			return false;
+		if (shearReinforcementSteel != null ? !shearReinforcementSteel.equals(that.shearReinforcementSteel) : that
+				.shearReinforcementSteel != null)
+			return false;
+		if (factors != null ? !factors.equals(that.factors) : that.factors != null) return false;
+		return priceList != null ? priceList.equals(that.priceList) : that.priceList == null;
+	}
+
+	/**
+	 * Returns hash code of the input. The input is immutable, so it is calculated once.
+	 *
+	 * @return hash code
+	 */
+	@Override
+	public int hashCode() {
+		int result = hash;
+		if (result == 0) {
+			result = calculateHashCode();
+			hash = result;
+		}
+		return result;
+	}
+
+	private int calculateHashCode() {
+		int result;
+		long temp;
+		result = Arrays.hashCode(fias);
+		result = 31 * result + Arrays.hashCode(fibs);
+		result = 31 * result + Arrays.hashCode(fisws);
+		result = 31 * result + (widthRange != null ? widthRange.hashCode() : 0);
+		result = 31 * result + (heightRange != null ? heightRange.hashCode() : 0);
+		result = 31 * result + Arrays.hashCode(concreteClasses);
+		result = 31 * result + Arrays.hashCode(exposureClasses);
+		result = 31 * result + Arrays.hashCode(loads);
+		result = 31 * result + (longitudinalReinforcementSteelType != null ? longitudinalReinforcementSteelType
+				.hashCode() : 0);
+		result = 31 * result + (longitudinalReinforcementSteel != null ? longitudinalReinforcementSteel.hashCode() :
+				0);
+		result = 31 * result + (shearReinforcementSteelType != null ? shearReinforcementSteelType.hashCode() : 0);
+		result = 31 * result + (shearReinforcementSteel != null ? shearReinforcementSteel.hashCode() : 0);
+		result = 31 * result + (factors != null ? factors.hashCode() : 0);
+		result = 31 * result + (priceList != null ? priceList.hashCode() : 0);
+		result = 31 * result + (is100yWorkingLife ? 1 : 0);
+		result = 31 * result + (isQualityEnsured ? 1 : 0);
+		result = 31 * result + (isHighAir ? 1 : 0);
+		temp = Double.doubleToLongBits(dg);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	/**
+	 * Returns diameters of top longitudinal reinforcement in m
+	 *
+	 * @return diameters of top longitudinal reinforcement in m
+	 */
+	public double[] getFias() {
+		return fias.clone();
+	}
+
+	/**
+	 * Returns diameters of bottom longitudinal reinforcement in m
+	 *
+	 * @return diameters of bottom longitudinal reinforcement in m
+	 */
+	public double[] getFibs() {
+		return fibs.clone();
+	}
+
+	/**
+	 * Returns diameters of shear reinforcement in m
+	 *
+	 * @return diameters of shear reinforcement in m
+	 */
+	public double[] getFisws() {
+		return fisws.clone();
+	}
+
+	/**
+	 * Returns range of width in m
+	 *
+	 * @return range of width in m
+	 */
+	public Range getWidthRange() {
+		return widthRange;
+	}
+
+	/**
+	 * Returns range of height in m
+	 *
+	 * @return range of height in m
+	 */
+	public Range getHeightRange() {
+		return heightRange;
+	}
+
+	/**
+	 * Returns concrete classes
+	 *
+	 * @return concrete classes
+	 */
+	public ConcreteClassification[] getConcreteClasses() {
+		return concreteClasses.clone();
+	}
+
+	/**
+	 * Returns exposure classes
+	 *
+	 * @return exposure classes
+	 */
+	public ExposureClassification[] getExposureClasses() {
+		return exposureClasses.clone();
+	}
+
+	/**
+	 * Returns loads
+	 *
+	 * @return loads
+	 */
+	public Load[] getLoads() {
+		return loads.clone();
+	}
+
+	/**
+	 * Returns symbol of longitudinal reinforcement steel
+	 *
+	 * @return symbol of longitudinal reinforcement steel
+	 */
+	public String getLongitudinalReinforcementSteelType() {
+		return longitudinalReinforcementSteelType;
+	}
+
+	/**
+	 * Returns longitudinal reinforcement steel
+	 *
+	 * @return longitudinal reinforcement steel
+	 */
+	public Steel getLongitudinalReinforcementSteel() {
+		return longitudinalReinforcementSteel;
+	}
+
+	/**
+	 * Returns symbol of shear reinforcement steel
+	 *
+	 * @return symbol of shear reinforcement steel
+	 */
+	public String getShearReinforcementSteelType() {
+		return shearReinforcementSteelType;
+	}
+
+	/**
+	 * Returns shear reinforcement steel
+	 *
+	 * @return shear reinforcement steel
+	 */
+	public Steel getShearReinforcementSteel() {
+		return shearReinforcementSteel;
+	}
+
+	/**
+	 * Returns partial factors
+	 *
+	 * @return partial factors
+	 */
+	public Factors getFactors() {
+		return factors;
+	}
+
+	/**
+	 * Returns price list
+	 *
+	 * @return price list
+	 */
+	public PriceList getPriceList() {
+		return priceList;
+	}
+
+	/**
+	 * Returns if element is designed for 100 years working life
+	 *
+	 * @return if element is designed for 100 years working life
+	 */
+	public boolean is100yWorkingLife() {
+		return is100yWorkingLife;
+	}
+
+	/**
+	 * Returns if special concrete quality control is ensure
+	 *
+	 * @return if special concrete quality control is ensure
+	 */
+	public boolean isQualityEnsured() {
+		return isQualityEnsured;
+	}
+
+	/**
+	 * Returns if air containment is higher than 4%
+	 *
+	 * @return if air containment is higher than 4%
+	 */
+	public boolean isHighAir() {
+		return isHighAir;
+	}
+
+	/**
+	 * Returns maximal diameter of aggregate in m
+	 *
+	 * @return maximal diameter of aggregate in m
+	 */
+	public double getDg() {
+		return dg;
+	}
+}
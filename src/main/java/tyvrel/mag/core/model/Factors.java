@@ -21,6 +21,28 @@ public class Factors {
 		this.gammac = gammac;
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Factors factors = (Factors) o;
+
+		if (Double.compare(factors.gammas, gammas) != 0) return false;
+		return Double.compare(factors.gammac, gammac) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		int result;
+		long temp;
+		temp = Double.doubleToLongBits(gammas);
+		result = (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(gammac);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
 	/**
 	 * Returns gammas factor
 	 *
@@ -25,6 +25,12 @@ public class PriceList {
 	private double formworkPrice = 60.95;
 	private double reinforcementPrice = 3.93655;
 
+	/**
+	 * Creates an instance of price list with default prices
+	 */
+	public PriceList() {
+	}
+
 	/**
 	 * Creates an instance of price list
 	 *
@@ -70,6 +76,73 @@ public class PriceList {
 		this.reinforcementPrice = reinforcementPrice;
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		PriceList priceList = (PriceList) o;
+
+		if (Double.compare(priceList.concreteLabourPrice, concreteLabourPrice) != 0) return false;
+		if (Double.compare(priceList.c1215Price, c1215Price) != 0) return false;
+		if (Double.compare(priceList.c1620Price, c1620Price) != 0) return false;
+		if (Double.compare(priceList.c2025Price, c2025Price) != 0) return false;
+		if (Double.compare(priceList.c2530Price, c2530Price) != 0) return false;
+		if (Double.compare(priceList.c3037Price, c3037Price) != 0) return false;
+		if (Double.compare(priceList.c3545Price, c3545Price) != 0) return false;
+		if (Double.compare(priceList.c4050Price, c4050Price) != 0) return false;
+		if (Double.compare(priceList.c4555Price, c4555Price) != 0) return false;
+		if (Double.compare(priceList.c5060Price, c5060Price) != 0) return false;
+		if (Double.compare(priceList.c5567Price, c5567Price) != 0) return false;
+		if (Double.compare(priceList.c6075Price, c6075Price) != 0) return false;
+		if (Double.compare(priceList.c7085Price, c7085Price) != 0) return false;
+		if (Double.compare(priceList.c8095Price, c8095Price) != 0) return false;
+		if (Double.compare(priceList.c90105Price, c90105Price) != 0) return false;
+		if (Double.compare(priceList.formworkPrice, formworkPrice) != 0) return false;
+		return Double.compare(priceList.reinforcementPrice, reinforcementPrice) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		int result;
+		long temp;
+		temp = Double.doubleToLongBits(concreteLabourPrice);
+		result = (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c1215Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c1620Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c2025Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c2530Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c3037Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c3545Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c4050Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c4555Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c5060Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c5567Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c6075Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c7085Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c8095Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(c90105Price);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(formworkPrice);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(reinforcementPrice);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
 	/**
 	 * Returns price of concrete labour in currency/m3
 	 *
@@ -26,6 +26,31 @@ public class Range {
 				'}';
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Range range = (Range) o;
+
+		if (Double.compare(range.from, from) != 0) return false;
+		if (Double.compare(range.to, to) != 0) return false;
+		return Double.compare(range.increment, increment) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		int result;
+		long temp;
+		temp = Double.doubleToLongBits(from);
+		result = (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(to);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(increment);
+		result = 31 * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
 	/**
 	 * Creates an instance of range
 	 *
@@ -38,9 +63,14 @@ public class Range {
 		pos(from);
 		pos(to);
 		nonNeg(increment);
-		if (from > to) throw new ImproperDataException();
-		if (to - from < increment) throw new ImproperDataException();
-		if ((to - from) / increment > 1000000000) throw new ImproperDataException();
+		if (from > to)
+			throw new ImproperDataException("from has to be not greater than to, but is: " + from + " > " + to);
+		if (to - from < increment)
+			throw new ImproperDataException("increment has to be not greater than difference of to and from, but " +
+					"is: " + increment + " > " + (to - from));
+		if ((to - from) / increment > 1000000000)
+			throw new ImproperDataException("range has to have at most 1000000000 increments, but increment is: " +
+					increment);
 
 		this.from = from;
 		this.to = to;
@@ -61,12 +91,34 @@ public class Range {
 	}
 
 	/**
-	 * Returns size of the range
+	 * Returns size of the range, that is number of increments between its points. Rounding errors of the division
+	 * don't exclude the ending point.
 	 *
 	 * @return size of the range
 	 */
 	public int size() {
-		return (int) ((to - from) / increment);
+		return (int) ((to - from) / increment + 1e-9);
+	}
+
+	/**
+	 * Returns number of values of the range
+	 *
+	 * @return number of values of the range
+	 */
+	public int getCount() {
+		return size() + 1;
+	}
+
+	/**
+	 * Returns value of the range of the index, that is the starting point increased index times by the increment
+	 *
+	 * @param index index of the value from 0 to {@link #getCount()} (exclusive)
+	 * @return value of the range
+	 * @throws IndexOutOfBoundsException if index is out of the range
+	 */
+	public double getValue(int index) {
+		if (index < 0 || index > size()) throw new IndexOutOfBoundsException("Index " + index);
+		return from + index * increment;
 	}
 
 	/**
@@ -0,0 +1,43 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.factory.dimensioning.CalculationStage;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Assertions, which enforce allocation budget of the calculation
+ */
+public class AllocationBudget {
+	private AllocationBudget() {
+	}
+
+	/**
+	 * Asserts that average number of bytes allocated per candidate doesn't exceed the budget
+	 *
+	 * @param allocationReport report of the allocations
+	 * @param maxBytes         budget in bytes per candidate
+	 * @throws AssertionError if budget is exceeded or no candidate was evaluated
+	 */
+	public static void assertBytesPerCandidate(AllocationReport allocationReport, long maxBytes) {
+		if (allocationReport.getCandidates() == 0) throw new AssertionError("No candidate was evaluated");
+		if (allocationReport.getBytesPerCandidate() > maxBytes)
+			throw new AssertionError(String.format("Allocated %.1f bytes per candidate, but budget is %d bytes%n%s",
+					allocationReport.getBytesPerCandidate(), maxBytes, allocationReport));
+	}
+
+	/**
+	 * Asserts that average number of bytes allocated per execution of the stage doesn't exceed the budget
+	 *
+	 * @param allocationReport report of the allocations
+	 * @param stage            one of {@link CalculationStage}
+	 * @param maxBytes         budget in bytes per execution of the stage
+	 * @throws AssertionError if budget is exceeded
+	 */
+	public static void assertBytesPerStageCall(AllocationReport allocationReport, int stage, long maxBytes) {
+		if (allocationReport.getBytesPerStageCall(stage) > maxBytes)
+			throw new AssertionError(String.format("Stage %s allocated %.1f bytes per call, but budget is %d " +
+							"bytes%n%s", CalculationStage.getName(stage), allocationReport.getBytesPerStageCall(stage),
+					maxBytes, allocationReport));
+	}
+}
@@ -0,0 +1,69 @@
+package tyvrel.mag.core.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Reads number of bytes allocated by the current thread using com.sun.management.ThreadMXBean
+ */
+public class AllocationCounter {
+	private final com.sun.management.ThreadMXBean threadMXBean;
+	private final long overhead;
+
+	/**
+	 * Creates an instance of the counter and calibrates cost of a single reading
+	 *
+	 * @throws UnsupportedOperationException if the JVM doesn't measure thread allocated bytes
+	 */
+	public AllocationCounter() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean))
+			throw new UnsupportedOperationException("com.sun.management.ThreadMXBean is not available");
+		threadMXBean = (com.sun.management.ThreadMXBean) bean;
+		if (!threadMXBean.isThreadAllocatedMemorySupported())
+			throw new UnsupportedOperationException("Thread allocated memory measurement is not supported");
+		if (!threadMXBean.isThreadAllocatedMemoryEnabled()) threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		long minOverhead = Long.MAX_VALUE;
+		for (int i = 0; i < 16; i++) {
+			long before = read();
+			long after = read();
+			minOverhead = Math.min(minOverhead, after - before);
+		}
+		overhead = Math.max(0, minOverhead);
+	}
+
+	/**
+	 * Returns if allocation counting is supported by the JVM
+	 *
+	 * @return if allocation counting is supported by the JVM
+	 */
+	public static boolean isSupported() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		return bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported();
+	}
+
+	/**
+	 * Returns number of bytes allocated by the current thread so far
+	 *
+	 * @return number of bytes allocated by the current thread so far
+	 */
+	public long read() {
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns number of bytes allocated by the current thread since <code>start</code>, excluding cost of the
+	 * reading itself
+	 *
+	 * @param start value returned by {@link #read()}
+	 * @return number of bytes allocated since <code>start</code>
+	 */
+	public long since(long start) {
+		return Math.max(0, read() - start - overhead);
+	}
+}
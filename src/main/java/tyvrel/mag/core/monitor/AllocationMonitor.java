@@ -0,0 +1,88 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.factory.dimensioning.CalculationStage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Accumulates bytes allocated per candidate and per calculation stage. Safe to use from many threads.
+ */
+public class AllocationMonitor {
+	private final AllocationCounter allocationCounter = new AllocationCounter();
+	private final LongAdder candidates = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder[] stageBytes = new LongAdder[CalculationStage.COUNT];
+	private final LongAdder[] stageCalls = new LongAdder[CalculationStage.COUNT];
+
+	/**
+	 * Creates an instance of the monitor
+	 *
+	 * @throws UnsupportedOperationException if the JVM doesn't measure thread allocated bytes
+	 */
+	public AllocationMonitor() {
+		for (int i = 0; i < CalculationStage.COUNT; i++) {
+			stageBytes[i] = new LongAdder();
+			stageCalls[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Marks start of the measurement
+	 *
+	 * @return value to be passed to one of <code>record</code> methods
+	 */
+	public long start() {
+		return allocationCounter.read();
+	}
+
+	/**
+	 * Records bytes allocated by single candidate since <code>start</code>
+	 *
+	 * @param start value returned by {@link #start()}
+	 */
+	public void recordCandidate(long start) {
+		bytes.add(allocationCounter.since(start));
+		candidates.increment();
+	}
+
+	/**
+	 * Records bytes allocated by single execution of the stage since <code>start</code>
+	 *
+	 * @param stage one of {@link CalculationStage}
+	 * @param start value returned by {@link #start()}
+	 */
+	public void recordStage(int stage, long start) {
+		stageBytes[stage].add(allocationCounter.since(start));
+		stageCalls[stage].increment();
+	}
+
+	/**
+	 * Clears all of the measurements
+	 */
+	public void reset() {
+		candidates.reset();
+		bytes.reset();
+		for (int i = 0; i < CalculationStage.COUNT; i++) {
+			stageBytes[i].reset();
+			stageCalls[i].reset();
+		}
+	}
+
+	/**
+	 * Returns snapshot of the measurements
+	 *
+	 * @return snapshot of the measurements
+	 */
+	public AllocationReport getReport() {
+		long[] stageBytesSnapshot = new long[CalculationStage.COUNT];
+		long[] stageCallsSnapshot = new long[CalculationStage.COUNT];
+		for (int i = 0; i < CalculationStage.COUNT; i++) {
+			stageBytesSnapshot[i] = stageBytes[i].sum();
+			stageCallsSnapshot[i] = stageCalls[i].sum();
+		}
+		return new AllocationReport(candidates.sum(), bytes.sum(), stageBytesSnapshot, stageCallsSnapshot);
+	}
+}
@@ -0,0 +1,114 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.factory.dimensioning.CalculationStage;
+
+import java.util.Arrays;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes bytes allocated while evaluating candidate cross sections
+ */
+public class AllocationReport {
+	private final long candidates;
+	private final long bytes;
+	private final long[] stageBytes;
+	private final long[] stageCalls;
+
+	/**
+	 * Creates an instance of the report
+	 *
+	 * @param candidates number of evaluated candidates
+	 * @param bytes      bytes allocated by all candidates
+	 * @param stageBytes bytes allocated by each of {@link CalculationStage}
+	 * @param stageCalls number of executions of each of {@link CalculationStage}
+	 */
+	public AllocationReport(long candidates, long bytes, long[] stageBytes, long[] stageCalls) {
+		this.candidates = candidates;
+		this.bytes = bytes;
+		this.stageBytes = Arrays.copyOf(stageBytes, CalculationStage.COUNT);
+		this.stageCalls = Arrays.copyOf(stageCalls, CalculationStage.COUNT);
+	}
+
+	/**
+	 * Returns number of evaluated candidates
+	 *
+	 * @return number of evaluated candidates
+	 */
+	public long getCandidates() {
+		return candidates;
+	}
+
+	/**
+	 * Returns bytes allocated by all candidates
+	 *
+	 * @return bytes allocated by all candidates
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns average number of bytes allocated per candidate
+	 *
+	 * @return average number of bytes allocated per candidate
+	 */
+	public double getBytesPerCandidate() {
+		return candidates == 0 ? 0 : (double) bytes / candidates;
+	}
+
+	/**
+	 * Returns bytes allocated by the stage
+	 *
+	 * @param stage one of {@link CalculationStage}
+	 * @return bytes allocated by the stage
+	 * @throws IllegalArgumentException if stage is unknown
+	 */
+	public long getStageBytes(int stage) {
+		checkStage(stage);
+		return stageBytes[stage];
+	}
+
+	/**
+	 * Returns number of executions of the stage
+	 *
+	 * @param stage one of {@link CalculationStage}
+	 * @return number of executions of the stage
+	 * @throws IllegalArgumentException if stage is unknown
+	 */
+	public long getStageCalls(int stage) {
+		checkStage(stage);
+		return stageCalls[stage];
+	}
+
+	/**
+	 * Returns average number of bytes allocated per execution of the stage
+	 *
+	 * @param stage one of {@link CalculationStage}
+	 * @return average number of bytes allocated per execution of the stage
+	 * @throws IllegalArgumentException if stage is unknown
+	 */
+	public double getBytesPerStageCall(int stage) {
+		long calls = getStageCalls(stage);
+		return calls == 0 ? 0 : (double) stageBytes[stage] / calls;
+	}
+
+	private static void checkStage(int stage) {
+		if (stage < 0 || stage >= CalculationStage.COUNT)
+			throw new IllegalArgumentException("Stage " + stage + " is unknown");
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("candidates: %d, bytes: %d, bytes/candidate: %.1f%n", candidates, bytes,
+				getBytesPerCandidate()));
+		for (int stage = 0; stage < CalculationStage.COUNT; stage++) {
+			sb.append(String.format("  %-30s calls: %10d, bytes: %14d, bytes/call: %10.1f%n",
+					CalculationStage.getName(stage), stageCalls[stage], stageBytes[stage],
+					getBytesPerStageCall(stage)));
+		}
+		return sb.toString();
+	}
+}
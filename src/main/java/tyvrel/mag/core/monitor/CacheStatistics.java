@@ -0,0 +1,92 @@
+package tyvrel.mag.core.monitor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Counts hits, misses and evictions of the cache. Safe to use from many threads.
+ */
+public class CacheStatistics {
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Records hit of the cache
+	 */
+	public void hit() {
+		hits.increment();
+	}
+
+	/**
+	 * Records miss of the cache
+	 */
+	public void miss() {
+		misses.increment();
+	}
+
+	/**
+	 * Records eviction from the cache
+	 */
+	public void evict() {
+		evictions.increment();
+	}
+
+	/**
+	 * Clears all of the counters
+	 */
+	public void reset() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	/**
+	 * Returns number of hits
+	 *
+	 * @return number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns number of misses
+	 *
+	 * @return number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns number of evictions
+	 *
+	 * @return number of evictions
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns ratio of hits to all lookups
+	 *
+	 * @return ratio of hits to all lookups or 0 if there was no lookup
+	 */
+	public double getHitRatio() {
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistics{" +
+				"hits=" + getHits() +
+				", misses=" + getMisses() +
+				", evictions=" + getEvictions() +
+				'}';
+	}
+}
@@ -0,0 +1,243 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.exception.RejectionType;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes outcome of single candidate cross section. Values, which weren't calculated before the candidate was
+ * rejected, are NaN.
+ */
+public class CandidateTrace {
+	/**
+	 * Verdict of accepted candidate. Rejected candidates have verdict of {@link RejectionType}.
+	 */
+	public static final int ACCEPTED = -1;
+
+	private final String concreteClass;
+	private final double b;
+	private final double h;
+	private final double fib;
+	private final double fia;
+	private final double fisw;
+	private final double cnom;
+	private final double nb;
+	private final double na;
+	private final double nsw;
+	private final double phi;
+	private final double sigmac;
+	private final double sigmas;
+	private final double w;
+	private final int verdict;
+
+	/**
+	 * Creates an instance of the trace
+	 *
+	 * @param concreteClass symbol of concrete class
+	 * @param b             width in m
+	 * @param h             height in m
+	 * @param fib           diameter of bottom longitudinal reinforcement in m
+	 * @param fia           diameter of top longitudinal reinforcement in m
+	 * @param fisw          diameter of shear reinforcement in m
+	 * @param cnom          concrete cover in m
+	 * @param nb            number of bottom bars
+	 * @param na            number of top bars
+	 * @param nsw           number of stirrups per m
+	 * @param phi           creep coefficient
+	 * @param sigmac        stress in concrete in Pa
+	 * @param sigmas        stress in reinforcement in Pa
+	 * @param w             maximal crack width in m
+	 * @param verdict       {@link #ACCEPTED} or {@link RejectionType}
+	 */
+	public CandidateTrace(String concreteClass, double b, double h, double fib, double fia, double fisw, double cnom,
+	                      double nb, double na, double nsw, double phi, double sigmac, double sigmas, double w,
+	                      int verdict) {
+		this.concreteClass = concreteClass;
+		this.b = b;
+		this.h = h;
+		this.fib = fib;
+		this.fia = fia;
+		this.fisw = fisw;
+		this.cnom = cnom;
+		this.nb = nb;
+		this.na = na;
+		this.nsw = nsw;
+		this.phi = phi;
+		this.sigmac = sigmac;
+		this.sigmas = sigmas;
+		this.w = w;
+		this.verdict = verdict;
+	}
+
+	/**
+	 * Appends the trace as single line JSON object without line separator
+	 *
+	 * @param sb builder, to which the trace is appended
+	 * @return the builder
+	 */
+	public StringBuilder appendJson(StringBuilder sb) {
+		sb.append("{\"concrete\":\"").append(concreteClass).append('"');
+		appendJson(sb, "b", b);
+		appendJson(sb, "h", h);
+		appendJson(sb, "fib", fib);
+		appendJson(sb, "fia", fia);
+		appendJson(sb, "fisw", fisw);
+		appendJson(sb, "cnom", cnom);
+		appendJson(sb, "nb", nb);
+		appendJson(sb, "na", na);
+		appendJson(sb, "nsw", nsw);
+		appendJson(sb, "phi", phi);
+		appendJson(sb, "sigmac", sigmac);
+		appendJson(sb, "sigmas", sigmas);
+		appendJson(sb, "w", w);
+		sb.append(",\"verdict\":\"").append(verdict == ACCEPTED ? "accepted" : RejectionType.getName(verdict));
+		return sb.append("\"}");
+	}
+
+	private static void appendJson(StringBuilder sb, String name, double value) {
+		sb.append(",\"").append(name).append("\":");
+		if (Double.isNaN(value) || Double.isInfinite(value)) sb.append("null");
+		else sb.append(value);
+	}
+
+	@Override
+	public String toString() {
+		return appendJson(new StringBuilder()).toString();
+	}
+
+	/**
+	 * Returns symbol of concrete class
+	 *
+	 * @return symbol of concrete class
+	 */
+	public String getConcreteClass() {
+		return concreteClass;
+	}
+
+	/**
+	 * Returns width in m
+	 *
+	 * @return width in m
+	 */
+	public double getB() {
+		return b;
+	}
+
+	/**
+	 * Returns height in m
+	 *
+	 * @return height in m
+	 */
+	public double getH() {
+		return h;
+	}
+
+	/**
+	 * Returns diameter of bottom longitudinal reinforcement in m
+	 *
+	 * @return diameter of bottom longitudinal reinforcement in m
+	 */
+	public double getFib() {
+		return fib;
+	}
+
+	/**
+	 * Returns diameter of top longitudinal reinforcement in m
+	 *
+	 * @return diameter of top longitudinal reinforcement in m
+	 */
+	public double getFia() {
+		return fia;
+	}
+
+	/**
+	 * Returns diameter of shear reinforcement in m
+	 *
+	 * @return diameter of shear reinforcement in m
+	 */
+	public double getFisw() {
+		return fisw;
+	}
+
+	/**
+	 * Returns concrete cover in m
+	 *
+	 * @return concrete cover in m
+	 */
+	public double getCnom() {
+		return cnom;
+	}
+
+	/**
+	 * Returns number of bottom bars
+	 *
+	 * @return number of bottom bars
+	 */
+	public double getNb() {
+		return nb;
+	}
+
+	/**
+	 * Returns number of top bars
+	 *
+	 * @return number of top bars
+	 */
+	public double getNa() {
+		return na;
+	}
+
+	/**
+	 * Returns number of stirrups per m
+	 *
+	 * @return number of stirrups per m
+	 */
+	public double getNsw() {
+		return nsw;
+	}
+
+	/**
+	 * Returns creep coefficient
+	 *
+	 * @return creep coefficient
+	 */
+	public double getPhi() {
+		return phi;
+	}
+
+	/**
+	 * Returns stress in concrete in Pa
+	 *
+	 * @return stress in concrete in Pa
+	 */
+	public double getSigmac() {
+		return sigmac;
+	}
+
+	/**
+	 * Returns stress in reinforcement in Pa
+	 *
+	 * @return stress in reinforcement in Pa
+	 */
+	public double getSigmas() {
+		return sigmas;
+	}
+
+	/**
+	 * Returns maximal crack width in m
+	 *
+	 * @return maximal crack width in m
+	 */
+	public double getW() {
+		return w;
+	}
+
+	/**
+	 * Returns {@link #ACCEPTED} or {@link RejectionType}
+	 *
+	 * @return {@link #ACCEPTED} or {@link RejectionType}
+	 */
+	public int getVerdict() {
+		return verdict;
+	}
+}
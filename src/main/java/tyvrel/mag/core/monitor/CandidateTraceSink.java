@@ -0,0 +1,210 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.exception.RejectionType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Sink, which writes sampled {@link CandidateTrace}s as newline delimited JSON. Traces are put into bounded lock-free
+ * ring and written by background thread, so the calculation is never blocked; traces, which don't fit into the ring,
+ * are dropped and counted. Sampling is counted separately by every calculating thread, so it isn't contended either.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CandidateTraceSink implements Closeable {
+	/**
+	 * Filter, which accepts every verdict
+	 */
+	public static final int ANY_VERDICT = -2;
+
+	private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final Writer writer;
+	private final Ring buffer;
+	private final int sampleEvery;
+	private final int verdictFilter;
+	private final ThreadLocal<long[]> matched = ThreadLocal.withInitial(() -> new long[1]);
+	private final AtomicInteger offering = new AtomicInteger();
+	private final LongAdder written = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final Thread writerThread;
+	private volatile boolean closed;
+	private volatile IOException failure;
+
+	/**
+	 * Creates an instance of the sink and starts its writer thread
+	 *
+	 * @param writer        writer, to which traces are written; it is closed with the sink
+	 * @param capacity      number of traces, which can wait for writing
+	 * @param sampleEvery   every which of the traces matching the filter is written by each calculating thread
+	 * @param verdictFilter {@link #ANY_VERDICT}, {@link CandidateTrace#ACCEPTED} or {@link RejectionType}, which
+	 *                      traces are written
+	 */
+	public CandidateTraceSink(Writer writer, int capacity, int sampleEvery, int verdictFilter) {
+		if (capacity <= 0) throw new IllegalArgumentException("capacity has to be positive");
+		if (sampleEvery <= 0) throw new IllegalArgumentException("sample has to be positive");
+		this.writer = writer;
+		this.buffer = new Ring(capacity);
+		this.sampleEvery = sampleEvery;
+		this.verdictFilter = verdictFilter;
+		writerThread = new Thread(this::drain, "candidate-trace-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Returns if the trace of the verdict should be created and offered. Every call for matching verdict counts
+	 * towards sampling of the calling thread.
+	 *
+	 * @param verdict {@link CandidateTrace#ACCEPTED} or {@link RejectionType}
+	 * @return if the trace should be offered
+	 */
+	public boolean isSampled(int verdict) {
+		if (closed || (verdictFilter != ANY_VERDICT && verdictFilter != verdict)) return false;
+		if (sampleEvery == 1) return true;
+		long[] count = matched.get();
+		return count[0]++ % sampleEvery == 0;
+	}
+
+	/**
+	 * Puts the trace into the ring without waiting. The trace is dropped if the ring is full or the sink is closed.
+	 *
+	 * @param trace trace
+	 */
+	public void offer(CandidateTrace trace) {
+		offering.incrementAndGet();
+		try {
+			if (closed || failure != null || !buffer.offer(trace)) dropped.increment();
+		} finally {
+			offering.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns number of written traces
+	 *
+	 * @return number of written traces
+	 */
+	public long getWritten() {
+		return written.sum();
+	}
+
+	/**
+	 * Returns number of traces dropped because the ring was full, writing failed or the sink was closed
+	 *
+	 * @return number of dropped traces
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Writes buffered traces, stops writer thread and closes the writer. Traces offered while the sink is closed are
+	 * counted as dropped.
+	 *
+	 * @throws IOException if writing failed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		while (offering.get() != 0) Thread.yield();
+		try {
+			writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		dropped.add(buffer.size());
+		writer.close();
+		if (failure != null) throw failure;
+	}
+
+	private void drain() {
+		StringBuilder sb = new StringBuilder(256);
+		boolean flushed = true;
+		try {
+			while (true) {
+				CandidateTrace trace = buffer.poll();
+				if (trace == null) {
+					if (!flushed) writer.flush();
+					flushed = true;
+					if (closed && offering.get() == 0 && buffer.size() == 0) return;
+					LockSupport.parkNanos(POLL_NANOS);
+					continue;
+				}
+				sb.setLength(0);
+				trace.appendJson(sb).append('\n');
+				writer.append(sb);
+				written.increment();
+				flushed = false;
+			}
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Bounded ring of many producers and single consumer. Producers claim positions by compare-and-set of the tail
+	 * and publish them by sequence number of the slot, so neither producers nor the consumer ever wait for a lock.
+	 */
+	private static class Ring {
+		private final int capacity;
+		private final AtomicReferenceArray<CandidateTrace> slots;
+		private final AtomicLongArray sequences;
+		private final AtomicLong tail = new AtomicLong();
+		private volatile long head;
+
+		private Ring(int capacity) {
+			this.capacity = capacity;
+			slots = new AtomicReferenceArray<>(capacity);
+			sequences = new AtomicLongArray(capacity);
+			for (int i = 0; i < capacity; i++) sequences.set(i, i);
+		}
+
+		private boolean offer(CandidateTrace trace) {
+			long position = tail.get();
+			while (true) {
+				int index = (int) (position % capacity);
+				long sequence = sequences.get(index);
+				if (sequence == position) {
+					if (tail.compareAndSet(position, position + 1)) {
+						slots.lazySet(index, trace);
+						sequences.set(index, position + 1);
+						return true;
+					}
+					position = tail.get();
+				} else if (sequence < position) {
+					return false;
+				} else {
+					position = tail.get();
+				}
+			}
+		}
+
+		private CandidateTrace poll() {
+			long position = head;
+			int index = (int) (position % capacity);
+			if (sequences.get(index) != position + 1) return null;
+			CandidateTrace trace = slots.get(index);
+			slots.lazySet(index, null);
+			sequences.set(index, position + capacity);
+			head = position + 1;
+			return trace;
+		}
+
+		private long size() {
+			return tail.get() - head;
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsListener;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Metrics of the design engine registered in the platform MBean server as {@value #OBJECT_NAME}. Candidates are
+ * counted by each search separately and added to the metrics, when a slice or the search finishes, so the search
+ * threads don't share any counter. Throughput is measured in wall-clock time, during which any search was running.
+ */
+public class EngineMetrics implements EngineMetricsMXBean {
+	/**
+	 * Name, under which the metrics are registered
+	 */
+	public static final String OBJECT_NAME = "tyvrel.mag:type=EngineMetrics";
+	/**
+	 * Length of the window of windowed metrics in seconds
+	 */
+	public static final int WINDOW_SECONDS = 60;
+
+	private static volatile EngineMetrics instance;
+
+	private final LongAdder searchesRun = new LongAdder();
+	private final LongAdder searchesRunning = new LongAdder();
+	private final LongAdder candidatesEvaluated = new LongAdder();
+	private final LongAdder candidatesAccepted = new LongAdder();
+	private final LongAdder searchNanos = new LongAdder();
+	private final WindowedCounter windowedSearchesRun = new WindowedCounter(WINDOW_SECONDS);
+	private final WindowedCounter windowedCandidatesEvaluated = new WindowedCounter(WINDOW_SECONDS);
+	private final WindowedCounter windowedCandidatesAccepted = new WindowedCounter(WINDOW_SECONDS);
+	private final WindowedCounter windowedSearchNanos = new WindowedCounter(WINDOW_SECONDS);
+	private final ConcurrentMap<String, CacheStatistics> caches = new ConcurrentHashMap<>();
+	private int runningSearches;
+	private long busyStartNanos;
+	private long busyNanos;
+
+	private EngineMetrics() {
+	}
+
+	/**
+	 * Returns the metrics, registering them in the platform MBean server on first call
+	 *
+	 * @return the metrics
+	 */
+	public static EngineMetrics getInstance() {
+		if (instance == null) {
+			synchronized (EngineMetrics.class) {
+				if (instance == null) {
+					EngineMetrics engineMetrics = new EngineMetrics();
+					register(engineMetrics);
+					instance = engineMetrics;
+				}
+			}
+		}
+		return instance;
+	}
+
+	private static void register(EngineMetrics engineMetrics) {
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			if (!mBeanServer.isRegistered(objectName)) mBeanServer.registerMBean(engineMetrics, objectName);
+		} catch (JMException | SecurityException e) {
+		}
+	}
+
+	/**
+	 * Returns statistics of the cache of the name, creating them if needed
+	 *
+	 * @param name name of the cache
+	 * @return statistics of the cache
+	 */
+	public CacheStatistics getCacheStatistics(String name) {
+		return caches.computeIfAbsent(name, key -> new CacheStatistics());
+	}
+
+	/**
+	 * Creates listener, which reports single search of {@link CrossSectionsFactory} to the metrics
+	 *
+	 * @return listener
+	 */
+	public CrossSectionsListener createListener() {
+		return new CrossSectionsListener() {
+			private final LongAdder evaluated = new LongAdder();
+			private final LongAdder accepted = new LongAdder();
+			private long flushedEvaluated;
+			private long flushedAccepted;
+			private volatile long startNanos;
+
+			@Override
+			public void searchStarted(int slices, long candidates) {
+				startNanos = System.nanoTime();
+				searchesRunning.increment();
+				busyStarted(startNanos);
+			}
+
+			@Override
+			public void candidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+				evaluated.increment();
+				if (crossSection != null) accepted.increment();
+			}
+
+			@Override
+			public void sliceFinished(ConcreteClassification concreteClass, double h) {
+				flush();
+			}
+
+			@Override
+			public void searchFinished() {
+				flush();
+				long finishNanos = System.nanoTime();
+				long nanos = finishNanos - startNanos;
+				searchesRunning.decrement();
+				searchesRun.increment();
+				windowedSearchesRun.add(1);
+				searchNanos.add(nanos);
+				windowedSearchNanos.add(nanos);
+				busyFinished(finishNanos);
+			}
+
+			/**
+			 * Adds candidates counted since previous flush to the metrics
+			 */
+			private synchronized void flush() {
+				long evaluatedSum = evaluated.sum();
+				long acceptedSum = accepted.sum();
+				long newEvaluated = evaluatedSum - flushedEvaluated;
+				long newAccepted = acceptedSum - flushedAccepted;
+				flushedEvaluated = evaluatedSum;
+				flushedAccepted = acceptedSum;
+				if (newEvaluated != 0) {
+					candidatesEvaluated.add(newEvaluated);
+					windowedCandidatesEvaluated.add(newEvaluated);
+				}
+				if (newAccepted != 0) {
+					candidatesAccepted.add(newAccepted);
+					windowedCandidatesAccepted.add(newAccepted);
+				}
+			}
+		};
+	}
+
+	private synchronized void busyStarted(long nanos) {
+		if (runningSearches++ == 0) busyStartNanos = nanos;
+	}
+
+	private synchronized void busyFinished(long nanos) {
+		if (--runningSearches == 0) busyNanos += nanos - busyStartNanos;
+	}
+
+	private synchronized long getBusyNanos() {
+		return runningSearches == 0 ? busyNanos : busyNanos + System.nanoTime() - busyStartNanos;
+	}
+
+	@Override
+	public long getSearchesRun() {
+		return searchesRun.sum();
+	}
+
+	@Override
+	public long getSearchesRunning() {
+		return searchesRunning.sum();
+	}
+
+	@Override
+	public long getCandidatesEvaluated() {
+		return candidatesEvaluated.sum();
+	}
+
+	@Override
+	public long getCandidatesAccepted() {
+		return candidatesAccepted.sum();
+	}
+
+	@Override
+	public double getAcceptanceRatio() {
+		return ratio(getCandidatesAccepted(), getCandidatesEvaluated());
+	}
+
+	@Override
+	public double getWindowedAcceptanceRatio() {
+		return ratio(windowedCandidatesAccepted.getSum(), windowedCandidatesEvaluated.getSum());
+	}
+
+	@Override
+	public double getCandidatesPerSecond() {
+		return ratio(getCandidatesEvaluated() * 1e9, getBusyNanos());
+	}
+
+	@Override
+	public double getWindowedCandidatesPerSecond() {
+		return (double) windowedCandidatesEvaluated.getSum() / WINDOW_SECONDS;
+	}
+
+	@Override
+	public double getAverageSearchLatencyMillis() {
+		return ratio(searchNanos.sum() / 1e6, getSearchesRun());
+	}
+
+	@Override
+	public double getWindowedAverageSearchLatencyMillis() {
+		return ratio(windowedSearchNanos.getSum() / 1e6, windowedSearchesRun.getSum());
+	}
+
+	@Override
+	public Map<String, CacheStatistics> getCaches() {
+		return new TreeMap<>(caches);
+	}
+
+	@Override
+	public void reset() {
+		searchesRun.reset();
+		candidatesEvaluated.reset();
+		candidatesAccepted.reset();
+		searchNanos.reset();
+		windowedSearchesRun.reset();
+		windowedCandidatesEvaluated.reset();
+		windowedCandidatesAccepted.reset();
+		windowedSearchNanos.reset();
+		synchronized (this) {
+			busyNanos = 0;
+			busyStartNanos = System.nanoTime();
+		}
+		caches.values().forEach(CacheStatistics::reset);
+	}
+
+	private static double ratio(double dividend, double divisor) {
+		return divisor == 0 ? 0 : dividend / divisor;
+	}
+}
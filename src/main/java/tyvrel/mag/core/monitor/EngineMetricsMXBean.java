@@ -0,0 +1,36 @@
+package tyvrel.mag.core.monitor;
+
+import java.util.Map;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Management interface exposing metrics of the design engine. Windowed metrics cover last
+ * {@link EngineMetrics#WINDOW_SECONDS} seconds.
+ */
+public interface EngineMetricsMXBean {
+	long getSearchesRun();
+
+	long getSearchesRunning();
+
+	long getCandidatesEvaluated();
+
+	long getCandidatesAccepted();
+
+	double getAcceptanceRatio();
+
+	double getWindowedAcceptanceRatio();
+
+	double getCandidatesPerSecond();
+
+	double getWindowedCandidatesPerSecond();
+
+	double getAverageSearchLatencyMillis();
+
+	double getWindowedAverageSearchLatencyMillis();
+
+	Map<String, CacheStatistics> getCaches();
+
+	void reset();
+}
@@ -0,0 +1,192 @@
+package tyvrel.mag.core.monitor;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.RejectionType;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionsListener;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.PriceList;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Listener, which tracks progress of the search. Counters are updated by the search threads and may be read at any
+ * time from another thread. Accepted cross sections are priced by the search threads, which keep running minimum of
+ * the prices, so the cheapest price is exact at any time.
+ */
+public class SearchProgress implements CrossSectionsListener {
+	private final PriceList priceList;
+	private final LongAdder evaluated = new LongAdder();
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder[] rejected = new LongAdder[RejectionType.COUNT];
+	private final LongAdder finishedSlices = new LongAdder();
+	private final AtomicLong cheapestPrice = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+	private volatile int slices;
+	private volatile long candidates;
+	private volatile long startNanos;
+	private volatile long finishNanos;
+	private volatile ConcreteClassification currentConcreteClass;
+	private volatile double currentH;
+
+	/**
+	 * Creates an instance of the progress
+	 *
+	 * @param priceList price list used to price accepted cross sections or null if prices are not tracked
+	 */
+	public SearchProgress(PriceList priceList) {
+		this.priceList = priceList;
+		for (int i = 0; i < RejectionType.COUNT; i++) rejected[i] = new LongAdder();
+	}
+
+	@Override
+	public void searchStarted(int slices, long candidates) {
+		this.slices = slices;
+		this.candidates = candidates;
+		this.finishNanos = 0;
+		this.startNanos = System.nanoTime();
+	}
+
+	@Override
+	public void sliceStarted(ConcreteClassification concreteClass, double h) {
+		currentConcreteClass = concreteClass;
+		currentH = h;
+	}
+
+	@Override
+	public void candidateEvaluated(CrossSection candidate, CrossSection crossSection, Exception rejection) {
+		evaluated.increment();
+		if (crossSection != null) {
+			accepted.increment();
+			if (priceList != null) updateCheapestPrice(crossSection);
+		} else {
+			rejected[RejectionType.of(rejection)].increment();
+		}
+	}
+
+	private void updateCheapestPrice(CrossSection crossSection) {
+		double price;
+		try {
+			price = new PriceFactory(crossSection, priceList).build();
+		} catch (ImproperDataException | LSException e) {
+			// cross section, which can't be priced, doesn't change the cheapest price
+			return;
+		}
+		long cheapest = cheapestPrice.get();
+		while (price < Double.longBitsToDouble(cheapest)) {
+			if (cheapestPrice.compareAndSet(cheapest, Double.doubleToLongBits(price))) return;
+			cheapest = cheapestPrice.get();
+		}
+	}
+
+	@Override
+	public void sliceFinished(ConcreteClassification concreteClass, double h) {
+		finishedSlices.increment();
+	}
+
+	@Override
+	public void searchFinished() {
+		finishNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns if the search is finished
+	 *
+	 * @return if the search is finished
+	 */
+	public boolean isFinished() {
+		return finishNanos != 0;
+	}
+
+	/**
+	 * Returns number of evaluated candidates
+	 *
+	 * @return number of evaluated candidates
+	 */
+	public long getEvaluated() {
+		return evaluated.sum();
+	}
+
+	/**
+	 * Returns number of accepted candidates
+	 *
+	 * @return number of accepted candidates
+	 */
+	public long getAccepted() {
+		return accepted.sum();
+	}
+
+	/**
+	 * Returns number of candidates rejected for the reason of the type
+	 *
+	 * @param rejectionType one of {@link RejectionType}
+	 * @return number of rejected candidates
+	 */
+	public long getRejected(int rejectionType) {
+		return rejected[rejectionType].sum();
+	}
+
+	/**
+	 * Returns number of candidates in the design space
+	 *
+	 * @return number of candidates in the design space
+	 */
+	public long getCandidates() {
+		return candidates;
+	}
+
+	/**
+	 * Returns part of the design space, which is already evaluated or skipped, in range from 0 to 1
+	 *
+	 * @return part of the design space, which is already covered
+	 */
+	public double getCoverage() {
+		int slices = this.slices;
+		return slices == 0 ? 0 : Math.min(1, (double) finishedSlices.sum() / slices);
+	}
+
+	/**
+	 * Returns average number of candidates evaluated per second
+	 *
+	 * @return average number of candidates evaluated per second
+	 */
+	public double getCandidatesPerSecond() {
+		long start = startNanos;
+		if (start == 0) return 0;
+		long finish = finishNanos;
+		long elapsed = (finish == 0 ? System.nanoTime() : finish) - start;
+		return elapsed <= 0 ? 0 : getEvaluated() * 1e9 / elapsed;
+	}
+
+	/**
+	 * Returns concrete class of the slice, which was started most recently
+	 *
+	 * @return concrete class or null if no slice was started
+	 */
+	public ConcreteClassification getCurrentConcreteClass() {
+		return currentConcreteClass;
+	}
+
+	/**
+	 * Returns height of the slice, which was started most recently in m
+	 *
+	 * @return height in m
+	 */
+	public double getCurrentH() {
+		return currentH;
+	}
+
+	/**
+	 * Returns the lowest price of cross sections accepted so far
+	 *
+	 * @return price or {@link Double#POSITIVE_INFINITY} if no cross section was priced
+	 */
+	public double getCheapestPrice() {
+		return Double.longBitsToDouble(cheapestPrice.get());
+	}
+}
@@ -0,0 +1,77 @@
+package tyvrel.mag.core.monitor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Counter, which sums values added during last seconds. It uses one bucket per second, so the sum is approximate
+ * when values are added by many threads exactly at the turn of a second.
+ */
+public class WindowedCounter {
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	private final int windowSeconds;
+	private final AtomicLongArray sums;
+	private final AtomicLongArray seconds;
+
+	/**
+	 * Creates an instance of the counter
+	 *
+	 * @param windowSeconds length of the window in seconds
+	 */
+	public WindowedCounter(int windowSeconds) {
+		if (windowSeconds <= 0) throw new IllegalArgumentException("window has to be positive");
+		this.windowSeconds = windowSeconds;
+		sums = new AtomicLongArray(windowSeconds);
+		seconds = new AtomicLongArray(windowSeconds);
+		for (int i = 0; i < windowSeconds; i++) seconds.set(i, Long.MIN_VALUE);
+	}
+
+	/**
+	 * Adds value to the bucket of current second
+	 *
+	 * @param value value
+	 */
+	public void add(long value) {
+		long second = System.nanoTime() / NANOS_PER_SECOND;
+		int i = (int) Math.floorMod(second, (long) windowSeconds);
+		long bucketSecond = seconds.get(i);
+		if (bucketSecond != second && seconds.compareAndSet(i, bucketSecond, second)) sums.set(i, 0);
+		sums.addAndGet(i, value);
+	}
+
+	/**
+	 * Returns sum of values added during the window
+	 *
+	 * @return sum of values added during the window
+	 */
+	public long getSum() {
+		long second = System.nanoTime() / NANOS_PER_SECOND;
+		long sum = 0;
+		for (int i = 0; i < windowSeconds; i++) {
+			if (second - seconds.get(i) < windowSeconds) sum += sums.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns length of the window in seconds
+	 *
+	 * @return length of the window in seconds
+	 */
+	public int getWindowSeconds() {
+		return windowSeconds;
+	}
+
+	/**
+	 * Clears the counter
+	 */
+	public void reset() {
+		for (int i = 0; i < windowSeconds; i++) {
+			seconds.set(i, Long.MIN_VALUE);
+			sums.set(i, 0);
+		}
+	}
+}
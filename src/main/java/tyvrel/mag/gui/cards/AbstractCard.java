@@ -1,18 +1,45 @@
 package tyvrel.mag.gui.cards;
 
+import tyvrel.mag.core.concurrent.DaemonThreadFactory;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
+import tyvrel.mag.gui.component.ChangeListeners;
 import tyvrel.mag.gui.component.datahandler.DataHandlerException;
 import tyvrel.mag.gui.view.BaseJPanel;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
  * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Card is recalculated in the background {@link #RECALCULATION_DELAY} ms after the last edit of its fields, check
+ * boxes or combo boxes. Inputs are read from components on the event dispatch thread by {@link
+ * #prepareCalculation()} and only the returned calculation runs in the background. Calculations of all cards run on
+ * single background thread, a new calculation cancels the previous one and only result of the latest calculation is
+ * shown. Factories don't check interruption, so cancelling only skips calculation, which hasn't started yet; running
+ * calculation completes and its result is discarded.
  */
 @SuppressWarnings("WeakerAccess")
 public abstract class AbstractCard extends BaseJPanel {
+	/**
+	 * Delay between the last edit and automatic calculation in ms
+	 */
+	public static final int RECALCULATION_DELAY = 400;
+
+	private static final ExecutorService EXECUTOR_SERVICE = Executors.newSingleThreadExecutor(
+			new DaemonThreadFactory("card-calculation-"));
+
+	private final AtomicInteger generation = new AtomicInteger();
+	private final Timer recalculationTimer = new Timer(RECALCULATION_DELAY, e -> calculate(false));
+	private Future<?> calculation;
+	private JLabel jlResult;
+
 	protected AbstractCard(String name) {
 		super(name);
 		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
@@ -22,34 +49,34 @@ public abstract class AbstractCard extends BaseJPanel {
 		setAlignmentX(Component.CENTER_ALIGNMENT);
 		setMaximumSize(new Dimension(10000, 10000));
 
+		recalculationTimer.setRepeats(false);
+		ChangeListeners.register(this, this::scheduleRecalculation);
 		add(createButtonPanel());
 	}
 
 	protected abstract void modifyDataPanel(JPanel jPanel);
 
-	protected abstract String getSuccessMessage() throws Exception;
+	/**
+	 * Reads inputs of the card and returns calculation of its result. It is called on the event dispatch thread, so it
+	 * reads components, but doesn't calculate anything. Returned calculation is called in the background, so it uses
+	 * only inputs read before and never touches components.
+	 *
+	 * @return calculation returning message shown as result
+	 * @throws Exception if inputs are improper
+	 */
+	protected abstract ThrowableConsumer<String> prepareCalculation() throws Exception;
 
 	protected JPanel createButtonPanel() {
 		JPanel jPanel = new BaseJPanel("Wynik");
 		jPanel.setLayout(new BoxLayout(jPanel, BoxLayout.Y_AXIS));
 		jPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-		JLabel jlResult = new JLabel(" ");
+		jlResult = new JLabel(" ");
 		jlResult.setAlignmentX(Component.CENTER_ALIGNMENT);
 
 		JButton jbCalculate = new JButton("Oblicz");
 		jbCalculate.setAlignmentX(Component.CENTER_ALIGNMENT);
-		jbCalculate.addActionListener(e -> {
-			try {
-				jlResult.setText(getSuccessMessage());
-			} catch (DataHandlerException e1) {
-				showDialog("Dane są wprowadzone nieprawidłowo", jlResult);
-			} catch (LSException e1) {
-				showDialog("Przekroczony stan graniczny", jlResult);
-			} catch (Exception e1) {
-				showDialog("Algorym zakończył się niepowodzeniem", jlResult);
-			}
-		});
+		jbCalculate.addActionListener(e -> calculate(true));
 
 		jPanel.add(jbCalculate, Component.CENTER_ALIGNMENT);
 		jPanel.add(new JLabel(" "), Component.CENTER_ALIGNMENT);
@@ -59,6 +86,72 @@ public abstract class AbstractCard extends BaseJPanel {
 		return jPanel;
 	}
 
+	/**
+	 * Schedules calculation after {@link #RECALCULATION_DELAY} ms, postponing already scheduled one
+	 */
+	protected void scheduleRecalculation() {
+		generation.incrementAndGet();
+		recalculationTimer.restart();
+	}
+
+	/**
+	 * Starts calculation in the background and cancels the previous one. Its result is shown only if no other
+	 * calculation was started or scheduled in the meantime.
+	 *
+	 * @param reportErrors true, if failure should be shown in dialog, false, if only in result label
+	 */
+	protected void calculate(boolean reportErrors) {
+		recalculationTimer.stop();
+		int current = generation.incrementAndGet();
+		if (calculation != null) calculation.cancel(false);
+		ThrowableConsumer<String> preparedCalculation;
+		try {
+			preparedCalculation = prepareCalculation();
+		} catch (Exception e) {
+			calculation = null;
+			showResult(null, getFailureMessage(e), reportErrors);
+			return;
+		}
+		calculation = EXECUTOR_SERVICE.submit(() -> {
+			if (generation.get() != current) return;
+			String message;
+			String error = null;
+			try {
+				message = preparedCalculation.accept();
+			} catch (Exception e) {
+				message = " ";
+				error = getFailureMessage(e);
+			}
+			String result = message;
+			String failure = error;
+			SwingUtilities.invokeLater(() -> {
+				if (generation.get() == current) showResult(result, failure, reportErrors);
+			});
+		});
+	}
+
+	private void showResult(String result, String failure, boolean reportErrors) {
+		if (failure == null) {
+			jlResult.setText(result);
+		} else if (reportErrors) {
+			showDialog(failure, jlResult);
+		} else {
+			jlResult.setText(failure);
+		}
+	}
+
+	/**
+	 * Returns message describing failure of calculation
+	 *
+	 * @param e exception thrown by {@link #prepareCalculation()} or by its calculation
+	 * @return message
+	 */
+	protected String getFailureMessage(Exception e) {
+		if (e instanceof DataHandlerException) return "Dane są wprowadzone nieprawidłowo";
+		if (e instanceof LSException) return "Przekroczony stan graniczny";
+		return "Algorym zakończył się niepowodzeniem";
+	}
+
 	private void showDialog(String message, JLabel jLabel) {
 		jLabel.setText(" ");
 		JOptionPane.showMessageDialog(getTopLevelAncestor(), message, "Błąd", JOptionPane.WARNING_MESSAGE);
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.others.CrackWidthFactory;
@@ -81,15 +82,19 @@ public class CrackWidthCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		return "Szerokość rysy: " + String.format("%.2f", calculateCrackWidth() * 1000) + "mm";
-
-	}
-
-	protected double calculateCrackWidth() throws ImproperDataException,
-			LSException {
-		return new CrackWidthFactory(getCrossSection(), getPhi(), getMa(), getMb(), getT(), getCementClassification())
-				.build();
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Double> crackWidth = prepareCrackWidth();
+		return () -> "Szerokość rysy: " + String.format("%.2f", crackWidth.accept() * 1000) + "mm";
+	}
+
+	protected ThrowableConsumer<Double> prepareCrackWidth() throws ImproperDataException, LSException {
+		CrossSection crossSection = getCrossSection();
+		double phi = getPhi();
+		double ma = getMa();
+		double mb = getMb();
+		double t = getT();
+		int cementClassification = getCementClassification();
+		return () -> new CrackWidthFactory(crossSection, phi, ma, mb, t, cementClassification).build();
 	}
 
 	protected int getCementClassification() {
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.ExposureClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
@@ -88,17 +89,26 @@ public class CrackWidthVerificationCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		if (isCrackWidthValid()) {
-			return "Szerokość rys spełnia wymagania";
-		} else {
-			return "Szerokość rys NIE spełnia wymagań";
-		}
-	}
-
-	protected boolean isCrackWidthValid() throws ImproperDataException, LSException {
-		return new CrackWidthVerificationFactory(getExposureClassifications(), getLoad(), getCrossSection(), getPhi(),
-				getT(), getCementClassification()).build();
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Boolean> crackWidthValid = prepareCrackWidthValidity();
+		return () -> {
+			if (crackWidthValid.accept()) {
+				return "Szerokość rys spełnia wymagania";
+			} else {
+				return "Szerokość rys NIE spełnia wymagań";
+			}
+		};
+	}
+
+	protected ThrowableConsumer<Boolean> prepareCrackWidthValidity() throws ImproperDataException, LSException {
+		ExposureClassification[] exposureClassifications = getExposureClassifications();
+		Load load = getLoad();
+		CrossSection crossSection = getCrossSection();
+		double phi = getPhi();
+		double t = getT();
+		int cementClassification = getCementClassification();
+		return () -> new CrackWidthVerificationFactory(exposureClassifications, load, crossSection, phi, t,
+				cementClassification).build();
 	}
 
 	protected ExposureClassification[] getExposureClassifications() throws ImproperDataException, LSException {
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.stress.CrackedStressFactory;
@@ -78,12 +79,15 @@ public class CrackedStressCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		Stress stress = calculateCrackedStress();
-		return "<html>Maksymalne naprężenia w betonie wynoszą: " + String.format("%.3f", stress.getSigmac() / 1000000)
-				+ "MPa"
-				+ "<br>Maksymalne naprężenia w stali wynoszą: " + String.format("%.3f", stress.getSigmas() / 1000000)
-				+ "MPa</html>";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Stress> crackedStress = prepareCrackedStress();
+		return () -> {
+			Stress stress = crackedStress.accept();
+			return "<html>Maksymalne naprężenia w betonie wynoszą: " + String.format("%.3f", stress.getSigmac() /
+					1000000) + "MPa"
+					+ "<br>Maksymalne naprężenia w stali wynoszą: " + String.format("%.3f", stress.getSigmas() /
+					1000000) + "MPa</html>";
+		};
 	}
 
 	protected double getCnom() throws ImproperDataException, LSException {
@@ -148,7 +152,11 @@ public class CrackedStressCard extends AbstractCard {
 		return nonNeg(() -> ltfPhi.getDouble());
 	}
 
-	protected Stress calculateCrackedStress() throws ImproperDataException, LSException {
-		return new CrackedStressFactory(getCrossSection(), getMa(), getMb(), getPhi()).build();
+	protected ThrowableConsumer<Stress> prepareCrackedStress() throws ImproperDataException, LSException {
+		CrossSection crossSection = getCrossSection();
+		double ma = getMa();
+		double mb = getMb();
+		double phi = getPhi();
+		return () -> new CrackedStressFactory(crossSection, ma, mb, phi).build();
 	}
 }
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.stress.CreepCoefficientFactory;
@@ -96,14 +97,20 @@ public class CreepCoefficientCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		return "Obliczony współczynnik pełzania wynosi: " + String.format("%.3f", calculatePhi());
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Double> phi = preparePhi();
+		return () -> "Obliczony współczynnik pełzania wynosi: " + String.format("%.3f", phi.accept());
 	}
 
-	private double calculatePhi() throws ImproperDataException, LSException {
-		return pos(() -> new CreepCoefficientFactory(getPhiln(), getCrossSection(), getMaquasiPerm(), getMbquasiPerm()
-				, getT0(), getCementClassification()).build());
-
+	private ThrowableConsumer<Double> preparePhi() throws ImproperDataException, LSException {
+		ThrowableConsumer<Double> philn = preparePhiln();
+		CrossSection crossSection = getCrossSection();
+		double maquasiPerm = getMaquasiPerm();
+		double mbquasiPerm = getMbquasiPerm();
+		double t0 = getT0();
+		int cementClassification = getCementClassification();
+		return () -> pos(() -> new CreepCoefficientFactory(philn.accept(), crossSection, maquasiPerm, mbquasiPerm, t0,
+				cementClassification).build());
 	}
 
 	protected CrossSection getCrossSection() throws ImproperDataException, LSException {
@@ -178,8 +185,14 @@ public class CreepCoefficientCard extends AbstractCard {
 		return pos(() -> ltfCnom.getDouble() / 1000);
 	}
 
-	protected double getPhiln() throws ImproperDataException, LSException {
-		return new LinearCreepCoefficientFactory(getConcreteClassification(), getRh(), getT0(), getT(), getShape(),
-				getCementClassification()).build();
+	protected ThrowableConsumer<Double> preparePhiln() throws ImproperDataException, LSException {
+		ConcreteClassification concreteClassification = getConcreteClassification();
+		double rh = getRh();
+		double t0 = getT0();
+		double t = getT();
+		Shape shape = getShape();
+		int cementClassification = getCementClassification();
+		return () -> new LinearCreepCoefficientFactory(concreteClassification, rh, t0, t, shape, cementClassification)
+				.build();
 	}
 }
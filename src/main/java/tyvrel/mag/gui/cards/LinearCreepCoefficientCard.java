@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.stress.LinearCreepCoefficientFactory;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.model.Shape;
@@ -59,8 +60,9 @@ public class LinearCreepCoefficientCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		return "Obliczony liniowy współczynnik pełzania wynosi: " + String.format("%.3f", calculatePhiln());
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Double> philn = preparePhiln();
+		return () -> "Obliczony liniowy współczynnik pełzania wynosi: " + String.format("%.3f", philn.accept());
 	}
 
 	protected ConcreteClassification getConcreteClassification() throws ImproperDataException, LSException {
@@ -88,9 +90,15 @@ public class LinearCreepCoefficientCard extends AbstractCard {
 	}
 
 
-	protected double calculatePhiln() throws ImproperDataException, LSException {
-		return new LinearCreepCoefficientFactory(getConcreteClassification(), getRh(), getT0(), getT(), getShape(),
-				getCementClassification()).build();
+	protected ThrowableConsumer<Double> preparePhiln() throws ImproperDataException, LSException {
+		ConcreteClassification concreteClassification = getConcreteClassification();
+		double rh = getRh();
+		double t0 = getT0();
+		double t = getT();
+		Shape shape = getShape();
+		int cementClassification = getCementClassification();
+		return () -> new LinearCreepCoefficientFactory(concreteClassification, rh, t0, t, shape, cementClassification)
+				.build();
 	}
 
 
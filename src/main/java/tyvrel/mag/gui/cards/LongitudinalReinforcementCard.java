@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.longitudinalreinforcement.LongitudinalReinforcementFactory;
@@ -75,19 +76,26 @@ public class LongitudinalReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		LongitudinalReinforcement longitudinalReinforcement = calculateLongitudinalReinforcement();
-		Reinforcement asa = longitudinalReinforcement.getAsa();
-		Reinforcement asb = longitudinalReinforcement.getAsb();
-		return "<html>Zbrojenie górą: " +
-				String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
-				+ "<br>Zbrojenie dołem: " +
-				String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) + "</html>";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<LongitudinalReinforcement> reinforcement = prepareLongitudinalReinforcement();
+		return () -> {
+			LongitudinalReinforcement longitudinalReinforcement = reinforcement.accept();
+			Reinforcement asa = longitudinalReinforcement.getAsa();
+			Reinforcement asb = longitudinalReinforcement.getAsb();
+			return "<html>Zbrojenie górą: " +
+					String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
+					+ "<br>Zbrojenie dołem: " +
+					String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) +
+					"</html>";
+		};
 	}
 
-	protected LongitudinalReinforcement calculateLongitudinalReinforcement() throws ImproperDataException,
-			LSException {
-		return notNull(() -> new LongitudinalReinforcementFactory(getCrossSection(), getLoad(), getFactors()).build());
+	protected ThrowableConsumer<LongitudinalReinforcement> prepareLongitudinalReinforcement() throws
+			ImproperDataException, LSException {
+		CrossSection crossSection = getCrossSection();
+		Load load = getLoad();
+		Factors factors = getFactors();
+		return () -> notNull(() -> new LongitudinalReinforcementFactory(crossSection, load, factors).build());
 	}
 
 	protected Load getLoad() throws ImproperDataException, LSException {
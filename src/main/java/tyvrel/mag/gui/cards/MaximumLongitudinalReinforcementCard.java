@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.longitudinalreinforcement.MaximumBeamLongitudinalReinforcementFactory;
 import tyvrel.mag.core.factory.longitudinalreinforcement.MaximumLongitudinalReinforcementFactory;
 import tyvrel.mag.core.model.CrossSection;
@@ -60,14 +61,18 @@ public class MaximumLongitudinalReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		LongitudinalReinforcement longitudinalReinforcement = calculateMaximumLongitudinalReinforcement();
-		Reinforcement asa = longitudinalReinforcement.getAsa();
-		Reinforcement asb = longitudinalReinforcement.getAsb();
-		return "<html>Maksymalne zbrojenie górą: " +
-				String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
-				+ "<br>Maksymalne zbrojenie dołem: " +
-				String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) + "</html>";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<LongitudinalReinforcement> reinforcement = prepareMaximumLongitudinalReinforcement();
+		return () -> {
+			LongitudinalReinforcement longitudinalReinforcement = reinforcement.accept();
+			Reinforcement asa = longitudinalReinforcement.getAsa();
+			Reinforcement asb = longitudinalReinforcement.getAsb();
+			return "<html>Maksymalne zbrojenie górą: " +
+					String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
+					+ "<br>Maksymalne zbrojenie dołem: " +
+					String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) +
+					"</html>";
+		};
 	}
 
 	protected double getPhia() throws ImproperDataException, LSException {
@@ -110,25 +115,22 @@ public class MaximumLongitudinalReinforcementCard extends AbstractCard {
 		);
 	}
 
-	protected LongitudinalReinforcement getMaximumLongitudinalReinforcement() throws ImproperDataException,
-			LSException {
-		return notNull(() -> new MaximumLongitudinalReinforcementFactory(getDg(), getCrossSection()).build());
-	}
-
-	protected LongitudinalReinforcement getMaximumBeamLongitudinalReinforcement() throws ImproperDataException,
-			LSException {
-		return notNull(() -> new MaximumBeamLongitudinalReinforcementFactory(getLongitudinalReinforcement(),
-				getShape())
-				.build());
-	}
-
-	protected LongitudinalReinforcement calculateMaximumLongitudinalReinforcement() throws ImproperDataException,
-			LSException {
-		LongitudinalReinforcement as1 = getMaximumLongitudinalReinforcement();
-		LongitudinalReinforcement as2 = getMaximumBeamLongitudinalReinforcement();
-		return new LongitudinalReinforcement(
-				new Reinforcement(Math.min(as1.getAsb().getN(), as2.getAsb().getN()), getPhib(), 0, 0),
-				new Reinforcement(Math.min(as1.getAsa().getN(), as2.getAsa().getN()), getPhib(), 0, 0)
-		);
+	protected ThrowableConsumer<LongitudinalReinforcement> prepareMaximumLongitudinalReinforcement() throws
+			ImproperDataException, LSException {
+		double dg = getDg();
+		CrossSection crossSection = getCrossSection();
+		LongitudinalReinforcement longitudinalReinforcement = getLongitudinalReinforcement();
+		Shape shape = getShape();
+		double phib = getPhib();
+		return () -> {
+			LongitudinalReinforcement as1 = notNull(() -> new MaximumLongitudinalReinforcementFactory(dg, crossSection)
+					.build());
+			LongitudinalReinforcement as2 = notNull(() -> new MaximumBeamLongitudinalReinforcementFactory(
+					longitudinalReinforcement, shape).build());
+			return new LongitudinalReinforcement(
+					new Reinforcement(Math.min(as1.getAsb().getN(), as2.getAsb().getN()), phib, 0, 0),
+					new Reinforcement(Math.min(as1.getAsa().getN(), as2.getAsa().getN()), phib, 0, 0)
+			);
+		};
 	}
 }
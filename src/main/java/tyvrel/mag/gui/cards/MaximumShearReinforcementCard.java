@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.shearreinforcement.MaximumShearReinforcementFactory;
 import tyvrel.mag.core.model.CrossSection;
 import tyvrel.mag.core.model.CrossSectionType;
@@ -50,15 +51,22 @@ public class MaximumShearReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		ShearReinforcement asw = calculateMaximumShearReinforcement();
-		return "Maksymalne zbrojenie na ścinanie: " +
-				String.format("%.0f", asw.getNleg()) + "-cięte \u00D8" + String.format("%.0f", asw.getPhi() * 1000)
-				+ " co " + String.format("%.0f", 100 / (asw.getN() - 1)) + "cm";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<ShearReinforcement> shearReinforcement = prepareMaximumShearReinforcement();
+		return () -> {
+			ShearReinforcement asw = shearReinforcement.accept();
+			return "Maksymalne zbrojenie na ścinanie: " +
+					String.format("%.0f", asw.getNleg()) + "-cięte \u00D8" + String.format("%.0f", asw.getPhi() *
+					1000) + " co " + String.format("%.0f", 100 / (asw.getN() - 1)) + "cm";
+		};
 	}
 
-	protected ShearReinforcement calculateMaximumShearReinforcement() throws ImproperDataException, LSException {
-		return notNull(() -> new MaximumShearReinforcementFactory(getDg(), getClearance(), getPhisw()).build());
+	protected ThrowableConsumer<ShearReinforcement> prepareMaximumShearReinforcement() throws ImproperDataException,
+			LSException {
+		double dg = getDg();
+		double clearance = getClearance();
+		double phisw = getPhisw();
+		return () -> notNull(() -> new MaximumShearReinforcementFactory(dg, clearance, phisw).build());
 	}
 
 	protected CrossSection getCrossSection() throws ImproperDataException, LSException {
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.ExposureClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
@@ -81,21 +82,28 @@ public class MinimumCrackLongitudinalReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		LongitudinalReinforcement longitudinalReinforcement = calculateMinimumCrackLongitudinalReinforcement();
-		Reinforcement asa = longitudinalReinforcement.getAsa();
-		Reinforcement asb = longitudinalReinforcement.getAsb();
-		return "<html>Minimalne zbrojenie górą: " +
-				String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
-				+ "<br>Minimalne zbrojenie dołem: " +
-				String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) + "</html>";
-	}
-
-	protected LongitudinalReinforcement calculateMinimumCrackLongitudinalReinforcement() throws ImproperDataException,
-			LSException {
-		return new MinimumCrackLongitudinalReinforcementFactory(getCrossSection(), getT(), getCementClassification(),
-				getExposureClassifications())
-				.build();
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<LongitudinalReinforcement> reinforcement = prepareMinimumCrackLongitudinalReinforcement();
+		return () -> {
+			LongitudinalReinforcement longitudinalReinforcement = reinforcement.accept();
+			Reinforcement asa = longitudinalReinforcement.getAsa();
+			Reinforcement asb = longitudinalReinforcement.getAsb();
+			return "<html>Minimalne zbrojenie górą: " +
+					String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
+					+ "<br>Minimalne zbrojenie dołem: " +
+					String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) +
+					"</html>";
+		};
+	}
+
+	protected ThrowableConsumer<LongitudinalReinforcement> prepareMinimumCrackLongitudinalReinforcement() throws
+			ImproperDataException, LSException {
+		CrossSection crossSection = getCrossSection();
+		double t = getT();
+		int cementClassification = getCementClassification();
+		ExposureClassification[] exposureClassifications = getExposureClassifications();
+		return () -> new MinimumCrackLongitudinalReinforcementFactory(crossSection, t, cementClassification,
+				exposureClassifications).build();
 	}
 
 	protected int getCementClassification() {
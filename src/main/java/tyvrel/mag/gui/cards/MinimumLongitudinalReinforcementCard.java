@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.longitudinalreinforcement.MinimumBeamLongitudinalReinforcementFactory;
@@ -65,19 +66,24 @@ public class MinimumLongitudinalReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		LongitudinalReinforcement longitudinalReinforcement = calculateMinimumLongitudinalReinforcement();
-		Reinforcement asa = longitudinalReinforcement.getAsa();
-		Reinforcement asb = longitudinalReinforcement.getAsb();
-		return "<html>Minimalne zbrojenie górą: " +
-				String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
-				+ "<br>Minimalne zbrojenie dołem: " +
-				String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) + "</html>";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<LongitudinalReinforcement> reinforcement = prepareMinimumLongitudinalReinforcement();
+		return () -> {
+			LongitudinalReinforcement longitudinalReinforcement = reinforcement.accept();
+			Reinforcement asa = longitudinalReinforcement.getAsa();
+			Reinforcement asb = longitudinalReinforcement.getAsb();
+			return "<html>Minimalne zbrojenie górą: " +
+					String.format("%.0f", asa.getN()) + "\u00D8" + String.format("%.0f", asa.getPhi() * 1000)
+					+ "<br>Minimalne zbrojenie dołem: " +
+					String.format("%.0f", asb.getN()) + "\u00D8" + String.format("%.0f", asb.getPhi() * 1000) +
+					"</html>";
+		};
 	}
 
-	protected LongitudinalReinforcement calculateMinimumLongitudinalReinforcement() throws ImproperDataException,
-			LSException {
-		return notNull(() -> new MinimumBeamLongitudinalReinforcementFactory(getCrossSection()).build());
+	protected ThrowableConsumer<LongitudinalReinforcement> prepareMinimumLongitudinalReinforcement() throws
+			ImproperDataException, LSException {
+		CrossSection crossSection = getCrossSection();
+		return () -> notNull(() -> new MinimumBeamLongitudinalReinforcementFactory(crossSection).build());
 	}
 
 	protected double getCnom() throws ImproperDataException, LSException {
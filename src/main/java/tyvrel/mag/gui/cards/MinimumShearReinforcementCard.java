@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.shearreinforcement.MinimumShearReinforcementFactory;
@@ -64,16 +65,21 @@ public class MinimumShearReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		ShearReinforcement asw = calculateMinimumShearReinforcement();
-		return "Minimalne zbrojenie na ścinanie: " +
-				String.format("%.0f", asw.getNleg()) + "-cięte \u00D8" + String.format("%.0f", asw.getPhi() * 1000)
-				+ " co " + String.format("%.0f", 100 / (asw.getN() - 1)) + "cm";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<ShearReinforcement> shearReinforcement = prepareMinimumShearReinforcement();
+		return () -> {
+			ShearReinforcement asw = shearReinforcement.accept();
+			return "Minimalne zbrojenie na ścinanie: " +
+					String.format("%.0f", asw.getNleg()) + "-cięte \u00D8" + String.format("%.0f", asw.getPhi() *
+					1000) + " co " + String.format("%.0f", 100 / (asw.getN() - 1)) + "cm";
+		};
 	}
 
-	protected ShearReinforcement calculateMinimumShearReinforcement() throws ImproperDataException, LSException {
-		return notNull(() -> new MinimumShearReinforcementFactory(MinimumShearReinforcementFactory.INTEGER_LEGS_NUMBER,
-				getCrossSection()).build());
+	protected ThrowableConsumer<ShearReinforcement> prepareMinimumShearReinforcement() throws ImproperDataException,
+			LSException {
+		CrossSection crossSection = getCrossSection();
+		return () -> notNull(() -> new MinimumShearReinforcementFactory(
+				MinimumShearReinforcementFactory.INTEGER_LEGS_NUMBER, crossSection).build());
 	}
 
 	protected ConcreteClassification getConcreteClassification() throws ImproperDataException, LSException {
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.shearreinforcement.ShearReinforcementAnchorageLengthFactory;
 import tyvrel.mag.gui.component.datahandler.DataHandlerException;
 import tyvrel.mag.gui.view.ReinforcementDiameterPanel;
@@ -28,9 +29,10 @@ public class ShearReinforcementAnchorageLengthCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		return "Obliczona długość zakotwienia wynosi: "
-				+ String.format("%.0f", calculateAnchorageLength() * 1000) + "mm";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Double> anchorageLength = prepareAnchorageLength();
+		return () -> "Obliczona długość zakotwienia wynosi: "
+				+ String.format("%.0f", anchorageLength.accept() * 1000) + "mm";
 	}
 
 	protected double getPhi() throws DataHandlerException {
@@ -41,7 +43,8 @@ public class ShearReinforcementAnchorageLengthCard extends AbstractCard {
 		}
 	}
 
-	protected double calculateAnchorageLength() throws ImproperDataException, LSException, DataHandlerException {
-		return new ShearReinforcementAnchorageLengthFactory(getPhi()).build();
+	protected ThrowableConsumer<Double> prepareAnchorageLength() throws DataHandlerException {
+		double phi = getPhi();
+		return () -> new ShearReinforcementAnchorageLengthFactory(phi).build();
 	}
 }
@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
 import tyvrel.mag.core.factory.classification.SteelFactory;
 import tyvrel.mag.core.factory.shearreinforcement.ShearReinforcementFactory;
@@ -82,16 +83,23 @@ public class ShearReinforcementCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		ShearReinforcement asw = calculateShearReinforcement();
-		if (asw.getN() - 1 == 0) return "Zbrojenie na ścinanie nie jest potrzebne";
-		return "Zbrojenie na ścinanie: " +
-				String.format("%.0f", asw.getNleg()) + "-cięte \u00D8" + String.format("%.0f", asw.getPhi() * 1000)
-				+ " co " + String.format("%.0f", 100.0 / (asw.getN() - 1)) + "cm";
-	}
-
-	protected ShearReinforcement calculateShearReinforcement() throws ImproperDataException, LSException {
-		return notNull(() -> new ShearReinforcementFactory(1, getCrossSection(), getLoad(), getFactors()).build());
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<ShearReinforcement> shearReinforcement = prepareShearReinforcement();
+		return () -> {
+			ShearReinforcement asw = shearReinforcement.accept();
+			if (asw.getN() - 1 == 0) return "Zbrojenie na ścinanie nie jest potrzebne";
+			return "Zbrojenie na ścinanie: " +
+					String.format("%.0f", asw.getNleg()) + "-cięte \u00D8" + String.format("%.0f", asw.getPhi() *
+					1000) + " co " + String.format("%.0f", 100.0 / (asw.getN() - 1)) + "cm";
+		};
+	}
+
+	protected ThrowableConsumer<ShearReinforcement> prepareShearReinforcement() throws ImproperDataException,
+			LSException {
+		CrossSection crossSection = getCrossSection();
+		Load load = getLoad();
+		Factors factors = getFactors();
+		return () -> notNull(() -> new ShearReinforcementFactory(1, crossSection, load, factors).build());
 	}
 
 	protected Load getLoad() throws ImproperDataException {
@@ -2,10 +2,13 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.stress.CrackedStressFactory;
 import tyvrel.mag.core.factory.stress.StressFactory;
 import tyvrel.mag.core.factory.stress.UncrackedStressFactory;
+import tyvrel.mag.core.model.CrossSection;
 import tyvrel.mag.core.model.Stress;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -19,23 +22,24 @@ public class StressCard extends CrackedStressCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		Stress stress = calculateStress();
-		return "<html>Maksymalne naprężenia w betonie wynoszą: " + String.format("%.3f", stress.getSigmac() / 1000000)
-				+ "MPa"
-				+ "<br>Maksymalne naprężenia w stali wynoszą: " + String.format("%.3f", stress.getSigmas() / 1000000)
-				+ "MPa</html>";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Stress> preparedStress = prepareStress();
+		return () -> {
+			Stress stress = preparedStress.accept();
+			return "<html>Maksymalne naprężenia w betonie wynoszą: " + String.format("%.3f", stress.getSigmac() /
+					1000000) + "MPa"
+					+ "<br>Maksymalne naprężenia w stali wynoszą: " + String.format("%.3f", stress.getSigmas() /
+					1000000) + "MPa</html>";
+		};
 	}
 
-	protected Stress getCrackedStress() throws ImproperDataException, LSException {
-		return new CrackedStressFactory(getCrossSection(), getMa(), getMb(), getPhi()).build();
-	}
-
-	protected Stress getUncrackedStress() throws ImproperDataException, LSException {
-		return new UncrackedStressFactory(getCrossSection(), getMa(), getMb()).build();
-	}
-
-	protected Stress calculateStress() throws ImproperDataException, LSException {
-		return new StressFactory(getConcreteClassification(), getUncrackedStress(), getCrackedStress()).build();
+	protected ThrowableConsumer<Stress> prepareStress() throws ImproperDataException, LSException {
+		ConcreteClassification concreteClassification = getConcreteClassification();
+		CrossSection crossSection = getCrossSection();
+		double ma = getMa();
+		double mb = getMb();
+		double phi = getPhi();
+		return () -> new StressFactory(concreteClassification, new UncrackedStressFactory(crossSection, ma, mb).build(),
+				new CrackedStressFactory(crossSection, ma, mb, phi).build()).build();
 	}
 }
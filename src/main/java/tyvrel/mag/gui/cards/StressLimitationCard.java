@@ -2,8 +2,10 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.classification.ExposureClassificationFactory;
 import tyvrel.mag.core.factory.stress.StressLimitationFactory;
+import tyvrel.mag.core.model.CrossSection;
 import tyvrel.mag.core.model.Stress;
 import tyvrel.mag.core.model.classification.ExposureClassification;
 import tyvrel.mag.gui.view.BaseClassificationPanel;
@@ -33,18 +35,18 @@ public class StressLimitationCard extends StressCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		return (calculateStressLimitation()) ? "Warunek ograniczenia naprężeń jest spełniony" :
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Boolean> stressLimitation = prepareStressLimitation();
+		return () -> (stressLimitation.accept()) ? "Warunek ograniczenia naprężeń jest spełniony" :
 				"Warunek ograniczenia naprężeń NIE jest spełniony";
 	}
 
-	protected Stress getStress() throws ImproperDataException, LSException {
-		return notNull(calculateStress());
-	}
-
-	protected boolean calculateStressLimitation() throws ImproperDataException, LSException {
-		return notNull(() -> new StressLimitationFactory(getStress(), getCrossSection(), getExposureClassification())
-				.build());
+	protected ThrowableConsumer<Boolean> prepareStressLimitation() throws ImproperDataException, LSException {
+		ThrowableConsumer<Stress> stress = prepareStress();
+		CrossSection crossSection = getCrossSection();
+		ExposureClassification[] exposureClassifications = getExposureClassification();
+		return () -> notNull(() -> new StressLimitationFactory(notNull(stress.accept()), crossSection,
+				exposureClassifications).build());
 	}
 
 	protected ExposureClassification[] getExposureClassification() {
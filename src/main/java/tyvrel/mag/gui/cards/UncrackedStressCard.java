@@ -2,6 +2,7 @@ package tyvrel.mag.gui.cards;
 
 import tyvrel.mag.core.exception.ImproperDataException;
 import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.exception.Precondition.ThrowableConsumer;
 import tyvrel.mag.core.factory.stress.UncrackedStressFactory;
 import tyvrel.mag.core.model.CrossSection;
 import tyvrel.mag.core.model.CrossSectionType;
@@ -62,12 +63,15 @@ public class UncrackedStressCard extends AbstractCard {
 	}
 
 	@Override
-	protected String getSuccessMessage() throws Exception {
-		Stress stress = calculateUncrackedStress();
-		return "<html>Maksymalne naprężenia w betonie wynoszą: " + String.format("%.3f", stress.getSigmac() / 1000000)
-				+ "MPa"
-				+ "<br>Maksymalne naprężenia w stali wynoszą: " + String.format("%.3f", stress.getSigmas() / 1000000)
-				+ "MPa</html>";
+	protected ThrowableConsumer<String> prepareCalculation() throws Exception {
+		ThrowableConsumer<Stress> uncrackedStress = prepareUncrackedStress();
+		return () -> {
+			Stress stress = uncrackedStress.accept();
+			return "<html>Maksymalne naprężenia w betonie wynoszą: " + String.format("%.3f", stress.getSigmac() /
+					1000000) + "MPa"
+					+ "<br>Maksymalne naprężenia w stali wynoszą: " + String.format("%.3f", stress.getSigmas() /
+					1000000) + "MPa</html>";
+		};
 	}
 
 	protected double getCnom() throws ImproperDataException, LSException {
@@ -111,7 +115,10 @@ public class UncrackedStressCard extends AbstractCard {
 		return nonNeg(() -> loadPanel.getMb());
 	}
 
-	protected Stress calculateUncrackedStress() throws ImproperDataException, LSException {
-		return new UncrackedStressFactory(getCrossSection(), getMa(), getMb()).build();
+	protected ThrowableConsumer<Stress> prepareUncrackedStress() throws ImproperDataException, LSException {
+		CrossSection crossSection = getCrossSection();
+		double ma = getMa();
+		double mb = getMb();
+		return () -> new UncrackedStressFactory(crossSection, ma, mb).build();
 	}
 }
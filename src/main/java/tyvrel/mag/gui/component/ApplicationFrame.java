@@ -1,13 +1,26 @@
 package tyvrel.mag.gui.component;
 
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.factory.classification.*;
+import tyvrel.mag.core.io.ProjectFile;
+import tyvrel.mag.core.model.DesignInput;
+import tyvrel.mag.core.model.classification.ExposureClassification;
 import tyvrel.mag.gui.cards.*;
+import tyvrel.mag.gui.component.datahandler.DataHandlerException;
 import tyvrel.mag.gui.component.datahandler.DataHandlerFacade;
 import tyvrel.mag.gui.view.*;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Optional.ofNullable;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -16,12 +29,19 @@ import java.util.Set;
 @SuppressWarnings("WeakerAccess")
 public class ApplicationFrame extends JFrame {
 	private DataHandlerFacade dataHandlerFacade;
-	private OthersPanel othersPanel = new OthersPanel();
-	private MaterialsPanel materialsPanel = new MaterialsPanel();
-	private LoadsPanel loadsPanel = new LoadsPanel();
-	private CrossSectionsPanel crossSectionsPanel = new CrossSectionsPanel();
-	private PricePanel pricePanel = new PricePanel();
-
+	private OthersPanel othersPanel;
+	private MaterialsPanel materialsPanel;
+	private LoadsPanel loadsPanel;
+	private PricePanel pricePanel;
+	private final Map<String, Supplier<JComponent>> cardFactories = new LinkedHashMap<>();
+	private final JPanel cardPanel;
+	private Thread warmUpThread;
+	private volatile long warmUpNanos;
+
+	/**
+	 * Creates the frame with menu only. Cards and panels of inputs are constructed, when they are needed for the first
+	 * time.
+	 */
 	public ApplicationFrame() {
 		super();
 		dataHandlerFacade = new DataHandlerFacade(this);
@@ -30,24 +50,68 @@ public class ApplicationFrame extends JFrame {
 		setSize(700, 700);
 
 		CardLayout cardLayout = new CardLayout();
-		JPanel cardPanel = new JPanel();
+		cardPanel = new JPanel();
 		cardPanel.setLayout(cardLayout);
 		setJMenuBar(createMenuBar(cardPanel));
 
-		Set<JComponent> cardSet = new HashSet<>();
-		modifyCardsSet(cardSet);
+		modifyCardFactories(cardFactories);
 
 		JPanel menuCard = new BaseJPanel("Menu");
-		modifyMenuCard(menuCard, cardPanel);
+		modifyMenuCard(menuCard);
 		cardPanel.add(menuCard, "Menu");
 
-		cardSet.forEach(jComponent -> cardPanel.add(jComponent, jComponent.getName()));
 		add(cardPanel);
 		cardLayout.show(cardPanel, "Menu");
 	}
 
+	/**
+	 * Shows the frame and warms up classifications in the background
+	 */
 	public void run() {
 		setVisible(true);
+		warmUpThread = new Thread(() -> {
+			long start = System.nanoTime();
+			warmUpClassifications();
+			warmUpNanos = System.nanoTime() - start;
+		}, "classification-warm-up");
+		warmUpThread.setDaemon(true);
+		warmUpThread.setPriority(Thread.MIN_PRIORITY);
+		warmUpThread.start();
+	}
+
+	/**
+	 * Waits until classifications are warmed up in the background by {@link #run()} and returns how long it took
+	 *
+	 * @return time of warm up in ns or 0, if the frame wasn't run
+	 * @throws InterruptedException if thread was interrupted
+	 */
+	public long awaitWarmUp() throws InterruptedException {
+		if (warmUpThread == null) return 0;
+		warmUpThread.join();
+		return warmUpNanos;
+	}
+
+	/**
+	 * Initializes classifications and steels, which are needed by cards and panels of inputs
+	 */
+	public static void warmUpClassifications() {
+		new ConcreteClassificationFactory();
+		new ExposureClassificationFactory();
+		new AbrasionClassificationFactory();
+		new StructuralClassificationFactory();
+		new SteelFactory();
+		new AppendixEConcreteClassificationFactory(new ExposureClassification[0]);
+	}
+
+	/**
+	 * Shows the card, constructing it if it is shown for the first time
+	 *
+	 * @param name name of the card
+	 */
+	public void showCard(String name) {
+		Supplier<JComponent> cardFactory = cardFactories.remove(name);
+		if (cardFactory != null) cardPanel.add(cardFactory.get(), name);
+		((CardLayout) cardPanel.getLayout()).show(cardPanel, name);
 	}
 
 	public JMenuBar createMenuBar(JPanel cardPanel) {
@@ -56,86 +120,182 @@ public class ApplicationFrame extends JFrame {
 			public void menuClickPerformed() {
 				((CardLayout) cardPanel.getLayout()).show(cardPanel, "Menu");
 			}
+
+			@Override
+			public void openProjectPerformed() {
+				openProject();
+			}
+
+			@Override
+			public void saveProjectPerformed() {
+				saveProject();
+			}
 		}.build();
 	}
 
-	public void modifyMenuCard(JPanel jPanel, JPanel cardPanel) {
+	public void openProject() {
+		JFileChooser jFileChooser = createProjectFileChooser();
+		if (jFileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+		try {
+			setDesignInput(ProjectFile.read(jFileChooser.getSelectedFile()));
+		} catch (IOException | ImproperDataException e) {
+			showProjectFailure("Nie udało się otworzyć projektu", e);
+		}
+	}
+
+	public void saveProject() {
+		DesignInput designInput;
+		try {
+			designInput = dataHandlerFacade.getDesignInput();
+		} catch (DataHandlerException e) {
+			showProjectFailure("Nie udało się zapisać projektu", "Dane są wprowadzone nieprawidłowo");
+			return;
+		}
+		JFileChooser jFileChooser = createProjectFileChooser();
+		if (jFileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+		File file = jFileChooser.getSelectedFile();
+		String name = file.getName().toLowerCase();
+		if (!name.endsWith("." + ProjectFile.BINARY_EXTENSION) && !name.endsWith("." + ProjectFile.JSON_EXTENSION))
+			file = new File(file.getPath() + "." + ProjectFile.BINARY_EXTENSION);
+		try {
+			ProjectFile.write(designInput, file);
+		} catch (IOException e) {
+			showProjectFailure("Nie udało się zapisać projektu", e);
+		}
+	}
+
+	private JFileChooser createProjectFileChooser() {
+		JFileChooser jFileChooser = new JFileChooser();
+		jFileChooser.setFileFilter(new FileNameExtensionFilter("Projekt (*." + ProjectFile.BINARY_EXTENSION +
+				", *." + ProjectFile.JSON_EXTENSION + ")", ProjectFile.BINARY_EXTENSION, ProjectFile.JSON_EXTENSION));
+		return jFileChooser;
+	}
+
+	private void showProjectFailure(String text, Exception e) {
+		showProjectFailure(text, ofNullable(e.getMessage()).orElse(e.getClass().getSimpleName()));
+	}
+
+	private void showProjectFailure(String text, String reason) {
+		String message = "<html>" + text + ":<br>" + reason + "</html>";
+		JOptionPane.showMessageDialog(this, message, "Błąd", JOptionPane.WARNING_MESSAGE);
+	}
+
+	public void setDesignInput(DesignInput designInput) {
+		getMaterialsPanel().setConcreteClassifications(designInput.getConcreteClasses());
+		getMaterialsPanel().setLongitudinalReinforcementSteelType(designInput.getLongitudinalReinforcementSteelType());
+		getMaterialsPanel().setShearReinforcementSteelType(designInput.getShearReinforcementSteelType());
+		getMaterialsPanel().setAsbDiameters(designInput.getFibs());
+		getMaterialsPanel().setAsaDiameters(designInput.getFias());
+		getMaterialsPanel().setAswDiameters(designInput.getFisws());
+		getShapeRangePanel().setWidthRange(designInput.getWidthRange());
+		getShapeRangePanel().setHeightRange(designInput.getHeightRange());
+		getOthersPanel().setExposureClassifications(designInput.getExposureClasses());
+		getOthersPanel().set100yWorkingLife(designInput.is100yWorkingLife());
+		getOthersPanel().setQualityEnsured(designInput.isQualityEnsured());
+		getOthersPanel().setHighAir(designInput.isHighAir());
+		getOthersPanel().setDgNomMax(designInput.getDg());
+		getLoadsPanel().setPartialFactors(designInput.getFactors());
+		getLoadsPanel().setLoads(designInput.getLoads());
+		getPricePanel().setPriceList(designInput.getPriceList());
+		dataHandlerFacade.invalidate();
+	}
+
+	public void modifyMenuCard(JPanel jPanel) {
 		jPanel.setLayout(new BoxLayout(jPanel, BoxLayout.Y_AXIS));
 
 		JPanel pDimensioning = new BaseJPanel("Wymiarowanie");
-		pDimensioning.add(new CardButton("Wymiarowanie belki", cardPanel));
+		pDimensioning.add(new CardButton("Wymiarowanie belki", this::showCard));
 		jPanel.add(pDimensioning);
 
 		JPanel pLongitudinalReinforcement = new BaseJPanel("Zbrojenie podłużne");
-		pLongitudinalReinforcement.add(new CardButton("Wymiarowanie zbrojenia podłużnego", cardPanel));
-		pLongitudinalReinforcement.add(new CardButton("Minimalne zbrojenie podłużne", cardPanel));
+		pLongitudinalReinforcement.add(new CardButton("Wymiarowanie zbrojenia podłużnego", this::showCard));
+		pLongitudinalReinforcement.add(new CardButton("Minimalne zbrojenie podłużne", this::showCard));
 		pLongitudinalReinforcement.add(new CardButton("Minimalne zbrojenie podłużne ze względu na kontrolę " +
-				"zarysowania", cardPanel));
-		pLongitudinalReinforcement.add(new CardButton("Maksymalne zbrojenie podłużne", cardPanel));
-		pLongitudinalReinforcement.add(new CardButton("Długość zakładu zbrojenia podłużnego", cardPanel));
-		pLongitudinalReinforcement.add(new CardButton("Długość zakotwienia zbrojenia podłużnego", cardPanel));
+				"zarysowania", this::showCard));
+		pLongitudinalReinforcement.add(new CardButton("Maksymalne zbrojenie podłużne", this::showCard));
+		pLongitudinalReinforcement.add(new CardButton("Długość zakładu zbrojenia podłużnego", this::showCard));
+		pLongitudinalReinforcement.add(new CardButton("Długość zakotwienia zbrojenia podłużnego", this::showCard));
 		jPanel.add(pLongitudinalReinforcement);
 
 		JPanel pShearReinforcement = new BaseJPanel("Zbrojenie na ścinanie");
-		pShearReinforcement.add(new CardButton("Wymiarowanie zbrojenia na ścinanie", cardPanel));
-		pShearReinforcement.add(new CardButton("Minimalne zbrojenie na ścinanie", cardPanel));
-		pShearReinforcement.add(new CardButton("Maksymalne zbrojenie na ścinanie", cardPanel));
-		pShearReinforcement.add(new CardButton("Długość zakotwienia zbrojenia na ścinanie", cardPanel));
+		pShearReinforcement.add(new CardButton("Wymiarowanie zbrojenia na ścinanie", this::showCard));
+		pShearReinforcement.add(new CardButton("Minimalne zbrojenie na ścinanie", this::showCard));
+		pShearReinforcement.add(new CardButton("Maksymalne zbrojenie na ścinanie", this::showCard));
+		pShearReinforcement.add(new CardButton("Długość zakotwienia zbrojenia na ścinanie", this::showCard));
 		jPanel.add(pShearReinforcement);
 
 		JPanel pStress = new BaseJPanel("Naprężenia");
-		pStress.add(new CardButton("Naprężenia przekroju w I fazie", cardPanel));
-		pStress.add(new CardButton("Naprężenia przekroju w II fazie", cardPanel));
-		pStress.add(new CardButton("Naprężenia przekroju", cardPanel));
-		pStress.add(new CardButton("Ograniczenie naprężeń", cardPanel));
+		pStress.add(new CardButton("Naprężenia przekroju w I fazie", this::showCard));
+		pStress.add(new CardButton("Naprężenia przekroju w II fazie", this::showCard));
+		pStress.add(new CardButton("Naprężenia przekroju", this::showCard));
+		pStress.add(new CardButton("Ograniczenie naprężeń", this::showCard));
 		jPanel.add(pStress);
 
 		JPanel pOthers = new BaseJPanel("Inne");
-		pOthers.add(new CardButton("Otulina", cardPanel));
-		pOthers.add(new CardButton("Współczynnik pełzania", cardPanel));
-		pOthers.add(new CardButton("Liniowy współczynnik pełzania", cardPanel));
-		pOthers.add(new CardButton("Szerokość rys", cardPanel));
-		pOthers.add(new CardButton("Sprawdzanie rys", cardPanel));
+		pOthers.add(new CardButton("Otulina", this::showCard));
+		pOthers.add(new CardButton("Współczynnik pełzania", this::showCard));
+		pOthers.add(new CardButton("Liniowy współczynnik pełzania", this::showCard));
+		pOthers.add(new CardButton("Szerokość rys", this::showCard));
+		pOthers.add(new CardButton("Sprawdzanie rys", this::showCard));
 		jPanel.add(pOthers);
 	}
 
-	public void modifyCardsSet(Set<JComponent> cardSet) {
-		cardSet.add(createCrossSectionCard());
-
-		cardSet.add(new LongitudinalReinforcementCard("Wymiarowanie zbrojenia podłużnego"));
-		cardSet.add(new MinimumLongitudinalReinforcementCard("Minimalne zbrojenie podłużne"));
-		cardSet.add(new MinimumCrackLongitudinalReinforcementCard("Minimalne zbrojenie podłużne ze względu na " +
-				"kontrolę zarysowania"));
-		cardSet.add(new MaximumLongitudinalReinforcementCard("Maksymalne zbrojenie podłużne"));
-		cardSet.add(new LapLengthCard("Długość zakładu zbrojenia podłużnego"));
-		cardSet.add(new LongitudinalReinforcementAnchorageLengthCard("Długość zakotwienia zbrojenia podłużnego"));
-
-		cardSet.add(new ShearReinforcementCard("Wymiarowanie zbrojenia na ścinanie"));
-		cardSet.add(new MinimumShearReinforcementCard("Minimalne zbrojenie na ścinanie"));
-		cardSet.add(new MaximumShearReinforcementCard("Maksymalne zbrojenie na ścinanie"));
-		cardSet.add(new ShearReinforcementAnchorageLengthCard("Długość zakotwienia zbrojenia na ścinanie"));
+	/**
+	 * Adds factories of cards by their names
+	 *
+	 * @param cardFactories factories of cards by names
+	 */
+	public void modifyCardFactories(Map<String, Supplier<JComponent>> cardFactories) {
+		cardFactories.put("Wymiarowanie belki", this::createCrossSectionCard);
+		modifyCalculationCardFactories(cardFactories);
+	}
 
-		cardSet.add(new UncrackedStressCard("Naprężenia przekroju w I fazie"));
-		cardSet.add(new CrackedStressCard("Naprężenia przekroju w II fazie"));
-		cardSet.add(new StressCard("Naprężenia przekroju"));
-		cardSet.add(new StressLimitationCard("Ograniczenie naprężeń"));
+	/**
+	 * Adds factories of cards of single calculations by their names
+	 *
+	 * @param cardFactories factories of cards by names
+	 */
+	public static void modifyCalculationCardFactories(Map<String, Supplier<JComponent>> cardFactories) {
+		putCard(cardFactories, "Wymiarowanie zbrojenia podłużnego", LongitudinalReinforcementCard::new);
+		putCard(cardFactories, "Minimalne zbrojenie podłużne", MinimumLongitudinalReinforcementCard::new);
+		putCard(cardFactories, "Minimalne zbrojenie podłużne ze względu na " +
+				"kontrolę zarysowania", MinimumCrackLongitudinalReinforcementCard::new);
+		putCard(cardFactories, "Maksymalne zbrojenie podłużne", MaximumLongitudinalReinforcementCard::new);
+		putCard(cardFactories, "Długość zakładu zbrojenia podłużnego", LapLengthCard::new);
+		putCard(cardFactories, "Długość zakotwienia zbrojenia podłużnego",
+				LongitudinalReinforcementAnchorageLengthCard::new);
+
+		putCard(cardFactories, "Wymiarowanie zbrojenia na ścinanie", ShearReinforcementCard::new);
+		putCard(cardFactories, "Minimalne zbrojenie na ścinanie", MinimumShearReinforcementCard::new);
+		putCard(cardFactories, "Maksymalne zbrojenie na ścinanie", MaximumShearReinforcementCard::new);
+		putCard(cardFactories, "Długość zakotwienia zbrojenia na ścinanie", ShearReinforcementAnchorageLengthCard::new);
+
+		putCard(cardFactories, "Naprężenia przekroju w I fazie", UncrackedStressCard::new);
+		putCard(cardFactories, "Naprężenia przekroju w II fazie", CrackedStressCard::new);
+		putCard(cardFactories, "Naprężenia przekroju", StressCard::new);
+		putCard(cardFactories, "Ograniczenie naprężeń", StressLimitationCard::new);
+
+		putCard(cardFactories, "Otulina", ConcreteCoverCard::new);
+		putCard(cardFactories, "Współczynnik pełzania", CreepCoefficientCard::new);
+		putCard(cardFactories, "Liniowy współczynnik pełzania", LinearCreepCoefficientCard::new);
+		putCard(cardFactories, "Szerokość rys", CrackWidthCard::new);
+		putCard(cardFactories, "Sprawdzanie rys", CrackWidthVerificationCard::new);
+	}
 
-		cardSet.add(new ConcreteCoverCard("Otulina"));
-		cardSet.add(new CreepCoefficientCard("Współczynnik pełzania"));
-		cardSet.add(new LinearCreepCoefficientCard("Liniowy współczynnik pełzania"));
-		cardSet.add(new CrackWidthCard("Szerokość rys"));
-		cardSet.add(new CrackWidthVerificationCard("Sprawdzanie rys"));
+	private static void putCard(Map<String, Supplier<JComponent>> cardFactories, String name,
+	                            Function<String, JComponent> constructor) {
+		cardFactories.put(name, () -> constructor.apply(name));
 	}
 
 	public JComponent createCrossSectionCard() {
 		JTabbedPane jTabbedPane = new JTabbedPane();
 		jTabbedPane.setName("Wymiarowanie belki");
 
-		jTabbedPane.add(materialsPanel);
-		jTabbedPane.add(othersPanel);
-		jTabbedPane.add(loadsPanel);
-		jTabbedPane.add(pricePanel);
-		jTabbedPane.add(crossSectionsPanel);
+		jTabbedPane.add(getMaterialsPanel());
+		jTabbedPane.add(getOthersPanel());
+		jTabbedPane.add(getLoadsPanel());
+		jTabbedPane.add(getPricePanel());
+		jTabbedPane.add(new CrossSectionsPanel());
 		return jTabbedPane;
 	}
 
@@ -145,27 +305,36 @@ public class ApplicationFrame extends JFrame {
 
 
 	public PricePanel getPricePanel() {
+		if (pricePanel == null) pricePanel = registerInputPanel(new PricePanel());
 		return pricePanel;
 	}
 
 
 	public ShapeRangePanel getShapeRangePanel() {
-		return othersPanel.getShapeRangePanel();
+		return getOthersPanel().getShapeRangePanel();
 	}
 
 
 	public OthersPanel getOthersPanel() {
+		if (othersPanel == null) othersPanel = registerInputPanel(new OthersPanel());
 		return othersPanel;
 	}
 
 
 	public MaterialsPanel getMaterialsPanel() {
+		if (materialsPanel == null) materialsPanel = registerInputPanel(new MaterialsPanel());
 		return materialsPanel;
 	}
 
 
 	public LoadsPanel getLoadsPanel() {
+		if (loadsPanel == null) loadsPanel = registerInputPanel(new LoadsPanel());
 		return loadsPanel;
 	}
 
+	private <T extends JPanel> T registerInputPanel(T inputPanel) {
+		ChangeListeners.register(inputPanel, dataHandlerFacade::invalidate);
+		return inputPanel;
+	}
+
 }
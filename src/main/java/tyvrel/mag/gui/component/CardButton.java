@@ -2,6 +2,7 @@ package tyvrel.mag.gui.component;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Consumer;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -12,4 +13,9 @@ public class CardButton extends JButton {
 		super(text);
 		addActionListener(e -> ((CardLayout) cardPanel.getLayout()).show(cardPanel, text));
 	}
+
+	public CardButton(String text, Consumer<String> showCard) {
+		super(text);
+		addActionListener(e -> showCard.accept(text));
+	}
 }
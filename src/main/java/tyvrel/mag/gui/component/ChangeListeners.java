@@ -0,0 +1,83 @@
+package tyvrel.mag.gui.component;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
+import java.awt.event.ContainerAdapter;
+import java.awt.event.ContainerEvent;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Registers listeners of edits of input components: text components, combo boxes, check boxes and tables
+ */
+public abstract class ChangeListeners {
+	/**
+	 * Registers action called after every edit of input components of the container and its descendants. Components
+	 * added to the container later and models set to its tables later are listened to as well.
+	 *
+	 * @param container container
+	 * @param onChange  action called on the event dispatch thread
+	 */
+	public static void register(Container container, Runnable onChange) {
+		registerComponent(container, onChange);
+	}
+
+	private static void registerComponent(Component component, Runnable onChange) {
+		if (component instanceof JComponent) {
+			JComponent jComponent = (JComponent) component;
+			if (jComponent.getClientProperty(onChange) != null) return;
+			jComponent.putClientProperty(onChange, Boolean.TRUE);
+		}
+		if (component instanceof JTextComponent) {
+			((JTextComponent) component).getDocument().addDocumentListener(new DocumentListener() {
+				@Override
+				public void insertUpdate(DocumentEvent e) {
+					onChange.run();
+				}
+
+				@Override
+				public void removeUpdate(DocumentEvent e) {
+					onChange.run();
+				}
+
+				@Override
+				public void changedUpdate(DocumentEvent e) {
+					onChange.run();
+				}
+			});
+		} else if (component instanceof JComboBox) {
+			((JComboBox<?>) component).addActionListener(e -> onChange.run());
+		} else if (component instanceof JToggleButton) {
+			((JToggleButton) component).addItemListener(e -> onChange.run());
+		} else if (component instanceof JTable) {
+			registerTable((JTable) component, onChange);
+			return;
+		}
+		if (component instanceof Container) {
+			Container container = (Container) component;
+			container.addContainerListener(new ContainerAdapter() {
+				@Override
+				public void componentAdded(ContainerEvent e) {
+					registerComponent(e.getChild(), onChange);
+				}
+			});
+			for (Component child : container.getComponents()) registerComponent(child, onChange);
+		}
+	}
+
+	private static void registerTable(JTable table, Runnable onChange) {
+		TableModelListener tableModelListener = e -> onChange.run();
+		table.getModel().addTableModelListener(tableModelListener);
+		table.addPropertyChangeListener("model", e -> {
+			if (e.getOldValue() != null) ((TableModel) e.getOldValue()).removeTableModelListener(tableModelListener);
+			if (e.getNewValue() != null) ((TableModel) e.getNewValue()).addTableModelListener(tableModelListener);
+			onChange.run();
+		});
+	}
+}
@@ -5,6 +5,7 @@ import tyvrel.mag.gui.filter.DocumentCharacterFilter;
 
 import javax.swing.*;
 import javax.swing.text.AbstractDocument;
+import java.math.BigDecimal;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -37,6 +38,10 @@ public class LabeledTextField extends JPanel {
 		}
 	}
 
+	public void setDouble(double value) {
+		jTextField.setText(BigDecimal.valueOf(value).stripTrailingZeros().toPlainString());
+	}
+
 	public JLabel getjLabel() {
 		return jLabel;
 	}
@@ -21,6 +21,14 @@ public abstract class MenuBarFactory {
 		jmiMenu.addActionListener(e -> menuClickPerformed());
 		jMenu.add(jmiMenu);
 
+		JMenuItem jmiOpen = new JMenuItem("Otwórz projekt...");
+		jmiOpen.addActionListener(e -> openProjectPerformed());
+		jMenu.add(jmiOpen);
+
+		JMenuItem jmiSave = new JMenuItem("Zapisz projekt...");
+		jmiSave.addActionListener(e -> saveProjectPerformed());
+		jMenu.add(jmiSave);
+
 		JMenuItem jmiExit = new JMenuItem("Wyjście");
 		jmiExit.addActionListener(
 				e -> ofNullable((JFrame) jMenuBar.getTopLevelAncestor()).ifPresent(Window::dispose));
@@ -29,4 +37,8 @@ public abstract class MenuBarFactory {
 	}
 
 	public abstract void menuClickPerformed();
+
+	public abstract void openProjectPerformed();
+
+	public abstract void saveProjectPerformed();
 }
@@ -6,6 +6,7 @@ import tyvrel.mag.gui.filter.DocumentCharacterFilter;
 
 import javax.swing.*;
 import javax.swing.text.AbstractDocument;
+import java.math.BigDecimal;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -65,4 +66,16 @@ public class RangeTextField extends JPanel {
 				Double.parseDouble(jtfFrom.getText()
 						.replace(",", ".")));
 	}
+
+	public void setRange(Range range) {
+		boolean isRange = range.getFrom() != range.getTo();
+		jcbIsRange.setSelected(isRange);
+		jtfTo.setEnabled(isRange);
+		jtfIncrement.setEnabled(isRange);
+		jtfFrom.setText(BigDecimal.valueOf(range.getFrom()).stripTrailingZeros().toPlainString());
+		if (isRange) {
+			jtfTo.setText(BigDecimal.valueOf(range.getTo()).stripTrailingZeros().toPlainString());
+			jtfIncrement.setText(BigDecimal.valueOf(range.getIncrement()).stripTrailingZeros().toPlainString());
+		}
+	}
 }
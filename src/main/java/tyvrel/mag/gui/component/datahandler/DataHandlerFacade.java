@@ -11,9 +11,13 @@ import java.util.Arrays;
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
  * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Reads inputs of the application frame. Design input is read once into immutable snapshot, which is returned until
+ * edit of any input calls {@link #invalidate()}.
  */
 public class DataHandlerFacade {
 	private ApplicationFrame applicationFrame;
+	private volatile DesignInput designInput;
 
 	public DataHandlerFacade(ApplicationFrame applicationFrame) {
 		this.applicationFrame = applicationFrame;
@@ -96,4 +100,49 @@ public class DataHandlerFacade {
 	public double getDgNomMax() throws DataHandlerException {
 		return new ConcreteCoverDataHandler(applicationFrame).getDgNomMax();
 	}
+
+	/**
+	 * Discards snapshot of design input, so it is read again by next call of {@link #getDesignInput()}
+	 */
+	public void invalidate() {
+		designInput = null;
+	}
+
+	/**
+	 * Returns snapshot of design input, reading inputs only if they were edited since last call
+	 *
+	 * @return design input
+	 * @throws DataHandlerException if inputs are improper
+	 */
+	public DesignInput getDesignInput() throws DataHandlerException {
+		DesignInput snapshot = designInput;
+		if (snapshot == null) {
+			snapshot = readDesignInput();
+			designInput = snapshot;
+		}
+		return snapshot;
+	}
+
+	private DesignInput readDesignInput() throws DataHandlerException {
+		return new DesignInput(
+				getFias(),
+				getFibs(),
+				getFisws(),
+				getWidthRange(),
+				getHeightRange(),
+				getConcreteClassifications(),
+				getExposureClassifications(),
+				getLoads(),
+				getLongitudinalReinforcementSteelType(),
+				getLongitudinalReinforcementSteel(),
+				getShearReinforcementSteelType(),
+				getShearReinforcementSteel(),
+				getPartialFactors(),
+				getPriceList(),
+				is100yWorkingLife(),
+				isQualityEnsured(),
+				isHighAir(),
+				getDgNomMax()
+		);
+	}
 }
@@ -14,7 +14,7 @@ import java.util.function.IntFunction;
  * license, visit http://creativecommons.org/licenses/by/4.0/.
  */
 public class BaseClassificationPanel<T extends AbstractClassification> extends BaseJPanel {
-	private List<DataCheckBox> checkBoxList = new ArrayList<>();
+	private List<DataCheckBox<T>> checkBoxList = new ArrayList<>();
 
 	public BaseClassificationPanel(String title, AbstractClassificationFactory<T> abstractClassFactory) {
 		this(title, abstractClassFactory, true);
@@ -37,7 +37,6 @@ public class BaseClassificationPanel<T extends AbstractClassification> extends B
 				.setSelected(true);
 	}
 
-	@SuppressWarnings("unchecked")
 	public T[] getClassifications(IntFunction<T[]> generator) {
 		return checkBoxList
 				.stream()
@@ -45,4 +44,9 @@ public class BaseClassificationPanel<T extends AbstractClassification> extends B
 				.map(DataCheckBox::getT)
 				.toArray(generator);
 	}
+
+	public void setClassifications(T[] classifications) {
+		List<T> classificationList = Arrays.asList(classifications);
+		for (DataCheckBox<T> checkBox : checkBoxList) checkBox.setSelected(classificationList.contains(checkBox.getT()));
+	}
 }
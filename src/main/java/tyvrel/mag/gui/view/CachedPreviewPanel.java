@@ -0,0 +1,175 @@
+package tyvrel.mag.gui.view;
+
+import tyvrel.mag.core.concurrent.DaemonThreadFactory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Panel, which renders its preview once into an image and repaints it from the image. Images of recently shown
+ * subjects are cached and invalidated, when size, scale, font or color of the panel changes. Subjects, which are
+ * likely to be shown next, can be rendered in the background by {@link #prerender(Object[])}.
+ *
+ * @param <K> type of previewed subject, compared by {@link Object#equals(Object)}
+ */
+@SuppressWarnings("WeakerAccess")
+public abstract class CachedPreviewPanel<K> extends BaseJPanel {
+	/**
+	 * Maximal number of cached images
+	 */
+	public static final int CACHE_SIZE = 8;
+
+	private static final ExecutorService EXECUTOR_SERVICE = Executors.newSingleThreadExecutor(
+			new DaemonThreadFactory("preview-"));
+
+	private final Map<K, BufferedImage> images = new LinkedHashMap<K, BufferedImage>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, BufferedImage> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	private volatile RenderState renderState;
+	private K subject;
+
+	public CachedPreviewPanel(String title) {
+		super(title);
+	}
+
+	/**
+	 * Renders the subject
+	 *
+	 * @param g2D     graphics with font and color of the panel
+	 * @param subject subject
+	 * @param width   width of the panel
+	 * @param height  height of the panel
+	 */
+	protected abstract void render(Graphics2D g2D, K subject, int width, int height);
+
+	/**
+	 * Returns shown subject
+	 *
+	 * @return subject
+	 */
+	protected K getSubject() {
+		return subject;
+	}
+
+	/**
+	 * Sets shown subject and repaints the panel
+	 *
+	 * @param subject subject
+	 */
+	protected void setSubject(K subject) {
+		this.subject = subject;
+		repaint();
+	}
+
+	/**
+	 * Renders subjects, which aren't cached yet, in the background for current state of the panel
+	 *
+	 * @param subjects subjects
+	 */
+	@SafeVarargs
+	public final void prerender(K... subjects) {
+		RenderState state = renderState;
+		if (state == null) return;
+		for (K prerendered : subjects) {
+			synchronized (images) {
+				if (images.containsKey(prerendered)) continue;
+			}
+			EXECUTOR_SERVICE.execute(() -> {
+				synchronized (images) {
+					if (state != renderState || images.containsKey(prerendered)) return;
+				}
+				BufferedImage image = createImage(state, prerendered);
+				synchronized (images) {
+					if (state == renderState) images.putIfAbsent(prerendered, image);
+				}
+			});
+		}
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		if (getWidth() <= 0 || getHeight() <= 0) return;
+		Graphics2D g2D = (Graphics2D) g;
+		RenderState state = new RenderState(getWidth(), getHeight(), g2D.getTransform().getScaleX(),
+				g2D.getTransform().getScaleY(), getFont(), getForeground(), g2D.getRenderingHints());
+		BufferedImage image;
+		synchronized (images) {
+			if (!state.equals(renderState)) {
+				images.clear();
+				renderState = state;
+			}
+			image = images.get(subject);
+		}
+		if (image == null) {
+			image = createImage(renderState, subject);
+			synchronized (images) {
+				images.put(subject, image);
+			}
+		}
+		g2D.drawImage(image, 0, 0, getWidth(), getHeight(), null);
+	}
+
+	private BufferedImage createImage(RenderState state, K subject) {
+		BufferedImage image = new BufferedImage((int) Math.ceil(state.width * state.scaleX),
+				(int) Math.ceil(state.height * state.scaleY), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2D = image.createGraphics();
+		try {
+			g2D.setRenderingHints(state.renderingHints);
+			g2D.scale(state.scaleX, state.scaleY);
+			g2D.setFont(state.font);
+			g2D.setColor(state.foreground);
+			render(g2D, subject, state.width, state.height);
+		} finally {
+			g2D.dispose();
+		}
+		return image;
+	}
+
+	private static class RenderState {
+		private final int width;
+		private final int height;
+		private final double scaleX;
+		private final double scaleY;
+		private final Font font;
+		private final Color foreground;
+		private final Map<?, ?> renderingHints;
+
+		private RenderState(int width, int height, double scaleX, double scaleY, Font font, Color foreground,
+		                    Map<?, ?> renderingHints) {
+			this.width = width;
+			this.height = height;
+			this.scaleX = scaleX;
+			this.scaleY = scaleY;
+			this.font = font;
+			this.foreground = foreground;
+			this.renderingHints = renderingHints;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			RenderState that = (RenderState) o;
+			return width == that.width && height == that.height && Double.compare(that.scaleX, scaleX) == 0 &&
+					Double.compare(that.scaleY, scaleY) == 0 && Objects.equals(font, that.font) &&
+					Objects.equals(foreground, that.foreground) && Objects.equals(renderingHints, that.renderingHints);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(width, height, scaleX, scaleY, font, foreground, renderingHints);
+		}
+	}
+}
@@ -5,6 +5,7 @@ import tyvrel.mag.gui.component.LabeledTextField;
 
 import javax.swing.*;
 import java.awt.*;
+import java.math.BigDecimal;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -53,4 +54,20 @@ public class ConcreteCoverPanel extends BaseJPanel {
 	public double getDgNomMax() {
 		return Double.parseDouble(jtfDgNomMax.getText()) / 1000;
 	}
+
+	public void set100yWorkingLife(boolean is100yWorkingLife) {
+		jcbWorkingLife.setSelectedItem(is100yWorkingLife ? "100 lat" : "50 lat");
+	}
+
+	public void setQualityEnsured(boolean isQualityEnsured) {
+		jckSpecialQualityAssurance.setSelected(isQualityEnsured);
+	}
+
+	public void setHighAir(boolean isHighAir) {
+		jckHighAir.setSelected(isHighAir);
+	}
+
+	public void setDgNomMax(double dgNomMax) {
+		jtfDgNomMax.setText(BigDecimal.valueOf(dgNomMax * 1000).stripTrailingZeros().toPlainString());
+	}
 }
@@ -0,0 +1,117 @@
+package tyvrel.mag.gui.view;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Describes criteria of cross sections shown in the table of results (see {@link
+ * CrossSectionTableModel#select(CrossSectionFilter)}). Unlimited criteria are {@link Double#POSITIVE_INFINITY}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionFilter {
+	/**
+	 * All cross sections, which meet criteria, are shown
+	 */
+	public static final int ALL = 0;
+	/**
+	 * Only the cheapest cross section of each concrete class is shown
+	 */
+	public static final int CHEAPEST_PER_CONCRETE_CLASS = 1;
+	/**
+	 * Only the cheapest cross section of each height is shown
+	 */
+	public static final int CHEAPEST_PER_HEIGHT = 2;
+
+	/**
+	 * Filter, which shows all cross sections
+	 */
+	public static final CrossSectionFilter NONE = new CrossSectionFilter(Double.POSITIVE_INFINITY,
+			Double.POSITIVE_INFINITY, null, Double.POSITIVE_INFINITY, ALL);
+
+	private final double maxPrice;
+	private final double maxHeight;
+	private final Set<String> concreteClasses;
+	private final double maxBarCount;
+	private final int grouping;
+
+	/**
+	 * Creates an instance of the filter
+	 *
+	 * @param maxPrice        maximal price in zł/m
+	 * @param maxHeight       maximal height in m
+	 * @param concreteClasses symbols of shown concrete classes or null, if all are shown
+	 * @param maxBarCount     maximal number of bars of top and bottom reinforcement
+	 * @param grouping        {@link #ALL}, {@link #CHEAPEST_PER_CONCRETE_CLASS} or {@link #CHEAPEST_PER_HEIGHT}
+	 */
+	public CrossSectionFilter(double maxPrice, double maxHeight, Set<String> concreteClasses, double maxBarCount,
+	                          int grouping) {
+		if (grouping != ALL && grouping != CHEAPEST_PER_CONCRETE_CLASS && grouping != CHEAPEST_PER_HEIGHT)
+			throw new IllegalArgumentException("Unknown grouping " + grouping);
+		this.maxPrice = maxPrice;
+		this.maxHeight = maxHeight;
+		this.concreteClasses = concreteClasses == null ? null
+				: Collections.unmodifiableSet(new LinkedHashSet<>(concreteClasses));
+		this.maxBarCount = maxBarCount;
+		this.grouping = grouping;
+	}
+
+	@Override
+	public String toString() {
+		return "CrossSectionFilter{" +
+				"maxPrice=" + maxPrice +
+				", maxHeight=" + maxHeight +
+				", concreteClasses=" + concreteClasses +
+				", maxBarCount=" + maxBarCount +
+				", grouping=" + grouping +
+				'}';
+	}
+
+	/**
+	 * Returns maximal price in zł/m
+	 *
+	 * @return maximal price in zł/m
+	 */
+	public double getMaxPrice() {
+		return maxPrice;
+	}
+
+	/**
+	 * Returns maximal height in m
+	 *
+	 * @return maximal height in m
+	 */
+	public double getMaxHeight() {
+		return maxHeight;
+	}
+
+	/**
+	 * Returns symbols of shown concrete classes or null, if all are shown
+	 *
+	 * @return symbols of concrete classes or null
+	 */
+	public Set<String> getConcreteClasses() {
+		return concreteClasses;
+	}
+
+	/**
+	 * Returns maximal number of bars of top and bottom reinforcement
+	 *
+	 * @return maximal number of bars
+	 */
+	public double getMaxBarCount() {
+		return maxBarCount;
+	}
+
+	/**
+	 * Returns grouping of cross sections
+	 *
+	 * @return {@link #ALL}, {@link #CHEAPEST_PER_CONCRETE_CLASS} or {@link #CHEAPEST_PER_HEIGHT}
+	 */
+	public int getGrouping() {
+		return grouping;
+	}
+}
@@ -0,0 +1,115 @@
+package tyvrel.mag.gui.view;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.gui.component.ChangeListeners;
+import tyvrel.mag.gui.component.DataCheckBox;
+import tyvrel.mag.gui.component.LabeledComboBox;
+import tyvrel.mag.gui.component.LabeledTextField;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Filter bar of the table of results. Empty or improper limits aren't applied.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionFilterPanel extends BaseJPanel {
+	private final List<Runnable> listeners = new ArrayList<>();
+	private final List<DataCheckBox<String>> concreteCheckBoxes = new ArrayList<>();
+	private LabeledTextField ltfMaxPrice;
+	private LabeledTextField ltfMaxHeight;
+	private LabeledTextField ltfMaxBarCount;
+	private LabeledComboBox lcbGrouping;
+	private JPanel concretePanel;
+
+	public CrossSectionFilterPanel() {
+		super("Filtr");
+		setLayout(new GridLayout(0, 1));
+		JPanel limitPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		ltfMaxPrice = new LabeledTextField("Cena ≤ [zł/m]:", "");
+		ltfMaxHeight = new LabeledTextField("h ≤ [mm]:", "");
+		ltfMaxBarCount = new LabeledTextField("Liczba prętów ≤ [-]:", "");
+		limitPanel.add(ltfMaxPrice);
+		limitPanel.add(ltfMaxHeight);
+		limitPanel.add(ltfMaxBarCount);
+
+		JPanel groupingPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		lcbGrouping = new LabeledComboBox("Pokaż:", new String[]{"Wszystkie", "Najtańszy dla klasy betonu",
+				"Najtańszy dla wysokości"});
+		groupingPanel.add(lcbGrouping);
+		concretePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		groupingPanel.add(concretePanel);
+
+		add(limitPanel);
+		add(groupingPanel);
+		ChangeListeners.register(this, this::fireFilterChanged);
+	}
+
+	/**
+	 * Adds listener called after every change of the filter
+	 *
+	 * @param listener listener
+	 */
+	public void addFilterListener(Runnable listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Replaces check boxes of concrete classes, all of them are checked
+	 *
+	 * @param concreteClasses symbols of concrete classes
+	 */
+	public void setConcreteClasses(String[] concreteClasses) {
+		concretePanel.removeAll();
+		concreteCheckBoxes.clear();
+		for (String concreteClass : concreteClasses) {
+			DataCheckBox<String> checkBox = new DataCheckBox<>(concreteClass, concreteClass);
+			checkBox.setSelected(true);
+			checkBox.addItemListener(e -> fireFilterChanged());
+			concreteCheckBoxes.add(checkBox);
+			concretePanel.add(checkBox);
+		}
+		concretePanel.revalidate();
+		concretePanel.repaint();
+	}
+
+	/**
+	 * Returns filter described by the bar
+	 *
+	 * @return filter
+	 */
+	public CrossSectionFilter getFilter() {
+		Set<String> concreteClasses = null;
+		for (DataCheckBox<String> checkBox : concreteCheckBoxes) {
+			if (!checkBox.isSelected()) {
+				concreteClasses = new LinkedHashSet<>();
+				for (DataCheckBox<String> selected : concreteCheckBoxes) {
+					if (selected.isSelected()) concreteClasses.add(selected.getT());
+				}
+				break;
+			}
+		}
+		return new CrossSectionFilter(getLimit(ltfMaxPrice, 1), getLimit(ltfMaxHeight, 1000), concreteClasses,
+				getLimit(ltfMaxBarCount, 1), lcbGrouping.getjComboBox().getSelectedIndex());
+	}
+
+	private static double getLimit(LabeledTextField labeledTextField, double divisor) {
+		if (labeledTextField.getjTextField().getText().trim().isEmpty()) return Double.POSITIVE_INFINITY;
+		try {
+			return labeledTextField.getDouble() / divisor;
+		} catch (ImproperDataException e) {
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	private void fireFilterChanged() {
+		for (Runnable listener : listeners) listener.run();
+	}
+}
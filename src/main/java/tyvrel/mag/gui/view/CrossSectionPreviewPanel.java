@@ -12,9 +12,7 @@ import java.awt.geom.Line2D;
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
  * license, visit http://creativecommons.org/licenses/by/4.0/.
  */
-public class CrossSectionPreviewPanel extends BaseJPanel {
-	private CrossSection crossSection;
-
+public class CrossSectionPreviewPanel extends CachedPreviewPanel<CrossSection> {
 	private Stroke strokeDim = new BasicStroke(1);
 	private Stroke strokeLine = new BasicStroke(2);
 	private Stroke strokeBar = new BasicStroke(3);
@@ -25,10 +23,8 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 
 
 	@Override
-	protected void paintComponent(Graphics g) {
-		super.paintComponent(g);
+	protected void render(Graphics2D g2D, CrossSection crossSection, int width, int height) {
 		if (crossSection == null) return;
-		Graphics2D g2D = (Graphics2D) g;
 
 		int scale = 500;
 
@@ -61,46 +57,47 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 		g2D.setStroke(strokeBar);
 		g2D.drawRect(stirrupX, stirrupY, stirrupW, stirrupH);
 
-		drawStirrups(g2D, stirrupX, stirrupW, stirrupY, stirrupH,
+		drawStirrups(g2D, crossSection, stirrupX, stirrupW, stirrupY, stirrupH,
 				additionalLegs, fiswOffset, fisw, sectionX + b + dimLineOffset);
 
-		drawFiA(g2D, stirrupX + fisw / 2, stirrupY + fisw / 2, fiA, nA, (stirrupW - fisw - fiA) / (nA - 1), sectionX +
-				b + dimLineOffset);
+		drawFiA(g2D, crossSection, stirrupX + fisw / 2, stirrupY + fisw / 2, fiA, nA, (stirrupW - fisw - fiA) / (nA -
+				1), sectionX + b + dimLineOffset);
 
-		drawFiB(g2D, stirrupX + fisw / 2, stirrupY + stirrupH - fisw / 2 - fiB, fiB, nB, (stirrupW - fisw - fiB) / (nB
-				- 1), sectionX + b + dimLineOffset);
+		drawFiB(g2D, crossSection, stirrupX + fisw / 2, stirrupY + stirrupH - fisw / 2 - fiB, fiB, nB,
+				(stirrupW - fisw - fiB) / (nB - 1), sectionX + b + dimLineOffset);
 
 		drawString(g2D, "c", "nom", " = " + String.format("%.0f", crossSection.getCnom() * 1000) + "mm",
 				sectionX + b + dimLineOffset + 150, sectionY);
 		drawString(g2D, "\u00D8", "m.min.A",
 				" = " + String.format("%.0f", crossSection.getAs().getAsb().getPhimmin() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5));
 		drawString(g2D, "\u00D8", "m.min.B",
 				" = " + String.format("%.0f", crossSection.getAs().getAsb().getPhimmin() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 2));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 2));
 		drawString(g2D, "\u00D8", "m.min.SW",
 				" = " + String.format("%.0f", crossSection.getAsw().getPhimmin() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 3));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 3));
 		drawString(g2D, "l", "bd.A",
 				" = " + String.format("%.0f", crossSection.getAs().getAsa().getLbd() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 4));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 4));
 		drawString(g2D, "l", "bd.B",
 				" = " + String.format("%.0f", crossSection.getAs().getAsb().getLbd() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 5));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 5));
 		drawString(g2D, "l", "bd.SW",
 				" = " + String.format("%.0f", crossSection.getAsw().getLbd() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 6));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 6));
 		drawString(g2D, "l", "0.A",
 				" = " + String.format("%.0f", crossSection.getAs().getAsa().getL0() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 7));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 7));
 		drawString(g2D, "l", "0.B",
 				" = " + String.format("%.0f", crossSection.getAs().getAsb().getL0() * 1000) + "mm",
-				sectionX + b + dimLineOffset + 150, sectionY + (int) (g.getFont().getSize() * 1.5 * 8));
+				sectionX + b + dimLineOffset + 150, sectionY + (int) (g2D.getFont().getSize() * 1.5 * 8));
 
 
-		drawHDim(g2D, sectionX - dimLineOffset, sectionY, sectionX - dimLineOffset, sectionY + h, arrowSize);
-		drawBDim(g2D, sectionX, sectionY + h + dimLineOffset + g.getFont().getSize(),
-				sectionX + b, sectionY + h + dimLineOffset + g.getFont().getSize(), arrowSize);
+		drawHDim(g2D, crossSection, sectionX - dimLineOffset, sectionY, sectionX - dimLineOffset, sectionY + h,
+				arrowSize);
+		drawBDim(g2D, crossSection, sectionX, sectionY + h + dimLineOffset + g2D.getFont().getSize(),
+				sectionX + b, sectionY + h + dimLineOffset + g2D.getFont().getSize(), arrowSize);
 
 	}
 
@@ -119,8 +116,8 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 		g.drawString(text2, x + text1.length() * gWidth + subscript.length() * subWidth, y);
 	}
 
-	private void drawStirrups(Graphics2D g2D, int stirrupX, int stirrupW, int stirrupY, int
-			stirrupH, int additionalLegs, int fiswOffset, int fisw, int endDimX) {
+	private void drawStirrups(Graphics2D g2D, CrossSection crossSection, int stirrupX, int stirrupW, int stirrupY,
+	                          int stirrupH, int additionalLegs, int fiswOffset, int fisw, int endDimX) {
 		if (additionalLegs > 0) {
 			int addStirrupX = stirrupX + fiswOffset;
 			for (int i = 0; i < additionalLegs; i++) {
@@ -146,7 +143,8 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 		return Math.round(d * 2) / 2.0;
 	}
 
-	private void drawFiA(Graphics2D g2D, int fiAX, int fiAY, int fiA, int nA, int fiAXoffset, int endDimX) {
+	private void drawFiA(Graphics2D g2D, CrossSection crossSection, int fiAX, int fiAY, int fiA, int nA,
+	                     int fiAXoffset, int endDimX) {
 		int tempFiAX = fiAX;
 		for (int i = 0; i < nA; i++) {
 			g2D.setStroke(strokeBar);
@@ -166,7 +164,8 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 		}
 	}
 
-	private void drawFiB(Graphics2D g2D, int fiBX, int fiBY, int fiB, int nB, int fiBXoffset, int endDimX) {
+	private void drawFiB(Graphics2D g2D, CrossSection crossSection, int fiBX, int fiBY, int fiB, int nB,
+	                     int fiBXoffset, int endDimX) {
 		int tempFiAX = fiBX;
 		for (int i = 0; i < nB; i++) {
 			g2D.setStroke(strokeBar);
@@ -186,7 +185,8 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 		}
 	}
 
-	private void drawHDim(Graphics2D g2D, int hDimX1, int hDimY1, int hDimX2, int hDimY2, int arrowSize) {
+	private void drawHDim(Graphics2D g2D, CrossSection crossSection, int hDimX1, int hDimY1, int hDimX2, int hDimY2,
+	                      int arrowSize) {
 		g2D.setStroke(strokeDim);
 		g2D.draw(new Line2D.Double(hDimX1, hDimY1, hDimX2, hDimY2));
 		g2D.draw(new Line2D.Double(hDimX1 - arrowSize, hDimY1 + arrowSize, hDimX1 + arrowSize, hDimY1 - arrowSize));
@@ -202,7 +202,8 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 		g2D.setFont(gFont);
 	}
 
-	private void drawBDim(Graphics2D g2D, int bDimX1, int bDimY1, int bDimX2, int bDimY2, int arrowSize) {
+	private void drawBDim(Graphics2D g2D, CrossSection crossSection, int bDimX1, int bDimY1, int bDimX2, int bDimY2,
+	                      int arrowSize) {
 		g2D.setStroke(strokeDim);
 		g2D.draw(new Line2D.Double(bDimX1, bDimY1, bDimX2, bDimY2));
 		g2D.draw(new Line2D.Double(bDimX1 - arrowSize, bDimY1 + arrowSize, bDimX1 + arrowSize, bDimY1 - arrowSize));
@@ -214,11 +215,10 @@ public class CrossSectionPreviewPanel extends BaseJPanel {
 	}
 
 	public CrossSection getCrossSection() {
-		return crossSection;
+		return getSubject();
 	}
 
 	public void setCrossSection(CrossSection crossSection) {
-		this.crossSection = crossSection;
-		repaint();
+		setSubject(crossSection);
 	}
 }
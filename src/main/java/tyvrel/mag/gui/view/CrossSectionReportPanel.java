@@ -0,0 +1,101 @@
+package tyvrel.mag.gui.view;
+
+import tyvrel.mag.core.exception.RejectionType;
+import tyvrel.mag.core.model.CrossSectionReport;
+
+import javax.swing.*;
+import java.awt.*;
+
+import static java.lang.String.format;
+import static tyvrel.mag.core.model.CrossSectionReport.*;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Shows intermediate quantities of {@link CrossSectionReport} grouped by verification in units of user interface
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionReportPanel extends BaseJPanel {
+	private static final String[] GROUP_NAMES = {"Otulina", "Zbrojenie podłużne", "Zbrojenie poprzeczne",
+			"Pełzanie", "Naprężenia", "Zarysowanie", "Zakotwienie i zakład"};
+
+	/**
+	 * Creates an instance of the panel
+	 *
+	 * @param report report
+	 */
+	public CrossSectionReportPanel(CrossSectionReport report) {
+		super("Szczegóły");
+		setLayout(new BorderLayout());
+		JLabel jlReport = new JLabel(toHtml(report));
+		jlReport.setVerticalAlignment(SwingConstants.TOP);
+		JScrollPane jScrollPane = new JScrollPane(jlReport);
+		jScrollPane.setPreferredSize(new Dimension(420, 500));
+		add(jScrollPane, BorderLayout.CENTER);
+	}
+
+	/**
+	 * Returns report formatted as html tables, one for each group of quantities
+	 *
+	 * @param report report
+	 * @return html
+	 */
+	protected String toHtml(CrossSectionReport report) {
+		StringBuilder sb = new StringBuilder("<html>");
+		if (report.getVerdict() != ACCEPTED) {
+			sb.append("<p><b>Przekrój nie spełnia wymagań: ").append(RejectionType.getName(report.getVerdict()))
+					.append("</b></p>");
+		}
+		for (int group = 0; group < GROUP_COUNT; group++) {
+			if (report.getEntries(group).isEmpty()) continue;
+			sb.append("<h3>").append(GROUP_NAMES[group]).append("</h3><table>");
+			for (Entry entry : report.getEntries(group)) {
+				sb.append("<tr><td>").append(entry.getSymbol()).append("</td><td>")
+						.append(getIndexText(entry)).append("</td><td align=right>")
+						.append(getValueText(entry)).append("</td><td>")
+						.append(getUnitText(entry.getUnit())).append("</td></tr>");
+			}
+			sb.append("</table>");
+		}
+		return sb.append("</html>").toString();
+	}
+
+	private static String getIndexText(Entry entry) {
+		if (entry.getIndex() == 0) return "";
+		return (entry.getGroup() == CREEP ? "iteracja " : "obciążenie ") + entry.getIndex();
+	}
+
+	private static String getValueText(Entry entry) {
+		switch (entry.getUnit()) {
+			case LENGTH:
+				return format("%.1f", entry.getValue() * 1000);
+			case AREA:
+			case AREA_PER_LENGTH:
+				return format("%.2f", entry.getValue() * 10000);
+			case FORCE:
+				return format("%.1f", entry.getValue() / 1000);
+			case STRESS_UNIT:
+				return format("%.1f", entry.getValue() / 1000000);
+			default:
+				return format("%.3f", entry.getValue());
+		}
+	}
+
+	private static String getUnitText(int unit) {
+		switch (unit) {
+			case LENGTH:
+				return "mm";
+			case AREA:
+				return "cm²";
+			case AREA_PER_LENGTH:
+				return "cm²/m";
+			case FORCE:
+				return "kN";
+			case STRESS_UNIT:
+				return "MPa";
+			default:
+				return "-";
+		}
+	}
+}
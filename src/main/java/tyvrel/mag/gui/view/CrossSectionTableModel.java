@@ -0,0 +1,556 @@
+package tyvrel.mag.gui.view;
+
+import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.exception.LSException;
+import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.model.CrossSection;
+import tyvrel.mag.core.model.PriceList;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.reinforcement.Reinforcement;
+import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Table model of calculated cross sections backed by primitive columns. Numeric cells are {@link Double}, concrete
+ * cells are {@link ConcreteClassification} and cells of bars are their number, so they are sorted by typed
+ * comparators (see {@link #getComparator(int)}). Text of cells is formatted by {@link Renderer} for visible rows
+ * only, prices and spacings of reinforcement are calculated on demand. Prices of all rows are calculated only, when
+ * rows are sorted by price or selected by price (see {@link #select(CrossSectionFilter)}).
+ */
+@SuppressWarnings("WeakerAccess")
+public class CrossSectionTableModel extends AbstractTableModel {
+	/**
+	 * Price in zł/m
+	 */
+	public static final int PRICE = 0;
+	/**
+	 * Width in mm
+	 */
+	public static final int WIDTH = 1;
+	/**
+	 * Height in mm
+	 */
+	public static final int HEIGHT = 2;
+	/**
+	 * Area of concrete in m2
+	 */
+	public static final int AREA = 3;
+	/**
+	 * Concrete class
+	 */
+	public static final int CONCRETE = 4;
+	/**
+	 * Type of longitudinal reinforcement steel
+	 */
+	public static final int STEEL = 5;
+	/**
+	 * Area of bottom reinforcement in cm2
+	 */
+	public static final int ASB = 6;
+	/**
+	 * Bars of bottom reinforcement
+	 */
+	public static final int ASB_BARS = 7;
+	/**
+	 * Area of top reinforcement in cm2
+	 */
+	public static final int ASA = 8;
+	/**
+	 * Bars of top reinforcement
+	 */
+	public static final int ASA_BARS = 9;
+	/**
+	 * Area of shear reinforcement in cm2
+	 */
+	public static final int ASW = 10;
+	/**
+	 * Stirrups of shear reinforcement
+	 */
+	public static final int ASW_BARS = 11;
+	/**
+	 * Number of columns
+	 */
+	public static final int COLUMN_COUNT = 12;
+
+	private static final String[] COLUMN_NAMES = {"Cena [zł/m]", "b [mm]", "h [mm]", "A [m2]", "Beton", "Stal",
+			"<html>A<sub>sB</sub> [cm2]</html>", "", "<html>A<sub>sA</sub> [cm2]</html>", "",
+			"<html>A<sub>sw</sub> [cm2]</html>", ""};
+
+	private static final int TEXT_CACHE_SIZE = 256;
+	private static final double TOLERANCE = 1e-9;
+
+	private final Map<Integer, String[]> textCache = new LinkedHashMap<Integer, String[]>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, String[]> eldest) {
+			return size() > TEXT_CACHE_SIZE;
+		}
+	};
+	private CrossSection[] crossSections = new CrossSection[0];
+	private PriceList priceList;
+	private String steelType = "";
+	private double[] prices = new double[0];
+	private double[] widths = new double[0];
+	private double[] heights = new double[0];
+	private double[] areas = new double[0];
+	private double[] asbAreas = new double[0];
+	private double[] asaAreas = new double[0];
+	private double[] aswAreas = new double[0];
+	private double[] asbSpacings = new double[0];
+	private double[] asaSpacings = new double[0];
+	private BitSet pricesComputed = new BitSet();
+	private BitSet spacingsComputed = new BitSet();
+	private int[] priceIndex;
+	private int[] heightIndex;
+	private int[] barCountIndex;
+	private double[] barCounts;
+	private Map<String, int[]> concreteClassIndex;
+
+	/**
+	 * Replaces rows of the model. Prices and spacings of reinforcement are calculated, when they are needed for the
+	 * first time.
+	 *
+	 * @param crossSections cross sections
+	 * @param priceList     price list
+	 * @param steelType     type of longitudinal reinforcement steel
+	 */
+	public void setCrossSections(CrossSection[] crossSections, PriceList priceList, String steelType) {
+		int n = crossSections.length;
+		double[] widths = new double[n];
+		double[] heights = new double[n];
+		double[] areas = new double[n];
+		double[] asbAreas = new double[n];
+		double[] asaAreas = new double[n];
+		double[] aswAreas = new double[n];
+		for (int i = 0; i < n; i++) {
+			CrossSection crossSection = crossSections[i];
+			widths[i] = crossSection.getShape().getB();
+			heights[i] = crossSection.getShape().getH();
+			areas[i] = crossSection.getShape().getA();
+			asbAreas[i] = crossSection.getAs().getAsb().getA();
+			asaAreas[i] = crossSection.getAs().getAsa().getA();
+			aswAreas[i] = crossSection.getAsw().getA();
+		}
+		this.crossSections = crossSections.clone();
+		this.priceList = priceList;
+		this.steelType = steelType;
+		this.prices = new double[n];
+		this.widths = widths;
+		this.heights = heights;
+		this.areas = areas;
+		this.asbAreas = asbAreas;
+		this.asaAreas = asaAreas;
+		this.aswAreas = aswAreas;
+		this.asbSpacings = new double[n];
+		this.asaSpacings = new double[n];
+		this.pricesComputed = new BitSet(n);
+		this.spacingsComputed = new BitSet(n);
+		heightIndex = null;
+		priceIndex = null;
+		textCache.clear();
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Removes all rows
+	 */
+	public void clear() {
+		crossSections = new CrossSection[0];
+		heightIndex = null;
+		priceIndex = null;
+		textCache.clear();
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Returns rows, which meet criteria of the filter. Rows sorted by height and number of bars and grouped by
+	 * concrete class are indexed at the first call after change of rows, so every call afterwards looks up rows
+	 * of the most selective criterion in the index and checks only them against the other criteria. Rows are priced
+	 * and indexed by price only, if the filter limits price or selects the cheapest rows.
+	 *
+	 * @param filter filter
+	 * @return indexes of rows in the model
+	 */
+	public BitSet select(CrossSectionFilter filter) {
+		int n = crossSections.length;
+		BitSet selection = new BitSet(n);
+		if (n == 0) return selection;
+		buildIndexes();
+
+		int[] candidates = heightIndex;
+		int candidateCount = countAccepted(heightIndex, heights, filter.getMaxHeight());
+		if (filter.getMaxPrice() != Double.POSITIVE_INFINITY) {
+			buildPriceIndex();
+			int priceCount = countAccepted(priceIndex, prices, filter.getMaxPrice());
+			if (priceCount < candidateCount) {
+				candidates = priceIndex;
+				candidateCount = priceCount;
+			}
+		}
+		int barCount = countAccepted(barCountIndex, barCounts, filter.getMaxBarCount());
+		if (barCount < candidateCount) {
+			candidates = barCountIndex;
+			candidateCount = barCount;
+		}
+		if (filter.getConcreteClasses() != null) {
+			int concreteCount = 0;
+			for (String concreteClass : filter.getConcreteClasses()) {
+				concreteCount += concreteClassIndex.getOrDefault(concreteClass, new int[0]).length;
+			}
+			if (concreteCount < candidateCount) {
+				candidates = new int[concreteCount];
+				int i = 0;
+				for (String concreteClass : filter.getConcreteClasses()) {
+					for (int row : concreteClassIndex.getOrDefault(concreteClass, new int[0])) candidates[i++] = row;
+				}
+				candidateCount = concreteCount;
+			}
+		}
+
+		for (int i = 0; i < candidateCount; i++) {
+			int row = candidates[i];
+			if (accepts(prices[row], filter.getMaxPrice()) && accepts(heights[row], filter.getMaxHeight()) &&
+					accepts(barCounts[row], filter.getMaxBarCount()) && (filter.getConcreteClasses() == null ||
+					filter.getConcreteClasses().contains(getConcreteSymbol(row)))) {
+				selection.set(row);
+			}
+		}
+		return filter.getGrouping() == CrossSectionFilter.ALL ? selection : selectCheapest(selection,
+				filter.getGrouping());
+	}
+
+	private BitSet selectCheapest(BitSet selection, int grouping) {
+		BitSet cheapest = new BitSet(crossSections.length);
+		buildPriceIndex();
+		Set<Object> groups = new HashSet<>();
+		for (int row : priceIndex) {
+			if (!selection.get(row)) continue;
+			Object group = grouping == CrossSectionFilter.CHEAPEST_PER_CONCRETE_CLASS ? getConcreteSymbol(row)
+					: heights[row];
+			if (groups.add(group)) cheapest.set(row);
+		}
+		return cheapest;
+	}
+
+	private void buildIndexes() {
+		if (heightIndex != null) return;
+		int n = crossSections.length;
+		barCounts = new double[n];
+		Map<String, List<Integer>> rowsByConcreteClass = new HashMap<>();
+		for (int row = 0; row < n; row++) {
+			barCounts[row] = Math.max(crossSections[row].getAs().getAsa().getN(),
+					crossSections[row].getAs().getAsb().getN());
+			rowsByConcreteClass.computeIfAbsent(getConcreteSymbol(row), key -> new ArrayList<>()).add(row);
+		}
+		concreteClassIndex = new HashMap<>();
+		for (Map.Entry<String, List<Integer>> entry : rowsByConcreteClass.entrySet()) {
+			concreteClassIndex.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+		}
+		heightIndex = sortedIndex(heights);
+		barCountIndex = sortedIndex(barCounts);
+	}
+
+	private void buildPriceIndex() {
+		if (priceIndex != null) return;
+		computePrices();
+		priceIndex = sortedIndex(prices);
+	}
+
+	private String getConcreteSymbol(int row) {
+		return crossSections[row].getConcreteClassification().getSymbol();
+	}
+
+	private static int[] sortedIndex(double[] values) {
+		Integer[] rows = new Integer[values.length];
+		for (int row = 0; row < rows.length; row++) rows[row] = row;
+		Arrays.sort(rows, (row1, row2) -> Double.compare(values[row1], values[row2]));
+		int[] index = new int[rows.length];
+		for (int i = 0; i < rows.length; i++) index[i] = rows[i];
+		return index;
+	}
+
+	private static int countAccepted(int[] index, double[] values, double max) {
+		if (max == Double.POSITIVE_INFINITY) return index.length;
+		int low = 0;
+		int high = index.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (accepts(values[index[middle]], max)) low = middle + 1;
+			else high = middle;
+		}
+		return low;
+	}
+
+	private static boolean accepts(double value, double max) {
+		return max == Double.POSITIVE_INFINITY || value <= max + TOLERANCE;
+	}
+
+	/**
+	 * Calculates prices of all rows, which weren't calculated yet
+	 */
+	public void computePrices() {
+		for (int row = pricesComputed.nextClearBit(0); row < crossSections.length;
+		     row = pricesComputed.nextClearBit(row + 1)) {
+			getPrice(row);
+		}
+	}
+
+	/**
+	 * Returns price of the row in zł/m, calculating it if needed
+	 *
+	 * @param row index of the row in the model
+	 * @return price or NaN, if it can't be calculated
+	 */
+	public double getPrice(int row) {
+		if (!pricesComputed.get(row)) {
+			try {
+				prices[row] = new PriceFactory(crossSections[row], priceList).build();
+			} catch (ImproperDataException | LSException e) {
+				prices[row] = Double.NaN;
+			}
+			pricesComputed.set(row);
+		}
+		return prices[row];
+	}
+
+	private void computeSpacings(int row) {
+		if (spacingsComputed.get(row)) return;
+		CrossSection crossSection = crossSections[row];
+		try {
+			asbSpacings[row] = crossSection.getAsbSpacing();
+		} catch (ImproperDataException | LSException e) {
+			asbSpacings[row] = Double.NaN;
+		}
+		try {
+			asaSpacings[row] = crossSection.getAsaSpacing();
+		} catch (ImproperDataException | LSException e) {
+			asaSpacings[row] = Double.NaN;
+		}
+		spacingsComputed.set(row);
+	}
+
+	/**
+	 * Returns cross section of the row
+	 *
+	 * @param row index of the row in the model
+	 * @return cross section
+	 */
+	public CrossSection getCrossSection(int row) {
+		return crossSections[row];
+	}
+
+	@Override
+	public int getRowCount() {
+		return crossSections.length;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMN_COUNT;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return COLUMN_NAMES[column];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int column) {
+		switch (column) {
+			case CONCRETE:
+				return ConcreteClassification.class;
+			case STEEL:
+				return String.class;
+			default:
+				return Double.class;
+		}
+	}
+
+	@Override
+	public boolean isCellEditable(int row, int column) {
+		return false;
+	}
+
+	@Override
+	public Object getValueAt(int row, int column) {
+		CrossSection crossSection = crossSections[row];
+		switch (column) {
+			case PRICE:
+				return getPrice(row);
+			case WIDTH:
+				return widths[row];
+			case HEIGHT:
+				return heights[row];
+			case AREA:
+				return areas[row];
+			case CONCRETE:
+				return crossSection.getConcreteClassification();
+			case STEEL:
+				return steelType;
+			case ASB:
+				return asbAreas[row];
+			case ASB_BARS:
+				return crossSection.getAs().getAsb().getN();
+			case ASA:
+				return asaAreas[row];
+			case ASA_BARS:
+				return crossSection.getAs().getAsa().getN();
+			case ASW:
+				return aswAreas[row];
+			case ASW_BARS:
+				return crossSection.getAsw().getN();
+			default:
+				throw new IndexOutOfBoundsException("Column " + column);
+		}
+	}
+
+	/**
+	 * Returns text of the cell. Texts of recently painted rows are cached.
+	 *
+	 * @param row    index of the row in the model
+	 * @param column index of the column in the model
+	 * @return text of the cell
+	 */
+	public String getText(int row, int column) {
+		String[] texts = textCache.computeIfAbsent(row, key -> new String[COLUMN_COUNT]);
+		if (texts[column] == null) texts[column] = formatText(row, column);
+		return texts[column];
+	}
+
+	private String formatText(int row, int column) {
+		CrossSection crossSection = crossSections[row];
+		switch (column) {
+			case PRICE:
+				return formatNumber("%.2f", getPrice(row));
+			case WIDTH:
+				return format("%.0f", widths[row] * 1000);
+			case HEIGHT:
+				return format("%.0f", heights[row] * 1000);
+			case AREA:
+				return format("%.3f", areas[row]);
+			case CONCRETE:
+				return crossSection.getConcreteClassification().getSymbol();
+			case STEEL:
+				return steelType;
+			case ASB:
+				return format("%.2f", asbAreas[row] * 10000);
+			case ASB_BARS:
+				computeSpacings(row);
+				return formatBars(crossSection.getAs().getAsb(), asbSpacings[row]);
+			case ASA:
+				return format("%.2f", asaAreas[row] * 10000);
+			case ASA_BARS:
+				computeSpacings(row);
+				return formatBars(crossSection.getAs().getAsa(), asaSpacings[row]);
+			case ASW:
+				return format("%.2f", aswAreas[row] * 10000);
+			case ASW_BARS:
+				ShearReinforcement asw = crossSection.getAsw();
+				return format("%.0f", asw.getNleg()) + "-cięte" + "\u00D8" + format("%.0f", asw.getPhi() * 1000) +
+						" co " + format("%.1f", roundHalf(1 / asw.getN() * 100)) + "cm";
+			default:
+				throw new IndexOutOfBoundsException("Column " + column);
+		}
+	}
+
+	/**
+	 * Returns comparator of values of the column
+	 *
+	 * @param column index of the column in the model
+	 * @return comparator
+	 */
+	public Comparator<?> getComparator(int column) {
+		switch (column) {
+			case CONCRETE:
+				return Comparator.<ConcreteClassification>naturalOrder();
+			case STEEL:
+				return Comparator.<String>naturalOrder();
+			default:
+				return (Comparator<Double>) Double::compare;
+		}
+	}
+
+	private static String formatBars(Reinforcement as, double spacing) {
+		return format("%.0f", as.getN()) + "\u00D8" + format("%.0f", as.getPhi() * 1000) + " co " +
+				formatNumber("%.1f", roundHalf(spacing * 100)) + "cm";
+	}
+
+	private static String formatNumber(String pattern, double d) {
+		return Double.isNaN(d) ? "-" : format(pattern, d);
+	}
+
+	private static double roundHalf(double d) {
+		return Math.round(d * 2) / 2.0;
+	}
+
+	/**
+	 * Sorts rows of the model by typed comparators. Prices of all rows are calculated only, when rows are sorted by
+	 * price.
+	 */
+	public static class Sorter extends TableRowSorter<CrossSectionTableModel> {
+		/**
+		 * Creates an instance of the sorter
+		 *
+		 * @param model model
+		 */
+		public Sorter(CrossSectionTableModel model) {
+			super(model);
+			for (int column = 0; column < COLUMN_COUNT; column++) setComparator(column, model.getComparator(column));
+		}
+
+		/**
+		 * Shows only selected rows
+		 *
+		 * @param selection indexes of shown rows in the model or null, if all rows are shown
+		 */
+		public void setSelection(BitSet selection) {
+			setRowFilter(selection == null ? null : new RowFilter<CrossSectionTableModel, Integer>() {
+				@Override
+				public boolean include(Entry<? extends CrossSectionTableModel, ? extends Integer> entry) {
+					return selection.get(entry.getIdentifier());
+				}
+			});
+		}
+
+		@Override
+		public void setSortKeys(List<? extends SortKey> sortKeys) {
+			if (sortKeys != null) {
+				for (SortKey sortKey : sortKeys) {
+					if (sortKey.getColumn() == PRICE && sortKey.getSortOrder() != SortOrder.UNSORTED) {
+						getModel().computePrices();
+					}
+				}
+			}
+			super.setSortKeys(sortKeys);
+		}
+	}
+
+	/**
+	 * Renders text of the cell formatted by the model
+	 */
+	public static class Renderer extends DefaultTableCellRenderer {
+		@Override
+		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+		                                               boolean hasFocus, int row, int column) {
+			super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+			TableModel model = table.getModel();
+			if (model instanceof CrossSectionTableModel) {
+				setText(((CrossSectionTableModel) model).getText(table.convertRowIndexToModel(row),
+						table.convertColumnIndexToModel(column)));
+			}
+			return this;
+		}
+	}
+}
@@ -1,23 +1,19 @@
 package tyvrel.mag.gui.view;
 
-import tyvrel.mag.core.exception.ImproperDataException;
-import tyvrel.mag.core.exception.LSException;
-import tyvrel.mag.core.factory.dimensioning.CrossSectionsFactory;
-import tyvrel.mag.core.factory.others.PriceFactory;
+import tyvrel.mag.core.factory.dimensioning.CandidateMemo;
+import tyvrel.mag.core.factory.dimensioning.CrossSectionReportFactory;
+import tyvrel.mag.core.factory.dimensioning.IncrementalDesigner;
+import tyvrel.mag.core.io.ResultDiskCache;
 import tyvrel.mag.core.model.*;
-import tyvrel.mag.core.model.reinforcement.Reinforcement;
-import tyvrel.mag.core.model.reinforcement.ShearReinforcement;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.monitor.SearchProgress;
 import tyvrel.mag.gui.component.ApplicationFrame;
-import tyvrel.mag.gui.component.datahandler.DataHandlerException;
-import tyvrel.mag.gui.component.datahandler.DataHandlerFacade;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableModel;
-import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 
-import static java.lang.String.*;
 import static java.util.Optional.ofNullable;
 
 /**
@@ -26,12 +22,24 @@ import static java.util.Optional.ofNullable;
  */
 public class CrossSectionsPanel extends BaseJPanel {
 
-	private CrossSection[] crossSections;
+	private final CrossSectionTableModel crossSectionTableModel = new CrossSectionTableModel();
+
+	private final CrossSectionTableModel.Sorter sorter = new CrossSectionTableModel.Sorter(crossSectionTableModel);
+
+	private final CrossSectionFilterPanel crossSectionFilterPanel = new CrossSectionFilterPanel();
 
 	private CrossSectionPreviewPanel crossSectionPreviewPanel;
 
+	private SearchDashboardPanel searchDashboardPanel;
+
+	private final IncrementalDesigner incrementalDesigner = new IncrementalDesigner();
+
+	private DesignInput resultDesignInput;
+
 	public CrossSectionsPanel() {
 		super("Przekrój");
+		incrementalDesigner.setResultCache(ResultDiskCache.getDefault());
+		incrementalDesigner.setCandidateMemo(CandidateMemo.getDefault());
 		setLayout(new GridLayout(1, 2));
 
 		add(createCrossSectionTablePanel());
@@ -43,174 +51,169 @@ public class CrossSectionsPanel extends BaseJPanel {
 		JPanel jPanel = new BaseJPanel("Lista przekrojów");
 		jPanel.setLayout(new BorderLayout());
 		JTable jTable = createJTable();
-		jPanel.add(createJButton(jTable), BorderLayout.PAGE_START);
+		JPanel topPanel = new JPanel(new BorderLayout());
+		topPanel.add(createButtonPanel(jTable), BorderLayout.PAGE_START);
+		topPanel.add(crossSectionFilterPanel, BorderLayout.CENTER);
+		crossSectionFilterPanel.addFilterListener(this::applyFilter);
+		jPanel.add(topPanel, BorderLayout.PAGE_START);
 		jPanel.add(new JScrollPane(jTable), BorderLayout.CENTER);
+		searchDashboardPanel = new SearchDashboardPanel();
+		jPanel.add(searchDashboardPanel, BorderLayout.LINE_END);
 		return jPanel;
 	}
 
 
-	private CrossSectionsFactory createCrossSectionsFactory() throws DataHandlerException {
-		DataHandlerFacade dataHandlerFacade = ((ApplicationFrame) getTopLevelAncestor()).getDataHandlerFacade();
-		return new CrossSectionsFactory(
-				dataHandlerFacade.getFias(),
-				dataHandlerFacade.getFibs(),
-				dataHandlerFacade.getFisws(),
-				dataHandlerFacade.getWidthRange(),
-				dataHandlerFacade.getHeightRange(),
-				dataHandlerFacade.getConcreteClassifications(),
-				dataHandlerFacade.getExposureClassifications(),
-				dataHandlerFacade.getLoads(),
-				dataHandlerFacade.getLongitudinalReinforcementSteel(),
-				dataHandlerFacade.getShearReinforcementSteel(),
-				dataHandlerFacade.getPartialFactors(),
-				dataHandlerFacade.is100yWorkingLife(),
-				dataHandlerFacade.isQualityEnsured(),
-				dataHandlerFacade.isHighAir(),
-				dataHandlerFacade.getDgNomMax()
-		);
-	}
-
-	private JButton createJButton(JTable jTable) {
-		JButton jButton = new JButton("Oblicz");
-		jButton.addActionListener(e -> {
-			((DefaultTableModel) jTable.getModel()).setRowCount(0);
+	private JPanel createButtonPanel(JTable jTable) {
+		JPanel jPanel = new JPanel(new GridLayout(1, 3));
+		JButton jbCalculate = new JButton("Oblicz");
+		JButton jbCancel = new JButton("Przerwij");
+		JButton jbDetails = new JButton("Szczegóły");
+		jbCancel.setEnabled(false);
+		jbDetails.setEnabled(false);
+		jTable.getSelectionModel()
+				.addListSelectionListener(e -> jbDetails.setEnabled(jTable.getSelectedRow() >= 0));
+		jbDetails.addActionListener(e -> {
+			int rowIndex = jTable.getSelectedRow();
+			if (rowIndex < 0) return;
+			jbDetails.setEnabled(false);
+			showReport(crossSectionTableModel.getCrossSection(jTable.convertRowIndexToModel(rowIndex)), jbDetails);
+		});
+		jbCancel.addActionListener(e -> incrementalDesigner.cancel());
+		jbCalculate.addActionListener(e -> {
+			sorter.setSelection(null);
+			crossSectionTableModel.clear();
 			crossSectionPreviewPanel.setCrossSection(null);
+			DesignInput designInput;
+			SearchProgress searchProgress;
 			try {
-				CrossSectionsFactory csf = createCrossSectionsFactory();
-				crossSections = csf.build();
-				if (crossSections.length == 0) {
-					String message = "<html>Brak przekrojów, które spełniałyby oczekiwane wymagania.</html>";
-					JOptionPane.showMessageDialog(this, message, "Informacja", JOptionPane.INFORMATION_MESSAGE);
-				}
-				for (CrossSection crossSection : crossSections) {
-					((DefaultTableModel) jTable.getModel()).addRow(crossSectionToStringArray(crossSection));
-				}
+				designInput = ((ApplicationFrame) getTopLevelAncestor()).getDataHandlerFacade().getDesignInput();
+				searchProgress = new SearchProgress(designInput.getPriceList());
 			} catch (Exception e1) {
-				String message = "<html>Algorym zakończył się niepowodzeniem:<br>" + e1.getClass()
-						.getSimpleName() + " " + ofNullable(e1.getMessage()).orElse("") + "</html>";
-				JOptionPane.showMessageDialog(this, message, "Błąd", JOptionPane.WARNING_MESSAGE);
+				showFailure(e1);
+				return;
 			}
+			incrementalDesigner.addListener(searchProgress);
+			incrementalDesigner.resetCancellation();
+			jbCalculate.setEnabled(false);
+			jbCancel.setEnabled(true);
+			searchDashboardPanel.start(searchProgress);
+
+			new SwingWorker<CrossSection[], Void>() {
+				@Override
+				protected CrossSection[] doInBackground() throws Exception {
+					return incrementalDesigner.design(designInput);
+				}
+
+				@Override
+				protected void done() {
+					searchDashboardPanel.stop();
+					incrementalDesigner.removeListener(searchProgress);
+					jbCalculate.setEnabled(true);
+					jbCancel.setEnabled(false);
+					try {
+						CrossSection[] crossSections = get();
+						if (crossSections.length == 0) {
+							String message = "<html>Brak przekrojów, które spełniałyby oczekiwane " +
+									"wymagania.</html>";
+							JOptionPane.showMessageDialog(CrossSectionsPanel.this, message, "Informacja",
+									JOptionPane.INFORMATION_MESSAGE);
+						}
+						resultDesignInput = designInput;
+						crossSectionTableModel.setCrossSections(crossSections, designInput.getPriceList(),
+								designInput.getLongitudinalReinforcementSteelType());
+						crossSectionFilterPanel.setConcreteClasses(getConcreteClasses(crossSections));
+						applyFilter();
+					} catch (ExecutionException e1) {
+						showFailure(ofNullable(e1.getCause()).orElse(e1));
+					} catch (Exception e1) {
+						showFailure(e1);
+					}
+				}
+			}.execute();
 		});
-		return jButton;
+		jPanel.add(jbCalculate);
+		jPanel.add(jbCancel);
+		jPanel.add(jbDetails);
+		return jPanel;
+	}
+
+	private void showReport(CrossSection crossSection, JButton jbDetails) {
+		DesignInput designInput = resultDesignInput;
+		new SwingWorker<CrossSectionReport, Void>() {
+			@Override
+			protected CrossSectionReport doInBackground() throws Exception {
+				return new CrossSectionReportFactory(designInput.getExposureClasses(), designInput.getLoads(),
+						designInput.getFactors(), crossSection, designInput.is100yWorkingLife(),
+						designInput.isQualityEnsured(), designInput.isHighAir(), designInput.getDg()).buildReport();
+			}
+
+			@Override
+			protected void done() {
+				jbDetails.setEnabled(true);
+				try {
+					JOptionPane.showMessageDialog(CrossSectionsPanel.this, new CrossSectionReportPanel(get()),
+							"Szczegóły", JOptionPane.PLAIN_MESSAGE);
+				} catch (ExecutionException e) {
+					showFailure(ofNullable(e.getCause()).orElse(e));
+				} catch (Exception e) {
+					showFailure(e);
+				}
+			}
+		}.execute();
+	}
+
+	private void showFailure(Throwable throwable) {
+		String message = "<html>Algorym zakończył się niepowodzeniem:<br>" + throwable.getClass()
+				.getSimpleName() + " " + ofNullable(throwable.getMessage()).orElse("") + "</html>";
+		JOptionPane.showMessageDialog(this, message, "Błąd", JOptionPane.WARNING_MESSAGE);
 	}
 
-	private String[] crossSectionToStringArray(CrossSection crossSection) throws DataHandlerException,
-			ImproperDataException, LSException {
-		DataHandlerFacade dataHandlerFacade = ((ApplicationFrame) getTopLevelAncestor()).getDataHandlerFacade();
-		Reinforcement asB = crossSection.getAs()
-				.getAsb();
-		Reinforcement asA = crossSection.getAs()
-				.getAsa();
-		ShearReinforcement asw = crossSection.getAsw();
-		String[] stringArray = new String[12];
-		stringArray[0] = format("%.2f", new PriceFactory(crossSection, dataHandlerFacade.getPriceList()).build());
-		stringArray[1] = format("%.0f", crossSection.getShape().getB() * 1000);
-		stringArray[2] = format("%.0f", crossSection.getShape().getH() * 1000);
-		stringArray[3] = format("%.3f", crossSection.getShape().getA());
-		stringArray[4] = crossSection.getConcreteClassification()
-				.getSymbol();
-		stringArray[5] = dataHandlerFacade.getLongitudinalReinforcementSteelType();
-		stringArray[6] = format("%.2f", asB.getA() * 10000);
-		stringArray[7] = format("%.0f", asB.getN()) + "\u00D8" + format("%.0f", asB.getPhi() * 1000) +
-				" co " + format("%.1f", roundHalf(crossSection.getAsbSpacing() * 100)) + "cm";
-		stringArray[8] = format("%.2f", asA.getA() * 10000);
-		stringArray[9] = format("%.0f", asA.getN()) + "\u00D8" + format("%.0f", asA.getPhi() * 1000) +
-				" co " + format("%.1f", roundHalf(crossSection.getAsaSpacing() * 100)) + "cm";
-		stringArray[10] = format("%.2f", asw.getA() * 10000);
-		stringArray[11] = format("%.0f", asw.getNleg()) + "-cięte" + "\u00D8" + format("%.0f", asw.getPhi() * 1000) +
-				" co " + format("%.1f", roundHalf(1 / asw.getN() * 100)) + "cm";
-		return stringArray;
+	private void applyFilter() {
+		sorter.setSelection(crossSectionTableModel.getRowCount() == 0 ? null
+				: crossSectionTableModel.select(crossSectionFilterPanel.getFilter()));
 	}
 
-	private double roundHalf(double d) {
-		return Math.round(d * 2) / 2.0;
+	private static String[] getConcreteClasses(CrossSection[] crossSections) {
+		return Arrays.stream(crossSections)
+				.map(CrossSection::getConcreteClassification)
+				.distinct()
+				.sorted()
+				.map(ConcreteClassification::getSymbol)
+				.distinct()
+				.toArray(String[]::new);
 	}
 
 	private JTable createJTable() {
-		JTable jTable = new JTable(new LoadTableModel());
+		JTable jTable = new JTable(crossSectionTableModel);
 		int[] prefferedColumnWidth = {70, 45, 45, 45, 45, 60, 70, 110, 70, 110, 70, 150};
-		TableRowSorter<TableModel> tableRowSorter = new TableRowSorter<>(jTable.getModel());
+		CrossSectionTableModel.Renderer renderer = new CrossSectionTableModel.Renderer();
 		for (int i = 0; i < prefferedColumnWidth.length; i++) {
 			jTable.getColumnModel()
 					.getColumn(i)
 					.setPreferredWidth(prefferedColumnWidth[i]);
-
-			tableRowSorter.setComparator(i, this::compare);
+			jTable.getColumnModel()
+					.getColumn(i)
+					.setCellRenderer(renderer);
 		}
 		jTable.setFillsViewportHeight(true);
 
-		jTable.setRowSorter(tableRowSorter);
+		jTable.setRowSorter(sorter);
 		jTable.getSelectionModel()
 				.addListSelectionListener(e -> {
 					int rowIndex = jTable.getSelectedRow();
 					if (rowIndex < 0) return;
-					rowIndex = jTable.convertRowIndexToModel(rowIndex);
-					crossSectionPreviewPanel.setCrossSection(crossSections[rowIndex]);
+					crossSectionPreviewPanel.setCrossSection(
+							crossSectionTableModel.getCrossSection(jTable.convertRowIndexToModel(rowIndex)));
+					if (rowIndex > 0) {
+						crossSectionPreviewPanel.prerender(
+								crossSectionTableModel.getCrossSection(jTable.convertRowIndexToModel(rowIndex - 1)));
+					}
+					if (rowIndex < jTable.getRowCount() - 1) {
+						crossSectionPreviewPanel.prerender(
+								crossSectionTableModel.getCrossSection(jTable.convertRowIndexToModel(rowIndex + 1)));
+					}
 				});
 		return jTable;
 	}
 
-	private int compare(Object o1, Object o2) {
-		try {
-			double d1 = Double.parseDouble(o1.toString()
-					.replaceAll(",", "."));
-			double d2 = Double.parseDouble(o2.toString()
-					.replaceAll(",", "."));
-			return Double.compare(d1, d2);
-		} catch (NumberFormatException e) {
-			return o1.toString()
-					.compareTo(o2.toString());
-		}
-	}
-
-	public static class LoadTableModel extends DefaultTableModel {
-		@Override
-		public int getColumnCount() {
-			return 12;
-		}
-
-		@Override
-		public Class<?> getColumnClass(int columnIndex) {
-			return String.class;
-		}
-
-		@Override
-		public boolean isCellEditable(int row, int column) {
-			return false;
-		}
-
-
-		@Override
-		public String getColumnName(int column) {
-			switch (column) {
-				case 0:
-					return "Cena [zł/m]";
-				case 1:
-					return "b [mm]";
-				case 2:
-					return "h [mm]";
-				case 3:
-					return "A [m2]";
-				case 4:
-					return "Beton";
-				case 5:
-					return "Stal";
-				case 6:
-					return "<html>A<sub>sB</sub> [cm2]</html>";
-				case 7:
-					return "";
-				case 8:
-					return "<html>A<sub>sA</sub> [cm2]</html>";
-				case 9:
-					return "";
-				case 10:
-					return "<html>A<sub>sw</sub> [cm2]</html>";
-				case 11:
-					return "";
-				default:
-					return "error";
-			}
-		}
-	}
-
 }
@@ -26,4 +26,9 @@ public class FactorsPanel extends BaseJPanel {
 				ltfGammaC.getDouble()
 		);
 	}
+
+	public void setFactors(Factors factors) {
+		ltfGammaS.setDouble(factors.getGammas());
+		ltfGammaC.setDouble(factors.getGammac());
+	}
 }
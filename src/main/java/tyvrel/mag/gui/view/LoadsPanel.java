@@ -1,6 +1,8 @@
 package tyvrel.mag.gui.view;
 
 import tyvrel.mag.core.exception.ImproperDataException;
+import tyvrel.mag.core.io.ImportedLoads;
+import tyvrel.mag.core.io.LoadCsvImporter;
 import tyvrel.mag.core.model.Factors;
 import tyvrel.mag.core.model.Load;
 import tyvrel.mag.gui.filter.DocumentCharacterFilter;
@@ -8,14 +10,22 @@ import tyvrel.mag.gui.filter.DocumentCharacterFilter;
 import javax.swing.*;
 import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.text.AbstractDocument;
 import java.awt.*;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Line2D;
+import java.io.File;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
@@ -25,6 +35,8 @@ public class LoadsPanel extends BaseJPanel {
 	private FactorsPanel factorsPanel;
 
 	private JTable jTable;
+	private LoadTableModel loadTableModel;
+	private Load[] loads;
 
 	public LoadsPanel() {
 		super("Obciążenie");
@@ -37,15 +49,13 @@ public class LoadsPanel extends BaseJPanel {
 	}
 
 	private JPanel createPreviewPanel() {
-		return new BaseJPanel("Podgląd:") {
+		return new CachedPreviewPanel<Void>("Podgląd:") {
 			@Override
-			protected void paintComponent(Graphics g) {
-				super.paintComponent(g);
-				Graphics2D g2D = (Graphics2D) g;
+			protected void render(Graphics2D g2D, Void subject, int panelWidth, int panelHeight) {
 				int recX = 20;
 				int recY = 30;
-				int width = getWidth() - 2 * recX;
-				int height = getHeight() - recX - recY;
+				int width = panelWidth - 2 * recX;
+				int height = panelHeight - recX - recY;
 
 				int recH = Math.min(height, (int) (width / 1.7));
 
@@ -65,7 +75,7 @@ public class LoadsPanel extends BaseJPanel {
 				int arc2X = arc1X + arcRadius + offsetX;
 				int line1X = arc2X + 2 * arcRadius + offsetX;
 				int line1YB = arcY + 2 * arcRadius;
-				int line2XA = line1X + offsetX + g.getFont()
+				int line2XA = line1X + offsetX + g2D.getFont()
 						.getSize() * 2;
 				int line2XB = line2XA + 2 * arcRadius;
 				int line2Y = arcY + arcRadius;
@@ -75,15 +85,15 @@ public class LoadsPanel extends BaseJPanel {
 				shapeList.add(new Rectangle(recX, recY, recW, recH));
 				g2D.fill(new Rectangle(rein1X, rein1Y, reinW, reinH));
 				g2D.fill(new Rectangle(rein1X, rein2Y, reinW, reinH));
-				drawString(g, "A", "sA", recX + recW + recW / 10, rein1Y + recW / 20);
-				drawString(g, "A", "sB", recX + recW + recW / 10, rein2Y + recW / 20);
+				drawString(g2D, "A", "sA", recX + recW + recW / 10, rein1Y + recW / 20);
+				drawString(g2D, "A", "sB", recX + recW + recW / 10, rein2Y + recW / 20);
 
 				shapeList.add(new Arc2D.Double(arc1X, arcY, arcRadius * 2, arcRadius * 2, -90, 180, Arc2D.OPEN));
 				shapeList.add(new Line2D.Double(arc1X + arcRadius, arcY, arc1X + arcRadius + arrowLength, arcY -
 						arrowLength / 2));
 				shapeList.add(new Line2D.Double(arc1X + arcRadius, arcY, arc1X + arcRadius + arrowLength, arcY +
 						arrowLength / 2));
-				drawString(g, "M", "B", arc1X + arcRadius, arcY + arcRadius);
+				drawString(g2D, "M", "B", arc1X + arcRadius, arcY + arcRadius);
 
 
 				shapeList.add(new Arc2D.Double(arc2X, arcY, arcRadius * 2, arcRadius * 2, -90, 180, Arc2D.OPEN));
@@ -91,12 +101,12 @@ public class LoadsPanel extends BaseJPanel {
 						arrowLength, arcY + 2 * arcRadius - arrowLength / 2));
 				shapeList.add(new Line2D.Double(arc2X + arcRadius, arcY + 2 * arcRadius, arc2X + arcRadius +
 						arrowLength, arcY + 2 * arcRadius + arrowLength / 2));
-				drawString(g, "M", "A", arc2X + arcRadius, arcY + arcRadius);
+				drawString(g2D, "M", "A", arc2X + arcRadius, arcY + arcRadius);
 
 				shapeList.add(new Line2D.Double(line1X, arcY, line1X, line1YB));
 				shapeList.add(new Line2D.Double(line1X, line1YB, line1X - arrowLength / 2, line1YB - arrowLength));
 				shapeList.add(new Line2D.Double(line1X, line1YB, line1X + arrowLength / 2, line1YB - arrowLength));
-				drawString(g, "V", "Ed", line1X + g.getFont().getSize() / 4, arcY + arcRadius);
+				drawString(g2D, "V", "Ed", line1X + g2D.getFont().getSize() / 4, arcY + arcRadius);
 
 				shapeList.forEach(g2D::draw);
 			}
@@ -130,22 +140,28 @@ public class LoadsPanel extends BaseJPanel {
 
 	private JPanel createButtonTablePanel() {
 		JPanel buttonTablePanel = new JPanel();
-		buttonTablePanel.setLayout(new GridLayout(1, 2));
+		buttonTablePanel.setLayout(new GridLayout(1, 3));
 		JButton jbAddRow = new JButton("Dodaj wiersz");
 		JButton jbDeleteRow = new JButton("Usuń zaznaczone wiersze");
+		JButton jbImport = new JButton("Importuj z CSV...");
 		buttonTablePanel.add(jbAddRow);
 		buttonTablePanel.add(jbDeleteRow);
-		jbAddRow.addActionListener(e -> ((DefaultTableModel) jTable.getModel()).addRow(new Object[]{}));
+		buttonTablePanel.add(jbImport);
+		jbImport.addActionListener(e -> importLoads(jbImport));
+		jbAddRow.addActionListener(e -> loadTableModel.addRow());
 		jbDeleteRow.addActionListener(e -> {
 			int rowIndex = jTable.getSelectedRow();
-			if (rowIndex >= 0)
-				((DefaultTableModel) jTable.getModel()).removeRow(rowIndex);
+			if (rowIndex >= 0) {
+				if (jTable.isEditing()) jTable.getCellEditor().cancelCellEditing();
+				loadTableModel.removeRow(rowIndex);
+			}
 		});
 		return buttonTablePanel;
 	}
 
 	private JTable createJTable() {
-		JTable jTable = new JTable(new LoadTableModel());
+		loadTableModel = new LoadTableModel();
+		JTable jTable = new JTable(loadTableModel);
 
 		Collections.list(jTable.getColumnModel()
 				.getColumns())
@@ -173,59 +189,112 @@ public class LoadsPanel extends BaseJPanel {
 		jTable.setFillsViewportHeight(true);
 		jTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
 
-		((DefaultTableModel) jTable.getModel()).addRow(new Object[]{});
-		jTable.setValueAt("100", 0, 0);
-		jTable.setValueAt("100", 0, 1);
-		jTable.setValueAt("30", 0, 2);
-		jTable.setValueAt("30", 0, 3);
-		jTable.setValueAt("20", 0, 4);
-		jTable.setValueAt("20", 0, 5);
-		jTable.setValueAt("200", 0, 6);
+		loadTableModel.addTableModelListener(e -> loads = null);
+		loadTableModel.setValues(new double[]{100000, 100000, 30000, 30000, 20000, 20000, 200000}, 1);
 
 		return jTable;
 	}
 
+	/**
+	 * Returns loads of the table. Loads are read from values of the table model once after each change of the table.
+	 *
+	 * @return loads
+	 * @throws ImproperDataException if value of any cell is improper
+	 */
 	public Load[] getLoads() throws ImproperDataException {
-		List<Load> list = new ArrayList<>();
-		for (int i = 0; i < jTable.getRowCount(); i++) {
-
-			double mEdB = getDouble(i, 0);
-			double mEdA = getDouble(i, 1);
-			double mcharB = getDouble(i, 2);
-			double mcharA = getDouble(i, 3);
-			double mquasiperma = getDouble(i, 4);
-			double mquasipermb = getDouble(i, 5);
-			double vEd = getDouble(i, 6);
-			if (!(mEdB == 0 && mEdA == 0 && mcharB == 0 && mcharA == 0 && vEd == 0))
-				list.add(new Load(mEdB, mEdA, mcharB, mcharA, mquasiperma, mquasipermb, vEd));
-		}
+		if (loads == null) loads = loadTableModel.getLoads();
+		return loads.clone();
+	}
 
-		if (list.isEmpty()) list.add(new Load(0, 0, 0, 0, 0, 0, 0));
-		return list.toArray(new Load[0]);
+	public Factors getPartialFactors() throws ImproperDataException {
+		return factorsPanel.getFactors();
 	}
 
-	private double getDouble(int row, int col) throws ImproperDataException {
-		Object o = jTable.getModel()
-				.getValueAt(row, col);
-		if (o == null) return 0;
-		if (!(o instanceof String)) throw new ImproperDataException();
-		String s = (String) o;
-		if (s.isEmpty()) return 0;
-		try {
-			return Double.parseDouble(s.replace(",", ".")) * 1000;
-		} catch (NumberFormatException e) {
-			throw new ImproperDataException(e);
-		}
+	public void setPartialFactors(Factors factors) {
+		factorsPanel.setFactors(factors);
 	}
 
-	public Factors getPartialFactors() throws ImproperDataException {
-		return factorsPanel.getFactors();
+	/**
+	 * Replaces all rows of the table at once, firing single change event
+	 *
+	 * @param loads loads
+	 */
+	public void setLoads(Load[] loads) {
+		if (jTable.isEditing()) jTable.getCellEditor().cancelCellEditing();
+		loadTableModel.setLoads(loads);
 	}
 
-	public static class LoadTableModel extends DefaultTableModel {
+	/**
+	 * Imports loads from CSV file chosen by user (see {@link LoadCsvImporter}). File is read in background and the
+	 * table is replaced once, after reading.
+	 *
+	 * @param source component disabled during import
+	 */
+	private void importLoads(JComponent source) {
+		JFileChooser jFileChooser = new JFileChooser();
+		jFileChooser.setFileFilter(new FileNameExtensionFilter("CSV (*.csv, *.txt)", "csv", "txt"));
+		if (jFileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+		File file = jFileChooser.getSelectedFile();
+		source.setEnabled(false);
+		new SwingWorker<ImportedLoads, Void>() {
+			@Override
+			protected ImportedLoads doInBackground() throws Exception {
+				return new LoadCsvImporter().read(file);
+			}
+
+			@Override
+			protected void done() {
+				source.setEnabled(true);
+				try {
+					ImportedLoads importedLoads = get();
+					if (jTable.isEditing()) jTable.getCellEditor().cancelCellEditing();
+					loadTableModel.setLoads(importedLoads);
+					JOptionPane.showMessageDialog(LoadsPanel.this, "Zaimportowano kombinacji: " + importedLoads.size()
+							+ ", pominięto powtórzeń: " + importedLoads.getDuplicates(), "Import",
+							JOptionPane.INFORMATION_MESSAGE);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					String message = "<html>Nie udało się zaimportować obciążeń:<br>" + (cause.getMessage() != null
+							? cause.getMessage() : cause.getClass().getSimpleName()) + "</html>";
+					JOptionPane.showMessageDialog(LoadsPanel.this, message, "Błąd", JOptionPane.WARNING_MESSAGE);
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Table model of load combinations. Values are stored in single primitive array, row after row, in order of
+	 * {@link Load} constructor, moments in Nm and shear forces in N, the same way as in {@link ImportedLoads}, so
+	 * imported loads are shown without creating any objects per cell. Cells are presented and edited as strings in kNm
+	 * and kN. Empty cell is stored as {@link Double#NaN} and treated as zero. Text, which isn't a number, is kept
+	 * aside and shown as entered, so {@link #getLoads()} rejects it.
+	 */
+	public static class LoadTableModel extends AbstractTableModel {
+		private static final int COLUMN_COUNT = LoadCsvImporter.COLUMN_COUNT;
+		private static final String[] COLUMN_NAMES = {
+				"<html>M<sub>EdB</sub> [kNm]</html>",
+				"<html>M<sub>EdA</sub> [kNm]</html>",
+				"<html>M<sub>EkB</sub> [kNm]</html>",
+				"<html>M<sub>EkA</sub> [kNm]</html>",
+				"<html>M<sub>EqpB</sub> [kNm]</html>",
+				"<html>M<sub>EqpA</sub> [kNm]</html>",
+				"<html>V<sub>Ed</sub> [kN]</html>"
+		};
+
+		private final NavigableMap<Integer, String> improperTexts = new TreeMap<>();
+		private double[] values = new double[0];
+		private int rowCount;
+
+		@Override
+		public int getRowCount() {
+			return rowCount;
+		}
+
 		@Override
 		public int getColumnCount() {
-			return 7;
+			return COLUMN_COUNT;
 		}
 
 		@Override
@@ -235,16 +304,144 @@ public class LoadsPanel extends BaseJPanel {
 
 		@Override
 		public String getColumnName(int column) {
-			String[] columnNames = {
-					"<html>M<sub>EdB</sub> [kNm]</html>",
-					"<html>M<sub>EdA</sub> [kNm]</html>",
-					"<html>M<sub>EkB</sub> [kNm]</html>",
-					"<html>M<sub>EkA</sub> [kNm]</html>",
-					"<html>M<sub>EqpB</sub> [kNm]</html>",
-					"<html>M<sub>EqpA</sub> [kNm]</html>",
-					"<html>V<sub>Ed</sub> [kN]</html>"
-			};
-			return (column > columnNames.length - 1) ? "error" : columnNames[column];
+			return (column > COLUMN_NAMES.length - 1) ? "error" : COLUMN_NAMES[column];
+		}
+
+		@Override
+		public boolean isCellEditable(int rowIndex, int columnIndex) {
+			return true;
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			String improperText = improperTexts.get(rowIndex * COLUMN_COUNT + columnIndex);
+			if (improperText != null) return improperText;
+			double value = values[rowIndex * COLUMN_COUNT + columnIndex];
+			return Double.isNaN(value) ? "" : BigDecimal.valueOf(value / 1000).stripTrailingZeros().toPlainString();
+		}
+
+		/**
+		 * Sets value of the cell. Text, which isn't a number, is kept as entered and makes {@link #getLoads()} fail.
+		 * Values of other types are ignored.
+		 *
+		 * @param aValue      value in kNm or kN, as string or number
+		 * @param rowIndex    row
+		 * @param columnIndex column
+		 */
+		@Override
+		public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+			int index = rowIndex * COLUMN_COUNT + columnIndex;
+			double value;
+			String improperText = null;
+			if (aValue == null) value = Double.NaN;
+			else if (aValue instanceof Number) value = ((Number) aValue).doubleValue() * 1000;
+			else if (aValue instanceof String) {
+				String s = ((String) aValue).trim();
+				value = Double.NaN;
+				if (!s.isEmpty()) try {
+					value = Double.parseDouble(s.replace(",", ".")) * 1000;
+					if (Double.isNaN(value)) improperText = s;
+				} catch (NumberFormatException e) {
+					improperText = s;
+				}
+			} else return;
+			values[index] = value;
+			if (improperText == null) improperTexts.remove(index);
+			else improperTexts.put(index, improperText);
+			fireTableCellUpdated(rowIndex, columnIndex);
+		}
+
+		/**
+		 * Appends row of empty cells
+		 */
+		public void addRow() {
+			int offset = rowCount * COLUMN_COUNT;
+			if (offset + COLUMN_COUNT > values.length)
+				values = Arrays.copyOf(values, Math.max(COLUMN_COUNT * 8, values.length * 2));
+			Arrays.fill(values, offset, offset + COLUMN_COUNT, Double.NaN);
+			rowCount++;
+			fireTableRowsInserted(rowCount - 1, rowCount - 1);
+		}
+
+		/**
+		 * Removes the row
+		 *
+		 * @param rowIndex row
+		 */
+		public void removeRow(int rowIndex) {
+			if (rowIndex < 0 || rowIndex >= rowCount)
+				throw new IndexOutOfBoundsException("Row " + rowIndex + " of " + rowCount);
+			System.arraycopy(values, (rowIndex + 1) * COLUMN_COUNT, values, rowIndex * COLUMN_COUNT,
+					(rowCount - rowIndex - 1) * COLUMN_COUNT);
+			int start = rowIndex * COLUMN_COUNT;
+			NavigableMap<Integer, String> following = new TreeMap<>(improperTexts.tailMap(start + COLUMN_COUNT));
+			improperTexts.tailMap(start).clear();
+			for (Map.Entry<Integer, String> entry : following.entrySet()) {
+				improperTexts.put(entry.getKey() - COLUMN_COUNT, entry.getValue());
+			}
+			rowCount--;
+			fireTableRowsDeleted(rowIndex, rowIndex);
+		}
+
+		/**
+		 * Replaces all rows with imported loads, firing single change event. Values are taken over without conversion.
+		 *
+		 * @param importedLoads imported loads
+		 */
+		public void setLoads(ImportedLoads importedLoads) {
+			setValues(importedLoads.getValues(), importedLoads.size());
+		}
+
+		/**
+		 * Replaces all rows with the loads, firing single change event
+		 *
+		 * @param loads loads
+		 */
+		public void setLoads(Load[] loads) {
+			double[] values = new double[loads.length * COLUMN_COUNT];
+			for (int i = 0, j = 0; i < loads.length; i++, j += COLUMN_COUNT) {
+				values[j] = loads[i].getMedb();
+				values[j + 1] = loads[i].getMeda();
+				values[j + 2] = loads[i].getMcharb();
+				values[j + 3] = loads[i].getMchara();
+				values[j + 4] = loads[i].getMquasipermb();
+				values[j + 5] = loads[i].getMquasiperma();
+				values[j + 6] = loads[i].getVed();
+			}
+			setValues(values, loads.length);
+		}
+
+		private void setValues(double[] values, int rowCount) {
+			this.values = values;
+			this.rowCount = rowCount;
+			improperTexts.clear();
+			fireTableDataChanged();
+		}
+
+		/**
+		 * Returns loads of all rows, skipping rows without design moments and shear force. Empty cells are treated as
+		 * zero.
+		 *
+		 * @return loads, at least one
+		 * @throws ImproperDataException if any value isn't a number or is infinite
+		 */
+		public Load[] getLoads() throws ImproperDataException {
+			if (!improperTexts.isEmpty()) throw new ImproperDataException("Improper number " +
+					improperTexts.firstEntry().getValue());
+			List<Load> list = new ArrayList<>();
+			double[] row = new double[COLUMN_COUNT];
+			for (int i = 0; i < rowCount; i++) {
+				for (int j = 0; j < COLUMN_COUNT; j++) {
+					double value = values[i * COLUMN_COUNT + j];
+					if (Double.isInfinite(value)) throw new ImproperDataException();
+					row[j] = Double.isNaN(value) ? 0 : value;
+				}
+				if (!(row[0] == 0 && row[1] == 0 && row[2] == 0 && row[3] == 0 && row[6] == 0))
+					list.add(new Load(row[0], row[1], row[2], row[3], row[4], row[5], row[6]));
+			}
+
+			if (list.isEmpty()) list.add(new Load(0, 0, 0, 0, 0, 0, 0));
+			return list.toArray(new Load[0]);
 		}
 	}
 }
@@ -80,5 +80,29 @@ public class MaterialsPanel extends BaseJPanel {
 		return aswReinforcementDiameterPanel.getDiameters();
 	}
 
+	public void setConcreteClassifications(ConcreteClassification[] concreteClassifications) {
+		concreteClassificationPanel.setClassifications(concreteClassifications);
+	}
+
+	public void setLongitudinalReinforcementSteelType(String steelType) {
+		longitudinalReinforcementSteelPanel.setSteelType(steelType);
+	}
+
+	public void setShearReinforcementSteelType(String steelType) {
+		shearReinforcementSteelPanel.setSteelType(steelType);
+	}
+
+	public void setAsbDiameters(double[] diameters) {
+		asbReinforcementDiameterPanel.setDiameters(diameters);
+	}
+
+	public void setAsaDiameters(double[] diameters) {
+		asaReinforcementDiameterPanel.setDiameters(diameters);
+	}
+
+	public void setAswDiameters(double[] diameters) {
+		aswReinforcementDiameterPanel.setDiameters(diameters);
+	}
+
 
 }
@@ -50,4 +50,24 @@ public class OthersPanel extends BaseJPanel {
 	public double getDgNomMax() {
 		return concreteCoverPanel.getDgNomMax();
 	}
+
+	public void setExposureClassifications(ExposureClassification[] exposureClassifications) {
+		exposureClassPanel.setClassifications(exposureClassifications);
+	}
+
+	public void set100yWorkingLife(boolean is100yWorkingLife) {
+		concreteCoverPanel.set100yWorkingLife(is100yWorkingLife);
+	}
+
+	public void setQualityEnsured(boolean isQualityEnsured) {
+		concreteCoverPanel.setQualityEnsured(isQualityEnsured);
+	}
+
+	public void setHighAir(boolean isHighAir) {
+		concreteCoverPanel.setHighAir(isHighAir);
+	}
+
+	public void setDgNomMax(double dgNomMax) {
+		concreteCoverPanel.setDgNomMax(dgNomMax);
+	}
 }
@@ -73,4 +73,24 @@ public class PricePanel extends BaseJPanel {
 				nonNeg(ltfReinforcementPrice.getDouble())
 		);
 	}
+
+	public void setPriceList(PriceList priceList) {
+		ltfConcreteLabourPrice.setDouble(priceList.getConcreteLabourPrice());
+		ltfC1215Price.setDouble(priceList.getC1215Price());
+		ltfC1620Price.setDouble(priceList.getC1620Price());
+		ltfC2025Price.setDouble(priceList.getC2025Price());
+		ltfC2530Price.setDouble(priceList.getC2530Price());
+		ltfC3037Price.setDouble(priceList.getC3037Price());
+		ltfC3545Price.setDouble(priceList.getC3545Price());
+		ltfC4050Price.setDouble(priceList.getC4050Price());
+		ltfC4555Price.setDouble(priceList.getC4555Price());
+		ltfC5060Price.setDouble(priceList.getC5060Price());
+		ltfC5567Price.setDouble(priceList.getC5567Price());
+		ltfC6075Price.setDouble(priceList.getC6075Price());
+		ltfC7085Price.setDouble(priceList.getC7085Price());
+		ltfC8095Price.setDouble(priceList.getC8095Price());
+		ltfC90105Price.setDouble(priceList.getC90105Price());
+		ltfFormworkPrice.setDouble(priceList.getFormworkPrice());
+		ltfReinforcementPrice.setDouble(priceList.getReinforcementPrice());
+	}
 }
@@ -4,6 +4,7 @@ import tyvrel.mag.gui.component.DataCheckBox;
 
 import javax.swing.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -11,7 +12,7 @@ import java.util.List;
  * license, visit http://creativecommons.org/licenses/by/4.0/.
  */
 public class ReinforcementDiameterPanel extends BaseJPanel {
-	private List<DataCheckBox> checkBoxList = new ArrayList<>();
+	private List<DataCheckBox<Double>> checkBoxList = new ArrayList<>();
 
 	public ReinforcementDiameterPanel(String title) {
 		this(title, true);
@@ -38,4 +39,11 @@ public class ReinforcementDiameterPanel extends BaseJPanel {
 				.map(DataCheckBox::getT)
 				.toArray(Double[]::new);
 	}
+
+	public void setDiameters(double[] diameters) {
+		for (DataCheckBox<Double> checkBox : checkBoxList) {
+			double value = checkBox.getT();
+			checkBox.setSelected(Arrays.stream(diameters).anyMatch(diameter -> Math.abs(diameter - value) < 1e-6));
+		}
+	}
 }
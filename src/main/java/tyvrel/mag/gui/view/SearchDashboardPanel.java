@@ -0,0 +1,79 @@
+package tyvrel.mag.gui.view;
+
+import tyvrel.mag.core.exception.RejectionType;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.monitor.SearchProgress;
+
+import javax.swing.*;
+import java.awt.*;
+
+import static java.lang.String.format;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ */
+public class SearchDashboardPanel extends BaseJPanel {
+	private static final int REFRESH_PERIOD = 250;
+
+	private final JLabel jlSpeed = new JLabel(" ");
+	private final JProgressBar jpbCoverage = new JProgressBar(0, 1000);
+	private final JLabel jlCurrent = new JLabel(" ");
+	private final JLabel jlAccepted = new JLabel(" ");
+	private final JLabel jlRejected = new JLabel(" ");
+	private final JLabel jlCheapest = new JLabel(" ");
+	private final Timer timer = new Timer(REFRESH_PERIOD, e -> refresh());
+
+	private SearchProgress searchProgress;
+
+	public SearchDashboardPanel() {
+		super("Postęp");
+		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+		jpbCoverage.setStringPainted(true);
+		jpbCoverage.setAlignmentX(Component.LEFT_ALIGNMENT);
+		jpbCoverage.setMaximumSize(new Dimension(10000, jpbCoverage.getPreferredSize().height));
+
+		add(jpbCoverage);
+		add(jlSpeed);
+		add(jlCurrent);
+		add(jlAccepted);
+		add(jlCheapest);
+		add(jlRejected);
+	}
+
+	public void start(SearchProgress searchProgress) {
+		this.searchProgress = searchProgress;
+		refresh();
+		timer.start();
+	}
+
+	public void stop() {
+		timer.stop();
+		refresh();
+	}
+
+	private void refresh() {
+		if (searchProgress == null) return;
+		double coverage = searchProgress.getCoverage();
+		jpbCoverage.setValue((int) (coverage * 1000));
+		jpbCoverage.setString(format("%.1f%%", coverage * 100));
+		jlSpeed.setText(format("Kandydaci/s: %.0f", searchProgress.getCandidatesPerSecond()));
+
+		ConcreteClassification concreteClass = searchProgress.getCurrentConcreteClass();
+		jlCurrent.setText(concreteClass == null ? "Przeszukiwane: -" : format("Przeszukiwane: %s, h = %.0f mm",
+				concreteClass.getSymbol(), searchProgress.getCurrentH() * 1000));
+		jlAccepted.setText(format("Przekroje: %d / %d", searchProgress.getAccepted(),
+				searchProgress.getEvaluated()));
+
+		double cheapestPrice = searchProgress.getCheapestPrice();
+		jlCheapest.setText(Double.isInfinite(cheapestPrice) ? "Najniższa cena: -" :
+				format("Najniższa cena: %.2f zł/m", cheapestPrice));
+
+		StringBuilder sb = new StringBuilder("<html>Odrzucone:");
+		for (int type = 0; type < RejectionType.COUNT; type++) {
+			long rejected = searchProgress.getRejected(type);
+			if (rejected > 0) sb.append("<br>").append(RejectionType.getName(type)).append(": ").append(rejected);
+		}
+		jlRejected.setText(sb.append("</html>").toString());
+	}
+}
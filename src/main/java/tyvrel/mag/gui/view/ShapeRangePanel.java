@@ -34,6 +34,10 @@ public class ShapeRangePanel extends BaseJPanel {
 		return rtfWidth.getRange();
 	}
 
+	public void setWidthRange(Range range) {
+		rtfWidth.setRange(range);
+	}
+
 	public double getCrossSectionHeight() throws ImproperDataException {
 		return rtfHeight.getRange().getFrom();
 	}
@@ -41,4 +45,8 @@ public class ShapeRangePanel extends BaseJPanel {
 	public Range getHeightRange() throws ImproperDataException {
 		return rtfHeight.getRange();
 	}
+
+	public void setHeightRange(Range range) {
+		rtfHeight.setRange(range);
+	}
 }
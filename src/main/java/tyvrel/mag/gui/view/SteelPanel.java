@@ -53,4 +53,8 @@ public class SteelPanel extends BaseJPanel {
 	public String getSteelType() {
 		return (String) jComboBox.getSelectedItem();
 	}
+
+	public void setSteelType(String steelType) {
+		jComboBox.setSelectedItem(steelType);
+	}
 }
@@ -0,0 +1,67 @@
+package tyvrel.mag.core.monitor;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import tyvrel.mag.core.factory.classification.ConcreteClassificationFactory;
+import tyvrel.mag.core.factory.classification.ExposureClassificationFactory;
+import tyvrel.mag.core.factory.classification.SteelFactory;
+import tyvrel.mag.core.factory.dimensioning.AllocationMeasuringCrossSectionsFactory;
+import tyvrel.mag.core.factory.dimensioning.CalculationStage;
+import tyvrel.mag.core.model.*;
+import tyvrel.mag.core.model.classification.ConcreteClassification;
+import tyvrel.mag.core.model.classification.ExposureClassification;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * This work is licensed under the Creative Commons Attribution 4.0 International License. To view a copy of this
+ * license, visit http://creativecommons.org/licenses/by/4.0/.
+ * <p>
+ * Enforces allocation budget of small sample search. Budgets are several times higher than measured allocations, so
+ * only regressions allocating much more per candidate fail.
+ */
+public class AllocationBudgetTest {
+	private static final long MAX_BYTES_PER_CANDIDATE = 512 * 1024;
+	private static final long MAX_BYTES_PER_STAGE_CALL = 256 * 1024;
+
+	private static AllocationReport allocationReport;
+	private static int crossSections;
+
+	@BeforeClass
+	public static void search() throws Exception {
+		assumeTrue(AllocationCounter.isSupported());
+		AllocationMeasuringCrossSectionsFactory factory = new AllocationMeasuringCrossSectionsFactory(
+				new AllocationMonitor(), new double[]{0.012, 0.016}, new double[]{0.016, 0.02}, new double[]{0.008},
+				new Range(0.25, 0.5, 0.05), new Range(0.3, 0.8, 0.05),
+				new ConcreteClassification[]{ConcreteClassificationFactory.C2530},
+				new ExposureClassification[]{ExposureClassificationFactory.XC1},
+				new Load[]{new Load(100000, 50000, 70000, 30000, 50000, 20000, 150000)}, SteelFactory.B500SP,
+				SteelFactory.B500SP, new Factors(1.15, 1.4), false, false, false, 0.032);
+		crossSections = factory.build().length;
+		allocationReport = factory.getAllocationReport();
+	}
+
+	@Test
+	public void candidatesAreWithinBudget() {
+		assertTrue(crossSections > 0);
+		AllocationBudget.assertBytesPerCandidate(allocationReport, MAX_BYTES_PER_CANDIDATE);
+	}
+
+	@Test
+	public void stagesAreWithinBudget() {
+		for (int stage = 0; stage < CalculationStage.COUNT; stage++) {
+			AllocationBudget.assertBytesPerStageCall(allocationReport, stage, MAX_BYTES_PER_STAGE_CALL);
+		}
+	}
+
+	@Test(expected = AssertionError.class)
+	public void exceededBudgetFails() {
+		AllocationBudget.assertBytesPerCandidate(allocationReport, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownStageIsRejected() {
+		allocationReport.getStageBytes(CalculationStage.COUNT);
+	}
+}